@@ -0,0 +1,114 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import org.yb.ColumnSchema.ColumnSchemaBuilder;
+import org.yb.Common;
+import org.yb.Common.PartitionSchemaPB.HashSchema;
+import org.yb.Schema;
+import org.yb.Type;
+import org.yb.client.PartitionSchema.HashBucketSchema;
+import org.yb.client.PartitionSchema.RangeSchema;
+import org.yb.master.Master;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tables and tablet locations shared by the benchmarks. The table has a hash key string column
+ * "h", a range key int64 column "r" and a string column "v", like a typical YCQL table.
+ */
+final class BenchmarkFixtures {
+
+  static final String TABLE_ID = "benchmark-table-id";
+
+  // Size of the 2-byte hash partition key space of the tablets.
+  private static final int NUM_HASH_KEYS = 0x10000;
+
+  private BenchmarkFixtures() {
+  }
+
+  static Schema buildSchema() {
+    Common.SchemaPB.Builder pb = Common.SchemaPB.newBuilder();
+    ColumnSchemaBuilder[] columns = {
+        new ColumnSchemaBuilder("h", Type.STRING).key(true).hashKey(true),
+        new ColumnSchemaBuilder("r", Type.INT64).key(true),
+        new ColumnSchemaBuilder("v", Type.STRING) };
+    for (int i = 0; i < columns.length; i++) {
+      pb.addColumns(ProtobufHelper.columnToPb(columns[i].build()).toBuilder().setId(i));
+    }
+    return ProtobufHelper.pbToSchema(pb.build());
+  }
+
+  static PartitionSchema buildPartitionSchema(Schema schema) {
+    return new PartitionSchema(new RangeSchema(ImmutableList.of(1)),
+                               ImmutableList.of(new HashBucketSchema(ImmutableList.of(0), 16, 0)),
+                               schema, HashSchema.MULTI_COLUMN_HASH_SCHEMA);
+  }
+
+  static PartialRow buildRow(Schema schema, Random random) {
+    PartialRow row = schema.newPartialRow();
+    row.addString("h", "user" + random.nextInt(1000000));
+    row.addLong("r", random.nextLong());
+    row.addString("v", "value" + random.nextInt());
+    return row;
+  }
+
+  /** Partition key of the hash key, 0 and NUM_HASH_KEYS being the empty keys of the ends. */
+  static byte[] hashPartitionKey(int hashKey) {
+    if (hashKey <= 0 || hashKey >= NUM_HASH_KEYS) {
+      return new byte[0];
+    }
+    return new byte[] { (byte) (hashKey >> 8), (byte) hashKey };
+  }
+
+  /** Locations of tablets splitting the hash partition key space evenly, without replicas. */
+  static Master.GetTableLocationsResponsePB buildTableLocations(int numTablets) {
+    Master.GetTableLocationsResponsePB.Builder response =
+        Master.GetTableLocationsResponsePB.newBuilder();
+    for (int i = 0; i < numTablets; i++) {
+      int start = (int) ((long) i * NUM_HASH_KEYS / numTablets);
+      int end = (int) ((long) (i + 1) * NUM_HASH_KEYS / numTablets);
+      response.addTabletLocations(Master.TabletLocationsPB.newBuilder()
+          .setTabletId(ByteString.copyFromUtf8(String.format("tablet-%08d", i)))
+          .setStale(false)
+          .setPartition(Common.PartitionPB.newBuilder()
+              .setPartitionKeyStart(ByteString.copyFrom(hashPartitionKey(start)))
+              .setPartitionKeyEnd(ByteString.copyFrom(hashPartitionKey(end)))));
+    }
+    return response.build();
+  }
+
+  static List<LocatedTablet> buildLocatedTablets(int numTablets) {
+    List<LocatedTablet> tablets = new ArrayList<>(numTablets);
+    for (Master.TabletLocationsPB tabletPb :
+         buildTableLocations(numTablets).getTabletLocationsList()) {
+      tablets.add(new LocatedTablet(tabletPb));
+    }
+    return tablets;
+  }
+
+  /** Random 2-byte partition keys, as looked up by the RPCs of a hash partitioned table. */
+  static byte[][] randomPartitionKeys(int numKeys, Random random) {
+    byte[][] keys = new byte[numKeys][];
+    for (int i = 0; i < numKeys; i++) {
+      int hashKey = random.nextInt(NUM_HASH_KEYS);
+      keys[i] = new byte[] { (byte) (hashKey >> 8), (byte) hashKey };
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,79 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparisons of partition keys, done by every lookup of the tablet location cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BytesBenchmark {
+
+  // The comparator of the tablet location cache.
+  private static final Comparator<byte[]> MEMCMP = Bytes.MEMCMP;
+
+  @Param({"2", "16", "128"})
+  int keyLength;
+
+  private byte[] key;
+  private byte[] equalKey;
+  private byte[] greaterKey;
+
+  @Setup
+  public void setUp() {
+    key = new byte[keyLength];
+    new Random(0).nextBytes(key);
+    // Only the last byte differs, so the whole key is compared. It is set first so that the
+    // increment does not wrap around to a smaller key.
+    key[keyLength - 1] = 0x10;
+    equalKey = key.clone();
+    greaterKey = key.clone();
+    greaterKey[keyLength - 1]++;
+  }
+
+  @Benchmark
+  public int memcmpEqual() {
+    return Bytes.memcmp(key, equalKey);
+  }
+
+  @Benchmark
+  public int memcmpLastByte() {
+    return Bytes.memcmp(key, greaterKey);
+  }
+
+  @Benchmark
+  public int memcmpComparator() {
+    return MEMCMP.compare(key, greaterKey);
+  }
+}
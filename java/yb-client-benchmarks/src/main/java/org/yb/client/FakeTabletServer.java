@@ -0,0 +1,162 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.handler.codec.frame.FrameDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yb.master.Master;
+import org.yb.rpc.RpcHeader;
+import org.yb.server.ServerBase;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process server speaking the RPC protocol of a tablet server on a local port, so that the
+ * client can be measured end to end without a cluster. It answers the Ping RPCs of the generic
+ * service right away, the GetTableLocations RPCs of the master service with the given locations
+ * if any, and any other RPC with a no such method error.
+ */
+final class FakeTabletServer implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FakeTabletServer.class);
+
+  private static final int RPC_HEADER_LENGTH = 3;
+
+  private static final ServerBase.PingResponsePB PING_RESPONSE =
+      ServerBase.PingResponsePB.getDefaultInstance();
+
+  // Response to GetTableLocations, or null if it is not supported.
+  private final Master.GetTableLocationsResponsePB tableLocations;
+  private final ExecutorService executor;
+  private final ServerBootstrap bootstrap;
+  private final Channel serverChannel;
+
+  FakeTabletServer() {
+    this(null);
+  }
+
+  FakeTabletServer(Master.GetTableLocationsResponsePB tableLocations) {
+    this.tableLocations = tableLocations;
+    executor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat("fake-tserver-%d").setDaemon(true).build());
+    bootstrap = new ServerBootstrap(new NioServerSocketChannelFactory(executor, executor));
+    bootstrap.setOption("child.tcpNoDelay", true);
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      @Override
+      public ChannelPipeline getPipeline() {
+        return Channels.pipeline(new RequestDecoder(), new RequestHandler(tableLocations));
+      }
+    });
+    serverChannel = bootstrap.bind(new InetSocketAddress("127.0.0.1", 0));
+  }
+
+  HostAndPort getHostAndPort() {
+    InetSocketAddress address = (InetSocketAddress) serverChannel.getLocalAddress();
+    return HostAndPort.fromParts(address.getHostString(), address.getPort());
+  }
+
+  @Override
+  public void close() {
+    serverChannel.close().awaitUninterruptibly();
+    bootstrap.releaseExternalResources();
+  }
+
+  /**
+   * Splits the stream of a connection into the requests, after the connection header. Each
+   * request is prefixed with its size on 4 bytes, like the responses read by
+   * {@link CallResponse}.
+   */
+  private static final class RequestDecoder extends FrameDecoder {
+    private boolean headerRead = false;
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, Channel channel, ChannelBuffer buf) {
+      if (!headerRead) {
+        if (buf.readableBytes() < RPC_HEADER_LENGTH) {
+          return null;
+        }
+        buf.skipBytes(RPC_HEADER_LENGTH);
+        headerRead = true;
+      }
+      if (buf.readableBytes() < 4) {
+        return null;
+      }
+      int size = buf.getInt(buf.readerIndex());
+      if (buf.readableBytes() < 4 + size) {
+        return null;
+      }
+      buf.skipBytes(4);
+      return buf.readBytes(size);
+    }
+  }
+
+  private static final class RequestHandler extends SimpleChannelUpstreamHandler {
+    private final Master.GetTableLocationsResponsePB tableLocations;
+
+    RequestHandler(Master.GetTableLocationsResponsePB tableLocations) {
+      this.tableLocations = tableLocations;
+    }
+
+    @Override
+    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+      ChannelBuffer request = (ChannelBuffer) e.getMessage();
+      byte[] headerBytes = new byte[Bytes.readVarInt32(request)];
+      request.readBytes(headerBytes);
+      RpcHeader.RequestHeader header = RpcHeader.RequestHeader.parseFrom(headerBytes);
+      RpcHeader.RemoteMethodPB method = header.getRemoteMethod();
+      RpcHeader.ResponseHeader.Builder responseHeader =
+          RpcHeader.ResponseHeader.newBuilder().setCallId(header.getCallId());
+      ChannelBuffer response;
+      if (method.getServiceName().equals(YRpc.GENERIC_SERVICE_NAME)
+          && method.getMethodName().equals("Ping")) {
+        response = YRpc.toChannelBuffer(responseHeader.build(), PING_RESPONSE);
+      } else if (tableLocations != null
+          && method.getServiceName().equals(YRpc.MASTER_SERVICE_NAME)
+          && method.getMethodName().equals("GetTableLocations")) {
+        response = YRpc.toChannelBuffer(responseHeader.build(), tableLocations);
+      } else {
+        response = YRpc.toChannelBuffer(
+            responseHeader.setIsError(true).build(),
+            RpcHeader.ErrorStatusPB.newBuilder()
+                .setCode(RpcHeader.ErrorStatusPB.RpcErrorCodePB.ERROR_NO_SUCH_METHOD)
+                .setMessage("Not supported by the fake tablet server: " + method)
+                .build());
+      }
+      e.getChannel().write(response);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) {
+      LOG.warn("Closing connection of the fake tablet server", e.getCause());
+      e.getChannel().close();
+    }
+  }
+}
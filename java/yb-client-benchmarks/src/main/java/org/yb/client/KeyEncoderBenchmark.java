@@ -0,0 +1,79 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yb.Schema;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the primary and partition keys of a row, done for every row written or read by
+ * key to route it to its tablet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KeyEncoderBenchmark {
+
+  private final KeyEncoder encoder = new KeyEncoder();
+  private PartitionSchema partitionSchema;
+  private PartialRow row;
+  private ByteBuffer dest;
+
+  @Setup
+  public void setUp() {
+    Schema schema = BenchmarkFixtures.buildSchema();
+    partitionSchema = BenchmarkFixtures.buildPartitionSchema(schema);
+    row = BenchmarkFixtures.buildRow(schema, new Random(0));
+    dest = ByteBuffer.allocate(1024);
+  }
+
+  @Benchmark
+  public byte[] encodePrimaryKey() {
+    return encoder.encodePrimaryKey(row);
+  }
+
+  @Benchmark
+  public byte[] encodePartitionKey() {
+    return encoder.encodePartitionKey(row, partitionSchema);
+  }
+
+  /** The allocation free variant, writing into a buffer of the caller. */
+  @Benchmark
+  public int encodePartitionKeyIntoBuffer() {
+    dest.clear();
+    return encoder.encodePartitionKey(row, partitionSchema, dest);
+  }
+
+  /** Through the partition schema, with the encoder of the calling thread. */
+  @Benchmark
+  public byte[] partitionSchemaEncodePartitionKey() {
+    return partitionSchema.encodePartitionKey(row);
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yb.Schema;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a row and encoding its key, as done by the callers for every row they send.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PartialRowBenchmark {
+
+  private Schema schema;
+  private long counter = 0;
+
+  @Setup
+  public void setUp() {
+    schema = BenchmarkFixtures.buildSchema();
+  }
+
+  private PartialRow newRow() {
+    PartialRow row = schema.newPartialRow();
+    row.addString("h", "user");
+    row.addLong("r", counter++);
+    row.addString("v", "value");
+    return row;
+  }
+
+  @Benchmark
+  public PartialRow buildRow() {
+    return newRow();
+  }
+
+  @Benchmark
+  public byte[] buildRowAndEncodePrimaryKey() {
+    return newRow().encodePrimaryKey();
+  }
+
+  @Benchmark
+  public String buildRowAndStringifyKey() {
+    return newRow().stringifyRowKey();
+  }
+}
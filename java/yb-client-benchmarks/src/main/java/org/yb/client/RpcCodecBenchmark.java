@@ -0,0 +1,113 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.stumbleupon.async.Deferred;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yb.master.Master;
+import org.yb.rpc.RpcHeader;
+import org.yb.util.Pair;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the RPC requests and parsing of the responses. A GetTableLocations RPC is sent
+ * through TabletClient.sendRpc() to an in-process {@link FakeTabletServer}, so that it goes
+ * through TabletClient.encode() and TabletClient.decode() like any RPC, and its response is also
+ * parsed on its own, without the network. The response holds the locations of numTablets
+ * tablets, the master returning up to 100 of them per GetTableLocations page by default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RpcCodecBenchmark {
+
+  private static final long TIMEOUT_MS = 10000;
+
+  @Param({"1", "100"})
+  int numTablets;
+
+  private FakeTabletServer server;
+  private AsyncYBClient client;
+  private TabletClient tabletClient;
+  private GetTableLocationsRequest request;
+  private ChannelBuffer response;
+
+  @Setup
+  public void setUp() throws Exception {
+    Master.GetTableLocationsResponsePB tableLocations =
+        BenchmarkFixtures.buildTableLocations(numTablets);
+    server = new FakeTabletServer(tableLocations);
+    client = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100").build();
+    tabletClient = client.newSimpleClient(server.getHostAndPort());
+    request = newRequest();
+    // Connects to the server before measuring.
+    sendRequest();
+    ChannelBuffer serialized = YRpc.toChannelBuffer(
+        RpcHeader.ResponseHeader.newBuilder().setCallId(1).build(), tableLocations);
+    // The decoder of the client reads from a buffer without a backing array, so the response is
+    // copied out of it like here.
+    response = ChannelBuffers.directBuffer(serialized.readableBytes());
+    response.writeBytes(serialized);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  private static GetTableLocationsRequest newRequest() {
+    GetTableLocationsRequest rpc = new GetTableLocationsRequest(null, new byte[] { 0x10, 0x00 },
+        new byte[] { 0x20, 0x00 }, BenchmarkFixtures.TABLE_ID);
+    rpc.setTimeoutMillis(TIMEOUT_MS);
+    return rpc;
+  }
+
+  /**
+   * Sends the request and waits for its response, which TabletClient.encode() serializes and
+   * TabletClient.decode() parses on the way.
+   */
+  @Benchmark
+  public Master.GetTableLocationsResponsePB sendRequest() throws Exception {
+    GetTableLocationsRequest rpc = newRequest();
+    Deferred<Master.GetTableLocationsResponsePB> d = rpc.getDeferred();
+    rpc.attempt++;
+    tabletClient.sendRpc(rpc);
+    return d.join(TIMEOUT_MS);
+  }
+
+  /** Frames the response, parses its header and deserializes its body. */
+  @Benchmark
+  public Pair<Master.GetTableLocationsResponsePB, Object> decodeResponse() throws Exception {
+    CallResponse callResponse = new CallResponse(response.duplicate());
+    return request.deserialize(callResponse, null);
+  }
+}
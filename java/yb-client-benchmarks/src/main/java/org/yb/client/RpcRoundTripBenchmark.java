@@ -0,0 +1,72 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.google.common.net.HostAndPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of a Ping RPC to an in-process {@link FakeTabletServer} over a local connection,
+ * covering the RPC path of the client: the connection lookup, TabletClient.encode(), the Netty
+ * pipeline, TabletClient.decode() and the callbacks of the Deferred. The number of concurrent
+ * callers is set with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class RpcRoundTripBenchmark {
+
+  private static final long TIMEOUT_MS = 10000;
+
+  private FakeTabletServer server;
+  private AsyncYBClient client;
+  private HostAndPort serverHostAndPort;
+
+  @Setup
+  public void setUp() throws Exception {
+    server = new FakeTabletServer();
+    serverHostAndPort = server.getHostAndPort();
+    client = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100").build();
+    // Connects to the server before measuring.
+    client.ping(serverHostAndPort).join(TIMEOUT_MS);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  @Benchmark
+  public PingResponse ping() throws Exception {
+    return client.ping(serverHostAndPort).join(TIMEOUT_MS);
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yb.util.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tablet ids are slices, used as the keys of the tablet to client map of the client, and
+ * compared and printed while handling the responses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SliceBenchmark {
+
+  private static final int NUM_TABLETS = 1000;
+
+  private final ConcurrentHashMap<Slice, Integer> tablets = new ConcurrentHashMap<>();
+  private byte[][] tabletIds;
+  private Slice first;
+  private Slice second;
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    tabletIds = new byte[NUM_TABLETS][];
+    for (int i = 0; i < NUM_TABLETS; i++) {
+      tabletIds[i] = String.format("%032x", i * 7919L).getBytes(StandardCharsets.UTF_8);
+      tablets.put(new Slice(tabletIds[i]), i);
+    }
+    first = new Slice(tabletIds[1].clone());
+    second = new Slice(tabletIds[2].clone());
+  }
+
+  /** Wraps a tablet id read from a response and looks it up, as done for each tablet. */
+  @Benchmark
+  public Integer lookupTabletId() {
+    next = (next + 1) % NUM_TABLETS;
+    return tablets.get(new Slice(tabletIds[next]));
+  }
+
+  @Benchmark
+  public int compareTo() {
+    return first.compareTo(second);
+  }
+
+  @Benchmark
+  public String toStringUtf8() {
+    return first.toString(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Slice copySlice() {
+    return first.copySlice();
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of the tablet of a partition key in the tablet location cache of the client, done
+ * before sending every RPC to a tablet, and in the tablet router built from the same locations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TabletCacheBenchmark {
+
+  private static final int NUM_KEYS = 4096;
+
+  @Param({"16", "1024", "10000"})
+  int numTablets;
+
+  private AsyncYBClient client;
+  private TabletRouter router;
+  private byte[][] partitionKeys;
+
+  /** Position in the partition keys, per thread. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next = 0;
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    // The masters are never contacted, as the tablets are put in the cache directly.
+    client = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100").build();
+    YBTable table = new YBTable(client, "benchmark", BenchmarkFixtures.TABLE_ID,
+        BenchmarkFixtures.buildSchema(), null);
+    client.discoverTablets(table, BenchmarkFixtures.buildTableLocations(numTablets));
+    router = new TabletRouter(
+        BenchmarkFixtures.buildPartitionSchema(table.getSchema()),
+        BenchmarkFixtures.buildLocatedTablets(numTablets));
+    partitionKeys = BenchmarkFixtures.randomPartitionKeys(NUM_KEYS, new Random(0));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    client.close();
+  }
+
+  private byte[] nextKey(Cursor cursor) {
+    cursor.next = (cursor.next + 1) & (NUM_KEYS - 1);
+    return partitionKeys[cursor.next];
+  }
+
+  @Benchmark
+  public AsyncYBClient.RemoteTablet cacheLookup(Cursor cursor) {
+    return client.getTablet(BenchmarkFixtures.TABLE_ID, nextKey(cursor));
+  }
+
+  @Benchmark
+  public LocatedTablet routerLookup(Cursor cursor) {
+    return router.route(nextKey(cursor));
+  }
+}
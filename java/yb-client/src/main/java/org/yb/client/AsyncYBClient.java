@@ -72,7 +72,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -80,6 +79,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
@@ -253,7 +253,11 @@ public class AsyncYBClient implements AutoCloseable {
    */
   private final Semaphore masterLookups = new Semaphore(50);
 
-  private final Random sleepRandomizer = new Random();
+  private final RpcRetryPolicy retryPolicy;
+
+  private final MasterReadCache masterReadCache;
+
+  private final TableCache tableCache = new TableCache();
 
   private final long defaultOperationTimeoutMs;
 
@@ -269,6 +273,12 @@ public class AsyncYBClient implements AutoCloseable {
   private final String clientHost;
   private final int clientPort;
 
+  private final RpcMetricsListener rpcMetricsListener;
+
+  private final int maxPendingRpcsPerServer;
+
+  private final int pendingRpcsDrainPerSec;
+
   private volatile boolean closed;
 
   private AsyncYBClient(AsyncYBClientBuilder b) {
@@ -284,6 +294,12 @@ public class AsyncYBClient implements AutoCloseable {
     this.clientHost = b.clientHost;
     this.clientPort = b.clientPort;
     this.defaultSocketReadTimeoutMs = b.defaultSocketReadTimeoutMs;
+    this.rpcMetricsListener = b.rpcMetricsListener;
+    this.maxPendingRpcsPerServer = b.maxPendingRpcsPerServer;
+    this.pendingRpcsDrainPerSec = b.pendingRpcsDrainPerSec;
+    this.retryPolicy = new RpcRetryPolicy(b.retryBaseSleepMs, b.retryMaxSleepMs,
+        b.retryBudgetTokens, b.retryBudgetTokensPerSec);
+    this.masterReadCache = new MasterReadCache(b.masterReadCacheTtlMs);
   }
 
   /**
@@ -457,7 +473,7 @@ public class AsyncYBClient implements AutoCloseable {
     CreateTableRequest create = new CreateTableRequest(this.masterTable, name, schema,
         builder, keyspace);
     create.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(create).addCallbackDeferring(
+    return sendDdlToMaster(create).addCallbackDeferring(
         new Callback<Deferred<YBTable>, CreateTableResponse>() {
       @Override
       public Deferred<YBTable> call(CreateTableResponse createTableResponse) throws Exception {
@@ -475,7 +491,7 @@ public class AsyncYBClient implements AutoCloseable {
     checkIsClosed();
     CreateKeyspaceRequest request = new CreateKeyspaceRequest(this.masterTable, keyspace);
     request.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(request);
+    return sendDdlToMaster(request);
   }
 
   /*
@@ -489,7 +505,7 @@ public class AsyncYBClient implements AutoCloseable {
                                                               keyspace,
                                                               databaseType);
     request.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(request);
+    return sendDdlToMaster(request);
   }
 
   /**
@@ -502,7 +518,7 @@ public class AsyncYBClient implements AutoCloseable {
     checkIsClosed();
     DeleteTableRequest delete = new DeleteTableRequest(this.masterTable, name, keyspace);
     delete.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(delete);
+    return invalidateTableHandle(keyspace, name, sendDdlToMaster(delete));
   }
 
   /**
@@ -520,7 +536,7 @@ public class AsyncYBClient implements AutoCloseable {
     checkIsClosed();
     AlterTableRequest alter = new AlterTableRequest(this.masterTable, name, ato, keyspace);
     alter.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(alter);
+    return invalidateTableHandle(keyspace, name, sendDdlToMaster(alter));
   }
 
   /**
@@ -546,7 +562,8 @@ public class AsyncYBClient implements AutoCloseable {
     checkIsClosed();
     ListTabletServersRequest rpc = new ListTabletServersRequest(this.masterTable);
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return masterReadCache.get(MasterReadCache.LIST_TABLET_SERVERS, "",
+        () -> sendRpcToTablet(rpc));
   }
 
   /**
@@ -568,7 +585,8 @@ public class AsyncYBClient implements AutoCloseable {
     checkIsClosed();
     GetMasterClusterConfigRequest rpc = new GetMasterClusterConfigRequest(this.masterTable);
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return masterReadCache.get(MasterReadCache.MASTER_CLUSTER_CONFIG, "",
+        () -> sendRpcToTablet(rpc));
   }
 
   /**
@@ -581,7 +599,7 @@ public class AsyncYBClient implements AutoCloseable {
     ChangeMasterClusterConfigRequest rpc = new ChangeMasterClusterConfigRequest(
         this.masterTable, config);
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return sendDdlToMaster(rpc);
   }
 
   /**
@@ -811,9 +829,11 @@ public class AsyncYBClient implements AutoCloseable {
    * @return a deferred object that yields the schema of the specified table
    */
   Deferred<GetTableSchemaResponse> getTableSchema(String keyspace, String name) {
-    GetTableSchemaRequest rpc = new GetTableSchemaRequest(this.masterTable, name, null, keyspace);
+    GetTableSchemaRequest rpc = new GetTableSchemaRequest(this.masterTable, name, null, keyspace,
+        tableCache.getByName(keyspace, name));
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return masterReadCache.get(MasterReadCache.TABLE_SCHEMA, keyspace + "." + name,
+        () -> sendRpcToTablet(rpc));
   }
 
   /**
@@ -822,9 +842,11 @@ public class AsyncYBClient implements AutoCloseable {
    * @return a deferred object that yields the schema of the specified table
    */
   Deferred<GetTableSchemaResponse> getTableSchemaByUUID(final String tableUUID) {
-    GetTableSchemaRequest rpc = new GetTableSchemaRequest(this.masterTable, null, tableUUID);
+    GetTableSchemaRequest rpc = new GetTableSchemaRequest(this.masterTable, null, tableUUID, null,
+        tableCache.getById(tableUUID));
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return masterReadCache.get(MasterReadCache.TABLE_SCHEMA, tableUUID,
+        () -> sendRpcToTablet(rpc));
   }
 
   /**
@@ -858,7 +880,8 @@ public class AsyncYBClient implements AutoCloseable {
     ListTablesRequest rpc = new ListTablesRequest(
       this.masterTable, nameFilter, excludeSystemTables, namespace);
     rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
-    return sendRpcToTablet(rpc);
+    return masterReadCache.get(MasterReadCache.LIST_TABLES,
+        nameFilter + ":" + excludeSystemTables + ":" + namespace, () -> sendRpcToTablet(rpc));
   }
 
   /**
@@ -901,6 +924,7 @@ public class AsyncYBClient implements AutoCloseable {
   /**
    * Open the table with the given name. If the table was just created, the Deferred will only get
    * called back when all the tablets have been successfully created.
+   * A table opened before is returned as the same YBTable if its schema did not change.
    * @param keyspace the keyspace name to which this table belongs.
    * @param name table to open
    * @return a YBTable if the table exists, else a MasterErrorException
@@ -914,13 +938,15 @@ public class AsyncYBClient implements AutoCloseable {
         GetTableSchemaResponse>() {
       @Override
       public Deferred<YBTable> call(GetTableSchemaResponse response) throws Exception {
-        YBTable table = new YBTable(AsyncYBClient.this,
+        YBTable table = tableCache.update(response, keyspace, name, () -> new YBTable(
+            AsyncYBClient.this,
             name,
             response.getTableId(),
             response.getSchema(),
             response.getPartitionSchema(),
             response.getTableType(),
-            response.getNamespace());
+            response.getNamespace(),
+            response.getVersion()));
         return helper.attemptOpen(response.isCreateTableDone(), table, name);
       }
     });
@@ -929,6 +955,7 @@ public class AsyncYBClient implements AutoCloseable {
   /**
    * Open the table with the given UUID. If the table was just created, the Deferred will only get
    * called back when all the tablets have been successfully created.
+   * A table opened before is returned as the same YBTable if its schema did not change.
    * @param tableUUID uuid of table to open
    * @return a YBTable if the table exists, else a MasterErrorException
    */
@@ -941,13 +968,15 @@ public class AsyncYBClient implements AutoCloseable {
         .addCallbackDeferring(new Callback<Deferred<YBTable>, GetTableSchemaResponse>() {
       @Override
       public Deferred<YBTable> call(GetTableSchemaResponse response) throws Exception {
-        YBTable table = new YBTable(AsyncYBClient.this,
+        YBTable table = tableCache.update(response, null, null, () -> new YBTable(
+            AsyncYBClient.this,
             response.getTableName(),
             tableUUID,
             response.getSchema(),
             response.getPartitionSchema(),
             response.getTableType(),
-            response.getNamespace());
+            response.getNamespace(),
+            response.getVersion()));
         return helper.attemptOpen(response.isCreateTableDone(), table, tableUUID);
       }
     });
@@ -1077,6 +1106,101 @@ public class AsyncYBClient implements AutoCloseable {
     return defaultSocketReadTimeoutMs;
   }
 
+  /**
+   * Get the maximum number of RPCs queued on a connection which is not established yet.
+   * @return a number of RPCs, 0 if the queue is not bounded
+   */
+  int getMaxPendingRpcsPerServer() {
+    return maxPendingRpcsPerServer;
+  }
+
+  /**
+   * Get the rate at which the RPCs queued on a connection are sent once it is established.
+   * @return a number of RPCs per second, 0 if they are all sent at once
+   */
+  int getPendingRpcsDrainPerSec() {
+    return pendingRpcsDrainPerSec;
+  }
+
+  RpcMetricsListener getRpcMetricsListener() {
+    return rpcMetricsListener;
+  }
+
+  /**
+   * Get the number of RPC retries which can currently be made before the retry budget of the
+   * client is exhausted.
+   * @return the number of retries left, -1 if the retries are not limited
+   */
+  public double getAvailableRetryTokens() {
+    return retryPolicy.getAvailableTokens();
+  }
+
+  /**
+   * Drop the responses of read-only master RPCs cached by the client, e.g. after a DDL made
+   * through another client. Does nothing if the cache is not enabled.
+   * @see AsyncYBClientBuilder#masterReadCacheTtlMs
+   */
+  public void invalidateMasterReadCache() {
+    masterReadCache.invalidateAll();
+  }
+
+  /**
+   * Sends an RPC changing the catalog or configuration of the cluster to the master leader, and
+   * drops the cached master responses it may make stale, before and once it completes.
+   */
+  private <R> Deferred<R> sendDdlToMaster(YRpc<R> rpc) {
+    if (!masterReadCache.isEnabled()) {
+      return sendRpcToTablet(rpc);
+    }
+    masterReadCache.invalidateAll();
+    return sendRpcToTablet(rpc).addBoth(masterReadCache.<R>invalidateAllCallback());
+  }
+
+  /**
+   * Drops the cached handle of a table changed by a DDL, before and once the DDL completes, so
+   * that a handle opened while it was in progress is not served.
+   */
+  private <R> Deferred<R> invalidateTableHandle(final String keyspace, final String name,
+                                                Deferred<R> ddl) {
+    tableCache.invalidateTable(keyspace, name);
+    return ddl.addBoth(new Callback<R, R>() {
+      @Override
+      public R call(R arg) {
+        tableCache.invalidateTable(keyspace, name);
+        return arg;
+      }
+    });
+  }
+
+  /**
+   * Get the number of RPCs awaiting a response on each open connection.
+   * @return a map from "host:port" of the server to its number of RPCs in flight
+   */
+  public Map<String, Integer> getInflightRpcsPerServer() {
+    Map<String, Integer> inflightRpcs = new HashMap<>();
+    synchronized (ip2client) {
+      for (Map.Entry<String, TabletClient> client : ip2client.entrySet()) {
+        inflightRpcs.put(client.getKey(), client.getValue().getNumInflightRpcs());
+      }
+    }
+    return inflightRpcs;
+  }
+
+  /**
+   * Get the number of RPCs queued on each connection, waiting for it to be established or for
+   * their turn to be sent once it is.
+   * @return a map from "host:port" of the server to its number of queued RPCs
+   */
+  public Map<String, Integer> getPendingRpcsPerServer() {
+    Map<String, Integer> pendingRpcs = new HashMap<>();
+    synchronized (ip2client) {
+      for (Map.Entry<String, TabletClient> client : ip2client.entrySet()) {
+        pendingRpcs.put(client.getKey(), client.getValue().getNumPendingRpcs());
+      }
+    }
+    return pendingRpcs;
+  }
+
   <R> Deferred<R> sendRpcToTablet(final YRpc<R> request) {
     if (cannotRetryRequest(request)) {
       return tooManyAttemptsOrTimeout(request, null);
@@ -1253,6 +1377,11 @@ public class AsyncYBClient implements AutoCloseable {
       return tooManyAttemptsOrTimeout(rpc, null);
     }
 
+    if (!retryPolicy.tryAcquireRetry()) {
+      return retryBudgetExhausted(rpc, null);
+    }
+
+    rpcMetricsListener.rpcRetried(rpc.serviceName(), rpc.method(), "TableNotServed");
     newTimeout(new RetryTimer(), sleepTime);
     return rpc.getDeferred();
   }
@@ -1294,15 +1423,13 @@ public class AsyncYBClient implements AutoCloseable {
 
 
   long getSleepTimeForRpc(YRpc<?> rpc) {
-    byte attemptCount = rpc.attempt;
-    assert (attemptCount > 0);
-    if (attemptCount == 0) {
+    assert (rpc.attempt > 0);
+    if (rpc.attempt == 0) {
       LOG.warn("Possible bug: attempting to retry an RPC with no attempts. RPC: " + rpc,
           new Exception("Exception created to collect stack trace"));
-      attemptCount = 1;
     }
-    // TODO backoffs? Sleep in increments of 500 ms, plus some random time up to 50
-    long sleepTime = (attemptCount * SLEEP_TIME) + sleepRandomizer.nextInt(50);
+    long sleepTime = retryPolicy.getSleepTimeMs(rpc.lastRetrySleepMs);
+    rpc.lastRetrySleepMs = sleepTime;
     if (LOG.isDebugEnabled()) {
       LOG.debug("Going to sleep for " + sleepTime + " at retry " + rpc.attempt);
     }
@@ -1393,6 +1520,19 @@ public class AsyncYBClient implements AutoCloseable {
     return Deferred.fromError(e);
   }
 
+  /**
+   * Returns a {@link Deferred} containing an exception when an RPC could have been retried, but
+   * the retry budget of the client is exhausted.
+   * @param request The RPC that was not retried.
+   * @param cause What was cause of the last failed attempt, if known.
+   */
+  <R> Deferred<R> retryBudgetExhausted(final YRpc<R> request, final YBException cause) {
+    rpcMetricsListener.rpcRetryRejected(request.serviceName(), request.method());
+    final Exception e = new NonRecoverableException("Retry budget exhausted: " + request, cause);
+    request.errback(e);
+    return Deferred.fromError(e);
+  }
+
   /**
    * Sends a getTableLocations RPC to the master to find the table's tablets.
    * @param table table to lookup
@@ -1482,6 +1622,20 @@ public class AsyncYBClient implements AutoCloseable {
   private Deferred<List<LocatedTablet>> loopLocateTable(final String tableId,
       final byte[] startPartitionKey, final byte[] endPartitionKey, final List<LocatedTablet> ret,
       final DeadlineTracker deadlineTracker) {
+    return loopLocateTable(tableId, null, startPartitionKey, endPartitionKey, ret, null,
+        deadlineTracker);
+  }
+
+  /**
+   * Walks the tablets between two partition keys, one GetTableLocations page at a time.
+   * @param table if not null, the table the tablets of which are added to the tablet cache
+   * @param ret if not null, the list to add the tablets to
+   * @param onPage if not null, called with each page of tablets as it arrives
+   */
+  private Deferred<List<LocatedTablet>> loopLocateTable(final String tableId,
+      final YBTable table, final byte[] startPartitionKey, final byte[] endPartitionKey,
+      final List<LocatedTablet> ret, final Consumer<List<LocatedTablet>> onPage,
+      final DeadlineTracker deadlineTracker) {
     if (deadlineTracker.timedOut()) {
       return Deferred.fromError(new NonRecoverableException(
           "Took too long getting the list of tablets, " + deadlineTracker));
@@ -1493,15 +1647,20 @@ public class AsyncYBClient implements AutoCloseable {
     return d.addCallbackDeferring(
         new Callback<Deferred<List<LocatedTablet>>, Master.GetTableLocationsResponsePB>() {
           @Override
-          public Deferred<List<LocatedTablet>> call(GetTableLocationsResponsePB response) {
+          public Deferred<List<LocatedTablet>> call(GetTableLocationsResponsePB response)
+              throws Exception {
             // Table doesn't exist or is being created.
             if (response.getTabletLocationsCount() == 0) {
-              Deferred.fromResult(ret);
+              return Deferred.fromResult(ret);
             }
+            if (table != null) {
+              discoverTablets(table, response);
+            }
+            List<LocatedTablet> page = new ArrayList<>(response.getTabletLocationsCount());
             byte[] lastEndPartition = startPartitionKey;
             for (Master.TabletLocationsPB tabletPb : response.getTabletLocationsList()) {
               LocatedTablet locs = new LocatedTablet(tabletPb);
-              ret.add(locs);
+              page.add(locs);
               Partition partition = locs.getPartition();
               if (lastEndPartition != null && !partition.isEndPartition()
                   && Bytes.memcmp(partition.getPartitionKeyEnd(), lastEndPartition) < 0) {
@@ -1512,13 +1671,19 @@ public class AsyncYBClient implements AutoCloseable {
               }
               lastEndPartition = partition.getPartitionKeyEnd();
             }
+            if (ret != null) {
+              ret.addAll(page);
+            }
+            if (onPage != null) {
+              onPage.accept(page);
+            }
             // If true, we're done, else we have to go back to the master with the last end key
             if (lastEndPartition.length == 0
                 || (endPartitionKey != null && Bytes.memcmp(lastEndPartition, endPartitionKey) > 0)) {
               return Deferred.fromResult(ret);
             } else {
-              return loopLocateTable(tableId, lastEndPartition, endPartitionKey, ret,
-                  deadlineTracker);
+              return loopLocateTable(tableId, table, lastEndPartition, endPartitionKey, ret,
+                  onPage, deadlineTracker);
             }
           }
         });
@@ -1545,12 +1710,37 @@ public class AsyncYBClient implements AutoCloseable {
     return loopLocateTable(tableId, startPartitionKey, endPartitionKey, ret, deadlineTracker);
   }
 
+  /**
+   * Walks the tablets of a table between two partition keys, adding them to the tablet cache of
+   * the client and passing each page of tablets to the consumer as it arrives.
+   * @param table the table to locate tablets from
+   * @param startPartitionKey where to start in the table, pass null to start at the beginning
+   * @param endPartitionKey where to stop in the table, pass null to get all the tablets until the
+   *                        end of the table
+   * @param onPage called with each page of tablets, in partition key order
+   * @param deadline max time spent in milliseconds for the deferred result of this method to
+   *         get called back, if deadline is reached, the deferred result will get erred back
+   * @return a deferred object called back once all the pages were passed to the consumer
+   */
+  Deferred<List<LocatedTablet>> locateTableRange(final YBTable table,
+      final byte[] startPartitionKey, final byte[] endPartitionKey,
+      final Consumer<List<LocatedTablet>> onPage, long deadline) {
+    final DeadlineTracker deadlineTracker = new DeadlineTracker();
+    deadlineTracker.setDeadline(deadline);
+    return loopLocateTable(table.getTableId(), table, startPartitionKey, endPartitionKey, null,
+        onPage, deadlineTracker);
+  }
+
   /**
    * We're handling a tablet server that's telling us it doesn't have the tablet we're asking for.
    * We're in the context of decode() meaning we need to either callback or retry later.
    */
   <R> void handleTabletNotFound(final YRpc<R> rpc, YBException ex, TabletClient server) {
     invalidateTabletCache(rpc.getTablet(), server);
+    if (rpc.getTable() != null && rpc.getTable().getTableId() != null) {
+      masterReadCache.invalidateTable(rpc.getTable().getTableId());
+      tableCache.invalidateTable(rpc.getTable().getTableId());
+    }
     handleRetryableError(rpc, ex, server);
   }
 
@@ -1589,6 +1779,12 @@ public class AsyncYBClient implements AutoCloseable {
       // Don't let it retry.
       return;
     }
+    if (!retryPolicy.tryAcquireRetry()) {
+      retryBudgetExhausted(rpc, ex);
+      return;
+    }
+    rpcMetricsListener.rpcRetried(rpc.serviceName(), rpc.method(),
+        ex == null ? "Unknown" : ex.getClass().getSimpleName());
     newTimeout(new RetryTimer(), sleepTime);
   }
 
@@ -1624,14 +1820,17 @@ public class AsyncYBClient implements AutoCloseable {
   };
 
   boolean acquireMasterLookupPermit() {
+    final long start = System.nanoTime();
+    boolean acquired = false;
     try {
       // With such a low timeout, the JVM may chose to spin-wait instead of
       // de-scheduling the thread (and causing context switches and whatnot).
-      return masterLookups.tryAcquire(5, MILLISECONDS);
+      acquired = masterLookups.tryAcquire(5, MILLISECONDS);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();  // Make this someone else's problem.
-      return false;
     }
+    rpcMetricsListener.masterLookupPermitWaited(System.nanoTime() - start, acquired);
+    return acquired;
   }
 
   /**
@@ -1709,6 +1908,12 @@ public class AsyncYBClient implements AutoCloseable {
    * @return a tablet ID as a slice or null if not found
    */
   RemoteTablet getTablet(String tableId, byte[] partitionKey) {
+    RemoteTablet tablet = findTablet(tableId, partitionKey);
+    rpcMetricsListener.tabletCacheLookup(tablet != null);
+    return tablet;
+  }
+
+  private RemoteTablet findTablet(String tableId, byte[] partitionKey) {
     ConcurrentSkipListMap<byte[], RemoteTablet> tablets = tabletsCache.get(tableId);
 
     if (tablets == null) {
@@ -2559,6 +2764,18 @@ public class AsyncYBClient implements AutoCloseable {
     private int bossCount = DEFAULT_BOSS_COUNT;
     private int workerCount = DEFAULT_WORKER_COUNT;
 
+    private RpcMetricsListener rpcMetricsListener = RpcMetricsListener.NOOP;
+
+    private long retryBaseSleepMs = RpcRetryPolicy.DEFAULT_BASE_SLEEP_MS;
+    private long retryMaxSleepMs = RpcRetryPolicy.DEFAULT_MAX_SLEEP_MS;
+    private int retryBudgetTokens = RpcRetryPolicy.DEFAULT_RETRY_BUDGET_TOKENS;
+    private double retryBudgetTokensPerSec = RpcRetryPolicy.DEFAULT_RETRY_BUDGET_TOKENS_PER_SEC;
+
+    private long masterReadCacheTtlMs = 0;
+
+    private int maxPendingRpcsPerServer = TabletClient.DEFAULT_MAX_PENDING_RPCS;
+    private int pendingRpcsDrainPerSec = TabletClient.DEFAULT_PENDING_RPCS_DRAIN_PER_SEC;
+
     /**
      * Creates a new builder for a client that will connect to the specified masters.
      * @param masterAddresses comma-separated list of "host:port" pairs of the masters
@@ -2712,6 +2929,80 @@ public class AsyncYBClient implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Sets the listener receiving the RPC latencies, retries and cache lookups of the client,
+     * e.g. an {@link RpcMetrics}.
+     * Optional.
+     * If not provided, the events are not recorded.
+     */
+    public AsyncYBClientBuilder rpcMetricsListener(RpcMetricsListener listener) {
+      Preconditions.checkNotNull(listener, "listener should not be null");
+      this.rpcMetricsListener = listener;
+      return this;
+    }
+
+    /**
+     * Sets the backoff between the retries of an RPC. Each wait is drawn at random between the
+     * base wait and three times the previous wait of the RPC, up to the maximum wait.
+     * Optional.
+     * If not provided, defaults to a base of 100ms and a maximum of 5s.
+     */
+    public AsyncYBClientBuilder retryBackoff(long baseSleepMs, long maxSleepMs) {
+      Preconditions.checkArgument(baseSleepMs > 0, "baseSleepMs should be greater than 0");
+      Preconditions.checkArgument(maxSleepMs >= baseSleepMs,
+          "maxSleepMs should not be less than baseSleepMs");
+      this.retryBaseSleepMs = baseSleepMs;
+      this.retryMaxSleepMs = maxSleepMs;
+      return this;
+    }
+
+    /**
+     * Sets the retry budget shared by all the RPCs of the client: up to maxTokens retries can be
+     * made in a burst, and then tokensPerSec retries per second. RPCs failing once the budget is
+     * exhausted are not retried. A maxTokens of 0 does not limit the retries.
+     * Optional.
+     * If not provided, the retries are not limited.
+     */
+    public AsyncYBClientBuilder retryBudget(int maxTokens, double tokensPerSec) {
+      Preconditions.checkArgument(maxTokens >= 0, "maxTokens should not be negative");
+      Preconditions.checkArgument(tokensPerSec >= 0, "tokensPerSec should not be negative");
+      this.retryBudgetTokens = maxTokens;
+      this.retryBudgetTokensPerSec = tokensPerSec;
+      return this;
+    }
+
+    /**
+     * Enables the client-side cache of the responses to read-only master RPCs: the table lists,
+     * the table schemas (also used to open tables), the tablet server list and the cluster
+     * config. A response is served for up to ttlMs after it was received, and concurrent
+     * identical calls share one RPC, which takes load off the master leader at the cost of that
+     * much staleness. The cache is dropped on DDL made through this client.
+     * Optional.
+     * If not provided, every call is sent to the master leader.
+     */
+    public AsyncYBClientBuilder masterReadCacheTtlMs(long ttlMs) {
+      Preconditions.checkArgument(ttlMs >= 0, "ttlMs should not be negative");
+      this.masterReadCacheTtlMs = ttlMs;
+      return this;
+    }
+
+    /**
+     * Sets the queue of the RPCs sent to a server while the connection to it is being
+     * established: up to maxRpcs RPCs are queued per server, after dropping the queued RPCs past
+     * their deadline, and RPCs beyond that fail right away. Once connected, the queued RPCs are
+     * sent at drainRpcsPerSec rather than all at once, so a flapping server is not hit by the
+     * whole backlog. A value of 0 disables either limit.
+     * Optional.
+     * If not provided, defaults to 10000 RPCs per server, sent at 5000 RPCs per second.
+     */
+    public AsyncYBClientBuilder pendingRpcQueue(int maxRpcs, int drainRpcsPerSec) {
+      Preconditions.checkArgument(maxRpcs >= 0, "maxRpcs should not be negative");
+      Preconditions.checkArgument(drainRpcsPerSec >= 0, "drainRpcsPerSec should not be negative");
+      this.maxPendingRpcsPerServer = maxRpcs;
+      this.pendingRpcsDrainPerSec = drainRpcsPerSec;
+      return this;
+    }
+
     /**
      * Creates the channel factory for Netty. The user can specify the executors, but
      * if they don't, we'll use a simple thread pool.
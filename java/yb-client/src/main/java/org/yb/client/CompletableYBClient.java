@@ -0,0 +1,419 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.google.common.net.HostAndPort;
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+import org.yb.Schema;
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+import org.yb.master.Master;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A facade over {@link AsyncYBClient} returning {@link CompletableFuture}s instead of
+ * {@link Deferred}s, so that many calls can be composed and waited on together without blocking
+ * a thread per call, see {@link #allOf}.
+ *
+ * <p>The futures are completed on the I/O threads of the client. Dependent stages doing blocking
+ * or long work should use the async variants of {@link CompletionStage} with their own executor.
+ *
+ * <p>The facade does not own the client, which must still be closed by the caller.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class CompletableYBClient {
+
+  private final AsyncYBClient client;
+
+  public CompletableYBClient(AsyncYBClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Returns the wrapped client.
+   */
+  public AsyncYBClient getAsyncClient() {
+    return client;
+  }
+
+  /**
+   * Returns a future completed with the result of the deferred, or exceptionally with its error.
+   */
+  public static <T> CompletableFuture<T> toCompletableFuture(Deferred<T> deferred) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    deferred.addCallbacks(new Callback<Object, T>() {
+      @Override
+      public Object call(T result) {
+        future.complete(result);
+        return null;
+      }
+    }, new Callback<Object, Exception>() {
+      @Override
+      public Object call(Exception e) {
+        future.completeExceptionally(e);
+        return null;
+      }
+    });
+    return future;
+  }
+
+  /**
+   * A call of the client, which may fail before returning its deferred.
+   */
+  private interface DeferredCall<T> {
+    Deferred<T> call() throws Exception;
+  }
+
+  private static <T> CompletableFuture<T> call(DeferredCall<T> call) {
+    try {
+      return toCompletableFuture(call.call());
+    } catch (Exception e) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  /**
+   * Results of a call made for each of a set of items, see {@link #allOf}.
+   */
+  @InterfaceAudience.Public
+  @InterfaceStability.Evolving
+  public static class BulkResult<K, V> {
+    private final Map<K, V> results;
+    private final Map<K, Throwable> errors;
+
+    BulkResult(Map<K, V> results, Map<K, Throwable> errors) {
+      this.results = Collections.unmodifiableMap(results);
+      this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Returns the results of the items whose call succeeded, in the order of the items.
+     */
+    public Map<K, V> getResults() {
+      return results;
+    }
+
+    /**
+     * Returns the errors of the items whose call failed or timed out, in the order of the items.
+     * Timed out items have a {@link TimeoutException}.
+     */
+    public Map<K, Throwable> getErrors() {
+      return errors;
+    }
+
+    /**
+     * Returns true if the call succeeded for all the items.
+     */
+    public boolean isComplete() {
+      return errors.isEmpty();
+    }
+  }
+
+  /**
+   * Makes a call for each of the items, and collects the results of all of them. The returned
+   * future always completes normally once every call completed, failed or timed out, and the
+   * failures are reported per item in the result.
+   * @param items the distinct items to make the call for, e.g. servers or table names
+   * @param call makes the call for an item
+   * @param timeoutMs time given to the call of each item, from the time it starts. A call
+   *        timing out is reported as failed, but is not cancelled.
+   * @param maxConcurrency maximum number of calls in progress at the same time
+   * @return a future yielding the results and errors of the items
+   */
+  public <K, V> CompletableFuture<BulkResult<K, V>> allOf(
+      Collection<K> items, Function<? super K, ? extends CompletionStage<V>> call,
+      long timeoutMs, int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+    }
+    BulkCall<K, V> bulkCall = new BulkCall<>(items, call, timeoutMs);
+    for (int i = 0; i < Math.min(maxConcurrency, bulkCall.keys.size()); i++) {
+      bulkCall.startNext();
+    }
+    if (bulkCall.keys.isEmpty()) {
+      bulkCall.result.complete(bulkCall.collect());
+    }
+    return bulkCall.result;
+  }
+
+  /**
+   * Same as {@link #allOf(Collection, Function, long, int)}, with all the calls made at once.
+   */
+  public <K, V> CompletableFuture<BulkResult<K, V>> allOf(
+      Collection<K> items, Function<? super K, ? extends CompletionStage<V>> call,
+      long timeoutMs) {
+    return allOf(items, call, timeoutMs, Integer.MAX_VALUE);
+  }
+
+  /**
+   * The calls of {@link #allOf}, started one more every time one of them completes.
+   */
+  private class BulkCall<K, V> {
+    private final List<K> keys;
+    private final Function<? super K, ? extends CompletionStage<V>> call;
+    private final long timeoutMs;
+    private final List<CompletableFuture<V>> futures;
+    private final CompletableFuture<BulkResult<K, V>> result = new CompletableFuture<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger numRemaining;
+    // Number of calls to start. Calls are started by one thread at a time in a loop, so that
+    // calls completing right away do not start the next ones recursively.
+    private final AtomicInteger numToStart = new AtomicInteger();
+
+    BulkCall(Collection<K> items, Function<? super K, ? extends CompletionStage<V>> call,
+             long timeoutMs) {
+      this.keys = new ArrayList<>(items);
+      this.call = call;
+      this.timeoutMs = timeoutMs;
+      this.futures = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        futures.add(new CompletableFuture<V>());
+      }
+      this.numRemaining = new AtomicInteger(keys.size());
+    }
+
+    void startNext() {
+      if (numToStart.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        int index = nextIndex.getAndIncrement();
+        if (index < keys.size()) {
+          start(index);
+        }
+      } while (numToStart.decrementAndGet() != 0);
+    }
+
+    private void start(int index) {
+      final K key = keys.get(index);
+      final CompletableFuture<V> future = futures.get(index);
+      future.whenComplete((value, error) -> {
+        if (numRemaining.decrementAndGet() == 0) {
+          result.complete(collect());
+        } else {
+          startNext();
+        }
+      });
+      client.newTimeout(timeout -> future.completeExceptionally(new TimeoutException(
+          "Call for " + key + " timed out after " + timeoutMs + " ms")), timeoutMs);
+      try {
+        call.apply(key).whenComplete((value, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(value);
+          }
+        });
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    }
+
+    BulkResult<K, V> collect() {
+      Map<K, V> results = new LinkedHashMap<>();
+      Map<K, Throwable> errors = new LinkedHashMap<>();
+      for (int i = 0; i < keys.size(); i++) {
+        try {
+          results.put(keys.get(i), futures.get(i).join());
+        } catch (RuntimeException e) {
+          errors.put(keys.get(i), e.getCause() != null ? e.getCause() : e);
+        }
+      }
+      return new BulkResult<>(results, errors);
+    }
+  }
+
+  /**
+   * @see AsyncYBClient#ping(HostAndPort)
+   */
+  public CompletableFuture<PingResponse> ping(HostAndPort hp) {
+    return call(() -> client.ping(hp));
+  }
+
+  /**
+   * @see AsyncYBClient#isServerReady(HostAndPort, boolean)
+   */
+  public CompletableFuture<IsServerReadyResponse> isServerReady(HostAndPort hp,
+                                                                 boolean isTserver) {
+    return call(() -> client.isServerReady(hp, isTserver));
+  }
+
+  /**
+   * @see AsyncYBClient#setFlag(HostAndPort, String, String, boolean)
+   */
+  public CompletableFuture<SetFlagResponse> setFlag(HostAndPort hp, String flag, String value,
+                                                    boolean force) {
+    return call(() -> client.setFlag(hp, flag, value, force));
+  }
+
+  /**
+   * @see AsyncYBClient#getMasterAddresses(HostAndPort)
+   */
+  public CompletableFuture<GetMasterAddressesResponse> getMasterAddresses(HostAndPort hp) {
+    return call(() -> client.getMasterAddresses(hp));
+  }
+
+  /**
+   * @see AsyncYBClient#listTabletServers()
+   */
+  public CompletableFuture<ListTabletServersResponse> listTabletServers() {
+    return call(client::listTabletServers);
+  }
+
+  /**
+   * @see AsyncYBClient#listMasters()
+   */
+  public CompletableFuture<ListMastersResponse> listMasters() {
+    return call(client::listMasters);
+  }
+
+  /**
+   * @see AsyncYBClient#getMasterClusterConfig()
+   */
+  public CompletableFuture<GetMasterClusterConfigResponse> getMasterClusterConfig() {
+    return call(client::getMasterClusterConfig);
+  }
+
+  /**
+   * @see AsyncYBClient#changeMasterClusterConfig(Master.SysClusterConfigEntryPB)
+   */
+  public CompletableFuture<ChangeMasterClusterConfigResponse> changeMasterClusterConfig(
+      Master.SysClusterConfigEntryPB config) {
+    return call(() -> client.changeMasterClusterConfig(config));
+  }
+
+  /**
+   * @see AsyncYBClient#changeLoadBalancerState(boolean)
+   */
+  public CompletableFuture<ChangeLoadBalancerStateResponse> changeLoadBalancerState(
+      boolean isEnable) {
+    return call(() -> client.changeLoadBalancerState(isEnable));
+  }
+
+  /**
+   * @see AsyncYBClient#getLoadMoveCompletion()
+   */
+  public CompletableFuture<GetLoadMovePercentResponse> getLoadMoveCompletion() {
+    return call(client::getLoadMoveCompletion);
+  }
+
+  /**
+   * @see AsyncYBClient#getIsLoadBalanced(int)
+   */
+  public CompletableFuture<IsLoadBalancedResponse> getIsLoadBalanced(int numServers) {
+    return call(() -> client.getIsLoadBalanced(numServers));
+  }
+
+  /**
+   * @see AsyncYBClient#getIsLoadBalancerIdle()
+   */
+  public CompletableFuture<IsLoadBalancerIdleResponse> getIsLoadBalancerIdle() {
+    return call(client::getIsLoadBalancerIdle);
+  }
+
+  /**
+   * @see AsyncYBClient#createKeyspace(String)
+   */
+  public CompletableFuture<CreateKeyspaceResponse> createKeyspace(String keyspace) {
+    return call(() -> client.createKeyspace(keyspace));
+  }
+
+  /**
+   * @see AsyncYBClient#createTable(String, String, Schema, CreateTableOptions)
+   */
+  public CompletableFuture<YBTable> createTable(String keyspace, String name, Schema schema,
+                                                CreateTableOptions builder) {
+    return call(() -> client.createTable(keyspace, name, schema, builder));
+  }
+
+  /**
+   * @see AsyncYBClient#deleteTable(String, String)
+   */
+  public CompletableFuture<DeleteTableResponse> deleteTable(String keyspace, String name) {
+    return call(() -> client.deleteTable(keyspace, name));
+  }
+
+  /**
+   * @see AsyncYBClient#getTablesList(String)
+   */
+  public CompletableFuture<ListTablesResponse> getTablesList(String nameFilter) {
+    return call(() -> client.getTablesList(nameFilter));
+  }
+
+  /**
+   * @see AsyncYBClient#tableExists(String, String)
+   */
+  public CompletableFuture<Boolean> tableExists(String keyspace, String name) {
+    return call(() -> client.tableExists(keyspace, name));
+  }
+
+  /**
+   * @see AsyncYBClient#openTable(String, String)
+   */
+  public CompletableFuture<YBTable> openTable(String keyspace, String name) {
+    return call(() -> client.openTable(keyspace, name));
+  }
+
+  /**
+   * @see AsyncYBClient#openTableByUUID(String)
+   */
+  public CompletableFuture<YBTable> openTableByUUID(String tableUUID) {
+    return call(() -> client.openTableByUUID(tableUUID));
+  }
+
+  /**
+   * @see AsyncYBClient#createCDCStream(HostAndPort, String)
+   */
+  public CompletableFuture<CreateCDCStreamResponse> createCDCStream(HostAndPort hp,
+                                                                     String tableId) {
+    return call(() -> client.createCDCStream(hp, tableId));
+  }
+
+  /**
+   * Get changes for a given tablet and stream.
+   * @see AsyncYBClient#getChanges
+   */
+  public CompletableFuture<GetChangesResponse> getChanges(
+      HostAndPort hp, YBTable table, String streamId, String tabletId, long term, long index) {
+    final CompletableFuture<GetChangesResponse> future = new CompletableFuture<>();
+    call(() -> client.getChanges(hp, table, streamId, tabletId, term, index,
+        new Callback<Void, GetChangesResponse>() {
+          @Override
+          public Void call(GetChangesResponse response) {
+            future.complete(response);
+            return null;
+          }
+        })).whenComplete((ignored, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          }
+        });
+    return future;
+  }
+}
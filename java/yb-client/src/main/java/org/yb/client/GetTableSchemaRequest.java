@@ -52,16 +52,24 @@ public class GetTableSchemaRequest extends YRpc<GetTableSchemaResponse> {
   private final String name;
   private final String uuid;
   private final String keyspace;
+  // Handle of the table opened before, the schema of which is reused if it did not change.
+  private final YBTable cachedTable;
 
   GetTableSchemaRequest(YBTable masterTable, String name, String uuid) {
     this(masterTable, name, uuid, null);
   }
 
   GetTableSchemaRequest(YBTable masterTable, String name, String uuid, String keyspace) {
+    this(masterTable, name, uuid, keyspace, null);
+  }
+
+  GetTableSchemaRequest(YBTable masterTable, String name, String uuid, String keyspace,
+                        YBTable cachedTable) {
     super(masterTable);
     this.name = name;
     this.uuid = uuid;
     this.keyspace = keyspace;
+    this.cachedTable = cachedTable;
   }
 
   @Override
@@ -96,7 +104,21 @@ public class GetTableSchemaRequest extends YRpc<GetTableSchemaResponse> {
                                                    String tsUUID) throws Exception {
     final GetTableSchemaResponsePB.Builder respBuilder = GetTableSchemaResponsePB.newBuilder();
     readProtobuf(callResponse.getPBMessage(), respBuilder);
-    Schema schema = ProtobufHelper.pbToSchema(respBuilder.getSchema());
+    String tableId = respBuilder.getIdentifier().getTableId().toStringUtf8();
+    int version = respBuilder.hasVersion() ?
+        respBuilder.getVersion() : GetTableSchemaResponse.NO_VERSION;
+    Schema schema;
+    PartitionSchema partitionSchema;
+    if (cachedTable != null && version != GetTableSchemaResponse.NO_VERSION &&
+        version == cachedTable.getSchemaVersion() && tableId.equals(cachedTable.getTableId())) {
+      // The schema did not change since the table was opened, so it is not decoded again.
+      schema = cachedTable.getSchema();
+      partitionSchema = cachedTable.getPartitionSchema();
+    } else {
+      schema = ProtobufHelper.pbToSchema(respBuilder.getSchema());
+      partitionSchema =
+          ProtobufHelper.pbToPartitionSchema(respBuilder.getPartitionSchema(), schema);
+    }
     List<IndexInfo> indexes = ProtobufHelper.pbToIndexes(respBuilder.getIndexesList());
     GetTableSchemaResponse response = new GetTableSchemaResponse(
         deadlineTracker.getElapsedMillis(),
@@ -104,11 +126,12 @@ public class GetTableSchemaRequest extends YRpc<GetTableSchemaResponse> {
         schema,
         respBuilder.getIdentifier().getNamespace().getName(),
         respBuilder.getIdentifier().getTableName(),
-        respBuilder.getIdentifier().getTableId().toStringUtf8(),
-        ProtobufHelper.pbToPartitionSchema(respBuilder.getPartitionSchema(), schema),
+        tableId,
+        partitionSchema,
         respBuilder.getCreateTableDone(),
         respBuilder.getTableType(),
-        indexes);
+        indexes,
+        version);
     return new Pair<GetTableSchemaResponse, Object>(
         response, respBuilder.hasError() ? respBuilder.getError() : null);
   }
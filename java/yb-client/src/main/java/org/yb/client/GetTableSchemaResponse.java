@@ -41,6 +41,9 @@ import java.util.List;
 @InterfaceAudience.Private
 public class GetTableSchemaResponse extends YRpcResponse {
 
+  /** Schema version of a response from a master which does not report it. */
+  static final int NO_VERSION = -1;
+
   private final Schema schema;
   private final PartitionSchema partitionSchema;
   private final boolean createTableDone;
@@ -49,6 +52,7 @@ public class GetTableSchemaResponse extends YRpcResponse {
   private final String tableId;
   private final TableType tableType;
   private final List<IndexInfo> indexes;
+  private final int version;
 
   /**
    * @param ellapsedMillis Time in milliseconds since RPC creation to now
@@ -65,6 +69,27 @@ public class GetTableSchemaResponse extends YRpcResponse {
                          boolean createTableDone,
                          TableType tableType,
                          List<IndexInfo> indexes) {
+    this(ellapsedMillis, tsUUID, schema, namespace, tableName, tableId, partitionSchema,
+         createTableDone, tableType, indexes, NO_VERSION);
+  }
+
+  /**
+   * @param ellapsedMillis Time in milliseconds since RPC creation to now
+   * @param schema the table's schema
+   * @param partitionSchema the table's partition schema
+   * @param version the table's schema version
+   */
+  GetTableSchemaResponse(long ellapsedMillis,
+                         String tsUUID,
+                         Schema schema,
+                         String namespace,
+                         String tableName,
+                         String tableId,
+                         PartitionSchema partitionSchema,
+                         boolean createTableDone,
+                         TableType tableType,
+                         List<IndexInfo> indexes,
+                         int version) {
     super(ellapsedMillis, tsUUID);
     this.schema = schema;
     this.partitionSchema = partitionSchema;
@@ -74,6 +99,7 @@ public class GetTableSchemaResponse extends YRpcResponse {
     this.tableId = tableId;
     this.tableType = tableType;
     this.indexes = indexes;
+    this.version = version;
   }
 
   /**
@@ -132,6 +158,14 @@ public class GetTableSchemaResponse extends YRpcResponse {
     return tableId;
   }
 
+  /**
+   * Get the table's schema version.
+   * @return the schema version, or NO_VERSION if the master does not report it
+   */
+  public int getVersion() {
+    return version;
+  }
+
   /**
    * Get the table type.
    * @return the table's type.
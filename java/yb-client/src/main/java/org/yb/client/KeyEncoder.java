@@ -39,18 +39,37 @@ import org.yb.Type;
 import org.yb.annotations.InterfaceAudience;
 import org.yb.client.PartitionSchema.HashBucketSchema;
 
-import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Utility class for encoding rows into primary and partition keys.
+ *
+ * <p>The keys are built in buffers owned by the encoder, which grow to the size of the largest
+ * key and are then reused, so an encoder does not allocate beyond the returned keys. An encoder
+ * is not thread-safe; {@link #get()} returns the encoder of the calling thread.
  */
 @InterfaceAudience.Private
 class KeyEncoder {
 
-  private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final ThreadLocal<KeyEncoder> THREAD_ENCODER =
+      ThreadLocal.withInitial(KeyEncoder::new);
+
+  // The key being encoded.
+  private final KeyBuffer key = new KeyBuffer();
+  // The columns of a hash bucket being encoded, which are hashed rather than added to the key.
+  private final KeyBuffer hashColumns = new KeyBuffer();
+
+  /**
+   * Returns the encoder of the calling thread.
+   */
+  static KeyEncoder get() {
+    return THREAD_ENCODER.get();
+  }
 
   /**
    * Encodes the primary key of the row.
@@ -59,14 +78,14 @@ class KeyEncoder {
    * @return the encoded primary key of the row
    */
   public byte[] encodePrimaryKey(final PartialRow row) {
-    buf.reset();
+    key.reset();
 
     final Schema schema = row.getSchema();
     for (int columnIdx = 0; columnIdx < schema.getPrimaryKeyColumnCount(); columnIdx++) {
       final boolean isLast = columnIdx + 1 == schema.getPrimaryKeyColumnCount();
-      encodeColumn(row, columnIdx, isLast);
+      encodeColumn(row, columnIdx, isLast, key);
     }
-    return extractByteArray();
+    return key.toByteArray();
   }
 
   /**
@@ -77,38 +96,70 @@ class KeyEncoder {
    * @return an encoded partition key
    */
   public byte[] encodePartitionKey(PartialRow row, PartitionSchema partitionSchema) {
-    buf.reset();
-    if (!partitionSchema.getHashBucketSchemas().isEmpty()) {
-      ByteBuffer bucketBuf = ByteBuffer.allocate(4 * partitionSchema.getHashBucketSchemas().size());
-      bucketBuf.order(ByteOrder.BIG_ENDIAN);
-
-      for (final HashBucketSchema hashBucketSchema : partitionSchema.getHashBucketSchemas()) {
-        encodeColumns(row, hashBucketSchema.getColumnIds());
-        byte[] encodedColumns = extractByteArray();
-        long hash = Murmur2.hash64(encodedColumns,
-                                   encodedColumns.length,
-                                   hashBucketSchema.getSeed());
-        int bucket = (int) UnsignedLongs.remainder(hash, hashBucketSchema.getNumBuckets());
-        bucketBuf.putInt(bucket);
-      }
+    encodePartitionKeyInPlace(row, partitionSchema);
+    return key.toByteArray();
+  }
 
-      assert bucketBuf.arrayOffset() == 0;
-      buf.write(bucketBuf.array(), 0, bucketBuf.position());
+  /**
+   * Encodes the provided row into a partition key according to the partition schema, and writes
+   * it into the buffer at its current position.
+   *
+   * @param row the row to encode
+   * @param partitionSchema the partition schema describing the table's partitioning
+   * @param dest the buffer to write the key into
+   * @return the length of the encoded partition key
+   * @throws BufferOverflowException if the key does not fit in the remaining space of the
+   *         buffer, in which case the buffer is left unchanged
+   */
+  public int encodePartitionKey(PartialRow row, PartitionSchema partitionSchema, ByteBuffer dest) {
+    encodePartitionKeyInPlace(row, partitionSchema);
+    if (dest.remaining() < key.length) {
+      throw new BufferOverflowException();
+    }
+    dest.put(key.bytes, 0, key.length);
+    return key.length;
+  }
+
+  /**
+   * Encodes the provided row into a partition key according to the partition schema, leaving it
+   * in the buffer of the encoder. The key is valid until the next use of the encoder.
+   *
+   * @return the length of the encoded partition key, which starts at index 0 of
+   *         {@link #getKeyBytes()}
+   */
+  int encodePartitionKeyInPlace(PartialRow row, PartitionSchema partitionSchema) {
+    key.reset();
+    List<HashBucketSchema> hashBucketSchemas = partitionSchema.getHashBucketSchemas();
+    for (int i = 0; i < hashBucketSchemas.size(); i++) {
+      HashBucketSchema hashBucketSchema = hashBucketSchemas.get(i);
+      hashColumns.reset();
+      encodeColumns(row, hashBucketSchema.getColumnIds(), hashColumns);
+      long hash = Murmur2.hash64(hashColumns.bytes, hashColumns.length, hashBucketSchema.getSeed());
+      int bucket = (int) UnsignedLongs.remainder(hash, hashBucketSchema.getNumBuckets());
+      key.writeInt(bucket);
     }
 
-    encodeColumns(row, partitionSchema.getRangeSchema().getColumns());
-    return extractByteArray();
+    encodeColumns(row, partitionSchema.getRangeSchema().getColumns(), key);
+    return key.length;
+  }
+
+  /**
+   * Returns the buffer holding the key encoded by {@link #encodePartitionKeyInPlace}.
+   */
+  byte[] getKeyBytes() {
+    return key.bytes;
   }
 
   /**
    * Encodes a sequence of columns from the row.
    * @param row the row containing the columns to encode
    * @param columnIds the IDs of each column to encode
+   * @param out the buffer to encode the columns into
    */
-  private void encodeColumns(PartialRow row, List<Integer> columnIds) {
+  private static void encodeColumns(PartialRow row, List<Integer> columnIds, KeyBuffer out) {
     for (int i = 0; i < columnIds.size(); i++) {
       boolean isLast = i + 1 == columnIds.size();
-      encodeColumn(row, row.getSchema().getColumnIndex(columnIds.get(i)), isLast);
+      encodeColumn(row, row.getSchema().getColumnIndex(columnIds.get(i)), isLast, out);
     }
   }
 
@@ -117,8 +168,9 @@ class KeyEncoder {
    * @param row the row being encoded
    * @param columnIdx the column index of the column to encode
    * @param isLast whether the column is the last component of the key
+   * @param out the buffer to encode the column into
    */
-  private void encodeColumn(PartialRow row, int columnIdx, boolean isLast) {
+  private static void encodeColumn(PartialRow row, int columnIdx, boolean isLast, KeyBuffer out) {
     final Schema schema = row.getSchema();
     final ColumnSchema column = schema.getColumnByIndex(columnIdx);
     if (!row.isSet(columnIdx)) {
@@ -128,12 +180,13 @@ class KeyEncoder {
     final Type type = column.getType();
 
     if (type == Type.STRING || type == Type.BINARY) {
-      addBinaryComponent(row.getVarLengthData().get(columnIdx), isLast);
+      addBinaryComponent(row.getVarLengthData().get(columnIdx), isLast, out);
     } else {
       addComponent(row.getRowAlloc(),
                    schema.getColumnOffset(columnIdx),
                    type.getSize(),
-                   type);
+                   type,
+                   out);
     }
   }
 
@@ -141,29 +194,51 @@ class KeyEncoder {
    * Encodes a byte buffer into the key.
    * @param value the value to encode
    * @param isLast whether the value is the final component in the key
+   * @param out the buffer to encode the value into
    */
-  private void addBinaryComponent(ByteBuffer value, boolean isLast) {
+  private static void addBinaryComponent(ByteBuffer value, boolean isLast, KeyBuffer out) {
     value.reset();
+    int start = value.position();
+    int end = value.limit();
 
-    // TODO find a way to not have to read byte-by-byte that doesn't require extra copies. This is
-    // especially slow now that users can pass direct byte buffers.
-    while (value.hasRemaining()) {
-      byte currentByte = value.get();
-      buf.write(currentByte);
-      if (!isLast && currentByte == 0x00) {
-        // If we're a middle component of a composite key, we need to add a \x00
-        // at the end in order to separate this component from the next one. However,
-        // if we just did that, we'd have issues where a key that actually has
-        // \x00 in it would compare wrong, so we have to instead add \x00\x00, and
-        // encode \x00 as \x00\x01. -- key_encoder.h
-        buf.write(0x01);
-      }
+    if (isLast) {
+      out.ensureCapacity(end - start);
+      value.get(out.bytes, out.length, end - start);
+      out.length += end - start;
+      return;
     }
 
-    if (!isLast) {
-      buf.write(0x00);
-      buf.write(0x00);
+    // If we're a middle component of a composite key, we need to add a \x00
+    // at the end in order to separate this component from the next one. However,
+    // if we just did that, we'd have issues where a key that actually has
+    // \x00 in it would compare wrong, so we have to instead add \x00\x00, and
+    // encode \x00 as \x00\x01. -- key_encoder.h
+    out.ensureCapacity(2 * (end - start) + 2);
+    byte[] bytes = out.bytes;
+    int length = out.length;
+    if (value.hasArray()) {
+      byte[] array = value.array();
+      int offset = value.arrayOffset();
+      for (int i = offset + start; i < offset + end; i++) {
+        byte currentByte = array[i];
+        bytes[length++] = currentByte;
+        if (currentByte == 0x00) {
+          bytes[length++] = 0x01;
+        }
+      }
+    } else {
+      for (int i = start; i < end; i++) {
+        byte currentByte = value.get(i);
+        bytes[length++] = currentByte;
+        if (currentByte == 0x00) {
+          bytes[length++] = 0x01;
+        }
+      }
     }
+    bytes[length++] = 0x00;
+    bytes[length++] = 0x00;
+    out.length = length;
+    value.position(end);
   }
 
   /**
@@ -172,22 +247,21 @@ class KeyEncoder {
    * @param offset the offset into the {@code value} buffer that the value begins
    * @param len the length of the value
    * @param type the type of the value to encode
+   * @param out the buffer to encode the value into
    */
-  private void addComponent(byte[] value, int offset, int len, Type type) {
+  private static void addComponent(byte[] value, int offset, int len, Type type, KeyBuffer out) {
     switch (type) {
       case INT8:
       case INT16:
       case INT32:
       case INT64:
       case TIMESTAMP:
+        out.ensureCapacity(len);
         // Picking the first byte because big endian.
         byte lastByte = value[offset + (len - 1)];
-        lastByte = Bytes.xorLeftMostBit(lastByte);
-        buf.write(lastByte);
-        if (len > 1) {
-          for (int i = len - 2; i >= 0; i--) {
-            buf.write(value[offset + i]);
-          }
+        out.bytes[out.length++] = Bytes.xorLeftMostBit(lastByte);
+        for (int i = len - 2; i >= 0; i--) {
+          out.bytes[out.length++] = value[offset + i];
         }
         break;
       default:
@@ -197,12 +271,33 @@ class KeyEncoder {
   }
 
   /**
-   * Returns the encoded key, and resets the key encoder to be used for another key.
-   * @return the encoded key which has been built through calls to {@link #addComponent}
+   * Growable byte array a key is encoded into, reused across keys.
    */
-  private byte[] extractByteArray() {
-    byte[] bytes = buf.toByteArray();
-    buf.reset();
-    return bytes;
+  private static final class KeyBuffer {
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length = 0;
+
+    void reset() {
+      length = 0;
+    }
+
+    void ensureCapacity(int extra) {
+      if (length + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+      }
+    }
+
+    // Big endian, as the buckets are compared bytewise.
+    void writeInt(int value) {
+      ensureCapacity(4);
+      bytes[length++] = (byte) (value >>> 24);
+      bytes[length++] = (byte) (value >>> 16);
+      bytes[length++] = (byte) (value >>> 8);
+      bytes[length++] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, length);
+    }
   }
 }
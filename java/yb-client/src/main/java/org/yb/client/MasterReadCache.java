@@ -0,0 +1,211 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+import org.yb.annotations.InterfaceAudience;
+
+/**
+ * Client-side cache of the responses to read-only master RPCs, such as the list of tables and
+ * the table schemas, so that frequent identical calls do not all go to the master leader.
+ * <p>
+ * A response is served for up to the TTL after it was received, which bounds its staleness.
+ * Concurrent calls for a response which is not cached share a single RPC. Errors are not
+ * cached. Entries are dropped on DDL sent through the client, and those of a table when its
+ * tablets are not found, e.g. because it was dropped by another client.
+ */
+@InterfaceAudience.Private
+class MasterReadCache {
+
+  static final String LIST_TABLES = "ListTables";
+  static final String TABLE_SCHEMA = "GetTableSchema";
+  static final String LIST_TABLET_SERVERS = "ListTabletServers";
+  static final String MASTER_CLUSTER_CONFIG = "GetMasterClusterConfig";
+
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** A response, or the callers waiting for it. Guarded by itself. */
+  private static final class Entry {
+    Object response;
+    long expiresNanos;
+    List<Deferred<Object>> waiters = new ArrayList<>();
+  }
+
+  /**
+   * @param ttlMs time for which a response is served, 0 to not cache any response
+   */
+  MasterReadCache(long ttlMs) {
+    this(ttlMs, System::nanoTime);
+  }
+
+  MasterReadCache(long ttlMs, LongSupplier nanoClock) {
+    this.ttlNanos = ttlMs * 1000000L;
+    this.nanoClock = nanoClock;
+  }
+
+  boolean isEnabled() {
+    return ttlNanos > 0;
+  }
+
+  /**
+   * Returns the cached response of a call, or makes the call.
+   * @param method the master RPC, the first part of the key
+   * @param args the arguments of the call, the rest of the key
+   * @param call sends the RPC
+   */
+  @SuppressWarnings("unchecked")
+  <T> Deferred<T> get(String method, String args, Supplier<Deferred<T>> call) {
+    if (!isEnabled()) {
+      return call.get();
+    }
+    final String key = method + ":" + args;
+    Deferred<Object> result = new Deferred<>();
+    while (true) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        Entry created = new Entry();
+        created.waiters.add(result);
+        if (entries.putIfAbsent(key, created) != null) {
+          continue;
+        }
+        load(key, created, (Supplier<Deferred<Object>>) (Supplier<?>) call);
+        return (Deferred<T>) (Deferred<?>) result;
+      }
+      synchronized (entry) {
+        if (entry.waiters != null) {
+          entry.waiters.add(result);
+          return (Deferred<T>) (Deferred<?>) result;
+        }
+        if (nanoClock.getAsLong() - entry.expiresNanos < 0) {
+          return Deferred.fromResult((T) entry.response);
+        }
+      }
+      // Expired.
+      entries.remove(key, entry);
+    }
+  }
+
+  private void load(final String key, final Entry entry, Supplier<Deferred<Object>> call) {
+    Deferred<Object> d;
+    try {
+      d = call.get();
+    } catch (RuntimeException e) {
+      entries.remove(key, entry);
+      for (Deferred<Object> waiter : takeWaiters(entry, e)) {
+        waiter.callback(e);
+      }
+      return;
+    }
+    d.addCallbacks(new Callback<Object, Object>() {
+      @Override
+      public Object call(Object response) {
+        if (!isCacheable(response)) {
+          entries.remove(key, entry);
+        }
+        for (Deferred<Object> waiter : takeWaiters(entry, response)) {
+          waiter.callback(response);
+        }
+        return response;
+      }
+    }, new Callback<Object, Exception>() {
+      @Override
+      public Object call(Exception e) {
+        entries.remove(key, entry);
+        for (Deferred<Object> waiter : takeWaiters(entry, e)) {
+          waiter.callback(e);
+        }
+        return e;
+      }
+    });
+  }
+
+  // A response which is an exception is an error, e.g. from tooManyAttemptsOrTimeout. The schema
+  // of a table being created changes once it is created.
+  private static boolean isCacheable(Object response) {
+    if (response instanceof GetTableSchemaResponse) {
+      return ((GetTableSchemaResponse) response).isCreateTableDone();
+    }
+    return !(response instanceof Exception);
+  }
+
+  // Responses which are not cached are expired right away, for the callers which found the entry
+  // before its removal.
+  private List<Deferred<Object>> takeWaiters(Entry entry, Object response) {
+    synchronized (entry) {
+      List<Deferred<Object>> waiters = entry.waiters;
+      entry.waiters = null;
+      entry.response = response;
+      entry.expiresNanos = nanoClock.getAsLong() + (isCacheable(response) ? ttlNanos : 0);
+      return waiters;
+    }
+  }
+
+  /**
+   * Drops all the cached responses.
+   */
+  void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * Drops the cached responses which may refer to the table: its schema and the table lists.
+   */
+  void invalidateTable(String tableId) {
+    if (!isEnabled()) {
+      return;
+    }
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Entry> mapEntry = it.next();
+      if (mapEntry.getKey().startsWith(LIST_TABLES + ":")) {
+        it.remove();
+        continue;
+      }
+      Object response;
+      synchronized (mapEntry.getValue()) {
+        response = mapEntry.getValue().response;
+      }
+      if (response instanceof GetTableSchemaResponse &&
+          tableId.equals(((GetTableSchemaResponse) response).getTableId())) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns a callback dropping all the cached responses once a DDL completes, successfully or
+   * not, so that responses fetched while it was in progress are not served.
+   */
+  <T> Callback<T, T> invalidateAllCallback() {
+    return new Callback<T, T>() {
+      @Override
+      public T call(T arg) {
+        invalidateAll();
+        return arg;
+      }
+    };
+  }
+}
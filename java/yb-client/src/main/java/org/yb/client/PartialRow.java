@@ -525,7 +525,7 @@ public class PartialRow {
    * @return a byte array containing an encoded primary key
    */
   public byte[] encodePrimaryKey() {
-    return new KeyEncoder().encodePrimaryKey(this);
+    return KeyEncoder.get().encodePrimaryKey(this);
   }
 
   /**
@@ -36,6 +36,7 @@ import org.yb.annotations.InterfaceAudience;
 import org.yb.annotations.InterfaceStability;
 import org.yb.Common.PartitionSchemaPB.HashSchema;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -99,7 +100,20 @@ public class PartitionSchema {
    * @return a byte array containing the encoded partition key of the row
    */
   public byte[] encodePartitionKey(PartialRow row) {
-    return new KeyEncoder().encodePartitionKey(row, this);
+    return KeyEncoder.get().encodePartitionKey(row, this);
+  }
+
+  /**
+   * Encodes the partition key of the row into the buffer at its current position, without
+   * allocating.
+   * @param row the row to encode
+   * @param dest the buffer to write the key into
+   * @return the length of the encoded partition key
+   * @throws java.nio.BufferOverflowException if the key does not fit in the remaining space of
+   *         the buffer, in which case the buffer is left unchanged
+   */
+  public int encodePartitionKey(PartialRow row, ByteBuffer dest) {
+    return KeyEncoder.get().encodePartitionKey(row, this, dest);
   }
 
   public RangeSchema getRangeSchema() {
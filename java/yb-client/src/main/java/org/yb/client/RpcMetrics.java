@@ -0,0 +1,433 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+/**
+ * Collects the RPC events of one or more clients into counters and fixed-bucket latency
+ * histograms, which can be read through JMX or exported in the Prometheus text format.
+ * <p>
+ * Recording an event only increments striped counters, so it is safe to use on the RPC paths.
+ * <pre>{@code
+ * RpcMetrics metrics = new RpcMetrics();
+ * AsyncYBClient client = new AsyncYBClient.AsyncYBClientBuilder(masterAddresses)
+ *     .rpcMetricsListener(metrics)
+ *     .build();
+ * metrics.setInflightRpcsSource(client::getInflightRpcsPerServer);
+ * metrics.setPendingRpcsSource(client::getPendingRpcsPerServer);
+ * metrics.registerMBean("cdc");
+ * }</pre>
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class RpcMetrics implements RpcMetricsListener, RpcMetricsMXBean {
+
+  public static final String STATUS_OK = "OK";
+
+  // Upper bounds of the latency histogram buckets, the last bucket has no bound.
+  static final long[] LATENCY_BUCKET_BOUNDS_NANOS = {
+      100_000L, 250_000L, 500_000L,
+      1_000_000L, 2_500_000L, 5_000_000L,
+      10_000_000L, 25_000_000L, 50_000_000L,
+      100_000_000L, 250_000_000L, 500_000_000L,
+      1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+      10_000_000_000L };
+
+  private static final String JMX_DOMAIN = "org.yb.client";
+
+  // service -> method -> metrics, two levels so that recording an event does not build a key.
+  private final ConcurrentMap<String, ConcurrentMap<String, MethodMetrics>> methods =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder tabletCacheHits = new LongAdder();
+  private final LongAdder tabletCacheMisses = new LongAdder();
+  private final LongAdder masterLookupPermitWaitNanos = new LongAdder();
+  private final LongAdder masterLookupsAcquired = new LongAdder();
+  private final LongAdder masterLookupsThrottled = new LongAdder();
+
+  private volatile Supplier<Map<String, Integer>> inflightRpcsSource = null;
+  private volatile Supplier<Map<String, Integer>> pendingRpcsSource = null;
+
+  /** Metrics of the RPCs of one method. */
+  private static final class MethodMetrics {
+    final AtomicLongArray latencyBuckets =
+        new AtomicLongArray(LATENCY_BUCKET_BOUNDS_NANOS.length + 1);
+    final LongAdder latencySumNanos = new LongAdder();
+    final LongAdder responses = new LongAdder();
+    final ConcurrentMap<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, LongAdder> retries = new ConcurrentHashMap<>();
+    final LongAdder retriesRejected = new LongAdder();
+    final ConcurrentMap<String, LongAdder> pendingDropped = new ConcurrentHashMap<>();
+
+    long[] getLatencyBuckets() {
+      long[] buckets = new long[latencyBuckets.length()];
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = latencyBuckets.get(i);
+      }
+      return buckets;
+    }
+  }
+
+  // Lookups first, since computeIfAbsent locks the bin even if the key is present.
+  private static <K, V> V getOrCreate(ConcurrentMap<K, V> map, K key, Supplier<V> create) {
+    V value = map.get(key);
+    return value != null ? value : map.computeIfAbsent(key, k -> create.get());
+  }
+
+  private MethodMetrics getMethodMetrics(String service, String method) {
+    return getOrCreate(
+        getOrCreate(methods, service, ConcurrentHashMap::new), method, MethodMetrics::new);
+  }
+
+  static int getLatencyBucket(long latencyNanos) {
+    int index = Arrays.binarySearch(LATENCY_BUCKET_BOUNDS_NANOS, latencyNanos);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  @Override
+  public void rpcCompleted(String service, String method, long latencyNanos, String status) {
+    MethodMetrics metrics = getMethodMetrics(service, method);
+    metrics.latencyBuckets.incrementAndGet(getLatencyBucket(latencyNanos));
+    metrics.latencySumNanos.add(latencyNanos);
+    metrics.responses.increment();
+    getOrCreate(metrics.statuses, status, LongAdder::new).increment();
+  }
+
+  @Override
+  public void rpcRetried(String service, String method, String reason) {
+    getOrCreate(getMethodMetrics(service, method).retries, reason, LongAdder::new).increment();
+  }
+
+  @Override
+  public void rpcRetryRejected(String service, String method) {
+    getMethodMetrics(service, method).retriesRejected.increment();
+  }
+
+  @Override
+  public void masterLookupPermitWaited(long waitNanos, boolean acquired) {
+    masterLookupPermitWaitNanos.add(waitNanos);
+    (acquired ? masterLookupsAcquired : masterLookupsThrottled).increment();
+  }
+
+  @Override
+  public void tabletCacheLookup(boolean hit) {
+    (hit ? tabletCacheHits : tabletCacheMisses).increment();
+  }
+
+  @Override
+  public void pendingRpcDropped(String service, String method, String reason) {
+    getOrCreate(getMethodMetrics(service, method).pendingDropped, reason, LongAdder::new)
+        .increment();
+  }
+
+  /**
+   * Sets where the number of RPCs awaiting a response per server is read from when the metrics
+   * are exported, usually {@link AsyncYBClient#getInflightRpcsPerServer}.
+   */
+  public void setInflightRpcsSource(Supplier<Map<String, Integer>> source) {
+    this.inflightRpcsSource = source;
+  }
+
+  /**
+   * Sets where the number of RPCs queued per server is read from when the metrics are exported,
+   * usually {@link AsyncYBClient#getPendingRpcsPerServer}.
+   */
+  public void setPendingRpcsSource(Supplier<Map<String, Integer>> source) {
+    this.pendingRpcsSource = source;
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server, as
+   * "org.yb.client:type=RpcMetrics,name=<name>".
+   * @return the name the metrics are registered with, to unregister them
+   */
+  public ObjectName registerMBean(String name) throws JMException {
+    ObjectName objectName =
+        new ObjectName(JMX_DOMAIN + ":type=RpcMetrics,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    return objectName;
+  }
+
+  private interface MethodVisitor {
+    void visit(String service, String method, MethodMetrics metrics) throws IOException;
+  }
+
+  private void forEachMethod(MethodVisitor visitor) throws IOException {
+    for (Map.Entry<String, ConcurrentMap<String, MethodMetrics>> service : methods.entrySet()) {
+      for (Map.Entry<String, MethodMetrics> method : service.getValue().entrySet()) {
+        visitor.visit(service.getKey(), method.getKey(), method.getValue());
+      }
+    }
+  }
+
+  private <T> Map<String, T> collect(Function<MethodMetrics, T> value) {
+    Map<String, T> result = new TreeMap<>();
+    try {
+      forEachMethod((service, method, metrics) ->
+          result.put(service + "." + method, value.apply(metrics)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result;
+  }
+
+  private Map<String, Long> collectCounts(Function<MethodMetrics, Map<String, LongAdder>> counts) {
+    Map<String, Long> result = new TreeMap<>();
+    try {
+      forEachMethod((service, method, metrics) -> {
+        for (Map.Entry<String, LongAdder> count : counts.apply(metrics).entrySet()) {
+          result.put(service + "." + method + ":" + count.getKey(), count.getValue().sum());
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result;
+  }
+
+  // Upper bound of the bucket holding the given quantile, or of the last bounded bucket.
+  static long getLatencyQuantileNanos(long[] buckets, double quantile) {
+    long total = 0;
+    for (long count : buckets) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * quantile);
+    long cumulative = 0;
+    for (int i = 0; i < LATENCY_BUCKET_BOUNDS_NANOS.length; i++) {
+      cumulative += buckets[i];
+      if (cumulative >= rank) {
+        return LATENCY_BUCKET_BOUNDS_NANOS[i];
+      }
+    }
+    return LATENCY_BUCKET_BOUNDS_NANOS[LATENCY_BUCKET_BOUNDS_NANOS.length - 1];
+  }
+
+  @Override
+  public Map<String, Long> getResponseCounts() {
+    return collect(metrics -> metrics.responses.sum());
+  }
+
+  @Override
+  public Map<String, Double> getMeanLatencyMicros() {
+    return collect(metrics -> {
+      long responses = metrics.responses.sum();
+      return responses == 0 ? 0.0 : metrics.latencySumNanos.sum() / 1000.0 / responses;
+    });
+  }
+
+  @Override
+  public Map<String, Long> getP99LatencyMicros() {
+    return collect(metrics -> TimeUnit.NANOSECONDS.toMicros(
+        getLatencyQuantileNanos(metrics.getLatencyBuckets(), 0.99)));
+  }
+
+  @Override
+  public Map<String, Long> getStatusCounts() {
+    return collectCounts(metrics -> metrics.statuses);
+  }
+
+  @Override
+  public Map<String, Long> getRetryCounts() {
+    return collectCounts(metrics -> metrics.retries);
+  }
+
+  @Override
+  public Map<String, Long> getRetriesRejectedCounts() {
+    return collect(metrics -> metrics.retriesRejected.sum());
+  }
+
+  @Override
+  public long getTabletCacheHits() {
+    return tabletCacheHits.sum();
+  }
+
+  @Override
+  public long getTabletCacheMisses() {
+    return tabletCacheMisses.sum();
+  }
+
+  @Override
+  public long getMasterLookupPermitWaitMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(masterLookupPermitWaitNanos.sum());
+  }
+
+  @Override
+  public long getMasterLookupsThrottled() {
+    return masterLookupsThrottled.sum();
+  }
+
+  @Override
+  public Map<String, Integer> getInflightRpcs() {
+    Supplier<Map<String, Integer>> source = inflightRpcsSource;
+    return source == null ? Collections.emptyMap() : new TreeMap<>(source.get());
+  }
+
+  @Override
+  public Map<String, Long> getPendingRpcsDroppedCounts() {
+    return collectCounts(metrics -> metrics.pendingDropped);
+  }
+
+  @Override
+  public Map<String, Integer> getPendingRpcs() {
+    Supplier<Map<String, Integer>> source = pendingRpcsSource;
+    return source == null ? Collections.emptyMap() : new TreeMap<>(source.get());
+  }
+
+  /** Returns the metrics in the Prometheus text exposition format. */
+  public String toPrometheusText() {
+    StringWriter writer = new StringWriter();
+    try {
+      writePrometheus(writer);
+    } catch (IOException e) {
+      // Not thrown by a StringWriter.
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  /** Writes the metrics in the Prometheus text exposition format. */
+  public void writePrometheus(Writer writer) throws IOException {
+    writer.write("# TYPE yb_client_rpc_latency_seconds histogram\n");
+    forEachMethod((service, method, metrics) -> {
+      String labels = "service=\"" + escape(service) + "\",method=\"" + escape(method) + "\"";
+      long[] buckets = metrics.getLatencyBuckets();
+      long cumulative = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        cumulative += buckets[i];
+        String le = i < LATENCY_BUCKET_BOUNDS_NANOS.length
+            ? Double.toString(LATENCY_BUCKET_BOUNDS_NANOS[i] / 1e9)
+            : "+Inf";
+        writeSample(writer, "yb_client_rpc_latency_seconds_bucket",
+            labels + ",le=\"" + le + "\"", cumulative);
+      }
+      writeSample(writer, "yb_client_rpc_latency_seconds_sum", labels,
+          metrics.latencySumNanos.sum() / 1e9);
+      writeSample(writer, "yb_client_rpc_latency_seconds_count", labels, cumulative);
+    });
+
+    writer.write("# TYPE yb_client_rpc_responses_total counter\n");
+    forEachMethod((service, method, metrics) -> {
+      for (Map.Entry<String, LongAdder> status : metrics.statuses.entrySet()) {
+        writeSample(writer, "yb_client_rpc_responses_total",
+            "service=\"" + escape(service) + "\",method=\"" + escape(method)
+                + "\",status=\"" + escape(status.getKey()) + "\"",
+            status.getValue().sum());
+      }
+    });
+
+    writer.write("# TYPE yb_client_rpc_retries_total counter\n");
+    forEachMethod((service, method, metrics) -> {
+      for (Map.Entry<String, LongAdder> reason : metrics.retries.entrySet()) {
+        writeSample(writer, "yb_client_rpc_retries_total",
+            "service=\"" + escape(service) + "\",method=\"" + escape(method)
+                + "\",reason=\"" + escape(reason.getKey()) + "\"",
+            reason.getValue().sum());
+      }
+    });
+
+    writer.write("# TYPE yb_client_rpc_retries_rejected_total counter\n");
+    forEachMethod((service, method, metrics) -> {
+      long rejected = metrics.retriesRejected.sum();
+      if (rejected > 0) {
+        writeSample(writer, "yb_client_rpc_retries_rejected_total",
+            "service=\"" + escape(service) + "\",method=\"" + escape(method) + "\"", rejected);
+      }
+    });
+
+    writer.write("# TYPE yb_client_pending_rpcs_dropped_total counter\n");
+    forEachMethod((service, method, metrics) -> {
+      for (Map.Entry<String, LongAdder> reason : metrics.pendingDropped.entrySet()) {
+        writeSample(writer, "yb_client_pending_rpcs_dropped_total",
+            "service=\"" + escape(service) + "\",method=\"" + escape(method)
+                + "\",reason=\"" + escape(reason.getKey()) + "\"",
+            reason.getValue().sum());
+      }
+    });
+
+    writer.write("# TYPE yb_client_tablet_cache_lookups_total counter\n");
+    writeSample(writer, "yb_client_tablet_cache_lookups_total", "result=\"hit\"",
+        tabletCacheHits.sum());
+    writeSample(writer, "yb_client_tablet_cache_lookups_total", "result=\"miss\"",
+        tabletCacheMisses.sum());
+
+    writer.write("# TYPE yb_client_master_lookup_permits_total counter\n");
+    writeSample(writer, "yb_client_master_lookup_permits_total", "result=\"acquired\"",
+        masterLookupsAcquired.sum());
+    writeSample(writer, "yb_client_master_lookup_permits_total", "result=\"throttled\"",
+        masterLookupsThrottled.sum());
+    writer.write("# TYPE yb_client_master_lookup_permit_wait_seconds_total counter\n");
+    writeSample(writer, "yb_client_master_lookup_permit_wait_seconds_total", null,
+        masterLookupPermitWaitNanos.sum() / 1e9);
+
+    Map<String, Integer> inflightRpcs = getInflightRpcs();
+    if (!inflightRpcs.isEmpty()) {
+      writer.write("# TYPE yb_client_inflight_rpcs gauge\n");
+      for (Map.Entry<String, Integer> server : inflightRpcs.entrySet()) {
+        writeSample(writer, "yb_client_inflight_rpcs",
+            "server=\"" + escape(server.getKey()) + "\"", server.getValue());
+      }
+    }
+
+    Map<String, Integer> pendingRpcs = getPendingRpcs();
+    if (!pendingRpcs.isEmpty()) {
+      writer.write("# TYPE yb_client_pending_rpcs gauge\n");
+      for (Map.Entry<String, Integer> server : pendingRpcs.entrySet()) {
+        writeSample(writer, "yb_client_pending_rpcs",
+            "server=\"" + escape(server.getKey()) + "\"", server.getValue());
+      }
+    }
+  }
+
+  private static void writeSample(Writer writer, String name, String labels, Number value)
+      throws IOException {
+    writer.write(name);
+    if (labels != null) {
+      writer.write('{');
+      writer.write(labels);
+      writer.write('}');
+    }
+    writer.write(' ');
+    writer.write(value.toString());
+    writer.write('\n');
+  }
+
+  private static String escape(String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,79 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+/**
+ * Receives the RPC events of an {@link AsyncYBClient}, set with
+ * {@link AsyncYBClient.AsyncYBClientBuilder#rpcMetricsListener}. The methods are called inline
+ * from the Netty IO threads and the RPC paths of the client, so they must be cheap and must not
+ * block. {@link RpcMetrics} is an implementation collecting them into counters and histograms.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface RpcMetricsListener {
+
+  /** Listener ignoring all the events, used when none is set. */
+  RpcMetricsListener NOOP = new RpcMetricsListener() {};
+
+  /**
+   * Called when the response to an attempt of an RPC is received.
+   * @param service name of the RPC service, e.g. "yb.master.MasterService"
+   * @param method name of the RPC method
+   * @param latencyNanos time from writing the attempt to the connection to decoding its response
+   * @param status "OK", or the code of the error sent back by the server
+   */
+  default void rpcCompleted(String service, String method, long latencyNanos, String status) {}
+
+  /**
+   * Called when an RPC is scheduled to be retried after a delay.
+   * @param service name of the RPC service
+   * @param method name of the RPC method
+   * @param reason the kind of error which caused the retry
+   */
+  default void rpcRetried(String service, String method, String reason) {}
+
+  /**
+   * Called when an RPC fails instead of being retried, as the retry budget of the client is
+   * exhausted.
+   * @param service name of the RPC service
+   * @param method name of the RPC method
+   */
+  default void rpcRetryRejected(String service, String method) {}
+
+  /**
+   * Called after waiting for a permit to look up tablet locations on the master.
+   * @param waitNanos time spent waiting
+   * @param acquired false if the lookup went on without a permit, as too many were in progress
+   */
+  default void masterLookupPermitWaited(long waitNanos, boolean acquired) {}
+
+  /**
+   * Called on each lookup of the tablet of a partition key in the tablet location cache.
+   * @param hit whether the tablet was in the cache
+   */
+  default void tabletCacheLookup(boolean hit) {}
+
+  /**
+   * Called when an RPC queued on a connection which is not established yet is failed instead of
+   * being sent.
+   * @param service name of the RPC service
+   * @param method name of the RPC method
+   * @param reason "expired" if the RPC was past its deadline, or "overloaded" if the queue was
+   *               full
+   */
+  default void pendingRpcDropped(String service, String method, String reason) {}
+}
@@ -0,0 +1,65 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.Map;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+/**
+ * JMX view of {@link RpcMetrics}. The per-RPC maps are keyed by "service.method", and the
+ * response and retry maps by "service.method:status".
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface RpcMetricsMXBean {
+
+  /** Number of responses received per RPC method. */
+  Map<String, Long> getResponseCounts();
+
+  /** Mean response latency in microseconds per RPC method. */
+  Map<String, Double> getMeanLatencyMicros();
+
+  /** 99th percentile of the response latency in microseconds per RPC method. */
+  Map<String, Long> getP99LatencyMicros();
+
+  /** Number of responses per RPC method and status, including "OK". */
+  Map<String, Long> getStatusCounts();
+
+  /** Number of retries per RPC method and reason. */
+  Map<String, Long> getRetryCounts();
+
+  /** Number of retries not made per RPC method, as the retry budget was exhausted. */
+  Map<String, Long> getRetriesRejectedCounts();
+
+  long getTabletCacheHits();
+
+  long getTabletCacheMisses();
+
+  /** Total time spent waiting for master lookup permits, in microseconds. */
+  long getMasterLookupPermitWaitMicros();
+
+  /** Number of master lookups which went on without a permit. */
+  long getMasterLookupsThrottled();
+
+  /** Number of RPCs awaiting a response per server, if a source is set. */
+  Map<String, Integer> getInflightRpcs();
+
+  /** Number of queued RPCs failed instead of being sent, per RPC method and reason. */
+  Map<String, Long> getPendingRpcsDroppedCounts();
+
+  /** Number of RPCs queued on a connection per server, if a source is set. */
+  Map<String, Integer> getPendingRpcs();
+}
@@ -0,0 +1,116 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import org.yb.annotations.InterfaceAudience;
+
+/**
+ * Decides how long an {@link AsyncYBClient} waits before retrying an RPC, and whether it may
+ * retry at all.
+ * <p>
+ * The waits follow an exponential backoff with decorrelated jitter: each wait is drawn uniformly
+ * between the base wait and three times the previous wait of the RPC, capped. RPCs failing at
+ * the same time, e.g. on a master leader election, therefore spread their retries instead of
+ * retrying in lockstep.
+ * <p>
+ * Retries can also be limited by a token bucket shared by all the RPCs of the client. Each retry
+ * takes a token, and the bucket refills at a fixed rate. Once it is empty, failing RPCs fail
+ * right away instead of adding load to a struggling server. The bucket is off by default.
+ */
+@InterfaceAudience.Private
+class RpcRetryPolicy {
+
+  static final long DEFAULT_BASE_SLEEP_MS = 100;
+  static final long DEFAULT_MAX_SLEEP_MS = 5000;
+  static final int DEFAULT_RETRY_BUDGET_TOKENS = 0;
+  static final double DEFAULT_RETRY_BUDGET_TOKENS_PER_SEC = 0;
+
+  private final long baseSleepMs;
+  private final long maxSleepMs;
+  private final int maxTokens;
+  private final double tokensPerNano;
+  private final LongSupplier nanoClock;
+
+  // Guarded by this.
+  private double tokens;
+  private long lastRefillNanos;
+
+  /**
+   * @param baseSleepMs wait before the first retry, and minimum wait before any retry
+   * @param maxSleepMs maximum wait before a retry
+   * @param maxTokens number of retries which can be made in a burst, 0 to not limit retries
+   * @param tokensPerSec rate at which retries are allowed once the burst is used up
+   */
+  RpcRetryPolicy(long baseSleepMs, long maxSleepMs, int maxTokens, double tokensPerSec) {
+    this(baseSleepMs, maxSleepMs, maxTokens, tokensPerSec, System::nanoTime);
+  }
+
+  RpcRetryPolicy(long baseSleepMs, long maxSleepMs, int maxTokens, double tokensPerSec,
+                 LongSupplier nanoClock) {
+    this.baseSleepMs = baseSleepMs;
+    this.maxSleepMs = maxSleepMs;
+    this.maxTokens = maxTokens;
+    this.tokensPerNano = tokensPerSec / 1e9;
+    this.nanoClock = nanoClock;
+    this.tokens = maxTokens;
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  /**
+   * Returns the time to wait before the next retry of an RPC.
+   * @param previousSleepMs the previous wait of the RPC, 0 if it has not been retried yet
+   */
+  long getSleepTimeMs(long previousSleepMs) {
+    long upper = Math.max(baseSleepMs, previousSleepMs) * 3;
+    long sleepMs = ThreadLocalRandom.current().nextLong(baseSleepMs, upper + 1);
+    return Math.min(maxSleepMs, sleepMs);
+  }
+
+  /**
+   * Takes a token for a retry.
+   * @return false if the retry budget is exhausted, in which case the RPC must not be retried
+   */
+  synchronized boolean tryAcquireRetry() {
+    if (maxTokens == 0) {
+      return true;
+    }
+    refill();
+    if (tokens < 1) {
+      return false;
+    }
+    tokens--;
+    return true;
+  }
+
+  /**
+   * Returns the number of retries which can currently be made without waiting, -1 if the retries
+   * are not limited.
+   */
+  synchronized double getAvailableTokens() {
+    if (maxTokens == 0) {
+      return -1;
+    }
+    refill();
+    return tokens;
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    tokens = Math.min(maxTokens, tokens + (now - lastRefillNanos) * tokensPerNano);
+    lastRefillNanos = now;
+  }
+}
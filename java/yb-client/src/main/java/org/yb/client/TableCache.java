@@ -0,0 +1,157 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.yb.annotations.InterfaceAudience;
+
+/**
+ * Client-side cache of the opened tables by UUID and by name, so that opening a table again
+ * returns the same YBTable rather than a new one, without decoding its schema again. The tablet
+ * locations are cached by the client per table UUID either way.
+ * <p>
+ * A handle is revalidated on every open against the schema version in the GetTableSchema
+ * response, which is requested with the handle so that an unchanged schema is not decoded again.
+ * Handles are dropped on alterTable and deleteTable sent through the client, and when the tablets
+ * of the table are not found, e.g. because it was dropped by another client. The least recently
+ * opened handles are dropped beyond a maximum number of tables.
+ */
+@InterfaceAudience.Private
+class TableCache {
+
+  static final int DEFAULT_MAX_TABLES = 1000;
+
+  private final int maxTables;
+
+  // Guarded by this. In access order, to drop the least recently opened table first.
+  private final LinkedHashMap<String, YBTable> tablesById = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, String> idsByName = new HashMap<>();
+  // Names the tables were opened with, to drop them along with the table.
+  private final Map<String, Set<String>> namesById = new HashMap<>();
+
+  TableCache() {
+    this(DEFAULT_MAX_TABLES);
+  }
+
+  TableCache(int maxTables) {
+    this.maxTables = maxTables;
+  }
+
+  private static String nameKey(String keyspace, String name) {
+    return keyspace + "." + name;
+  }
+
+  /**
+   * Returns the handle of the table with the given UUID, or null if not cached.
+   */
+  synchronized YBTable getById(String tableId) {
+    return tablesById.get(tableId);
+  }
+
+  /**
+   * Returns the handle of the table with the given name, or null if not cached.
+   */
+  synchronized YBTable getByName(String keyspace, String name) {
+    String tableId = idsByName.get(nameKey(keyspace, name));
+    return tableId == null ? null : tablesById.get(tableId);
+  }
+
+  /**
+   * Returns the cached handle of the table in the response if its schema version did not change,
+   * else the new handle made by the given supplier, which replaces it. Tables being created and
+   * responses without a schema version are not cached.
+   * @param keyspace the keyspace the table was opened with, or null if opened by UUID
+   * @param name the name the table was opened with, or null if opened by UUID
+   */
+  synchronized YBTable update(GetTableSchemaResponse response, String keyspace, String name,
+                              Supplier<YBTable> newTable) {
+    if (!response.isCreateTableDone() ||
+        response.getVersion() == GetTableSchemaResponse.NO_VERSION) {
+      return newTable.get();
+    }
+    String tableId = response.getTableId();
+    YBTable table = tablesById.get(tableId);
+    if (table == null || table.getSchemaVersion() != response.getVersion()) {
+      table = newTable.get();
+      tablesById.put(tableId, table);
+    }
+    if (name != null) {
+      String nameKey = nameKey(keyspace, name);
+      String previousId = idsByName.put(nameKey, tableId);
+      if (previousId != null && !previousId.equals(tableId)) {
+        removeName(previousId, nameKey);
+      }
+      namesById.computeIfAbsent(tableId, id -> new HashSet<>()).add(nameKey);
+    }
+    evictExcessTables();
+    return table;
+  }
+
+  /**
+   * Drops the handle of the table with the given UUID.
+   */
+  synchronized void invalidateTable(String tableId) {
+    tablesById.remove(tableId);
+    removeNames(tableId);
+  }
+
+  /**
+   * Drops the handle of the table with the given name.
+   */
+  synchronized void invalidateTable(String keyspace, String name) {
+    String tableId = idsByName.get(nameKey(keyspace, name));
+    if (tableId != null) {
+      invalidateTable(tableId);
+    }
+  }
+
+  synchronized int size() {
+    return tablesById.size();
+  }
+
+  private void evictExcessTables() {
+    Iterator<String> it = tablesById.keySet().iterator();
+    while (tablesById.size() > maxTables && it.hasNext()) {
+      String tableId = it.next();
+      it.remove();
+      removeNames(tableId);
+    }
+  }
+
+  private void removeNames(String tableId) {
+    Set<String> names = namesById.remove(tableId);
+    if (names != null) {
+      for (String nameKey : names) {
+        idsByName.remove(nameKey, tableId);
+      }
+    }
+  }
+
+  private void removeName(String tableId, String nameKey) {
+    Set<String> names = namesById.get(tableId);
+    if (names != null) {
+      names.remove(nameKey);
+      if (names.isEmpty()) {
+        namesById.remove(tableId);
+      }
+    }
+  }
+}
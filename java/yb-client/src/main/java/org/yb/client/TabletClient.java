@@ -64,14 +64,18 @@ import org.jboss.netty.channel.Channels;
 import org.jboss.netty.channel.ExceptionEvent;
 import org.jboss.netty.handler.codec.replay.ReplayingDecoder;
 import org.jboss.netty.handler.codec.replay.VoidEnum;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.TimerTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.security.sasl.SaslException;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -100,7 +104,26 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
 
   public static final Logger LOG = LoggerFactory.getLogger(TabletClient.class);
 
-  private ArrayList<YRpc<?>> pending_rpcs;
+  /** Default maximum number of RPCs queued while connecting.  */
+  static final int DEFAULT_MAX_PENDING_RPCS = 10000;
+
+  /** Default rate at which the queued RPCs are sent once connected.  */
+  static final int DEFAULT_PENDING_RPCS_DRAIN_PER_SEC = 5000;
+
+  /** How often a batch of the queued RPCs is sent once connected.  */
+  static final long PENDING_RPCS_DRAIN_INTERVAL_MS = 20;
+
+  static final String PENDING_RPC_EXPIRED = "expired";
+  static final String PENDING_RPC_OVERLOADED = "overloaded";
+
+  /**
+   * RPCs waiting for the connection to be established, bounded by
+   * {@link AsyncYBClient#getMaxPendingRpcsPerServer}. Once connected, they are sent in batches
+   * and the queue is set back to {@code null} when empty.
+   * <p>
+   * Manipulating this value requires synchronizing on `this'.
+   */
+  private ArrayDeque<YRpc<?>> pending_rpcs;
 
   /** The connection header.  */
   private static final byte[] RPC_HEADER = new byte[] { 'Y', 'B', 1 };
@@ -171,7 +194,9 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
       }
     }
     boolean tryagain = false;
+    boolean overloaded = false;
     boolean copyOfDead;
+    List<YRpc<?>> expired = null;
     synchronized (this) {
       copyOfDead = this.dead;
       // Check if we got connected while entering this synchronized block.
@@ -179,11 +204,30 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         tryagain = true;
       } else if (!copyOfDead) {
         if (pending_rpcs == null) {
-          pending_rpcs = new ArrayList<YRpc<?>>();
+          pending_rpcs = new ArrayDeque<YRpc<?>>();
+        }
+        final int maxPendingRpcs = ybClient.getMaxPendingRpcsPerServer();
+        if (maxPendingRpcs > 0 && pending_rpcs.size() >= maxPendingRpcs) {
+          expired = removeExpiredPendingRpcs();
+          overloaded = pending_rpcs.size() >= maxPendingRpcs;
+        }
+        if (!overloaded) {
+          pending_rpcs.add(rpc);
         }
-        pending_rpcs.add(rpc);
       }
     }
+    if (expired != null) {
+      for (final YRpc<?> expiredRpc : expired) {
+        failExpiredRpc(expiredRpc);
+      }
+    }
+    if (overloaded) {
+      ybClient.getRpcMetricsListener().pendingRpcDropped(
+          rpc.serviceName(), rpc.method(), PENDING_RPC_OVERLOADED);
+      rpc.errback(new NonRecoverableException(getPeerUuidLoggingString() +
+          "Too many RPCs queued waiting for the connection: " + rpc));
+      return;
+    }
     if (copyOfDead) {
       failOrRetryRpc(rpc, new ConnectionResetException(null));
       return;
@@ -231,6 +275,7 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         rpc.errback(e);  // Make the RPC fail with the exception.
         return null;
     }
+    rpc.sendTimeNanos = System.nanoTime();
     final YRpc<?> oldrpc = rpcs_inflight.put(rpcid, rpc);
     if (oldrpc != null) {
       final String wtf = getPeerUuidLoggingString() +
@@ -250,6 +295,38 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
     return payload;
   }
 
+  /** Returns the number of RPCs sent on this connection and awaiting a response. */
+  int getNumInflightRpcs() {
+    return rpcs_inflight.size();
+  }
+
+  synchronized int getNumPendingRpcs() {
+    return pending_rpcs == null ? 0 : pending_rpcs.size();
+  }
+
+  /**
+   * Removes the queued RPCs which are past their deadline, and would only time out on the server.
+   * Must be called while synchronized on `this'.
+   * @return the removed RPCs, to be failed outside of the lock
+   */
+  private List<YRpc<?>> removeExpiredPendingRpcs() {
+    final List<YRpc<?>> expired = new ArrayList<YRpc<?>>();
+    for (Iterator<YRpc<?>> ite = pending_rpcs.iterator(); ite.hasNext();) {
+      final YRpc<?> rpc = ite.next();
+      if (rpc.deadlineTracker.timedOut()) {
+        expired.add(rpc);
+        ite.remove();
+      }
+    }
+    return expired;
+  }
+
+  private void failExpiredRpc(final YRpc<?> rpc) {
+    ybClient.getRpcMetricsListener().pendingRpcDropped(
+        rpc.serviceName(), rpc.method(), PENDING_RPC_EXPIRED);
+    AsyncYBClient.tooManyAttemptsOrTimeout(rpc, null);
+  }
+
   public Deferred<Void> shutdown() {
     // First, check whether we have RPCs in flight and cancel them.
     for (Iterator<YRpc<?>> ite = rpcs_inflight.values().iterator(); ite
@@ -365,10 +442,12 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
     Pair<Object, Object> decoded = null;
     Exception exception = null;
     YBException retryableHeaderException = null;
+    String status = RpcMetrics.STATUS_OK;
     if (header.hasIsError() && header.getIsError()) {
       RpcHeader.ErrorStatusPB.Builder errorBuilder = RpcHeader.ErrorStatusPB.newBuilder();
       YRpc.readProtobuf(response.getPBMessage(), errorBuilder);
       RpcHeader.ErrorStatusPB error = errorBuilder.build();
+      status = error.getCode().name();
       if (error.getCode().equals(RpcHeader.ErrorStatusPB.RpcErrorCodePB.ERROR_SERVER_TOO_BUSY)) {
         // We can't return right away, we still need to remove ourselves from 'rpcs_inflight', so we
         // populate 'retryableHeaderException'.
@@ -382,8 +461,15 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
     } else {
       try {
         decoded = rpc.deserialize(response, this.uuid);
+        Object error = decoded == null ? null : decoded.getSecond();
+        if (error instanceof Tserver.TabletServerErrorPB) {
+          status = ((Tserver.TabletServerErrorPB) error).getCode().name();
+        } else if (error instanceof Master.MasterErrorPB) {
+          status = ((Master.MasterErrorPB) error).getCode().name();
+        }
       } catch (Exception ex) {
         exception = ex;
+        status = ex.getClass().getSimpleName();
       }
     }
     if (LOG.isDebugEnabled()) {
@@ -400,6 +486,8 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         throw new NonRecoverableException("RPC not found");
       }
     }
+    ybClient.getRpcMetricsListener().rpcCompleted(
+        rpc.serviceName(), rpc.method(), System.nanoTime() - rpc.sendTimeNanos, status);
 
     // This check is specifically for the ERROR_SERVER_TOO_BUSY case above.
     if (retryableHeaderException != null) {
@@ -643,7 +731,7 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
       ite.remove();
     }
 
-    final ArrayList<YRpc<?>> rpcs;
+    final ArrayDeque<YRpc<?>> rpcs;
     synchronized (this) {
       dead = true;
       rpcs = pending_rpcs;
@@ -720,19 +808,46 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
   /**
    * Sends the queued RPCs to the server, once we're connected to it.
    * This gets called after {@link #channelConnected}, once we were able to
-   * handshake with the server
+   * handshake with the server. If the drain rate is limited, only a batch of
+   * them is sent, and the next batch is scheduled on the timer of the client.
+   * New RPCs are sent right away in the meantime, ahead of the RPCs still queued.
    */
   private void sendQueuedRpcs() {
-    ArrayList<YRpc<?>> rpcs;
+    final int drainPerSec = ybClient.getPendingRpcsDrainPerSec();
+    final int batchSize = drainPerSec == 0 ? Integer.MAX_VALUE :
+        (int) Math.max(1, drainPerSec * PENDING_RPCS_DRAIN_INTERVAL_MS / 1000);
+    final List<YRpc<?>> rpcs = new ArrayList<YRpc<?>>();
+    boolean more;
     synchronized (this) {
-      rpcs = pending_rpcs;
-      pending_rpcs = null;
+      if (pending_rpcs == null) {
+        return;
+      }
+      while (rpcs.size() < batchSize && !pending_rpcs.isEmpty()) {
+        rpcs.add(pending_rpcs.poll());
+      }
+      more = !pending_rpcs.isEmpty();
+      if (!more) {
+        pending_rpcs = null;
+      }
     }
-    if (rpcs != null) {
-      for (final YRpc<?> rpc : rpcs) {
-        LOG.debug(getPeerUuidLoggingString() + "Executing RPC queued: " + rpc);
-        sendRpc(rpc);
+    for (final YRpc<?> rpc : rpcs) {
+      if (rpc.deadlineTracker.timedOut()) {
+        failExpiredRpc(rpc);
+        continue;
       }
+      LOG.debug(getPeerUuidLoggingString() + "Executing RPC queued: " + rpc);
+      sendRpc(rpc);
+    }
+    if (more) {
+      ybClient.newTimeout(new TimerTask() {
+        @Override
+        public void run(final Timeout timeout) {
+          // The RPCs still queued get failed or retried by cleanup() if we got disconnected.
+          if (chan != null) {
+            sendQueuedRpcs();
+          }
+        }
+      }, PENDING_RPCS_DRAIN_INTERVAL_MS);
     }
   }
 
@@ -757,10 +872,7 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         .append(", uuid=")                  // = 7
         .append(uuid)                       // = 32
         .append(", #pending_rpcs=");        // =16
-    int npending_rpcs;
-    synchronized (this) {
-      npending_rpcs = pending_rpcs == null ? 0 : pending_rpcs.size();
-    }
+    int npending_rpcs = getNumPendingRpcs();
     buf.append(npending_rpcs);             // = 1
     buf.append(", #rpcs_inflight=")       // =17
         .append(rpcs_inflight.size())       // ~ 2
@@ -0,0 +1,209 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.stumbleupon.async.Callback;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.yb.annotations.InterfaceAudience;
+import org.yb.util.Pair;
+
+/**
+ * Iterates over the tablets of a table while they are located. The partition key space is split
+ * into ranges, the tablets of which are fetched from the master in parallel, one page after
+ * another, and added to the tablet cache of the client. The tablets are returned in partition key
+ * order as soon as the pages of their range arrive, so the caller can work on the first ones while
+ * the others are still located.
+ *
+ * The ranges split the 2-byte hash partition key space evenly, so they are balanced for hash
+ * partitioned tables. They are still correct for any other table, though one of them may then
+ * hold most of the tablets.
+ */
+@InterfaceAudience.Private
+class TabletLocationsIterator implements Iterator<LocatedTablet> {
+
+  // Marks the end of the pages of a range.
+  private static final Object END_OF_RANGE = new Object();
+
+  // Size of the hash partition key space.
+  private static final int NUM_HASH_KEYS = 0x10000;
+
+  private final List<byte[]> rangeStarts;
+  private final List<BlockingQueue<Object>> pages;
+  private final DeadlineTracker deadlineTracker = new DeadlineTracker();
+  private int currentRange = 0;
+  private Iterator<LocatedTablet> currentPage = Collections.emptyIterator();
+  private LocatedTablet next = null;
+
+  TabletLocationsIterator(List<byte[]> rangeStarts, long deadline) {
+    this.rangeStarts = rangeStarts;
+    this.pages = new ArrayList<>(rangeStarts.size());
+    for (int i = 0; i < rangeStarts.size(); i++) {
+      pages.add(new LinkedBlockingQueue<>());
+    }
+    deadlineTracker.setDeadline(deadline);
+  }
+
+  /**
+   * Starts locating the tablets of the table in parallel ranges.
+   * @param table the table to locate tablets from
+   * @param parallelism the number of ranges located in parallel
+   * @param deadline deadline in milliseconds for locating all the tablets
+   * @return an iterator over the tablets of the table, in partition key order
+   */
+  static TabletLocationsIterator start(YBTable table, int parallelism, long deadline) {
+    List<byte[]> rangeStarts = splitPartitionKeySpace(parallelism);
+    TabletLocationsIterator iterator = new TabletLocationsIterator(rangeStarts, deadline);
+    for (int i = 0; i < rangeStarts.size(); i++) {
+      Pair<byte[], byte[]> range = iterator.getRange(i);
+      final BlockingQueue<Object> rangePages = iterator.pages.get(i);
+      table.getAsyncClient().locateTableRange(table, range.getFirst(), range.getSecond(),
+          new Consumer<List<LocatedTablet>>() {
+            @Override
+            public void accept(List<LocatedTablet> page) {
+              rangePages.add(page);
+            }
+          }, deadline).addCallbacks(
+          new Callback<Object, List<LocatedTablet>>() {
+            @Override
+            public Object call(List<LocatedTablet> ignored) {
+              rangePages.add(END_OF_RANGE);
+              return null;
+            }
+          },
+          new Callback<Object, Exception>() {
+            @Override
+            public Object call(Exception e) {
+              rangePages.add(e);
+              return null;
+            }
+          });
+    }
+    return iterator;
+  }
+
+  /**
+   * Splits the hash partition key space into ranges of the same size.
+   * @param numRanges the number of ranges, at most the number of hash keys
+   * @return the start partition key of each range, the first one being the empty key
+   */
+  static List<byte[]> splitPartitionKeySpace(int numRanges) {
+    if (numRanges < 1) {
+      throw new IllegalArgumentException("Invalid number of ranges: " + numRanges);
+    }
+    numRanges = Math.min(numRanges, NUM_HASH_KEYS);
+    List<byte[]> rangeStarts = new ArrayList<>(numRanges);
+    rangeStarts.add(new byte[0]);
+    for (int i = 1; i < numRanges; i++) {
+      int hashKey = (int) ((long) i * NUM_HASH_KEYS / numRanges);
+      rangeStarts.add(new byte[] { (byte) (hashKey >> 8), (byte) hashKey });
+    }
+    return rangeStarts;
+  }
+
+  // Returns the partition keys to locate the range with, null meaning an open end.
+  Pair<byte[], byte[]> getRange(int range) {
+    byte[] start = range == 0 ? null : rangeStarts.get(range);
+    byte[] end = range == rangeStarts.size() - 1 ? null : rangeStarts.get(range + 1);
+    return new Pair<>(start, end);
+  }
+
+  /**
+   * Tells if the tablet belongs to the range. The pages of a range may also hold the tablets
+   * around its ends, which belong to the neighbouring ranges and are returned with them.
+   */
+  boolean inRange(LocatedTablet tablet, int range) {
+    byte[] key = tablet.getPartition().getPartitionKeyStart();
+    return Bytes.memcmp(key, rangeStarts.get(range)) >= 0
+        && (range == rangeStarts.size() - 1 || Bytes.memcmp(key, rangeStarts.get(range + 1)) < 0);
+  }
+
+  // Package-private for the tests, which feed the ranges without a master.
+  BlockingQueue<Object> getPages(int range) {
+    return pages.get(range);
+  }
+
+  static Object endOfRange() {
+    return END_OF_RANGE;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null) {
+      if (currentPage.hasNext()) {
+        LocatedTablet tablet = currentPage.next();
+        if (inRange(tablet, currentRange)) {
+          next = tablet;
+        }
+        continue;
+      }
+      if (currentRange == pages.size()) {
+        return false;
+      }
+      Object item = takePage(pages.get(currentRange));
+      if (item == END_OF_RANGE) {
+        currentRange++;
+      } else if (item instanceof Exception) {
+        // Fail again on the next call instead of skipping the rest of the range.
+        pages.get(currentRange).add(item);
+        if (item instanceof YBException) {
+          throw (YBException) item;
+        }
+        throw new NonRecoverableException("Failed to locate the tablets of the table",
+            (Exception) item);
+      } else {
+        @SuppressWarnings("unchecked")
+        List<LocatedTablet> page = (List<LocatedTablet>) item;
+        currentPage = page.iterator();
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public LocatedTablet next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    LocatedTablet tablet = next;
+    next = null;
+    return tablet;
+  }
+
+  private Object takePage(BlockingQueue<Object> rangePages) {
+    try {
+      Object item;
+      if (deadlineTracker.hasDeadline()) {
+        item = rangePages.poll(deadlineTracker.getMillisBeforeDeadline(), TimeUnit.MILLISECONDS);
+      } else {
+        item = rangePages.take();
+      }
+      if (item == null) {
+        throw new NonRecoverableException(
+            "Took too long getting the list of tablets, " + deadlineTracker);
+      }
+      return item;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new NonRecoverableException("Interrupted getting the list of tablets", e);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import com.google.common.net.HostAndPort;
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maps rows and partition keys of a table to the tablet holding them and to the leader of that
+ * tablet, without allocating, so that callers batching writes by tablet or by tablet server can
+ * route every row on their hot path.
+ *
+ * <p>A router is a snapshot of the tablet locations at the time it was built, see
+ * {@link YBTable#getTabletRouter(long)}. It does not follow tablet splits or leader changes, and
+ * should be rebuilt when the cluster reports that a tablet is not found or that a replica is not
+ * the leader. A router is immutable and can be shared between threads.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class TabletRouter {
+
+  private final PartitionSchema partitionSchema;
+  // The tablets, ordered by the start of their partition.
+  private final LocatedTablet[] tablets;
+  private final byte[][] partitionKeyStarts;
+  private final byte[][] partitionKeyEnds;
+  private final HostAndPort[] leaders;
+
+  TabletRouter(PartitionSchema partitionSchema, List<LocatedTablet> locatedTablets) {
+    this.partitionSchema = partitionSchema;
+    List<LocatedTablet> sorted = new ArrayList<>(locatedTablets);
+    sorted.sort(Comparator.comparing(
+        (LocatedTablet tablet) -> tablet.getPartition().getPartitionKeyStart(), Bytes.MEMCMP));
+    int numTablets = sorted.size();
+    this.tablets = sorted.toArray(new LocatedTablet[numTablets]);
+    this.partitionKeyStarts = new byte[numTablets][];
+    this.partitionKeyEnds = new byte[numTablets][];
+    this.leaders = new HostAndPort[numTablets];
+    for (int i = 0; i < numTablets; i++) {
+      Partition partition = tablets[i].getPartition();
+      partitionKeyStarts[i] = partition.getPartitionKeyStart();
+      partitionKeyEnds[i] = partition.getPartitionKeyEnd();
+      LocatedTablet.Replica leader = tablets[i].getLeaderReplica();
+      if (leader != null && leader.getRpcHost() != null) {
+        leaders[i] = HostAndPort.fromParts(leader.getRpcHost(), leader.getRpcPort());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of tablets of the table.
+   */
+  public int getNumTablets() {
+    return tablets.length;
+  }
+
+  /**
+   * Returns the tablet at the given index, tablets being ordered by their partition.
+   */
+  public LocatedTablet getTablet(int index) {
+    return tablets[index];
+  }
+
+  /**
+   * Returns the address of the leader of the tablet at the given index, or null if the tablet had
+   * no leader when the router was built.
+   */
+  public HostAndPort getLeader(int index) {
+    return leaders[index];
+  }
+
+  /**
+   * Returns the index of the tablet holding the partition key.
+   * @param key the array holding the encoded partition key
+   * @param offset the offset of the key in the array
+   * @param length the length of the key
+   * @return the index of the tablet, or -1 if no tablet covers the key
+   */
+  public int getTabletIndex(byte[] key, int offset, int length) {
+    // The last tablet starting at or before the key.
+    int low = 0;
+    int high = tablets.length - 1;
+    int index = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (compare(partitionKeyStarts[mid], key, offset, length) <= 0) {
+        index = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (index == -1) {
+      return -1;
+    }
+    byte[] end = partitionKeyEnds[index];
+    if (end.length > 0 && compare(end, key, offset, length) <= 0) {
+      return -1;
+    }
+    return index;
+  }
+
+  /**
+   * Returns the index of the tablet holding the partition key, or -1 if no tablet covers it.
+   */
+  public int getTabletIndex(byte[] partitionKey) {
+    return getTabletIndex(partitionKey, 0, partitionKey.length);
+  }
+
+  /**
+   * Returns the index of the tablet holding the row, or -1 if no tablet covers it.
+   * @param row a row of the table, with all the columns of its partition key set
+   */
+  public int getTabletIndex(PartialRow row) {
+    KeyEncoder encoder = KeyEncoder.get();
+    int length = encoder.encodePartitionKeyInPlace(row, partitionSchema);
+    return getTabletIndex(encoder.getKeyBytes(), 0, length);
+  }
+
+  /**
+   * Returns the tablet holding the partition key, or null if no tablet covers it.
+   */
+  public LocatedTablet route(byte[] partitionKey) {
+    int index = getTabletIndex(partitionKey);
+    return index == -1 ? null : tablets[index];
+  }
+
+  /**
+   * Returns the tablet holding the row, or null if no tablet covers it.
+   */
+  public LocatedTablet route(PartialRow row) {
+    int index = getTabletIndex(row);
+    return index == -1 ? null : tablets[index];
+  }
+
+  // Compares a partition bound with a key, bytewise and unsigned like Bytes.memcmp.
+  private static int compare(byte[] bound, byte[] key, int offset, int length) {
+    int minLength = Math.min(bound.length, length);
+    for (int i = 0; i < minLength; i++) {
+      int diff = (bound[i] & 0xff) - (key[offset + i] & 0xff);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return bound.length - length;
+  }
+}
@@ -1289,6 +1289,15 @@ public class YBClient implements AutoCloseable {
     return asyncClient.getDefaultAdminOperationTimeoutMs();
   }
 
+  /**
+   * Get the asynchronous client wrapped by this client, for callers that do not want to block
+   * a thread while waiting for RPCs.
+   * @return the underlying asynchronous client
+   */
+  public AsyncYBClient getAsyncClient() {
+    return asyncClient;
+  }
+
   /**
    * Builder class to use in order to connect to YB.
    * All the parameters beyond those in the constructors are optional.
@@ -1438,6 +1447,64 @@ public class YBClient implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Sets the listener receiving the RPC latencies, retries and cache lookups of the client,
+     * e.g. an {@link RpcMetrics}.
+     * Optional.
+     * If not provided, the events are not recorded.
+     */
+    public YBClientBuilder rpcMetricsListener(RpcMetricsListener listener) {
+      clientBuilder.rpcMetricsListener(listener);
+      return this;
+    }
+
+    /**
+     * Sets the backoff between the retries of an RPC. Each wait is drawn at random between the
+     * base wait and three times the previous wait of the RPC, up to the maximum wait.
+     * Optional.
+     * If not provided, defaults to a base of 100ms and a maximum of 5s.
+     */
+    public YBClientBuilder retryBackoff(long baseSleepMs, long maxSleepMs) {
+      clientBuilder.retryBackoff(baseSleepMs, maxSleepMs);
+      return this;
+    }
+
+    /**
+     * Sets the retry budget shared by all the RPCs of the client: up to maxTokens retries can be
+     * made in a burst, and then tokensPerSec retries per second. RPCs failing once the budget is
+     * exhausted are not retried. A maxTokens of 0 does not limit the retries.
+     * Optional.
+     * If not provided, the retries are not limited.
+     */
+    public YBClientBuilder retryBudget(int maxTokens, double tokensPerSec) {
+      clientBuilder.retryBudget(maxTokens, tokensPerSec);
+      return this;
+    }
+
+    /**
+     * Enables the client-side cache of the responses to read-only master RPCs, served for up to
+     * ttlMs after they were received.
+     * Optional.
+     * If not provided, every call is sent to the master leader.
+     * @see AsyncYBClient.AsyncYBClientBuilder#masterReadCacheTtlMs
+     */
+    public YBClientBuilder masterReadCacheTtlMs(long ttlMs) {
+      clientBuilder.masterReadCacheTtlMs(ttlMs);
+      return this;
+    }
+
+    /**
+     * Sets the queue of the RPCs sent to a server while the connection to it is being
+     * established, holding up to maxRpcs RPCs per server, sent at drainRpcsPerSec once connected.
+     * Optional.
+     * If not provided, defaults to 10000 RPCs per server, sent at 5000 RPCs per second.
+     * @see AsyncYBClient.AsyncYBClientBuilder#pendingRpcQueue
+     */
+    public YBClientBuilder pendingRpcQueue(int maxRpcs, int drainRpcsPerSec) {
+      clientBuilder.pendingRpcQueue(maxRpcs, drainRpcsPerSec);
+      return this;
+    }
+
     /**
      * Creates a new client that connects to the masters.
      * Doesn't block and won't throw an exception if the masters don't exist.
@@ -45,6 +45,7 @@ import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 
 
 /**
@@ -68,6 +69,7 @@ public class YBTable {
   private final String keyspace;
   private final String tableId;
   private final TableType tableType;
+  private final int schemaVersion;
 
   private static final String OBSERVER = "OBSERVER";
   private static final String PRE_OBSERVER = "PRE_OBSERVER";
@@ -80,6 +82,13 @@ public class YBTable {
    */
   YBTable(AsyncYBClient client, String name, String tableId, Schema schema,
           PartitionSchema partitionSchema, TableType tableType, String keyspace) {
+    this(client, name, tableId, schema, partitionSchema, tableType, keyspace,
+         GetTableSchemaResponse.NO_VERSION);
+  }
+
+  YBTable(AsyncYBClient client, String name, String tableId, Schema schema,
+          PartitionSchema partitionSchema, TableType tableType, String keyspace,
+          int schemaVersion) {
     this.schema = schema;
     this.partitionSchema = partitionSchema;
     this.client = client;
@@ -87,6 +96,7 @@ public class YBTable {
     this.tableId = tableId;
     this.tableType = tableType;
     this.keyspace = keyspace;
+    this.schemaVersion = schemaVersion;
   }
 
   YBTable(AsyncYBClient client, String name, String tableId,
@@ -103,6 +113,14 @@ public class YBTable {
     return this.schema;
   }
 
+  /**
+   * Get the version of this table's schema, as of the moment this instance was created.
+   * @return the schema version, or {@link GetTableSchemaResponse#NO_VERSION} if not known
+   */
+  int getSchemaVersion() {
+    return this.schemaVersion;
+  }
+
   /**
    * Get this table's type.
    */
@@ -197,6 +215,47 @@ public class YBTable {
     return client.syncLocateTable(tableId, startKey, endKey, deadline);
   }
 
+  /**
+   * Get all the tablets for this table, locating the ranges of the partition key space in
+   * parallel. The tablets are added to the tablet cache of the client as they are located, and
+   * are returned in partition key order as soon as the pages of their range arrive. The iterator
+   * throws a {@link NonRecoverableException} if locating the tablets fails or takes too long.
+   * @param parallelism the number of ranges of the partition key space located in parallel
+   * @param deadline deadline in milliseconds for locating all the tablets
+   * @return an iterator over the metadata and locations of the tablets in the table
+   */
+  public Iterator<LocatedTablet> getTabletsLocationsIterator(int parallelism, long deadline) {
+    return TabletLocationsIterator.start(this, parallelism, deadline);
+  }
+
+  /**
+   * Get all the tablets for this table, locating the ranges of the partition key space in
+   * parallel. This method blocks until it gets all the tablets.
+   * @param parallelism the number of ranges of the partition key space located in parallel
+   * @param deadline deadline in milliseconds for this method to finish
+   * @return a list containing the metadata and locations for each of the tablets in the
+   *         table
+   * @throws Exception
+   */
+  public List<LocatedTablet> getTabletsLocations(int parallelism, long deadline)
+      throws Exception {
+    List<LocatedTablet> tablets = new ArrayList<>();
+    getTabletsLocationsIterator(parallelism, deadline).forEachRemaining(tablets::add);
+    return tablets;
+  }
+
+  /**
+   * Get a router mapping the rows and partition keys of this table to their tablet and its
+   * leader, built from the current locations of the tablets. The router is a snapshot, and
+   * should be fetched again when the tablets move.
+   * @param deadline deadline in milliseconds for this method to finish
+   * @return a router over all the tablets of the table
+   * @throws Exception
+   */
+  public TabletRouter getTabletRouter(long deadline) throws Exception {
+    return new TabletRouter(partitionSchema, getTabletsLocations(deadline));
+  }
+
   /**
    * Asynchronously get all or some tablets for this table.
    * @param startKey where to start in the table, pass null to start at the beginning
@@ -226,12 +285,29 @@ public class YBTable {
    */
   public Map<String, List<List<Integer>>> getMemberTypeCountsForEachTSType(long deadline)
       throws Exception {
+    return getMemberTypeCountsForEachTSType(getTabletsLocations(deadline).iterator());
+  }
+
+  /**
+   * Same as {@link #getMemberTypeCountsForEachTSType(long)}, counting the replicas while the
+   * tablets are located in parallel ranges of the partition key space.
+   * @param parallelism the number of ranges of the partition key space located in parallel
+   * @param deadline deadline in milliseconds for locating all the tablets.
+   * @return a map from placement zone to a list of lists of integers.
+   */
+  public Map<String, List<List<Integer>>> getMemberTypeCountsForEachTSType(int parallelism,
+      long deadline) throws Exception {
+    return getMemberTypeCountsForEachTSType(getTabletsLocationsIterator(parallelism, deadline));
+  }
+
+  private Map<String, List<List<Integer>>> getMemberTypeCountsForEachTSType(
+      Iterator<LocatedTablet> tablets) {
     // Intermediate map which contains an internal map from ts uuid to live and
     // read replica counts.
     Map<String, Map<String, List<Integer>>> intermediateMap =
         new HashMap<String, Map<String, List<Integer>>>();
-    List<LocatedTablet> tablets = getTabletsLocations(deadline);
-    for (LocatedTablet tablet : tablets) {
+    while (tablets.hasNext()) {
+      LocatedTablet tablet = tablets.next();
       for (LocatedTablet.Replica replica : tablet.getReplicas()) {
         String placementUuid = replica.getTsPlacementUuid();
         Map<String, List<Integer>> tsMap;
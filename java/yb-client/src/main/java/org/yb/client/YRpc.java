@@ -115,6 +115,14 @@ public abstract class YRpc<R> {
   // Maximum number of attempts to try the RPC. Default 100 times.
   byte maxAttempts = 100;
 
+  // When the current attempt was written to the connection, for the RPC latency metrics.
+  // package-private for TabletClient only.
+  long sendTimeNanos;
+
+  // Time waited before the last retry, from which the client backs off further.
+  // package-private for AsyncYBClient only.
+  long lastRetrySleepMs;
+
   // Whether or not retries for this RPC should always go to the same server. This is required in
   // some cases where we do not want the RPC retries to hit a different server serving the same
   // tablet.
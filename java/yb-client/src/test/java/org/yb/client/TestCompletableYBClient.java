@@ -0,0 +1,141 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.stumbleupon.async.Deferred;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestCompletableYBClient {
+
+  private AsyncYBClient asyncClient;
+  private CompletableYBClient client;
+
+  @Before
+  public void setUp() {
+    // No RPC is sent, the client is only used for its timer.
+    asyncClient = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100").build();
+    client = new CompletableYBClient(asyncClient);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    asyncClient.close();
+  }
+
+  private static List<Integer> range(int size) {
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      items.add(i);
+    }
+    return items;
+  }
+
+  @Test
+  public void testToCompletableFuture() throws Exception {
+    Deferred<String> deferred = new Deferred<>();
+    CompletableFuture<String> future = CompletableYBClient.toCompletableFuture(deferred);
+    assertFalse(future.isDone());
+    deferred.callback("done");
+    assertEquals("done", future.get(1, TimeUnit.SECONDS));
+
+    Exception error = new IllegalStateException("aborted");
+    future = CompletableYBClient.toCompletableFuture(Deferred.<String>fromError(error));
+    assertTrue(future.isCompletedExceptionally());
+    try {
+      future.join();
+      fail("Expected an exception");
+    } catch (RuntimeException e) {
+      assertSame(error, e.getCause());
+    }
+  }
+
+  @Test
+  public void testAllOfPartialResults() throws Exception {
+    CompletableYBClient.BulkResult<Integer, String> result = client.allOf(range(6), i -> {
+      CompletableFuture<String> future = new CompletableFuture<>();
+      if (i == 4) {
+        // Never completes, and times out.
+      } else if (i % 2 == 1) {
+        future.completeExceptionally(new IllegalStateException("failed " + i));
+      } else {
+        future.complete("ok " + i);
+      }
+      return future;
+    }, 200).get(10, TimeUnit.SECONDS);
+
+    assertFalse(result.isComplete());
+    assertEquals(new ArrayList<>(result.getResults().values()),
+                 Arrays.asList("ok 0", "ok 2"));
+    assertEquals(new ArrayList<>(result.getErrors().keySet()), Arrays.asList(1, 3, 4, 5));
+    assertEquals("failed 3", result.getErrors().get(3).getMessage());
+    assertTrue(result.getErrors().get(4) instanceof TimeoutException);
+  }
+
+  @Test
+  public void testAllOfMaxConcurrency() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      AtomicInteger inflight = new AtomicInteger();
+      AtomicInteger maxInflight = new AtomicInteger();
+      CompletableYBClient.BulkResult<Integer, Integer> result = client.allOf(range(50), i -> {
+        maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+        return CompletableFuture.supplyAsync(() -> {
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inflight.decrementAndGet();
+          return i * 2;
+        }, executor);
+      }, 10000, 3).get(30, TimeUnit.SECONDS);
+
+      assertTrue(result.isComplete());
+      assertEquals(50, result.getResults().size());
+      assertEquals(Integer.valueOf(98), result.getResults().get(49));
+      assertTrue("Max in flight " + maxInflight.get(), maxInflight.get() <= 3);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testAllOfCompletedCalls() throws Exception {
+    // Calls completing right away must not start the next ones recursively.
+    CompletableYBClient.BulkResult<Integer, Integer> result = client.allOf(
+        range(100000), CompletableFuture::completedFuture, 10000, 1).get(30, TimeUnit.SECONDS);
+    assertTrue(result.isComplete());
+    assertEquals(100000, result.getResults().size());
+
+    assertTrue(client.allOf(new ArrayList<Integer>(), CompletableFuture::completedFuture, 1000)
+        .get(1, TimeUnit.SECONDS).getResults().isEmpty());
+  }
+}
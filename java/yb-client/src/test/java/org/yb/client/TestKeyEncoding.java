@@ -33,6 +33,7 @@ package org.yb.client;
 
 import static org.yb.AssertionWrappers.assertEquals;
 import static org.yb.AssertionWrappers.assertTrue;
+import static org.yb.AssertionWrappers.fail;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
@@ -47,6 +48,8 @@ import org.yb.Type;
 import org.yb.client.PartitionSchema.HashBucketSchema;
 import org.yb.client.PartitionSchema.RangeSchema;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -141,4 +144,44 @@ public class TestKeyEncoding {
                           'c'                   // b = "c"
                       });
   }
+
+  @Test
+  public void testEncodeIntoBuffer() {
+    Schema schema = buildSchema(
+        new ColumnSchemaBuilder("a", Type.BINARY).key(true),
+        new ColumnSchemaBuilder("b", Type.BINARY).key(true));
+    PartitionSchema partitionSchema =
+        new PartitionSchema(new RangeSchema(ImmutableList.of(0, 1)),
+                            ImmutableList.of(new HashBucketSchema(ImmutableList.of(0), 32, 0)),
+                            schema, HashSchema.MULTI_COLUMN_HASH_SCHEMA);
+
+    // Values larger than the initial buffers of the encoder, from heap and direct buffers.
+    byte[] a = new byte[100];
+    a[50] = 1;
+    ByteBuffer b = ByteBuffer.allocateDirect(200);
+    b.put(7, (byte) 'b');
+    PartialRow row = schema.newPartialRow();
+    row.addBinary("a", a);
+    row.addBinary("b", b);
+
+    byte[] expected = new KeyEncoder().encodePartitionKey(row, partitionSchema);
+    assertEquals(4 + 2 * 100 - 1 + 2 + 200, expected.length);
+    assertBytesEquals(partitionSchema.encodePartitionKey(row), expected);
+
+    ByteBuffer dest = ByteBuffer.allocate(expected.length + 10);
+    dest.position(3);
+    assertEquals(expected.length, partitionSchema.encodePartitionKey(row, dest));
+    assertEquals(3 + expected.length, dest.position());
+    byte[] written = new byte[expected.length];
+    System.arraycopy(dest.array(), 3, written, 0, expected.length);
+    assertBytesEquals(written, expected);
+
+    // A key which does not fit leaves the buffer unchanged.
+    try {
+      partitionSchema.encodePartitionKey(row, dest);
+      fail("Expected BufferOverflowException");
+    } catch (BufferOverflowException e) {
+      assertEquals(3 + expected.length, dest.position());
+    }
+  }
 }
@@ -0,0 +1,134 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.stumbleupon.async.Deferred;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestMasterReadCache {
+
+  private final AtomicLong clockNanos = new AtomicLong();
+  private final MasterReadCache cache = new MasterReadCache(1000, clockNanos::get);
+  // The RPCs sent by the calls, completed by the tests.
+  private final List<Deferred<Object>> rpcs = new ArrayList<>();
+
+  private Deferred<Object> get(String method, String args) {
+    return cache.get(method, args, () -> {
+      Deferred<Object> rpc = new Deferred<>();
+      rpcs.add(rpc);
+      return rpc;
+    });
+  }
+
+  private static GetTableSchemaResponse schema(String tableId, boolean createTableDone) {
+    return new GetTableSchemaResponse(0, "master", null, "ks", "table", tableId, null,
+                                      createTableDone, null, null);
+  }
+
+  @Test
+  public void testResponsesServedUntilExpired() throws Exception {
+    Deferred<Object> first = get(MasterReadCache.LIST_TABLES, "a");
+    Deferred<Object> second = get(MasterReadCache.LIST_TABLES, "a");
+    Deferred<Object> other = get(MasterReadCache.LIST_TABLES, "b");
+    // Concurrent identical calls share one RPC.
+    assertEquals(2, rpcs.size());
+    rpcs.get(0).callback("tables a");
+    assertEquals("tables a", first.join(1000));
+    assertEquals("tables a", second.join(1000));
+    rpcs.get(1).callback("tables b");
+    assertEquals("tables b", other.join(1000));
+
+    clockNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertEquals("tables a", get(MasterReadCache.LIST_TABLES, "a").join(1000));
+    assertEquals(2, rpcs.size());
+
+    clockNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    Deferred<Object> expired = get(MasterReadCache.LIST_TABLES, "a");
+    assertEquals(3, rpcs.size());
+    rpcs.get(2).callback("new tables a");
+    assertEquals("new tables a", expired.join(1000));
+  }
+
+  @Test
+  public void testErrorsNotCached() throws Exception {
+    Deferred<Object> first = get(MasterReadCache.LIST_TABLET_SERVERS, "");
+    Deferred<Object> second = get(MasterReadCache.LIST_TABLET_SERVERS, "");
+    Exception error = new NonRecoverableException("Too many attempts");
+    rpcs.get(0).callback(error);
+    for (Deferred<Object> d : new Deferred[] { first, second }) {
+      try {
+        d.join(1000);
+        fail("Expected an exception");
+      } catch (NonRecoverableException e) {
+        assertSame(error, e);
+      }
+    }
+
+    get(MasterReadCache.LIST_TABLET_SERVERS, "");
+    assertEquals(2, rpcs.size());
+  }
+
+  @Test
+  public void testInvalidation() throws Exception {
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t1");
+    rpcs.get(0).callback(schema("id1", true));
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t2");
+    rpcs.get(1).callback(schema("id2", true));
+    get(MasterReadCache.LIST_TABLES, "");
+    rpcs.get(2).callback("tables");
+    get(MasterReadCache.MASTER_CLUSTER_CONFIG, "");
+    rpcs.get(3).callback("config");
+
+    // The tablets of t1 are not found: its schema and the table lists are dropped.
+    cache.invalidateTable("id1");
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t1");
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t2");
+    get(MasterReadCache.LIST_TABLES, "");
+    get(MasterReadCache.MASTER_CLUSTER_CONFIG, "");
+    assertEquals(6, rpcs.size());
+    rpcs.get(4).callback(schema("id1", true));
+    rpcs.get(5).callback("tables");
+
+    cache.invalidateAll();
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t2");
+    get(MasterReadCache.MASTER_CLUSTER_CONFIG, "");
+    assertEquals(8, rpcs.size());
+  }
+
+  @Test
+  public void testSchemaOfTableBeingCreatedNotCached() throws Exception {
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t1");
+    rpcs.get(0).callback(schema("id1", false));
+    get(MasterReadCache.TABLE_SCHEMA, "ks.t1");
+    assertEquals(2, rpcs.size());
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    MasterReadCache disabled = new MasterReadCache(0, clockNanos::get);
+    assertFalse(disabled.isEnabled());
+    Deferred<Object> rpc = Deferred.fromResult((Object) "tables");
+    assertSame(rpc, disabled.get(MasterReadCache.LIST_TABLES, "", () -> rpc));
+  }
+}
@@ -0,0 +1,127 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestRpcMetrics {
+
+  private static final String SERVICE = "yb.master.MasterService";
+
+  @Test
+  public void testLatencyHistogram() {
+    RpcMetrics metrics = new RpcMetrics();
+    // 98 fast responses and 2 slow ones, so that the 99th percentile is a slow one.
+    for (int i = 0; i < 98; i++) {
+      metrics.rpcCompleted(SERVICE, "ListTables", TimeUnit.MICROSECONDS.toNanos(200), "OK");
+    }
+    metrics.rpcCompleted(SERVICE, "ListTables", TimeUnit.MILLISECONDS.toNanos(40), "OK");
+    metrics.rpcCompleted(SERVICE, "ListTables", TimeUnit.SECONDS.toNanos(20), "NOT_THE_LEADER");
+
+    assertEquals(Long.valueOf(100), metrics.getResponseCounts().get(SERVICE + ".ListTables"));
+    assertEquals(Long.valueOf(50000),
+        metrics.getP99LatencyMicros().get(SERVICE + ".ListTables"));
+    Map<String, Long> statuses = metrics.getStatusCounts();
+    assertEquals(Long.valueOf(99), statuses.get(SERVICE + ".ListTables:OK"));
+    assertEquals(Long.valueOf(1), statuses.get(SERVICE + ".ListTables:NOT_THE_LEADER"));
+
+    assertEquals(0, RpcMetrics.getLatencyBucket(0));
+    assertEquals(0, RpcMetrics.getLatencyBucket(100_000L));
+    assertEquals(1, RpcMetrics.getLatencyBucket(100_001L));
+    assertEquals(RpcMetrics.LATENCY_BUCKET_BOUNDS_NANOS.length,
+        RpcMetrics.getLatencyBucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testPrometheusText() {
+    RpcMetrics metrics = new RpcMetrics();
+    metrics.rpcCompleted(SERVICE, "GetTableLocations", 300_000L, "OK");
+    metrics.rpcCompleted(SERVICE, "GetTableLocations", 3_000_000L, "OK");
+    metrics.rpcRetried(SERVICE, "GetTableLocations", "MasterErrorException");
+    metrics.tabletCacheLookup(true);
+    metrics.tabletCacheLookup(false);
+    metrics.tabletCacheLookup(false);
+    metrics.masterLookupPermitWaited(5_000_000L, false);
+    metrics.setInflightRpcsSource(() -> Collections.singletonMap("127.0.0.1:7100", 3));
+    metrics.pendingRpcDropped(SERVICE, "GetTableLocations", "overloaded");
+    metrics.setPendingRpcsSource(() -> Collections.singletonMap("127.0.0.1:7100", 5));
+
+    String text = metrics.toPrometheusText();
+    String labels = "service=\"yb.master.MasterService\",method=\"GetTableLocations\"";
+    assertTrue(text, text.contains(
+        "yb_client_rpc_latency_seconds_bucket{" + labels + ",le=\"2.5E-4\"} 0\n"));
+    assertTrue(text, text.contains(
+        "yb_client_rpc_latency_seconds_bucket{" + labels + ",le=\"5.0E-4\"} 1\n"));
+    assertTrue(text, text.contains(
+        "yb_client_rpc_latency_seconds_bucket{" + labels + ",le=\"+Inf\"} 2\n"));
+    assertTrue(text, text.contains("yb_client_rpc_latency_seconds_count{" + labels + "} 2\n"));
+    assertTrue(text, text.contains(
+        "yb_client_rpc_responses_total{" + labels + ",status=\"OK\"} 2\n"));
+    assertTrue(text, text.contains(
+        "yb_client_rpc_retries_total{" + labels + ",reason=\"MasterErrorException\"} 1\n"));
+    assertTrue(text, text.contains("yb_client_tablet_cache_lookups_total{result=\"miss\"} 2\n"));
+    assertTrue(text, text.contains(
+        "yb_client_master_lookup_permits_total{result=\"throttled\"} 1\n"));
+    assertTrue(text, text.contains("yb_client_inflight_rpcs{server=\"127.0.0.1:7100\"} 3\n"));
+    assertTrue(text, text.contains(
+        "yb_client_pending_rpcs_dropped_total{" + labels + ",reason=\"overloaded\"} 1\n"));
+    assertTrue(text, text.contains("yb_client_pending_rpcs{server=\"127.0.0.1:7100\"} 5\n"));
+  }
+
+  @Test
+  public void testMBean() throws Exception {
+    RpcMetrics metrics = new RpcMetrics();
+    metrics.tabletCacheLookup(true);
+    ObjectName name = metrics.registerMBean("test");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      assertEquals(1L, server.getAttribute(name, "TabletCacheHits"));
+      assertEquals(0L, server.getAttribute(name, "TabletCacheMisses"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+
+  @Test
+  public void testClientEvents() throws Exception {
+    RpcMetrics metrics = new RpcMetrics();
+    AsyncYBClient client = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100")
+        .rpcMetricsListener(metrics)
+        .build();
+    try {
+      assertNull(client.getTablet("table", new byte[0]));
+      assertTrue(client.acquireMasterLookupPermit());
+      client.releaseMasterLookupPermit();
+      assertTrue(client.getInflightRpcsPerServer().isEmpty());
+    } finally {
+      client.close();
+    }
+    assertEquals(0, metrics.getTabletCacheHits());
+    assertEquals(1, metrics.getTabletCacheMisses());
+    assertEquals(0, metrics.getMasterLookupsThrottled());
+  }
+}
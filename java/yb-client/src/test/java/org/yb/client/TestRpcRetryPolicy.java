@@ -0,0 +1,191 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestRpcRetryPolicy {
+
+  // Number of clients retrying an RPC to the master leader during its election.
+  private static final int NUM_CLIENTS = 1000;
+  // Time in ms without a master leader.
+  private static final long ELECTION_MS = 3000;
+  // Retries are counted per bucket, and reported per window of consecutive buckets.
+  private static final long BUCKET_MS = 10;
+  private static final int BUCKETS_PER_WINDOW = 10;
+  private static final long SIMULATION_MS = 20000;
+
+  /** Sleep before a retry, given the attempt number and the previous sleep. */
+  private interface Backoff {
+    long getSleepTimeMs(int attempt, long previousSleepMs);
+  }
+
+  /** Retries sent over the simulation. */
+  private static class RetryTraffic {
+    final long[] retriesPerBucket = new long[(int) (SIMULATION_MS / BUCKET_MS)];
+    long rejected = 0;
+
+    long total() {
+      long total = 0;
+      for (long retries : retriesPerBucket) {
+        total += retries;
+      }
+      return total;
+    }
+
+    // Maximum number of retries in a sliding window starting after the given time.
+    long peak(long fromMs) {
+      long peak = 0;
+      long window = 0;
+      int first = (int) (fromMs / BUCKET_MS);
+      for (int i = first; i < retriesPerBucket.length; i++) {
+        window += retriesPerBucket[i];
+        if (i - first >= BUCKETS_PER_WINDOW) {
+          window -= retriesPerBucket[i - BUCKETS_PER_WINDOW];
+        }
+        peak = Math.max(peak, window);
+      }
+      return peak;
+    }
+  }
+
+  /**
+   * Simulates clients whose RPCs all fail at about the same time when the master leader goes
+   * away, and are retried until a new leader is elected.
+   */
+  private static RetryTraffic simulateLeaderChange(Backoff backoff, RpcRetryPolicy budget,
+                                                   AtomicLong clockNanos) {
+    Random random = new Random(42);
+    // Events are {time in ms, client, attempt, previous sleep}.
+    PriorityQueue<long[]> events = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    for (int client = 0; client < NUM_CLIENTS; client++) {
+      events.add(new long[] { random.nextInt(10), client, 1, 0 });
+    }
+    RetryTraffic traffic = new RetryTraffic();
+    while (!events.isEmpty()) {
+      long[] event = events.poll();
+      long nowMs = event[0];
+      clockNanos.set(TimeUnit.MILLISECONDS.toNanos(nowMs));
+      if (event[2] > 1) {
+        traffic.retriesPerBucket[(int) (nowMs / BUCKET_MS)]++;
+      }
+      if (nowMs >= ELECTION_MS) {
+        continue;
+      }
+      if (budget != null && !budget.tryAcquireRetry()) {
+        traffic.rejected++;
+        continue;
+      }
+      long sleepMs = backoff.getSleepTimeMs((int) event[2], event[3]);
+      if (nowMs + sleepMs < SIMULATION_MS) {
+        events.add(new long[] { nowMs + sleepMs, event[1], event[2] + 1, sleepMs });
+      }
+    }
+    return traffic;
+  }
+
+  @Test
+  public void testBackoff() {
+    RpcRetryPolicy policy = new RpcRetryPolicy(100, 5000, 0, 0);
+    long previousSleepMs = 0;
+    long maxSleepMs = 0;
+    for (int i = 0; i < 1000; i++) {
+      long sleepMs = policy.getSleepTimeMs(previousSleepMs);
+      assertTrue("Sleep " + sleepMs, sleepMs >= 100 && sleepMs <= 5000);
+      assertTrue("Sleep " + sleepMs, sleepMs <= Math.max(100, previousSleepMs) * 3);
+      maxSleepMs = Math.max(maxSleepMs, sleepMs);
+      previousSleepMs = sleepMs;
+    }
+    assertTrue("Max sleep " + maxSleepMs, maxSleepMs > 1000);
+    assertTrue(policy.getSleepTimeMs(0) <= 300);
+  }
+
+  @Test
+  public void testRetryBudget() {
+    AtomicLong clockNanos = new AtomicLong();
+    RpcRetryPolicy policy = new RpcRetryPolicy(100, 5000, 10, 5, clockNanos::get);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(policy.tryAcquireRetry());
+    }
+    assertFalse(policy.tryAcquireRetry());
+
+    clockNanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals(5.0, policy.getAvailableTokens(), 0.001);
+    for (int i = 0; i < 5; i++) {
+      assertTrue(policy.tryAcquireRetry());
+    }
+    assertFalse(policy.tryAcquireRetry());
+
+    // The bucket does not fill beyond its size.
+    clockNanos.addAndGet(TimeUnit.SECONDS.toNanos(100));
+    assertEquals(10.0, policy.getAvailableTokens(), 0.001);
+
+    // A budget of 0 does not limit the retries.
+    RpcRetryPolicy unlimited = new RpcRetryPolicy(100, 5000, 0, 0, clockNanos::get);
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(unlimited.tryAcquireRetry());
+    }
+    assertEquals(-1.0, unlimited.getAvailableTokens(), 0.001);
+
+    // Exhausted and unlimited budgets are told apart.
+    for (int i = 0; i < 10; i++) {
+      policy.tryAcquireRetry();
+    }
+    assertEquals(0.0, policy.getAvailableTokens(), 0.001);
+  }
+
+  @Test
+  public void testRetryTrafficDuringLeaderChange() {
+    AtomicLong clockNanos = new AtomicLong();
+    // The previous backoff: linear in the number of attempts, with 50ms of jitter.
+    Random random = new Random(7);
+    RetryTraffic linear = simulateLeaderChange(
+        (attempt, previousSleepMs) -> attempt * AsyncYBClient.SLEEP_TIME + random.nextInt(50),
+        null, clockNanos);
+    RpcRetryPolicy policy = new RpcRetryPolicy(RpcRetryPolicy.DEFAULT_BASE_SLEEP_MS,
+        RpcRetryPolicy.DEFAULT_MAX_SLEEP_MS, 0, 0, clockNanos::get);
+    RetryTraffic jittered = simulateLeaderChange(
+        (attempt, previousSleepMs) -> policy.getSleepTimeMs(previousSleepMs), null, clockNanos);
+
+    // With the linear backoff all the clients retry within the same 100ms, again when the new
+    // leader takes over.
+    assertEquals(NUM_CLIENTS, linear.peak(0));
+    assertTrue("Peak " + linear.peak(ELECTION_MS), linear.peak(ELECTION_MS) > NUM_CLIENTS * 9 / 10);
+    // With jitter, the first retries spread over 200ms, and further ones over more and more.
+    assertTrue("Peak " + jittered.peak(0), jittered.peak(0) < NUM_CLIENTS * 7 / 10);
+    assertTrue("Peak " + jittered.peak(ELECTION_MS),
+        jittered.peak(ELECTION_MS) < NUM_CLIENTS / 4);
+
+    // A retry budget bounds the retries to the burst plus the refill during the election.
+    clockNanos.set(0);
+    RpcRetryPolicy budget = new RpcRetryPolicy(RpcRetryPolicy.DEFAULT_BASE_SLEEP_MS,
+        RpcRetryPolicy.DEFAULT_MAX_SLEEP_MS, 500, 100, clockNanos::get);
+    RetryTraffic budgeted = simulateLeaderChange(
+        (attempt, previousSleepMs) -> policy.getSleepTimeMs(previousSleepMs), budget, clockNanos);
+    long maxRetries = 500 + 100 * ELECTION_MS / 1000;
+    assertTrue("Retries " + budgeted.total(), budgeted.total() <= maxRetries);
+    assertTrue("Retries " + jittered.total(), jittered.total() > maxRetries);
+    assertTrue(budgeted.rejected > 0);
+  }
+}
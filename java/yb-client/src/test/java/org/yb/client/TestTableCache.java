@@ -0,0 +1,114 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestTableCache {
+
+  private final TableCache cache = new TableCache();
+
+  private static GetTableSchemaResponse schema(String tableId, int version,
+                                               boolean createTableDone) {
+    return new GetTableSchemaResponse(0, "master", null, "ks", "table", tableId, null,
+                                      createTableDone, null, null, version);
+  }
+
+  private YBTable open(GetTableSchemaResponse response, String keyspace, String name) {
+    return cache.update(response, keyspace, name, () -> new YBTable(null, "table",
+        response.getTableId(), null, null, null, "ks", response.getVersion()));
+  }
+
+  @Test
+  public void testHandleReusedWhileVersionUnchanged() {
+    YBTable table = open(schema("t1", 1, true), "ks", "table");
+    assertSame(table, cache.getByName("ks", "table"));
+    assertSame(table, cache.getById("t1"));
+    // Opening by UUID or by name gives the same handle.
+    assertSame(table, open(schema("t1", 1, true), null, null));
+
+    YBTable altered = open(schema("t1", 2, true), "ks", "table");
+    assertNotSame(table, altered);
+    assertEquals(2, altered.getSchemaVersion());
+    assertSame(altered, cache.getByName("ks", "table"));
+    assertSame(altered, cache.getById("t1"));
+  }
+
+  @Test
+  public void testNameMovesToRecreatedTable() {
+    YBTable table = open(schema("t1", 1, true), "ks", "table");
+    // Dropped and created again by another client.
+    YBTable recreated = open(schema("t2", 1, true), "ks", "table");
+    assertNotSame(table, recreated);
+    assertSame(recreated, cache.getByName("ks", "table"));
+  }
+
+  @Test
+  public void testUncachedResponses() {
+    YBTable creating = open(schema("t1", 1, false), "ks", "table");
+    assertNull(cache.getById("t1"));
+    assertNotSame(creating, open(schema("t1", 1, false), "ks", "table"));
+
+    open(schema("t2", GetTableSchemaResponse.NO_VERSION, true), "ks", "other");
+    assertNull(cache.getByName("ks", "other"));
+  }
+
+  @Test
+  public void testInvalidation() {
+    YBTable table = open(schema("t1", 1, true), "ks", "table");
+    cache.invalidateTable("ks", "table");
+    assertNull(cache.getById("t1"));
+    assertNull(cache.getByName("ks", "table"));
+    assertNotSame(table, open(schema("t1", 1, true), "ks", "table"));
+
+    cache.invalidateTable("t1");
+    assertNull(cache.getById("t1"));
+    assertNull(cache.getByName("ks", "table"));
+  }
+
+  @Test
+  public void testLeastRecentlyOpenedEvicted() {
+    TableCache small = new TableCache(2);
+    for (String tableId : new String[] {"t1", "t2"}) {
+      GetTableSchemaResponse response = schema(tableId, 1, true);
+      small.update(response, "ks", tableId, () -> new YBTable(null, tableId, tableId, null, null,
+          null, "ks", response.getVersion()));
+    }
+    // Opening t1 again makes t2 the least recently opened table.
+    assertNotNull(small.getByName("ks", "t1"));
+    GetTableSchemaResponse response = schema("t3", 1, true);
+    small.update(response, "ks", "t3", () -> new YBTable(null, "t3", "t3", null, null, null,
+        "ks", response.getVersion()));
+
+    assertEquals(2, small.size());
+    assertNotNull(small.getById("t1"));
+    assertNull(small.getById("t2"));
+    assertNull(small.getByName("ks", "t2"));
+    assertNotNull(small.getById("t3"));
+  }
+
+  @Test
+  public void testRecreatedTableKeepsName() {
+    open(schema("t1", 1, true), "ks", "table");
+    YBTable recreated = open(schema("t2", 1, true), "ks", "table");
+    // Dropping the old table does not drop the name of the new one.
+    cache.invalidateTable("t1");
+    assertSame(recreated, cache.getByName("ks", "table"));
+  }
+}
@@ -0,0 +1,211 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.yb.AssertionWrappers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.stumbleupon.async.Deferred;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestTabletClient {
+
+  private static final String PING = "yb.server.GenericService.Ping";
+
+  private RpcMetrics metrics;
+  private AsyncYBClient client;
+  // Not connected until a test connects it, so that the RPCs sent to it are queued.
+  private TabletClient tabletClient;
+  private Channel chan;
+
+  @Before
+  public void setUp() throws Exception {
+    createClient(2, 0);
+  }
+
+  private void createClient(int maxPendingRpcs, int drainRpcsPerSec) throws Exception {
+    if (client != null) {
+      client.close();
+    }
+    metrics = new RpcMetrics();
+    client = new AsyncYBClient.AsyncYBClientBuilder("127.0.0.1:7100")
+        .rpcMetricsListener(metrics)
+        .pendingRpcQueue(maxPendingRpcs, drainRpcsPerSec)
+        .build();
+    tabletClient = new TabletClient(client, "ts1");
+    // Swallows the RPCs written to it.
+    chan = mock(Channel.class);
+    when(chan.getPipeline()).thenReturn(mock(ChannelPipeline.class));
+  }
+
+  // Drains one queued RPC per timer tick.
+  private void createSlowDrainClient() throws Exception {
+    createClient(100, (int) (1000 / TabletClient.PENDING_RPCS_DRAIN_INTERVAL_MS));
+  }
+
+  private List<Deferred<PingResponse>> queuePings(int numRpcs, long timeoutMs) {
+    List<Deferred<PingResponse>> rpcs = new ArrayList<>();
+    for (int i = 0; i < numRpcs; i++) {
+      rpcs.add(ping(timeoutMs));
+    }
+    return rpcs;
+  }
+
+  // The last batch is sent after it left the queue, so this waits for the RPCs to be sent too.
+  private void waitForDrain(int numSentRpcs) throws Exception {
+    long deadlineMs = System.currentTimeMillis() + 10000;
+    while (tabletClient.getNumPendingRpcs() > 0 ||
+           tabletClient.getNumInflightRpcs() < numSentRpcs) {
+      assertTrue("Queued RPCs not drained", System.currentTimeMillis() < deadlineMs);
+      Thread.sleep(5);
+    }
+  }
+
+  private void disconnect() {
+    ChannelStateEvent event = mock(ChannelStateEvent.class);
+    when(event.getChannel()).thenReturn(chan);
+    tabletClient.channelClosed(mock(ChannelHandlerContext.class), event);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+  }
+
+  private Deferred<PingResponse> ping(long timeoutMs) {
+    PingRequest rpc = new PingRequest();
+    rpc.setTimeoutMillis(timeoutMs);
+    Deferred<PingResponse> d = rpc.getDeferred();
+    tabletClient.sendRpc(rpc);
+    return d;
+  }
+
+  private static Exception getError(Deferred<PingResponse> d) throws Exception {
+    try {
+      d.join(1000);
+      fail("Expected the RPC to fail");
+      return null;
+    } catch (YBException e) {
+      return e;
+    }
+  }
+
+  @Test
+  public void testQueueFullFailsNewRpcs() throws Exception {
+    Deferred<PingResponse> first = ping(60000);
+    ping(60000);
+    assertEquals(2, tabletClient.getNumPendingRpcs());
+
+    Exception e = getError(ping(60000));
+    assertTrue(e.getMessage().contains("Too many RPCs queued"));
+    assertEquals(2, tabletClient.getNumPendingRpcs());
+    assertEquals(Long.valueOf(1),
+        metrics.getPendingRpcsDroppedCounts().get(PING + ":overloaded"));
+
+    // The queued RPCs are failed on shutdown.
+    tabletClient.shutdown();
+    assertEquals(0, tabletClient.getNumPendingRpcs());
+    assertTrue(getError(first) instanceof ConnectionResetException);
+  }
+
+  @Test
+  public void testQueueFullEvictsExpiredRpcs() throws Exception {
+    Deferred<PingResponse> expired = ping(1);
+    ping(60000);
+    Thread.sleep(10);
+
+    // Only evicted once the queue is full.
+    assertEquals(2, tabletClient.getNumPendingRpcs());
+    ping(60000);
+    assertEquals(2, tabletClient.getNumPendingRpcs());
+    assertTrue(getError(expired).getMessage().startsWith("Time out"));
+    assertEquals(Long.valueOf(1),
+        metrics.getPendingRpcsDroppedCounts().get(PING + ":expired"));
+    assertNull(metrics.getPendingRpcsDroppedCounts().get(PING + ":overloaded"));
+  }
+
+  @Test
+  public void testRateLimitedDrain() throws Exception {
+    createSlowDrainClient();
+    queuePings(5, 60000);
+    assertEquals(5, tabletClient.getNumPendingRpcs());
+
+    long startMs = System.currentTimeMillis();
+    tabletClient.becomeReady(chan);
+    // The first batch is sent right away, the rest is left for the timer.
+    assertEquals(1, tabletClient.getNumInflightRpcs());
+    assertEquals(4, tabletClient.getNumPendingRpcs());
+
+    // New RPCs are sent right away, ahead of the queued ones.
+    ping(60000);
+    assertEquals(2, tabletClient.getNumInflightRpcs());
+    assertEquals(4, tabletClient.getNumPendingRpcs());
+
+    // Each timer tick sends a batch and schedules the next one until the queue is empty.
+    waitForDrain(6);
+    assertEquals(6, tabletClient.getNumInflightRpcs());
+    assertGreaterThanOrEqualTo(System.currentTimeMillis() - startMs,
+        3 * TabletClient.PENDING_RPCS_DRAIN_INTERVAL_MS);
+  }
+
+  @Test
+  public void testExpiryWhileDraining() throws Exception {
+    createSlowDrainClient();
+    queuePings(5, 60000);
+    Deferred<PingResponse> expiring = ping(40);
+    tabletClient.becomeReady(chan);
+    assertEquals(5, tabletClient.getNumPendingRpcs());
+
+    // Expired by the time its batch comes, so it is failed instead of being sent.
+    waitForDrain(5);
+    assertTrue(getError(expiring).getMessage().startsWith("Time out"));
+    assertEquals(5, tabletClient.getNumInflightRpcs());
+    assertEquals(Long.valueOf(1),
+        metrics.getPendingRpcsDroppedCounts().get(PING + ":expired"));
+  }
+
+  @Test
+  public void testDisconnectWhileDraining() throws Exception {
+    createSlowDrainClient();
+    List<Deferred<PingResponse>> rpcs = queuePings(5, 60000);
+    tabletClient.becomeReady(chan);
+    assertEquals(1, tabletClient.getNumInflightRpcs());
+
+    disconnect();
+    // Both the sent and the queued RPCs are failed.
+    assertEquals(0, tabletClient.getNumPendingRpcs());
+    assertEquals(0, tabletClient.getNumInflightRpcs());
+    for (Deferred<PingResponse> rpc : rpcs) {
+      assertTrue(getError(rpc) instanceof ConnectionResetException);
+    }
+
+    // The drain already scheduled does not send anything once disconnected.
+    Thread.sleep(5 * TabletClient.PENDING_RPCS_DRAIN_INTERVAL_MS);
+    assertEquals(0, tabletClient.getNumInflightRpcs());
+  }
+}
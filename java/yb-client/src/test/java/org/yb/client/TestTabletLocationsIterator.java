@@ -0,0 +1,133 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+import org.yb.Common;
+import org.yb.master.Master;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import org.yb.YBTestRunner;
+
+import org.junit.runner.RunWith;
+
+@RunWith(value=YBTestRunner.class)
+public class TestTabletLocationsIterator {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private static LocatedTablet tablet(int start, int end) {
+    Master.TabletLocationsPB.Builder tabletPb = Master.TabletLocationsPB.newBuilder();
+    tabletPb.setPartition(Common.PartitionPB.newBuilder()
+        .setPartitionKeyStart(ByteString.copyFrom(key(start)))
+        .setPartitionKeyEnd(ByteString.copyFrom(key(end))));
+    tabletPb.setStale(false);
+    tabletPb.setTabletId(ByteString.copyFromUtf8("t" + start));
+    return new LocatedTablet(tabletPb.build());
+  }
+
+  // Hash partition key, 0 and 0x10000 being the empty keys of the first and last tablets.
+  private static byte[] key(int hashKey) {
+    if (hashKey == 0 || hashKey == 0x10000) {
+      return EMPTY;
+    }
+    return new byte[] { (byte) (hashKey >> 8), (byte) hashKey };
+  }
+
+  private static List<String> tabletIds(TabletLocationsIterator iterator) {
+    List<String> ids = new ArrayList<>();
+    while (iterator.hasNext()) {
+      ids.add(new String(iterator.next().getTabletId()));
+    }
+    return ids;
+  }
+
+  @Test
+  public void testSplitPartitionKeySpace() {
+    List<byte[]> rangeStarts = TabletLocationsIterator.splitPartitionKeySpace(4);
+    assertEquals(4, rangeStarts.size());
+    assertArrayEquals(EMPTY, rangeStarts.get(0));
+    assertArrayEquals(key(0x4000), rangeStarts.get(1));
+    assertArrayEquals(key(0x8000), rangeStarts.get(2));
+    assertArrayEquals(key(0xC000), rangeStarts.get(3));
+
+    TabletLocationsIterator iterator = new TabletLocationsIterator(rangeStarts, 0);
+    assertNull(iterator.getRange(0).getFirst());
+    assertArrayEquals(key(0x4000), iterator.getRange(0).getSecond());
+    assertArrayEquals(key(0xC000), iterator.getRange(3).getFirst());
+    assertNull(iterator.getRange(3).getSecond());
+
+    assertEquals(1, TabletLocationsIterator.splitPartitionKeySpace(1).size());
+    assertEquals(0x10000, TabletLocationsIterator.splitPartitionKeySpace(100000).size());
+  }
+
+  @Test
+  public void testMergesRangesInOrder() {
+    TabletLocationsIterator iterator =
+        new TabletLocationsIterator(TabletLocationsIterator.splitPartitionKeySpace(2), 0);
+    // The pages of each range also hold the tablets spanning or following its end.
+    BlockingQueue<Object> first = iterator.getPages(0);
+    BlockingQueue<Object> second = iterator.getPages(1);
+    second.add(Arrays.asList(tablet(0x6000, 0x9000), tablet(0x9000, 0xC000)));
+    second.add(Arrays.asList(tablet(0xC000, 0x10000)));
+    second.add(TabletLocationsIterator.endOfRange());
+    first.add(Arrays.asList(tablet(0, 0x3000)));
+    first.add(Arrays.asList(tablet(0x3000, 0x6000), tablet(0x6000, 0x9000)));
+    first.add(TabletLocationsIterator.endOfRange());
+    assertEquals(Arrays.asList("t0", "t12288", "t24576", "t36864", "t49152"),
+        tabletIds(iterator));
+  }
+
+  @Test
+  public void testStreamsFirstRangeBeforeOthersComplete() {
+    TabletLocationsIterator iterator =
+        new TabletLocationsIterator(TabletLocationsIterator.splitPartitionKeySpace(2), 0);
+    iterator.getPages(0).add(Arrays.asList(tablet(0, 0x8000)));
+    assertTrue(iterator.hasNext());
+    assertEquals("t0", new String(iterator.next().getTabletId()));
+  }
+
+  @Test
+  public void testRangeErrorAndTimeout() {
+    TabletLocationsIterator iterator =
+        new TabletLocationsIterator(TabletLocationsIterator.splitPartitionKeySpace(2), 0);
+    iterator.getPages(0).add(Arrays.asList(tablet(0, 0x8000)));
+    iterator.getPages(0).add(TabletLocationsIterator.endOfRange());
+    iterator.getPages(1).add(new NonRecoverableException("master unavailable"));
+    assertEquals("t0", new String(iterator.next().getTabletId()));
+    for (int i = 0; i < 2; i++) {
+      try {
+        iterator.hasNext();
+        fail("Expected the range error");
+      } catch (NonRecoverableException e) {
+        assertEquals("master unavailable", e.getMessage());
+      }
+    }
+
+    iterator = new TabletLocationsIterator(TabletLocationsIterator.splitPartitionKeySpace(2), 100);
+    try {
+      iterator.hasNext();
+      fail("Expected a timeout");
+    } catch (NonRecoverableException e) {
+      assertTrue(e.getMessage().contains("Took too long"));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.HostAndPort;
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+import org.yb.ColumnSchema.ColumnSchemaBuilder;
+import org.yb.Common;
+import org.yb.Common.PartitionSchemaPB.HashSchema;
+import org.yb.Schema;
+import org.yb.Type;
+import org.yb.client.PartitionSchema.HashBucketSchema;
+import org.yb.client.PartitionSchema.RangeSchema;
+import org.yb.consensus.Metadata;
+import org.yb.master.Master;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.yb.YBTestRunner;
+
+import org.junit.runner.RunWith;
+
+@RunWith(value=YBTestRunner.class)
+public class TestTabletRouter {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private static LocatedTablet tablet(String id, byte[] start, byte[] end, String leaderHost) {
+    Master.TabletLocationsPB.Builder tabletPb = Master.TabletLocationsPB.newBuilder();
+    tabletPb.setPartition(Common.PartitionPB.newBuilder()
+        .setPartitionKeyStart(ByteString.copyFrom(start))
+        .setPartitionKeyEnd(ByteString.copyFrom(end)));
+    tabletPb.setStale(false);
+    tabletPb.setTabletId(ByteString.copyFromUtf8(id));
+    if (leaderHost != null) {
+      Master.TSInfoPB.Builder tsInfo = Master.TSInfoPB.newBuilder()
+          .setPermanentUuid(ByteString.copyFromUtf8(leaderHost))
+          .addPrivateRpcAddresses(Common.HostPortPB.newBuilder().setHost(leaderHost).setPort(9100));
+      tabletPb.addReplicas(Master.TabletLocationsPB.ReplicaPB.newBuilder()
+          .setTsInfo(tsInfo)
+          .setRole(Metadata.RaftPeerPB.Role.LEADER));
+    }
+    return new LocatedTablet(tabletPb.build());
+  }
+
+  private static byte[] bucket(int bucket) {
+    return new byte[] { 0, 0, 0, (byte) bucket };
+  }
+
+  private static String tabletId(TabletRouter router, byte[] key) {
+    LocatedTablet tablet = router.route(key);
+    return tablet == null ? null : new String(tablet.getTabletId());
+  }
+
+  private static PartitionSchema hashPartitionSchema(Schema schema) {
+    return new PartitionSchema(new RangeSchema(ImmutableList.<Integer>of()),
+                               ImmutableList.of(new HashBucketSchema(ImmutableList.of(0), 4, 0)),
+                               schema, HashSchema.MULTI_COLUMN_HASH_SCHEMA);
+  }
+
+  private static Schema buildSchema() {
+    Common.SchemaPB.Builder pb = Common.SchemaPB.newBuilder();
+    pb.addColumns(ProtobufHelper.columnToPb(
+        new ColumnSchemaBuilder("k", Type.STRING).key(true).build()).toBuilder().setId(0));
+    return ProtobufHelper.pbToSchema(pb.build());
+  }
+
+  @Test
+  public void testRouteKeys() {
+    List<LocatedTablet> tablets = new ArrayList<>();
+    // Out of order, with a gap between buckets 2 and 3.
+    tablets.add(tablet("t3", bucket(3), EMPTY, "host3"));
+    tablets.add(tablet("t1", EMPTY, bucket(1), "host1"));
+    tablets.add(tablet("t2", bucket(1), bucket(2), null));
+    TabletRouter router = new TabletRouter(hashPartitionSchema(buildSchema()), tablets);
+
+    assertEquals(3, router.getNumTablets());
+    assertEquals("t1", tabletId(router, EMPTY));
+    assertEquals("t1", tabletId(router, new byte[] { 0, 0, 0, 0, 'z' }));
+    assertEquals("t2", tabletId(router, bucket(1)));
+    assertEquals("t2", tabletId(router, new byte[] { 0, 0, 0, 1, (byte) 0xff }));
+    assertNull(tabletId(router, bucket(2)));
+    assertEquals("t3", tabletId(router, bucket(3)));
+    assertEquals("t3", tabletId(router, new byte[] { (byte) 0xff }));
+
+    // Keys within a larger array.
+    byte[] keys = { 9, 9, 0, 0, 0, 1, 9 };
+    assertEquals(1, router.getTabletIndex(keys, 2, 4));
+    assertEquals(2, router.getTabletIndex(keys, 0, 2));
+
+    assertEquals(HostAndPort.fromParts("host1", 9100), router.getLeader(0));
+    assertNull(router.getLeader(1));
+    assertEquals(HostAndPort.fromParts("host3", 9100), router.getLeader(2));
+  }
+
+  @Test
+  public void testRouteRows() {
+    Schema schema = buildSchema();
+    PartitionSchema partitionSchema = hashPartitionSchema(schema);
+    List<LocatedTablet> tablets = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      tablets.add(tablet("t" + i, i == 0 ? EMPTY : bucket(i), i == 3 ? EMPTY : bucket(i + 1),
+                         "host" + i));
+    }
+    TabletRouter router = new TabletRouter(partitionSchema, tablets);
+
+    for (int i = 0; i < 100; i++) {
+      PartialRow row = schema.newPartialRow();
+      row.addString("k", "key" + i);
+      byte[] partitionKey = partitionSchema.encodePartitionKey(row);
+      String expected = "t" + partitionKey[3];
+      assertEquals(expected, new String(router.route(row).getTabletId()));
+      assertEquals(expected, tabletId(router, partitionKey));
+    }
+  }
+}
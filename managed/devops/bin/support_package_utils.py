@@ -1,9 +1,20 @@
 import subprocess
 import argparse
+import gzip
+import io
+import sys
+import tarfile
+import tempfile
+import time
 import paramiko
 from collections import namedtuple
 
 YB_USERNAME = 'yugabyte'
+# Passed as the target local file to write the archive to stdout instead.
+STDOUT_TARGET = '-'
+CHUNK_SIZE = 64 * 1024
+# Added to a streamed archive when the command producing it fails.
+ERROR_MARKER_FILE = 'support_package_error.txt'
 
 
 CommandHandler = namedtuple('CommandHandler', ['handler', 'parser'])
@@ -21,6 +32,24 @@ class KubernetesClient:
                'yb-master' if self.is_master else 'yb-tserver', self.node_name, '--'] + cmd
         return subprocess.call(cmd, stdout=stdout)
 
+    def stream_command(self, cmd, out):
+        cmd = ['kubectl', 'exec', '-n', self.namespace, '-c',
+               'yb-master' if self.is_master else 'yb-tserver', self.node_name, '--'] + cmd
+        # stderr goes to a file, so that the command cannot block on a full stderr pipe.
+        with tempfile.TemporaryFile() as stderr:
+            process = subprocess.Popen(cmd, stdout=subprocess.PIPE, stderr=stderr)
+            try:
+                output = copy_archive(process.stdout, out)
+            except Exception:
+                process.kill()
+                raise
+            finally:
+                process.stdout.close()
+            exit_status = process.wait()
+            stderr.seek(0)
+            finish_archive(output, cmd, exit_status, stderr.read())
+        return exit_status
+
 
 class SshParamikoClient:
     def __init__(self, args):
@@ -55,6 +84,52 @@ class SshParamikoClient:
     def exec_command(self, cmd):
         return self.client.exec_command(' '.join(cmd))[1].read().decode()
 
+    def stream_command(self, cmd, out):
+        _, stdout, stderr = self.client.exec_command(' '.join(cmd))
+        output = copy_archive(stdout, out)
+        # The remote stderr is buffered by the channel while stdout is read.
+        error = stderr.read()
+        exit_status = stdout.channel.recv_exit_status()
+        finish_archive(output, cmd, exit_status, error)
+        return exit_status
+
+
+def get_stdout():
+    return getattr(sys.stdout, 'buffer', sys.stdout)
+
+
+def copy_archive(src, out):
+    """Copies the tar.gz archive read from src to out member by member, so that more members can
+    be added once the command producing it has finished. Returns the archive being written and
+    its compressed stream.
+    """
+    # Nothing is written if the command does not produce an archive at all.
+    with tarfile.open(fileobj=src, mode='r|gz') as remote:
+        gz = gzip.GzipFile(fileobj=out, mode='wb', compresslevel=6)
+        archive = tarfile.open(fileobj=gz, mode='w|')
+        for member in remote:
+            archive.addfile(member, remote.extractfile(member) if member.isfile() else None)
+            out.flush()
+    return archive, gz
+
+
+def finish_archive(output, cmd, exit_status, error):
+    """Closes the archive, adding an error marker file to it if the command failed, as the files
+    already streamed cannot be taken back.
+    """
+    archive, gz = output
+    if exit_status != 0:
+        error = error.decode('utf-8', 'replace') if isinstance(error, bytes) else error
+        sys.stderr.write(error)
+        data = '{} failed with exit status {}\n{}'.format(
+            ' '.join(cmd), exit_status, error).encode()
+        info = tarfile.TarInfo(ERROR_MARKER_FILE)
+        info.size = len(data)
+        info.mtime = time.time()
+        archive.addfile(info, io.BytesIO(data))
+    archive.close()
+    gz.close()
+
 
 def add_k8s_subparser(subparsers, subcommand_name):
     k8s_parser = subparsers.add_parser(subcommand_name, help='is k8s universe')
@@ -69,7 +144,7 @@ def add_k8s_subparser(subparsers, subcommand_name):
     k8s_parser.add_argument(
         '--target_local_file',
         type=str,
-        help='file to write logs to',
+        help='file to write logs to, - for stdout',
         required=True)
 
 
@@ -90,7 +165,7 @@ def add_ssh_subparser(subparsers, subcommand_name):
     ssh_parser.add_argument(
         '--target_local_file',
         type=str,
-        help='file to write logs to',
+        help='file to write logs to, - for stdout',
         required=True)
 
 
@@ -98,6 +173,16 @@ def handle_ssh_universe(args):
     client = SshParamikoClient(args)
     client.connect()
 
+    if args.target_local_file == STDOUT_TARGET:
+        # Stream the archive as it is created, without a copy on either side.
+        cmd = ['tar', '-czf', '-', '-h', '-C', args.yb_home_dir, 'tserver/logs/yb-tserver.INFO']
+        if args.is_master:
+            cmd += ['-h', '-C', args.yb_home_dir, 'master/logs/yb-master.INFO']
+        # A failure is recorded in the archive, which is complete otherwise.
+        client.stream_command(cmd, get_stdout())
+        client.close_connection()
+        return
+
     # name is irrelevant as long as it doesn't already exist
     tar_file_name = client.node_name + "-support_package.tar.gz"
 
@@ -123,5 +208,11 @@ def handle_k8s_universe(args):
         cmd += ['master/logs/yb-master.INFO']
     else:
         cmd += ['tserver/logs/yb-tserver.INFO']
-    file = open(args.target_local_file, "w+")
-    client.exec_command(cmd, file)
+    if args.target_local_file == STDOUT_TARGET:
+        # A failure is recorded in the archive, which is complete otherwise.
+        client.stream_command(cmd, get_stdout())
+        return
+    with open(args.target_local_file, "w+") as file:
+        exit_status = client.exec_command(cmd, file)
+    if exit_status != 0:
+        raise RuntimeError("kubectl exec failed with exit status {}".format(exit_status))
@@ -66,6 +66,7 @@ public abstract class AbstractTaskBase implements ITask {
   protected final AlertDefinitionGroupService alertDefinitionGroupService;
   protected final YBClientService ybService;
   protected final TableManager tableManager;
+  protected final ConditionPoller conditionPoller;
 
   @Inject
   protected AbstractTaskBase(BaseTaskDependencies baseTaskDependencies) {
@@ -79,6 +80,7 @@ public abstract class AbstractTaskBase implements ITask {
     this.alertDefinitionGroupService = baseTaskDependencies.getAlertDefinitionGroupService();
     this.ybService = baseTaskDependencies.getYbService();
     this.tableManager = baseTaskDependencies.getTableManager();
+    this.conditionPoller = baseTaskDependencies.getConditionPoller();
   }
 
   protected ITaskParams taskParams() {
@@ -108,6 +110,33 @@ public abstract class AbstractTaskBase implements ITask {
   @Override
   public abstract void run();
 
+  /**
+   * Starts the task without occupying a thread of the subtask pool while it waits. Tasks, which
+   * only wait for a condition on the universe, override this and implement run() by waiting for
+   * the returned future.
+   *
+   * @return future of the task completion, or null if the task has to be run on the pool.
+   */
+  public CompletableFuture<Void> runAsync() {
+    return null;
+  }
+
+  /** Blocks until the future of runAsync() is done, rethrowing its failure. */
+  protected void waitForCompletion(CompletableFuture<Void> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new RuntimeException(getName() + " interrupted.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
   // Create an task pool which can handle an unbounded number of tasks, while using an initial set
   // of threads which get spawned upto TASK_THREADS limit.
   public void createThreadpool() {
@@ -2,21 +2,35 @@
 
 package com.yugabyte.yw.commissioner;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.typesafe.config.Config;
 import com.yugabyte.yw.common.YWServiceException;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
 import com.yugabyte.yw.forms.ITaskParams;
+import com.yugabyte.yw.forms.UniverseTaskParams;
 import com.yugabyte.yw.models.CustomerTask;
+import com.yugabyte.yw.models.Universe;
 import com.yugabyte.yw.models.helpers.TaskType;
 import com.yugabyte.yw.models.TaskInfo;
 import org.slf4j.Logger;
@@ -25,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import play.libs.Json;
@@ -44,10 +59,18 @@ public class Commissioner {
   private static final long THREAD_ALIVE_TIME = 60L;
 
   // The interval after which progress monitor wakes up and does work.
-  private final long PROGRESS_MONITOR_SLEEP_INTERVAL = 300;
+  private final long PROGRESS_MONITOR_SLEEP_INTERVAL = 1000;
+
+  static final String MAX_TASKS_PER_CUSTOMER_KEY = "yb.commissioner.max_running_tasks_per_customer";
+  static final String MAX_TASKS_PER_UNIVERSE_KEY = "yb.commissioner.max_running_tasks_per_universe";
+  static final String MAX_QUEUED_TASKS_KEY = "yb.commissioner.max_queued_tasks";
+
+  // Background tasks, which yield to user facing ones waiting for a slot.
+  private static final Set<TaskType> BACKGROUND_TASK_TYPES =
+      ImmutableSet.of(TaskType.BackupUniverse, TaskType.MultiTableBackup, TaskType.DeleteBackup);
 
   // The background progress monitor for the tasks.
-  static ProgressMonitor progressMonitor;
+  static ScheduledExecutorService progressMonitor;
 
   // Threadpool to run user submitted tasks.
   static ExecutorService executor;
@@ -57,12 +80,26 @@ public class Commissioner {
   // persisted before removing the task from this map.
   static Map<UUID, TaskRunner> runningTasks = new ConcurrentHashMap<UUID, TaskRunner>();
 
-  public Commissioner() {
+  private final RuntimeConfigFactory runtimeConfigFactory;
+
+  // Tasks waiting for a slot, ordered by priority and then by submission. All the fields below are
+  // guarded by the queue.
+  private final PriorityQueue<QueuedTask> queuedTasks = new PriorityQueue<>();
+  private final Map<Long, Integer> numRunningTasksPerCustomer = new HashMap<>();
+  private final Map<UUID, Integer> numRunningTasksPerUniverse = new HashMap<>();
+  private int numRunningTasks = 0;
+  // Submitted tasks, which are being created and will be queued next.
+  private int numReservedQueueSlots = 0;
+  private long nextSequenceNumber = 0;
+
+  @Inject
+  public Commissioner(RuntimeConfigFactory runtimeConfigFactory) {
+    this.runtimeConfigFactory = runtimeConfigFactory;
     // Initialize the tasks threadpool.
     ThreadFactory namedThreadFactory =
         new ThreadFactoryBuilder().setNameFormat("TaskPool-%d").build();
-    // Create an task pool which can handle an unbounded number of tasks, while using an initial set
-    // of threads that get spawned upto TASK_THREADS limit.
+    // The pool never gets more than TASK_THREADS tasks at a time, the rest of the tasks wait in
+    // queuedTasks until a slot is free.
     executor =
         new ThreadPoolExecutor(
             TASK_THREADS,
@@ -73,22 +110,34 @@ public class Commissioner {
             namedThreadFactory);
     LOG.info("Started Commissioner TaskPool.");
 
-    // TODO: Conisder replacing simple thread sleep with ScheduledExecutorService
     // Initialize the task manager.
-    progressMonitor = new ProgressMonitor();
-    progressMonitor.start();
+    progressMonitor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("TaskProgressMonitor")
+                .setDaemon(true)
+                .build());
+    progressMonitor.scheduleWithFixedDelay(
+        this::monitorProgress,
+        PROGRESS_MONITOR_SLEEP_INTERVAL,
+        PROGRESS_MONITOR_SLEEP_INTERVAL,
+        TimeUnit.MILLISECONDS);
     LOG.info("Started TaskProgressMonitor thread.");
   }
 
   /**
    * Creates a new task runner to run the required task, and submits it to a threadpool if needed.
+   * The task starts once the limits of running tasks for its customer and universe allow it.
+   *
+   * @throws YWServiceException with SERVICE_UNAVAILABLE status if too many tasks are waiting.
    */
   public UUID submit(TaskType taskType, ITaskParams taskParams) {
+    reserveQueueSlot(taskType);
+    boolean queued = false;
     try {
       // Claim the task if we can - check if we will go above the max local concurrent task
       // threshold. If we can claim it, set ourselves as the owner of the task. Otherwise, do not
       // claim the task so that some other process can claim it.
-      // TODO: enforce a limit on number of tasks here.
       boolean claimTask = true;
 
       // Create the task runner object based on the various parameters passed in.
@@ -98,14 +147,127 @@ public class Commissioner {
         // Add this task to our queue.
         runningTasks.put(taskRunner.getTaskUUID(), taskRunner);
 
-        // If we had claimed ownership of the task, submit it to the task threadpool.
-        executor.submit(taskRunner);
+        // If we had claimed ownership of the task, queue it for the task threadpool.
+        UUID universeUUID = null;
+        Long customerId = null;
+        if (taskParams instanceof UniverseTaskParams) {
+          universeUUID = ((UniverseTaskParams) taskParams).universeUUID;
+          customerId =
+              Optional.ofNullable(universeUUID)
+                  .flatMap(Universe::maybeGet)
+                  .map(universe -> universe.customerId)
+                  .orElse(null);
+        }
+        boolean background = BACKGROUND_TASK_TYPES.contains(taskType);
+        queued = true;
+        enqueue(taskRunner, customerId, universeUUID, background, true /* reserved */);
       }
       return taskRunner.getTaskUUID();
     } catch (Throwable t) {
       String msg = "Error processing " + taskType + " task for " + taskParams.toString();
       LOG.error(msg, t);
       throw new RuntimeException(msg, t);
+    } finally {
+      if (!queued) {
+        synchronized (queuedTasks) {
+          numReservedQueueSlots--;
+        }
+      }
+    }
+  }
+
+  // Takes a place in the queue for a task about to be created, so that concurrent submits cannot
+  // together go above the limit of waiting tasks.
+  private void reserveQueueSlot(TaskType taskType) {
+    int maxQueuedTasks = runtimeConfigFactory.globalRuntimeConf().getInt(MAX_QUEUED_TASKS_KEY);
+    synchronized (queuedTasks) {
+      int numWaiting = queuedTasks.size() + numReservedQueueSlots;
+      if (numWaiting >= maxQueuedTasks) {
+        LOG.warn("Rejecting {} task, {} tasks are already waiting.", taskType, numWaiting);
+        throw new YWServiceException(
+            SERVICE_UNAVAILABLE,
+            "Too many tasks are waiting to run (" + numWaiting + "), retry later.");
+      }
+      numReservedQueueSlots++;
+    }
+  }
+
+  /**
+   * Queues the task and starts it right away if the running task limits allow it.
+   *
+   * @param reserved whether the task took a place reserved by reserveQueueSlot
+   */
+  @VisibleForTesting
+  void enqueue(
+      TaskRunner taskRunner,
+      Long customerId,
+      UUID universeUUID,
+      boolean background,
+      boolean reserved) {
+    synchronized (queuedTasks) {
+      if (reserved) {
+        numReservedQueueSlots--;
+      }
+      queuedTasks.add(
+          new QueuedTask(taskRunner, customerId, universeUUID, background, nextSequenceNumber++));
+    }
+    scheduleQueuedTasks();
+  }
+
+  @VisibleForTesting
+  int getNumQueuedTasks() {
+    synchronized (queuedTasks) {
+      return queuedTasks.size();
+    }
+  }
+
+  // Hands the waiting tasks to the pool as long as there are free slots for them.
+  private void scheduleQueuedTasks() {
+    Config config = runtimeConfigFactory.globalRuntimeConf();
+    int maxTasksPerCustomer = config.getInt(MAX_TASKS_PER_CUSTOMER_KEY);
+    int maxTasksPerUniverse = config.getInt(MAX_TASKS_PER_UNIVERSE_KEY);
+    synchronized (queuedTasks) {
+      List<QueuedTask> postponed = new ArrayList<>();
+      while (numRunningTasks < TASK_THREADS && !queuedTasks.isEmpty()) {
+        QueuedTask task = queuedTasks.poll();
+        if ((task.customerId != null
+                && numRunningTasksPerCustomer.getOrDefault(task.customerId, 0)
+                    >= maxTasksPerCustomer)
+            || (task.universeUUID != null
+                && numRunningTasksPerUniverse.getOrDefault(task.universeUUID, 0)
+                    >= maxTasksPerUniverse)) {
+          postponed.add(task);
+          continue;
+        }
+        numRunningTasks++;
+        if (task.customerId != null) {
+          numRunningTasksPerCustomer.merge(task.customerId, 1, Integer::sum);
+        }
+        if (task.universeUUID != null) {
+          numRunningTasksPerUniverse.merge(task.universeUUID, 1, Integer::sum);
+        }
+        executor.execute(() -> runQueuedTask(task));
+      }
+      queuedTasks.addAll(postponed);
+    }
+  }
+
+  private void runQueuedTask(QueuedTask task) {
+    try {
+      task.taskRunner.run();
+    } finally {
+      synchronized (queuedTasks) {
+        numRunningTasks--;
+        if (task.customerId != null) {
+          numRunningTasksPerCustomer.computeIfPresent(
+              task.customerId, (k, v) -> v > 1 ? v - 1 : null);
+        }
+        if (task.universeUUID != null) {
+          numRunningTasksPerUniverse.computeIfPresent(
+              task.universeUUID, (k, v) -> v > 1 ? v - 1 : null);
+        }
+      }
+      scheduleQueuedTasks();
     }
   }
 
@@ -132,6 +294,21 @@ public class Commissioner {
       responseJson.put("status", taskInfo.getTaskState().toString());
       // Get the percentage of subtasks that ran and completed
       responseJson.put("percent", taskInfo.getPercentCompleted());
+      // Project the completion time of a running task from its progress so far.
+      double percent = taskInfo.getPercentCompleted();
+      // Time spent waiting in the queue does not count, so this needs the run start which is
+      // only known for the tasks running in this process.
+      TaskRunner taskRunner = runningTasks.get(taskUUID);
+      Long startMs = taskRunner == null ? null : taskRunner.getStartTimeMs();
+      if (taskInfo.getTaskState() == TaskInfo.State.Running
+          && startMs != null
+          && percent > 0
+          && percent < 100) {
+        long elapsedMs = System.currentTimeMillis() - startMs;
+        Instant estimatedCompletionTime =
+            Instant.ofEpochMilli(startMs + (long) (elapsedMs * 100 / percent));
+        responseJson.put("estimatedCompletionTime", estimatedCompletionTime.toString());
+      }
       // Get subtask groups
       UserTaskDetails userTaskDetails = taskInfo.getUserTaskDetails();
       responseJson.set("details", Json.toJson(userTaskDetails));
@@ -156,46 +333,66 @@ public class Commissioner {
   }
 
   /**
-   * A progress monitor to constantly write a last updated timestamp in the DB so that this process
-   * and all its subtasks are considered to be alive.
+   * Writes a last updated timestamp in the DB for all the running tasks at once, so that this
+   * process and all its tasks are considered to be alive, and forgets the completed tasks.
    */
-  private class ProgressMonitor extends Thread {
+  @VisibleForTesting
+  void monitorProgress() {
+    try {
+      List<UUID> aliveTaskUUIDs = new ArrayList<>();
+      // Loop through all the active tasks.
+      Iterator<Entry<UUID, TaskRunner>> iter = runningTasks.entrySet().iterator();
+      while (iter.hasNext()) {
+        Entry<UUID, TaskRunner> entry = iter.next();
+        TaskRunner taskRunner = entry.getValue();
+
+        // If the task is still running, update its latest timestamp as a part of the heartbeat.
+        if (taskRunner.isTaskRunning()) {
+          aliveTaskUUIDs.add(entry.getKey());
+        } else if (taskRunner.hasTaskSucceeded()) {
+          LOG.info("Task " + taskRunner.toString() + " has succeeded.");
+          // Remove task from the set of live tasks.
+          iter.remove();
+        } else if (taskRunner.hasTaskFailed()) {
+          LOG.info("Task " + taskRunner.toString() + " has failed.");
+          // Remove task from the set of live tasks.
+          iter.remove();
+        }
+      }
+      TaskInfo.updateHeartbeats(aliveTaskUUIDs);
 
-    public ProgressMonitor() {
-      setName("TaskProgressMonitor");
+      // TODO: Scan the DB for tasks that have failed to make progress and claim one if possible.
+    } catch (Exception e) {
+      LOG.error("Error updating task heartbeats", e);
     }
+  }
 
-    @Override
-    public void run() {
-      while (true) {
-        // Loop through all the active tasks.
-        Iterator<Entry<UUID, TaskRunner>> iter = runningTasks.entrySet().iterator();
-        while (iter.hasNext()) {
-          Entry<UUID, TaskRunner> entry = iter.next();
-          TaskRunner taskRunner = entry.getValue();
-
-          // If the task is still running, update its latest timestamp as a part of the heartbeat.
-          if (taskRunner.isTaskRunning()) {
-            taskRunner.doHeartbeat();
-          } else if (taskRunner.hasTaskSucceeded()) {
-            LOG.info("Task " + taskRunner.toString() + " has succeeded.");
-            // Remove task from the set of live tasks.
-            iter.remove();
-          } else if (taskRunner.hasTaskFailed()) {
-            LOG.info("Task " + taskRunner.toString() + " has failed.");
-            // Remove task from the set of live tasks.
-            iter.remove();
-          }
-        }
+  private static class QueuedTask implements Comparable<QueuedTask> {
+    final TaskRunner taskRunner;
+    final Long customerId;
+    final UUID universeUUID;
+    final boolean background;
+    final long sequenceNumber;
 
-        // TODO: Scan the DB for tasks that have failed to make progress and claim one if possible.
+    QueuedTask(
+        TaskRunner taskRunner,
+        Long customerId,
+        UUID universeUUID,
+        boolean background,
+        long sequenceNumber) {
+      this.taskRunner = taskRunner;
+      this.customerId = customerId;
+      this.universeUUID = universeUUID;
+      this.background = background;
+      this.sequenceNumber = sequenceNumber;
+    }
 
-        // Sleep for the required interval.
-        try {
-          Thread.sleep(PROGRESS_MONITOR_SLEEP_INTERVAL);
-        } catch (InterruptedException e) {
-        }
+    @Override
+    public int compareTo(QueuedTask other) {
+      if (background != other.background) {
+        return background ? 1 : -1;
       }
+      return Long.compare(sequenceNumber, other.sequenceNumber);
     }
   }
 }
@@ -0,0 +1,165 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Waits for conditions on the universe without holding a thread while waiting. A condition is an
+ * asynchronous check RPC together with a predicate on its response. The check is issued from a
+ * small shared scheduler and the predicate is evaluated in the RPC callback, so no thread is parked
+ * between the attempts. Attempts are spaced with an exponential backoff.
+ */
+@Singleton
+@Slf4j
+public class ConditionPoller {
+
+  // Scheduler threads only issue RPCs, so a couple of them serve all the waits.
+  private static final int POLLER_THREADS = 2;
+
+  // Log after these many attempts.
+  private static final int LOG_EVERY_NUM_ATTEMPTS = 100;
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newScheduledThreadPool(
+          POLLER_THREADS,
+          new ThreadFactoryBuilder().setNameFormat("Condition-Poller-%d").setDaemon(true).build());
+
+  /**
+   * Starts waiting for the condition.
+   *
+   * @param name : Name of the wait, used for logging and errors.
+   * @param check : Issues the check RPC. The wait fails right away if it throws, while failed RPCs
+   *     are counted as errors.
+   * @param condition : Tells if the response satisfies the condition. Exceptions thrown by it are
+   *     counted as errors.
+   * @param minDelayMs : Delay before the second attempt. The first attempt is issued immediately.
+   * @param maxDelayMs : Upper bound of the delay between attempts.
+   * @param timeoutMs : Time to wait for the condition, Long.MAX_VALUE to wait forever.
+   * @param maxErrors : Number of errors to tolerate.
+   * @return future, which is completed with the response satisfying the condition.
+   */
+  public <T> CompletableFuture<T> waitFor(
+      String name,
+      Supplier<Deferred<T>> check,
+      Predicate<T> condition,
+      long minDelayMs,
+      long maxDelayMs,
+      long timeoutMs,
+      int maxErrors) {
+    Wait<T> wait = new Wait<>(name, check, condition, minDelayMs, maxDelayMs, timeoutMs, maxErrors);
+    scheduler.execute(wait);
+    return wait.future;
+  }
+
+  private class Wait<T> implements Runnable {
+    private final String name;
+    private final Supplier<Deferred<T>> check;
+    private final Predicate<T> condition;
+    private final long maxDelayMs;
+    private final long deadlineMs;
+    private final int maxErrors;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private long delayMs;
+    private int numAttempts = 0;
+    private int numErrors = 0;
+
+    Wait(
+        String name,
+        Supplier<Deferred<T>> check,
+        Predicate<T> condition,
+        long minDelayMs,
+        long maxDelayMs,
+        long timeoutMs,
+        int maxErrors) {
+      this.name = name;
+      this.check = check;
+      this.condition = condition;
+      this.delayMs = minDelayMs;
+      this.maxDelayMs = maxDelayMs;
+      long now = System.currentTimeMillis();
+      this.deadlineMs = timeoutMs > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeoutMs;
+      this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public void run() {
+      if (future.isDone()) {
+        // Cancelled by the waiter.
+        return;
+      }
+      numAttempts++;
+      if (numAttempts % LOG_EVERY_NUM_ATTEMPTS == 0) {
+        log.info("{}: attempts={}, errors={}.", name, numAttempts, numErrors);
+      }
+      Deferred<T> response;
+      try {
+        response = check.get();
+      } catch (Exception e) {
+        // Failed to even issue the RPC, e.g. the client is closed - no point in retrying.
+        future.completeExceptionally(e);
+        return;
+      }
+      response.addCallbacks(
+          (Callback<Object, T>)
+              result -> {
+                onResponse(result);
+                return null;
+              },
+          (Callback<Object, Exception>)
+              e -> {
+                onError(e);
+                return null;
+              });
+    }
+
+    private void onResponse(T response) {
+      boolean done;
+      try {
+        done = condition.test(response);
+      } catch (Exception e) {
+        onError(e);
+        return;
+      }
+      if (done) {
+        future.complete(response);
+      } else {
+        scheduleNext();
+      }
+    }
+
+    private void onError(Exception e) {
+      numErrors++;
+      log.warn("{}: ignoring error '{}'.", name, e.getMessage());
+      if (numErrors >= maxErrors) {
+        future.completeExceptionally(
+            new RuntimeException(name + ": hit too many errors, last is " + e.getMessage(), e));
+        return;
+      }
+      scheduleNext();
+    }
+
+    private void scheduleNext() {
+      long now = System.currentTimeMillis();
+      if (now >= deadlineMs) {
+        future.completeExceptionally(new TimeoutException(name + " timed out."));
+        return;
+      }
+      long nextDelayMs = Math.min(delayMs, deadlineMs - now);
+      delayMs = Math.min(delayMs * 2, maxDelayMs);
+      scheduler.schedule(this, nextDelayMs, TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -31,6 +31,7 @@ import com.yugabyte.yw.models.filters.AlertFilter;
 import com.yugabyte.yw.models.helpers.KnownAlertCodes;
 import com.yugabyte.yw.models.helpers.KnownAlertLabels;
 import com.yugabyte.yw.models.helpers.NodeDetails;
+import io.prometheus.client.Collector;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Gauge;
 import org.apache.commons.lang3.StringUtils;
@@ -52,6 +53,7 @@ public class HealthChecker {
   public static final Logger LOG = LoggerFactory.getLogger(HealthChecker.class);
 
   public static final String kUnivMetricName = "yb_univ_health_status";
+  public static final String kUnivDurationMetricName = "yb_univ_health_check_duration_ms";
   public static final String kUnivUUIDLabel = "univ_uuid";
   public static final String kUnivNameLabel = "univ_name";
   public static final String kCheckLabel = "check_name";
@@ -59,6 +61,10 @@ public class HealthChecker {
 
   private static final String MAX_NUM_THREADS_KEY = "yb.health.max_num_parallel_checks";
 
+  private static final String STAGGER_CHECKS_KEY = "yb.health.stagger_checks";
+
+  private static final String RESULT_FRESHNESS_MS_KEY = "yb.health.result_freshness_ms";
+
   private final play.Configuration config;
 
   // Last time we sent a status update email per customer.
@@ -72,8 +78,14 @@ public class HealthChecker {
 
   private Gauge healthMetric = null;
 
+  private Gauge durationMetric = null;
+
   private final AtomicBoolean running = new AtomicBoolean(false);
 
+  // Fraction of the check interval after which the check of each universe starts, over the
+  // universes of all customers.
+  private volatile Map<UUID, Double> checkOffsets = Collections.emptyMap();
+
   private final ActorSystem actorSystem;
 
   private final ExecutionContext executionContext;
@@ -166,6 +178,15 @@ public class HealthChecker {
       LOG.warn("Failed to build prometheus gauge for name: " + kUnivMetricName);
     }
 
+    try {
+      durationMetric =
+          Gauge.build(kUnivDurationMetricName, "Duration of the last health check in ms")
+              .labelNames(kUnivUUIDLabel, kUnivNameLabel)
+              .register(this.promRegistry);
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Failed to build prometheus gauge for name: " + kUnivDurationMetricName);
+    }
+
     // Add shutdown hook to kill the task pool
     if (this.lifecycle != null) {
       this.lifecycle.addStopHook(this::shutdownThreadpool);
@@ -297,8 +318,20 @@ public class HealthChecker {
     }
 
     running.set(true);
+    Set<UUID> universeUUIDs = new HashSet<>();
     // TODO(bogdan): This will not be too DB friendly when we go multi-tenant.
-    for (Customer c : Customer.getAll()) {
+    List<Customer> customers = Customer.getAll();
+    for (Customer c : customers) {
+      try {
+        universeUUIDs.addAll(Universe.getAllUUIDs(c));
+      } catch (Exception ex) {
+        LOG.error("Error listing universes of customer " + c.uuid, ex);
+      }
+    }
+    // The checks are spread over the universes of all customers, so that the first universes of
+    // the customers do not all get checked at once.
+    checkOffsets = computeCheckOffsets(universeUUIDs);
+    for (Customer c : customers) {
       try {
         checkCustomer(c);
       } catch (Exception ex) {
@@ -306,9 +339,47 @@ public class HealthChecker {
       }
     }
 
+    removeStaleMetrics(universeUUIDs);
     running.set(false);
   }
 
+  /**
+   * Gives each universe the fraction of the check interval after which its check starts, evenly
+   * spread over the given universes in a stable order.
+   */
+  @VisibleForTesting
+  static Map<UUID, Double> computeCheckOffsets(Collection<UUID> universeUUIDs) {
+    List<UUID> sortedUUIDs = new ArrayList<>(universeUUIDs);
+    Collections.sort(sortedUUIDs);
+    Map<UUID, Double> offsets = new HashMap<>();
+    for (int i = 0; i < sortedUUIDs.size(); i++) {
+      offsets.put(sortedUUIDs.get(i), (double) i / sortedUUIDs.size());
+    }
+    return offsets;
+  }
+
+  /**
+   * Stops exporting the health check metrics of universes that no longer exist.
+   *
+   * @param universeUUIDs UUIDs of all existing universes
+   */
+  @VisibleForTesting
+  void removeStaleMetrics(Set<UUID> universeUUIDs) {
+    for (Gauge gauge : Arrays.asList(healthMetric, durationMetric)) {
+      if (gauge == null) continue;
+
+      for (Collector.MetricFamilySamples family : gauge.collect()) {
+        for (Collector.MetricFamilySamples.Sample sample : family.samples) {
+          // The universe UUID is the first label of every per-universe series.
+          UUID universeUUID = UUID.fromString(sample.labelValues.get(0));
+          if (!universeUUIDs.contains(universeUUID)) {
+            gauge.remove(sample.labelValues.toArray(new String[0]));
+          }
+        }
+      }
+    }
+  }
+
   public void checkCustomer(Customer c) {
     // We need an alerting config to do work.
     CustomerConfig config = CustomerConfig.getAlertConfig(c.uuid);
@@ -335,7 +406,7 @@ public class HealthChecker {
       if (shouldSendStatusUpdate) {
         lastStatusUpdateTimeMap.put(c.uuid, now);
       }
-      checkAllUniverses(c, config, shouldSendStatusUpdate);
+      checkAllUniverses(c, config, shouldSendStatusUpdate, checkIntervalMs);
     }
   }
 
@@ -381,22 +452,42 @@ public class HealthChecker {
     return this.getRuntimeConfig().getInt(HealthChecker.MAX_NUM_THREADS_KEY);
   }
 
+  private boolean shouldStaggerChecks() {
+    return this.getRuntimeConfig().getBoolean(HealthChecker.STAGGER_CHECKS_KEY);
+  }
+
+  private long getResultFreshnessMs() {
+    return this.getRuntimeConfig().getLong(HealthChecker.RESULT_FRESHNESS_MS_KEY);
+  }
+
   public void checkAllUniverses(Customer c, CustomerConfig config, boolean shouldSendStatusUpdate) {
+    checkAllUniverses(c, config, shouldSendStatusUpdate, 0);
+  }
+
+  /**
+   * Schedules health checks for all universes of the customer. If staggering is enabled, each
+   * check starts at the offset of its universe within the given window, the universes of all the
+   * customers being spread over it, instead of all being started at once.
+   */
+  private void checkAllUniverses(
+      Customer c, CustomerConfig config, boolean shouldSendStatusUpdate, long windowMs) {
 
     AlertingData alertingData =
         config != null ? Json.fromJson(config.data, AlertingData.class) : null;
     boolean reportOnlyErrors =
         !shouldSendStatusUpdate && alertingData != null && alertingData.reportOnlyErrors;
 
-    c.getUniverses()
-        .stream()
-        .map(
-            u -> {
-              String destinations = getAlertDestinations(u, c);
-              return new CheckSingleUniverseParams(
-                  u, c, shouldSendStatusUpdate, reportOnlyErrors, destinations);
-            })
-        .forEach(this::runHealthCheck);
+    boolean stagger = windowMs > 0 && shouldStaggerChecks();
+    Map<UUID, Double> offsets = checkOffsets;
+    for (Universe u : c.getUniverses()) {
+      String destinations = getAlertDestinations(u, c);
+      // Universes created since the offsets were computed are checked right away.
+      long delayMs = stagger ? (long) (windowMs * offsets.getOrDefault(u.universeUUID, 0.0)) : 0;
+      runHealthCheck(
+          new CheckSingleUniverseParams(
+              u, c, shouldSendStatusUpdate, reportOnlyErrors, destinations),
+          delayMs);
+    }
   }
 
   public void cancelHealthCheck(UUID universeUUID) {
@@ -437,6 +528,10 @@ public class HealthChecker {
   }
 
   public CompletableFuture<Void> runHealthCheck(CheckSingleUniverseParams params) {
+    return runHealthCheck(params, 0);
+  }
+
+  private CompletableFuture<Void> runHealthCheck(CheckSingleUniverseParams params, long delayMs) {
     String universeName = params.universe.name;
     CompletableFuture<Void> lastCheck = this.runningHealthChecks.get(params.universe.universeUUID);
     // Only schedule a task if the previous one for the given universe has completed.
@@ -446,8 +541,20 @@ public class HealthChecker {
       return lastCheck;
     }
 
-    LOG.debug("Scheduling health check for universe: {}", universeName);
-    long scheduled = System.currentTimeMillis();
+    LOG.debug("Scheduling health check for universe: {} in {} ms", universeName, delayMs);
+    long scheduled = System.currentTimeMillis() + delayMs;
+    // Delayed checks are handed over to the thread pool by the scheduler, so they do not hold a
+    // pool thread while waiting for their turn.
+    Executor checkExecutor =
+        delayMs <= 0
+            ? this.executor
+            : command ->
+                this.actorSystem
+                    .scheduler()
+                    .scheduleOnce(
+                        Duration.create(delayMs, TimeUnit.MILLISECONDS),
+                        () -> this.executor.execute(command),
+                        this.executionContext);
     CompletableFuture<Void> task =
         CompletableFuture.runAsync(
             () -> {
@@ -465,7 +572,7 @@ public class HealthChecker {
                     "Error running health check: " + e.getMessage());
               }
             },
-            this.executor);
+            checkExecutor);
 
     // Add the task to the map of running tasks.
     this.runningHealthChecks.put(params.universe.universeUUID, task);
@@ -651,6 +758,21 @@ public class HealthChecker {
     // email about it.
     HealthCheck lastCheck = HealthCheck.getLatest(params.universe.universeUUID);
     boolean lastCheckHadErrors = lastCheck != null && lastCheck.hasError();
+
+    // Reuse the results of the last check if they are still fresh and nothing happened to the
+    // universe since. Status updates always get a new check.
+    long freshnessMs = getResultFreshnessMs();
+    if (freshnessMs > 0 && lastCheck != null && !params.shouldSendStatusUpdate) {
+      long lastCheckTime = lastCheck.idKey.checkTime.getTime();
+      if (lastCheckTime > potentialStartTime && startMs - lastCheckTime < freshnessMs) {
+        LOG.info(
+            "Reusing health check results for universe {} from {} ms ago",
+            params.universe.name,
+            startMs - lastCheckTime);
+        return;
+      }
+    }
+
     Provider mainProvider =
         Provider.get(UUID.fromString(details.getPrimaryCluster().userIntent.provider));
 
@@ -660,6 +782,11 @@ public class HealthChecker {
             mainProvider, new ArrayList<>(clusterMetadata.values()), potentialStartTime);
 
     long durationMs = System.currentTimeMillis() - startMs;
+    if (durationMetric != null) {
+      durationMetric
+          .labels(params.universe.universeUUID.toString(), params.universe.name)
+          .set(durationMs);
+    }
     boolean sendMailAlways = (params.shouldSendStatusUpdate || lastCheckHadErrors);
 
     if (response.code == 0) {
@@ -137,6 +137,9 @@ public class QueryAlerts {
                             getSeverity(a).getPriority() > getSeverity(b).getPriority() ? a : b,
                         LinkedHashMap::new))
                 .values());
+    // Definitions and groups are fetched once per run for all the alerts, rather than per batch.
+    Map<UUID, AlertDefinition> definitionsByUuid = getDefinitions(deduplicatedAlerts);
+    Map<UUID, AlertDefinitionGroup> groupsByUuid = getGroups(definitionsByUuid.values());
     List<UUID> activeAlertUuids = new ArrayList<>();
     for (List<AlertData> batch : Lists.partition(deduplicatedAlerts, ALERTS_BATCH)) {
       Set<UUID> definitionUuids =
@@ -157,28 +160,8 @@ public class QueryAlerts {
               .stream()
               .collect(Collectors.toMap(Alert::getDefinitionUuid, Function.identity()));
 
-      AlertDefinitionFilter definitionFilter =
-          AlertDefinitionFilter.builder().uuids(definitionUuids).build();
-      Map<UUID, AlertDefinition> existingDefinitionsByUuid =
-          alertDefinitionService
-              .list(definitionFilter)
-              .stream()
-              .collect(Collectors.toMap(AlertDefinition::getUuid, Function.identity()));
-
-      Set<UUID> groupUuids =
-          existingDefinitionsByUuid
-              .values()
-              .stream()
-              .map(AlertDefinition::getGroupUUID)
-              .collect(Collectors.toSet());
-      AlertDefinitionGroupFilter groupFilter =
-          AlertDefinitionGroupFilter.builder().uuids(groupUuids).build();
-      Map<UUID, AlertDefinitionGroup> existingGroupsByUuid =
-          alertDefinitionGroupService
-              .list(groupFilter)
-              .stream()
-              .collect(Collectors.toMap(AlertDefinitionGroup::getUuid, Function.identity()));
-
+      // Alerts, which did not change since the previous run, are not written to the DB at all.
+      List<UUID> unchangedAlertUuids = new ArrayList<>();
       List<Alert> toSave =
           batch
               .stream()
@@ -187,18 +170,60 @@ public class QueryAlerts {
                       processAlert(
                           data,
                           existingAlertsByDefinitionUuid,
-                          existingDefinitionsByUuid,
-                          existingGroupsByUuid))
+                          definitionsByUuid,
+                          groupsByUuid,
+                          unchangedAlertUuids))
               .filter(Objects::nonNull)
               .collect(Collectors.toList());
 
       List<Alert> savedAlerts = alertService.save(toSave);
       activeAlertUuids.addAll(
           savedAlerts.stream().map(Alert::getUuid).collect(Collectors.toList()));
+      activeAlertUuids.addAll(unchangedAlertUuids);
+      if (!unchangedAlertUuids.isEmpty()) {
+        log.trace("Skipped saving {} unchanged alerts", unchangedAlertUuids.size());
+      }
     }
     return activeAlertUuids;
   }
 
+  private Map<UUID, AlertDefinition> getDefinitions(List<AlertData> alerts) {
+    List<UUID> definitionUuids =
+        alerts
+            .stream()
+            .map(this::getDefinitionUuid)
+            .map(UUID::fromString)
+            .distinct()
+            .collect(Collectors.toList());
+    Map<UUID, AlertDefinition> result = new HashMap<>();
+    for (List<UUID> batch : Lists.partition(definitionUuids, ALERTS_BATCH)) {
+      AlertDefinitionFilter definitionFilter =
+          AlertDefinitionFilter.builder().uuids(batch).build();
+      alertDefinitionService
+          .list(definitionFilter)
+          .forEach(definition -> result.put(definition.getUuid(), definition));
+    }
+    return result;
+  }
+
+  private Map<UUID, AlertDefinitionGroup> getGroups(Collection<AlertDefinition> definitions) {
+    List<UUID> groupUuids =
+        definitions
+            .stream()
+            .map(AlertDefinition::getGroupUUID)
+            .distinct()
+            .collect(Collectors.toList());
+    Map<UUID, AlertDefinitionGroup> result = new HashMap<>();
+    for (List<UUID> batch : Lists.partition(groupUuids, ALERTS_BATCH)) {
+      AlertDefinitionGroupFilter groupFilter =
+          AlertDefinitionGroupFilter.builder().uuids(batch).build();
+      alertDefinitionGroupService
+          .list(groupFilter)
+          .forEach(group -> result.put(group.getUuid(), group));
+    }
+    return result;
+  }
+
   private void resolveAlerts(List<UUID> activeAlertsUuids) {
     AlertFilter toResolveFilter =
         AlertFilter.builder()
@@ -266,7 +291,8 @@ public class QueryAlerts {
       AlertData alertData,
       Map<UUID, Alert> existingAlertsByDefinitionUuid,
       Map<UUID, AlertDefinition> definitionsByUuid,
-      Map<UUID, AlertDefinitionGroup> groupsByUuid) {
+      Map<UUID, AlertDefinitionGroup> groupsByUuid,
+      List<UUID> unchangedAlertUuids) {
     String definitionUuidStr = getDefinitionUuid(alertData);
     if (definitionUuidStr == null) {
       // Should be filtered earlier
@@ -328,6 +354,16 @@ public class QueryAlerts {
             .map(e -> new AlertLabel(e.getKey(), e.getValue()))
             .sorted(Comparator.comparing(AlertLabel::getName))
             .collect(Collectors.toList());
+    if (!alert.isNew()
+        && Objects.equals(alert.getErrCode(), errorCode)
+        && alert.getSeverity() == severity
+        && alert.getGroupType() == groupType
+        && Objects.equals(alert.getMessage(), message)
+        && alert.isSendEmail() == Boolean.parseBoolean(definitionActive)
+        && labelsEqual(alert.getLabels(), labels)) {
+      unchangedAlertUuids.add(alert.getUuid());
+      return null;
+    }
     alert
         .setErrCode(errorCode)
         .setSeverity(severity)
@@ -337,4 +373,16 @@ public class QueryAlerts {
         .setLabels(labels);
     return alert;
   }
+
+  private boolean labelsEqual(List<AlertLabel> current, List<AlertLabel> updated) {
+    if (current.size() != updated.size()) {
+      return false;
+    }
+    for (int i = 0; i < current.size(); i++) {
+      if (!current.get(i).valueEquals(updated.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
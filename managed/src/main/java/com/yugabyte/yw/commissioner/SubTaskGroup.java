@@ -3,13 +3,16 @@
 package com.yugabyte.yw.commissioner;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.yugabyte.yw.common.Util;
 import com.yugabyte.yw.models.TaskInfo;
 import com.yugabyte.yw.models.helpers.TaskType;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -33,7 +36,7 @@ public class SubTaskGroup implements Runnable {
   // Task list name.
   private String name;
 
-  // The list of tasks in this task list.
+  // The list of tasks in this task list, started in the order they were added.
   private Map<AbstractTaskBase, TaskInfo> taskMap;
 
   // The list of futures to wait for.
@@ -73,7 +76,7 @@ public class SubTaskGroup implements Runnable {
   public SubTaskGroup(String name, ExecutorService executor, boolean ignoreErrors) {
     this.name = name;
     this.executor = executor;
-    this.taskMap = new HashMap<>();
+    this.taskMap = new LinkedHashMap<>();
     this.futuresMap = new HashMap<>();
     this.numTasksCompleted = new AtomicInteger(0);
     this.ignoreErrors = ignoreErrors;
@@ -83,8 +86,8 @@ public class SubTaskGroup implements Runnable {
     this.subTaskGroupType = subTaskGroupType;
     for (TaskInfo taskInfo : taskMap.values()) {
       taskInfo.setSubTaskGroupType(subTaskGroupType);
-      taskInfo.save();
     }
+    saveTaskInfos();
   }
 
   public UserTaskDetails.SubTaskGroupType getSubTaskGroupType() {
@@ -95,8 +98,8 @@ public class SubTaskGroup implements Runnable {
     this.userSubTaskState = userTaskState;
     for (TaskInfo taskInfo : taskMap.values()) {
       taskInfo.setTaskState(userTaskState);
-      taskInfo.save();
     }
+    saveTaskInfos();
   }
 
   public synchronized TaskInfo.State getUserSubTaskState() {
@@ -121,18 +124,12 @@ public class SubTaskGroup implements Runnable {
     TaskInfo taskInfo = new TaskInfo(taskType);
     taskInfo.setTaskDetails(task.getTaskDetails());
     // Set the owner info in the TaskInfo.
-    String hostname = "";
-    try {
-      hostname = InetAddress.getLocalHost().getHostName();
-    } catch (UnknownHostException e) {
-      LOG.error("Could not determine the hostname", e);
-    }
-    taskInfo.setOwner(hostname);
+    taskInfo.setOwner(Util.getHostname());
     // Set the SubTaskGroupType in TaskInfo
     if (this.subTaskGroupType != null) {
       taskInfo.setSubTaskGroupType(this.subTaskGroupType);
     }
-    taskInfo.save();
+    // The TaskInfo is inserted together with the rest of the group, see saveTaskInfos().
     taskMap.put(task, taskInfo);
   }
 
@@ -144,12 +141,18 @@ public class SubTaskGroup implements Runnable {
     return numTasksCompleted.get();
   }
 
-  public void setTaskContext(int position, UUID userTaskUUID) {
+  public synchronized void setTaskContext(int position, UUID userTaskUUID) {
     for (TaskInfo taskInfo : taskMap.values()) {
       taskInfo.setPosition(position);
       taskInfo.setParentUuid(userTaskUUID);
-      taskInfo.save();
     }
+    saveTaskInfos();
+  }
+
+  // Persists the TaskInfos of the group in one batched transaction. New ones are inserted, changed
+  // ones are updated and unchanged ones are skipped by Ebean.
+  private synchronized void saveTaskInfos() {
+    TaskInfo.saveAll(taskMap.values());
   }
 
   /**
@@ -164,14 +167,31 @@ public class SubTaskGroup implements Runnable {
       return;
     }
     LOG.info("Running task list {}.", getName());
+    // Make sure the TaskInfos are persisted, the group may not have been added to a queue.
+    saveTaskInfos();
     for (AbstractTaskBase task : taskMap.keySet()) {
-      Future<?> future = executor.submit(task);
+      Future<?> future = startAsync(task);
+      if (future == null) {
+        future = executor.submit(task);
+      }
       futuresMap.put(future, taskMap.get(task));
     }
   }
 
+  // Starts the task, which can wait without a pool thread. Returns null for other tasks.
+  private Future<?> startAsync(AbstractTaskBase task) {
+    try {
+      return task.runAsync();
+    } catch (Exception e) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+
   public boolean waitFor() {
     boolean hasErrored = false;
+    List<TaskInfo> erroredTaskInfos = new ArrayList<>();
     for (Future<?> future : futuresMap.keySet()) {
       TaskInfo taskInfo = futuresMap.get(future);
 
@@ -209,10 +229,11 @@ public class SubTaskGroup implements Runnable {
           ObjectNode details = taskInfo.getTaskDetails().deepCopy();
           details.put("errorString", errorString);
           taskInfo.setTaskDetails(details);
-          taskInfo.save();
+          erroredTaskInfos.add(taskInfo);
         }
       }
     }
+    TaskInfo.saveAll(erroredTaskInfos);
     return !hasErrored;
   }
 }
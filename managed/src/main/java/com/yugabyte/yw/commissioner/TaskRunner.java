@@ -2,6 +2,7 @@
 
 package com.yugabyte.yw.commissioner;
 
+import com.yugabyte.yw.common.Util;
 import com.yugabyte.yw.common.ha.PlatformReplicationManager;
 import com.yugabyte.yw.forms.ITaskParams;
 import com.yugabyte.yw.models.CustomerTask;
@@ -12,8 +13,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.api.Play;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -40,6 +39,9 @@ public class TaskRunner implements Runnable {
   // A utility for Platform HA.
   private final PlatformReplicationManager replicationManager;
 
+  // Time (in millisec since the epoch) at which the task started running, null until then.
+  private volatile Long startTimeMs;
+
   static {
     // Initialize the map which holds the task types to their task class.
     Map<TaskType, Class<? extends ITask>> typeMap = new HashMap<TaskType, Class<? extends ITask>>();
@@ -94,13 +96,7 @@ public class TaskRunner implements Runnable {
     // Set the task details.
     taskInfo.setTaskDetails(task.getTaskDetails());
     // Set the owner info.
-    String hostname = "";
-    try {
-      hostname = InetAddress.getLocalHost().getHostName();
-    } catch (UnknownHostException e) {
-      LOG.error("Could not determine the hostname", e);
-    }
-    taskInfo.setOwner(hostname);
+    taskInfo.setOwner(Util.getHostname());
     replicationManager = Play.current().injector().instanceOf(PlatformReplicationManager.class);
   }
 
@@ -113,6 +109,10 @@ public class TaskRunner implements Runnable {
     taskInfo.save();
   }
 
+  public Long getStartTimeMs() {
+    return startTimeMs;
+  }
+
   public boolean isTaskRunning() {
     return taskInfo.getTaskState() == TaskInfo.State.Running;
   }
@@ -125,19 +125,10 @@ public class TaskRunner implements Runnable {
     return taskInfo.getTaskState() == TaskInfo.State.Failure;
   }
 
-  /**
-   * This method does two things. First, it updates the timestamp on the task to indicate progress.
-   * Second, it gives the underlying task to checkpoint its work if needed.
-   */
-  public void doHeartbeat() {
-    // Set the last updated timestamp of the task to now by force saving it.
-    taskInfo.markAsDirty();
-    taskInfo.save();
-  }
-
   @Override
   public void run() {
     LOG.debug("Running task {}", getTaskUUID());
+    startTimeMs = System.currentTimeMillis();
     task.setUserTaskUUID(getTaskUUID());
     updateTaskState(TaskInfo.State.Running);
     try {
@@ -407,6 +407,11 @@ public class UserTaskDetails {
     // The state of the task.
     private TaskInfo.State state;
 
+    // The number of subtasks in the group, e.g. one for each table of a multi-table backup
+    // leaving out the backups of the encryption keys, and how many of them succeeded.
+    private int numTasks = 0;
+    private int numTasksDone = 0;
+
     private SubTaskDetails(String title, String description) {
       this.title = title;
       this.description = description;
@@ -428,5 +433,20 @@ public class UserTaskDetails {
     public String getState() {
       return state.toString();
     }
+
+    public int getNumTasks() {
+      return numTasks;
+    }
+
+    public int getNumTasksDone() {
+      return numTasksDone;
+    }
+
+    public void addTask(TaskInfo.State taskState) {
+      numTasks++;
+      if (taskState == TaskInfo.State.Success) {
+        numTasksDone++;
+      }
+    }
   }
 }
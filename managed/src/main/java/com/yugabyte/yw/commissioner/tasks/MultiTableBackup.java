@@ -10,10 +10,15 @@
 
 package com.yugabyte.yw.commissioner.tasks;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.yugabyte.yw.commissioner.BaseTaskDependencies;
+import com.yugabyte.yw.commissioner.SubTaskGroup;
 import com.yugabyte.yw.commissioner.SubTaskGroupQueue;
 import com.yugabyte.yw.commissioner.UserTaskDetails;
+import com.yugabyte.yw.commissioner.tasks.subtasks.BackupTable;
+import com.yugabyte.yw.common.BackupUploadLimiter;
 import com.yugabyte.yw.forms.BackupTableParams;
+import com.yugabyte.yw.metrics.MetricQueryHelper;
 import com.yugabyte.yw.models.Backup;
 import com.yugabyte.yw.models.Universe;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +30,9 @@ import org.yb.master.Master.RelationType;
 
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static com.yugabyte.yw.common.Util.getUUIDRepresentation;
 import static org.yb.Common.TableType;
@@ -32,9 +40,21 @@ import static org.yb.Common.TableType;
 @Slf4j
 public class MultiTableBackup extends UniverseTaskBase {
 
+  private final MetricQueryHelper metricQueryHelper;
+
+  private final BackupUploadLimiter backupUploadLimiter;
+
+  // Runs the table backups, sized for the upload budget of the universe.
+  private ExecutorService backupExecutor;
+
   @Inject
-  protected MultiTableBackup(BaseTaskDependencies baseTaskDependencies) {
+  protected MultiTableBackup(
+      BaseTaskDependencies baseTaskDependencies,
+      MetricQueryHelper metricQueryHelper,
+      BackupUploadLimiter backupUploadLimiter) {
     super(baseTaskDependencies);
+    this.metricQueryHelper = metricQueryHelper;
+    this.backupUploadLimiter = backupUploadLimiter;
   }
 
   public static class Params extends BackupTableParams {
@@ -51,6 +71,9 @@ public class MultiTableBackup extends UniverseTaskBase {
     List<BackupTableParams> backupParamsList = new ArrayList<>();
     BackupTableParams tableBackupParams = new BackupTableParams();
     Set<String> tablesToBackup = new HashSet<>();
+    // Keyspaces of the tables to back up, to estimate the size of the keyspace backups.
+    Map<UUID, String> tableKeyspaces = new HashMap<>();
+    Backup universeBackup = null;
     try {
       checkUniverseVersion();
       subTaskGroupQueue = new SubTaskGroupQueue(userTaskUUID);
@@ -131,6 +154,7 @@ public class MultiTableBackup extends UniverseTaskBase {
                       + tableKeySpace);
               continue;
             }
+            tableKeyspaces.put(tableUUID, tableKeySpace);
 
             if (tableType == TableType.PGSQL_TABLE_TYPE
                 && !keyspaceMap.containsKey(tableKeySpace)) {
@@ -193,7 +217,8 @@ public class MultiTableBackup extends UniverseTaskBase {
 
       log.info("Successfully started scheduled backup of tables.");
       if (params().getKeyspace() == null && params().tableUUIDList.size() == 0) {
-        // Full universe backup, each table to be sequentially backed up
+        // Full universe backup, each table to be backed up by a subtask of its own
+        sortBySize(universe, backupParamsList, tableKeyspaces);
         tableBackupParams.backupList = backupParamsList;
         tableBackupParams.storageConfigUUID = params().storageConfigUUID;
         tableBackupParams.actionType = BackupTableParams.ActionType.CREATE;
@@ -207,13 +232,16 @@ public class MultiTableBackup extends UniverseTaskBase {
         Backup backup = Backup.create(params().customerUUID, tableBackupParams);
         backup.setTaskUUID(userTaskUUID);
         tableBackupParams.backup = backup;
+        universeBackup = backup;
         log.info("Task id {} for the backup {}", backup.taskUUID, backup.backupUUID);
 
         for (BackupTableParams backupParams : backupParamsList) {
+          backupParams.backup = backup;
+          backupParams.backupListEntry = true;
           createEncryptedUniverseKeyBackupTask(backupParams)
               .setSubTaskGroupType(UserTaskDetails.SubTaskGroupType.CreatingTableBackup);
         }
-        createTableBackupTask(tableBackupParams)
+        createTableBackupTasks(universe, backupParamsList)
             .setSubTaskGroupType(UserTaskDetails.SubTaskGroupType.CreatingTableBackup);
       } else if (params().getKeyspace() != null
           && (params().backupType == TableType.PGSQL_TABLE_TYPE
@@ -228,6 +256,7 @@ public class MultiTableBackup extends UniverseTaskBase {
         createTableBackupTask(tableBackupParams)
             .setSubTaskGroupType(UserTaskDetails.SubTaskGroupType.CreatingTableBackup);
       } else {
+        sortBySize(universe, backupParamsList, tableKeyspaces);
         for (BackupTableParams tableParams : backupParamsList) {
           Backup backup = Backup.create(params().customerUUID, tableParams);
           backup.setTaskUUID(userTaskUUID);
@@ -235,7 +264,9 @@ public class MultiTableBackup extends UniverseTaskBase {
           log.info("Task id {} for the backup {}", backup.taskUUID, backup.backupUUID);
           createEncryptedUniverseKeyBackupTask(tableParams)
               .setSubTaskGroupType(UserTaskDetails.SubTaskGroupType.CreatingTableBackup);
-          createTableBackupTask(tableParams)
+        }
+        if (!backupParamsList.isEmpty()) {
+          createTableBackupTasks(universe, backupParamsList)
               .setSubTaskGroupType(UserTaskDetails.SubTaskGroupType.CreatingTableBackup);
         }
       }
@@ -249,8 +280,37 @@ public class MultiTableBackup extends UniverseTaskBase {
       unlockUniverseForUpdate();
 
       subTaskGroupQueue.run();
+
+      // The table backups ignore the errors of each other, so that the other tables are still
+      // backed up, and only mark their backup as failed.
+      if (universeBackup != null && universeBackup.state == Backup.BackupState.Failed) {
+        throw new RuntimeException(
+            "Backup of some tables of universe " + params().universeUUID + " failed.");
+      }
+      List<String> failedTables =
+          backupParamsList
+              .stream()
+              .filter(
+                  backupParams ->
+                      backupParams.backup != null
+                          && backupParams.backup.state == Backup.BackupState.Failed)
+              .map(
+                  backupParams ->
+                      backupParams.getTableName() == null
+                          ? backupParams.getKeyspace()
+                          : backupParams.getKeyspace() + ":" + backupParams.getTableName())
+              .collect(Collectors.toList());
+      if (!failedTables.isEmpty()) {
+        throw new RuntimeException("Backup of tables " + failedTables + " failed.");
+      }
+      if (universeBackup != null && universeBackup.state == Backup.BackupState.InProgress) {
+        universeBackup.transitionState(Backup.BackupState.Completed);
+      }
     } catch (Throwable t) {
       log.error("Error executing task {} with error='{}'.", getName(), t.getMessage(), t);
+      if (universeBackup != null && universeBackup.state == Backup.BackupState.InProgress) {
+        universeBackup.transitionState(Backup.BackupState.Failed);
+      }
 
       // Run an unlock in case the task failed before getting to the unlock. It is okay if it
       // errors out.
@@ -258,10 +318,94 @@ public class MultiTableBackup extends UniverseTaskBase {
       throw t;
     } finally {
       updateBackupState(false);
+      if (backupExecutor != null) {
+        backupExecutor.shutdown();
+      }
     }
     log.info("Finished {} task.", getName());
   }
 
+  /**
+   * Creates a task group backing up the tables in the given order, with at most as many of them
+   * running at once as the upload budget of the universe allows for the parallelism of the backup.
+   * The budget is shared with the other backups of the universe, whose table backups wait for
+   * upload slots in BackupUploadLimiter. Each table gets a subtask of its own, so that the
+   * progress is reported per table.
+   */
+  private SubTaskGroup createTableBackupTasks(
+      Universe universe, List<BackupTableParams> backupParamsList) {
+    int maxParallelUploads = backupUploadLimiter.getMaxParallelUploads(universe);
+    int numParallelBackups =
+        Math.min(
+            backupParamsList.size(),
+            Math.max(1, maxParallelUploads / Math.max(1, params().parallelism)));
+    log.info(
+        "Backing up {} tables of universe {}, {} at a time.",
+        backupParamsList.size(),
+        universe.universeUUID,
+        numParallelBackups);
+    backupExecutor =
+        Executors.newFixedThreadPool(
+            numParallelBackups,
+            new ThreadFactoryBuilder().setNameFormat("TaskPool-BackupTable-%d").build());
+    SubTaskGroup subTaskGroup = new SubTaskGroup("BackupTable", backupExecutor, true);
+    for (BackupTableParams backupParams : backupParamsList) {
+      BackupTable task = createTask(BackupTable.class);
+      task.initialize(backupParams);
+      task.setUserTaskUUID(userTaskUUID);
+      subTaskGroup.addTask(task);
+    }
+    subTaskGroupQueue.add(subTaskGroup);
+    return subTaskGroup;
+  }
+
+  /**
+   * Orders the backups largest first, by the size of the SST files of their tables, so that a
+   * large table does not start last and hold up the whole backup. The order is kept as is if the
+   * sizes cannot be queried.
+   */
+  private void sortBySize(
+      Universe universe,
+      List<BackupTableParams> backupParamsList,
+      Map<UUID, String> tableKeyspaces) {
+    if (backupParamsList.size() < 2) {
+      return;
+    }
+    Map<String, Double> tableSizes;
+    try {
+      tableSizes = metricQueryHelper.queryTableSizes(universe.getUniverseDetails().nodePrefix);
+    } catch (RuntimeException e) {
+      log.warn("Unable to query the table sizes of universe {}.", universe.universeUUID, e);
+      return;
+    }
+    Map<BackupTableParams, Double> backupSizes = new IdentityHashMap<>();
+    for (BackupTableParams backupParams : backupParamsList) {
+      List<UUID> tableUUIDs;
+      if (backupParams.tableUUIDList != null) {
+        tableUUIDs = backupParams.tableUUIDList;
+      } else if (backupParams.tableUUID != null) {
+        tableUUIDs = Collections.singletonList(backupParams.tableUUID);
+      } else {
+        // Backup of a whole keyspace.
+        tableUUIDs =
+            tableKeyspaces
+                .entrySet()
+                .stream()
+                .filter(e -> e.getValue().equals(backupParams.getKeyspace()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+      }
+      double size = 0;
+      for (UUID tableUUID : tableUUIDs) {
+        size += tableSizes.getOrDefault(tableUUID.toString().replace("-", ""), 0.0);
+      }
+      backupSizes.put(backupParams, size);
+    }
+    // The sort is stable, tables of unknown size keep their order.
+    backupParamsList.sort(
+        Comparator.comparing((BackupTableParams b) -> backupSizes.get(b)).reversed());
+  }
+
   // Helper method to update passed in reference object
   private void populateBackupParams(
       BackupTableParams backupParams,
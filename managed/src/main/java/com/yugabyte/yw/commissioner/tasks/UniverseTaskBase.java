@@ -578,6 +578,28 @@ public abstract class UniverseTaskBase extends AbstractTaskBase {
     return subTaskGroup;
   }
 
+  /**
+   * Create task to wait for restarted tservers to run all their tablets and for the universe to
+   * have no under-replicated tablets.
+   *
+   * @param nodes nodes of the restarted tservers.
+   * @param sleepTimeMs default sleep time if the servers do not support the checks.
+   * @return SubTaskGroup
+   */
+  public SubTaskGroup createWaitForTabletsHealthyTask(
+      Collection<NodeDetails> nodes, int sleepTimeMs) {
+    SubTaskGroup subTaskGroup = new SubTaskGroup("WaitForTabletsHealthy", executor);
+    WaitForTabletsHealthy.Params params = new WaitForTabletsHealthy.Params();
+    params.universeUUID = taskParams().universeUUID;
+    nodes.forEach(node -> params.nodeNames.add(node.nodeName));
+    params.waitTimeMs = sleepTimeMs;
+    WaitForTabletsHealthy task = createTask(WaitForTabletsHealthy.class);
+    task.initialize(params);
+    subTaskGroup.addTask(task);
+    subTaskGroupQueue.add(subTaskGroup);
+    return subTaskGroup;
+  }
+
   /**
    * Create tasks to execute Cluster CTL command against specific process in parallel
    *
@@ -20,6 +20,7 @@ import com.yugabyte.yw.common.CertificateHelper;
 import com.yugabyte.yw.common.NodeManager;
 import com.yugabyte.yw.common.PlacementInfoUtil;
 import com.yugabyte.yw.common.YWServiceException;
+import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.Cluster;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.UserIntent;
 import com.yugabyte.yw.forms.UpgradeParams;
 import com.yugabyte.yw.models.*;
@@ -30,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import play.api.Play;
 import com.typesafe.config.Config;
@@ -265,6 +267,10 @@ public class UpgradeUniverse extends UniverseDefinitionTaskBase {
         }
         break;
     }
+    if (taskParams().rollingBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "Invalid rolling batch size " + taskParams().rollingBatchSize + ", should be >= 1.");
+    }
   }
 
   private ImmutablePair<List<NodeDetails>, List<NodeDetails>> nodesToUpgrade(
@@ -773,8 +779,27 @@ public class UpgradeUniverse extends UniverseDefinitionTaskBase {
               .setSubTaskGroupType(getTaskSubGroupType());
           loadbalancerOff = true;
         }
-        for (NodeDetails node : nodes) {
-          createSingleNodeUpgradeTasks(node, processType, upgradeIteration);
+        if (processType == ServerType.TSERVER && taskParams().rollingBatchSize > 1) {
+          Set<UUID> zoneBatchClusters = new HashSet<>();
+          Universe universe = Universe.getOrBadRequest(taskParams().universeUUID);
+          for (Cluster cluster : universe.getUniverseDetails().clusters) {
+            if (hasOneReplicaPerZone(cluster)) {
+              zoneBatchClusters.add(cluster.uuid);
+            } else {
+              log.info(
+                  "Cluster {} does not have one replica in each of RF zones, its tservers are"
+                      + " restarted one at a time.",
+                  cluster.uuid);
+            }
+          }
+          for (List<NodeDetails> batch :
+              splitIntoBatches(nodes, taskParams().rollingBatchSize, zoneBatchClusters)) {
+            createBatchUpgradeTasks(batch, processType, upgradeIteration);
+          }
+        } else {
+          for (NodeDetails node : nodes) {
+            createSingleNodeUpgradeTasks(node, processType, upgradeIteration);
+          }
         }
         if (loadbalancerOff) {
           createLoadBalancerStateChangeTask(true /*enable*/)
@@ -792,30 +817,111 @@ public class UpgradeUniverse extends UniverseDefinitionTaskBase {
     }
   }
 
-  // This is used for rolling upgrade, which is done per node in the universe.
-  private void createSingleNodeUpgradeTasks(
-      NodeDetails node, ServerType processType, UpgradeIteration upgradeIteration) {
-    NodeDetails.NodeState nodeState = null;
+  // Node state during a rolling upgrade of the node.
+  private NodeDetails.NodeState getRollingUpgradeNodeState() {
     switch (taskParams().taskType) {
       case Software:
-        nodeState = UpgradeSoftware;
-        break;
+        return UpgradeSoftware;
       case GFlags:
-        nodeState = UpdateGFlags;
-        break;
+        return UpdateGFlags;
       case Restart:
-        nodeState = Stopping;
-        break;
+        return Stopping;
       case Certs:
-        nodeState = UpdateCert;
-        break;
+        return UpdateCert;
       case ToggleTls:
-        nodeState = ToggleTls;
-        break;
+        return ToggleTls;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Whether the cluster places its replicas in at least RF zones with one replica each. A zone of
+   * such a cluster then holds at most one replica of a tablet, so its tservers can be restarted
+   * together.
+   */
+  @VisibleForTesting
+  static boolean hasOneReplicaPerZone(Cluster cluster) {
+    if (cluster.placementInfo == null) {
+      return false;
     }
+    int numZones = 0;
+    for (PlacementInfo.PlacementCloud cloud : cluster.placementInfo.cloudList) {
+      for (PlacementInfo.PlacementRegion region : cloud.regionList) {
+        for (PlacementInfo.PlacementAZ az : region.azList) {
+          if (az.replicationFactor > 1) {
+            return false;
+          }
+          numZones += az.replicationFactor;
+        }
+      }
+    }
+    return numZones >= cluster.userIntent.replicationFactor;
+  }
 
+  /**
+   * Splits the nodes, in restart order, into batches of up to batchSize nodes of the same zone
+   * and cluster. The zones are processed one after another, in the order of their first node, and
+   * the restart order is kept within each zone. Only the clusters in zoneBatchClusters, which have
+   * one replica per zone, get batches of several nodes. The nodes of the other clusters are in
+   * batches of their own, as a zone may hold several replicas of a tablet.
+   */
+  @VisibleForTesting
+  static List<List<NodeDetails>> splitIntoBatches(
+      List<NodeDetails> nodes, int batchSize, Set<UUID> zoneBatchClusters) {
+    Map<Object, List<NodeDetails>> nodesPerZone = new LinkedHashMap<>();
+    for (NodeDetails node : nodes) {
+      Object key =
+          zoneBatchClusters.contains(node.placementUuid)
+              ? ImmutablePair.of(node.placementUuid, node.azUuid)
+              : node;
+      nodesPerZone.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+    }
+    List<List<NodeDetails>> batches = new ArrayList<>();
+    for (List<NodeDetails> zoneNodes : nodesPerZone.values()) {
+      for (int i = 0; i < zoneNodes.size(); i += batchSize) {
+        batches.add(
+            new ArrayList<>(zoneNodes.subList(i, Math.min(i + batchSize, zoneNodes.size()))));
+      }
+    }
+    return batches;
+  }
+
+  // This is used for rolling upgrade of several tservers of the same zone together. The
+  // next batch waits for the tablets to be fully replicated again instead of a fixed sleep.
+  private void createBatchUpgradeTasks(
+      List<NodeDetails> nodes, ServerType processType, UpgradeIteration upgradeIteration) {
+    SubTaskGroupType subGroupType = getTaskSubGroupType();
+    createSetNodeStateTasks(nodes, getRollingUpgradeNodeState()).setSubTaskGroupType(subGroupType);
+    if (taskParams().taskType == UpgradeTaskType.Software) {
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
+      createSoftwareInstallTasks(nodes, processType);
+    } else if (taskParams().taskType == UpgradeTaskType.GFlags) {
+      createServerConfFileUpdateTasks(nodes, processType);
+      // Stop is done after conf file update to reduce unavailability.
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
+    } else if (taskParams().taskType == UpgradeTaskType.ToggleTls) {
+      createToggleTlsTasks(nodes, processType, upgradeIteration);
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
+    } else {
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
+    }
+
+    createServerControlTasks(nodes, processType, "start").setSubTaskGroupType(subGroupType);
+    createWaitForServersTasks(new HashSet<>(nodes), processType).setSubTaskGroupType(subGroupType);
+    createWaitForTabletsHealthyTask(nodes, getSleepTimeForProcess(processType))
+        .setSubTaskGroupType(subGroupType);
+    for (NodeDetails node : nodes) {
+      createWaitForKeyInMemoryTask(node).setSubTaskGroupType(subGroupType);
+    }
+    createSetNodeStateTasks(nodes, NodeDetails.NodeState.Live).setSubTaskGroupType(subGroupType);
+  }
+
+  // This is used for rolling upgrade, which is done per node in the universe.
+  private void createSingleNodeUpgradeTasks(
+      NodeDetails node, ServerType processType, UpgradeIteration upgradeIteration) {
     SubTaskGroupType subGroupType = getTaskSubGroupType();
-    createSetNodeStateTask(node, nodeState).setSubTaskGroupType(subGroupType);
+    createSetNodeStateTask(node, getRollingUpgradeNodeState()).setSubTaskGroupType(subGroupType);
     if (taskParams().taskType == UpgradeTaskType.Software) {
       createServerControlTask(node, processType, "stop").setSubTaskGroupType(subGroupType);
       createSoftwareInstallTasks(Collections.singletonList(node), processType);
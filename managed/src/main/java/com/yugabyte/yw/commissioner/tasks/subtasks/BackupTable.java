@@ -13,6 +13,7 @@ package com.yugabyte.yw.commissioner.tasks.subtasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.yugabyte.yw.commissioner.AbstractTaskBase;
 import com.yugabyte.yw.commissioner.BaseTaskDependencies;
+import com.yugabyte.yw.common.BackupUploadLimiter;
 import com.yugabyte.yw.common.ShellResponse;
 import com.yugabyte.yw.forms.BackupTableParams;
 import com.yugabyte.yw.models.Backup;
@@ -28,9 +29,13 @@ import java.util.Map;
 @Slf4j
 public class BackupTable extends AbstractTaskBase {
 
+  private final BackupUploadLimiter backupUploadLimiter;
+
   @Inject
-  public BackupTable(BaseTaskDependencies baseTaskDependencies) {
+  public BackupTable(
+      BaseTaskDependencies baseTaskDependencies, BackupUploadLimiter backupUploadLimiter) {
     super(baseTaskDependencies);
+    this.backupUploadLimiter = backupUploadLimiter;
   }
 
   @Override
@@ -56,27 +61,13 @@ public class BackupTable extends AbstractTaskBase {
       if (config.isEmpty() || config.getOrDefault(Universe.TAKE_BACKUPS, "true").equals("true")) {
         if (taskParams().backupList != null) {
           for (BackupTableParams backupParams : taskParams().backupList) {
-            ShellResponse response = tableManager.createBackup(backupParams);
-            JsonNode jsonNode = Json.parse(response.message);
-            if (response.code != 0 || jsonNode.has("error")) {
-              log.error("Response code={}, hasError={}.", response.code, jsonNode.has("error"));
-
-              throw new RuntimeException(response.message);
-            } else {
-              log.info("[" + getName() + "] STDOUT: " + response.message);
-            }
+            createBackup(universe, backupParams);
           }
-
           backup.transitionState(Backup.BackupState.Completed);
         } else {
-          ShellResponse response = tableManager.createBackup(taskParams());
-          JsonNode jsonNode = Json.parse(response.message);
-          if (response.code != 0 || jsonNode.has("error")) {
-            log.error("Response code={}, hasError={}.", response.code, jsonNode.has("error"));
-            backup.transitionState(Backup.BackupState.Failed);
-            throw new RuntimeException(response.message);
-          } else {
-            log.info("[" + getName() + "] STDOUT: " + response.message);
+          createBackup(universe, taskParams());
+          // The other entries of the backup may still be running.
+          if (!taskParams().backupListEntry) {
             backup.transitionState(Backup.BackupState.Completed);
           }
         }
@@ -90,4 +81,28 @@ public class BackupTable extends AbstractTaskBase {
       throw new RuntimeException(e);
     }
   }
+
+  private void createBackup(Universe universe, BackupTableParams backupParams)
+      throws InterruptedException {
+    // The upload threads are shared with the other backups of the universe.
+    int slots = backupUploadLimiter.acquire(universe, backupParams.parallelism);
+    long startMs = System.currentTimeMillis();
+    ShellResponse response;
+    try {
+      response = tableManager.createBackup(backupParams);
+    } finally {
+      backupUploadLimiter.release(universe.universeUUID, slots);
+    }
+    JsonNode jsonNode = Json.parse(response.message);
+    if (response.code != 0 || jsonNode.has("error")) {
+      log.error("Response code={}, hasError={}.", response.code, jsonNode.has("error"));
+      throw new RuntimeException(response.message);
+    }
+    log.info("[" + getName() + "] STDOUT: " + response.message);
+    log.info(
+        "Backed up {}:{} in {} ms.",
+        backupParams.getKeyspace(),
+        backupParams.getTableNames(),
+        System.currentTimeMillis() - startMs);
+  }
 }
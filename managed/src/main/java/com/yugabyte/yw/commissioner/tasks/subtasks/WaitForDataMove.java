@@ -15,23 +15,23 @@ import com.yugabyte.yw.commissioner.BaseTaskDependencies;
 import com.yugabyte.yw.forms.UniverseTaskParams;
 import com.yugabyte.yw.models.Universe;
 import lombok.extern.slf4j.Slf4j;
-import org.yb.client.GetLoadMovePercentResponse;
 import org.yb.client.YBClient;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class WaitForDataMove extends AbstractTaskBase {
 
-  // Time to wait (in millisec) during each iteration of load move completion check.
-  private static final int WAIT_EACH_ATTEMPT_MS = 100;
+  // Time to wait (in millisec) before the second load move completion check.
+  private static final int MIN_WAIT_EACH_ATTEMPT_MS = 100;
+
+  // Time to wait (in millisec) at most between load move completion checks.
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 5000;
 
   // Number of response errors to tolerate.
   private static final int MAX_ERRORS_TO_IGNORE = 128;
 
-  // Log after these many iterations
-  private static final int LOG_EVERY_NUM_ITERS = 100;
-
   @Inject
   protected WaitForDataMove(BaseTaskDependencies baseTaskDependencies) {
     super(baseTaskDependencies);
@@ -46,60 +46,44 @@ public class WaitForDataMove extends AbstractTaskBase {
 
   @Override
   public void run() {
-    String errorMsg = null;
-    YBClient client = null;
-    int numErrors = 0;
-    double percent = 0;
-    int numIters = 0;
+    waitForCompletion(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     // Get the master addresses and certificate info.
     Universe universe = Universe.getOrBadRequest(taskParams().universeUUID);
     String masterAddresses = universe.getMasterAddresses();
     String certificate = universe.getCertificateNodetoNode();
     log.info("Running {} on masterAddress = {}.", getName(), masterAddresses);
 
-    try {
-
-      client = ybService.getClient(masterAddresses, certificate);
-      log.info("Leader Master UUID={}.", client.getLeaderMasterUUID());
-
-      // TODO: Have a mechanism to send this percent to the parent task completion.
-      while (percent < (double) 100) {
-        GetLoadMovePercentResponse response = client.getLoadMoveCompletion();
-
-        if (response.hasError()) {
-          log.warn("{} response has error {}.", getName(), response.errorMessage());
-          numErrors++;
-          // If there are more than the threshold of response errors, bail out.
-          if (numErrors >= MAX_ERRORS_TO_IGNORE) {
-            errorMsg = getName() + ": hit too many errors during data move completion wait.";
-            break;
-          }
-          Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-          continue;
-        }
-
-        percent = response.getPercentCompleted();
-        // No need to wait if completed (as in, percent == 100).
-        if (percent < (double) 100) {
-          Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-        }
-
-        numIters++;
-        if (numIters % LOG_EVERY_NUM_ITERS == 0) {
-          log.info("Info: iters={}, percent={}, numErrors={}.", numIters, percent, numErrors);
-        }
-        // For now, we wait until load moves out fully. TODO: Add an overall timeout as needed.
-      }
-    } catch (Exception e) {
-      log.error("{} hit error {}.", getName(), e.getMessage(), e);
-      throw new RuntimeException(getName() + " hit error: ", e);
-    } finally {
-      ybService.closeClient(client, masterAddresses);
-    }
-
-    if (errorMsg != null) {
-      log.error(errorMsg);
-      throw new RuntimeException(errorMsg);
-    }
+    YBClient client = ybService.getClient(masterAddresses, certificate);
+    // TODO: Have a mechanism to send this percent to the parent task completion.
+    // For now, we wait until load moves out fully. TODO: Add an overall timeout as needed.
+    return conditionPoller
+        .waitFor(
+            getName(),
+            () -> client.getAsyncClient().getLoadMoveCompletion(),
+            response -> {
+              if (response.hasError()) {
+                throw new RuntimeException(response.errorMessage());
+              }
+              log.debug("{}: percent={}.", getName(), response.getPercentCompleted());
+              // No need to wait if completed (as in, percent == 100).
+              return response.getPercentCompleted() >= (double) 100;
+            },
+            MIN_WAIT_EACH_ATTEMPT_MS,
+            MAX_WAIT_EACH_ATTEMPT_MS,
+            Long.MAX_VALUE,
+            MAX_ERRORS_TO_IGNORE)
+        .handle(
+            (response, e) -> {
+              ybService.closeClient(client, masterAddresses);
+              if (e != null) {
+                log.error("{} hit error {}.", getName(), e.getMessage(), e);
+                throw new RuntimeException(getName() + " hit error: ", e);
+              }
+              return null;
+            });
   }
 }
@@ -18,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.yb.client.YBClient;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class WaitForLeadersOnPreferredOnly extends AbstractTaskBase {
@@ -26,6 +27,15 @@ public class WaitForLeadersOnPreferredOnly extends AbstractTaskBase {
   // NOTE: This is similar to WaitForDataMove for blacklist removal.
   private static final long TIMEOUT_SERVER_WAIT_MS = Long.MAX_VALUE;
 
+  // Time to wait (in millisec) before the second check.
+  private static final int MIN_WAIT_EACH_ATTEMPT_MS = 500;
+
+  // Time to wait (in millisec) at most between checks.
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 5000;
+
+  // Number of check errors to tolerate.
+  private static final int MAX_ERRORS_TO_IGNORE = 2500;
+
   @Inject
   protected WaitForLeadersOnPreferredOnly(BaseTaskDependencies baseTaskDependencies) {
     super(baseTaskDependencies);
@@ -46,24 +56,34 @@ public class WaitForLeadersOnPreferredOnly extends AbstractTaskBase {
 
   @Override
   public void run() {
+    waitForCompletion(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     Universe universe = Universe.getOrBadRequest(taskParams().universeUUID);
     String hostPorts = universe.getMasterAddresses();
     String certificate = universe.getCertificateNodetoNode();
-    boolean ret = false;
-    YBClient client = null;
-    try {
-      log.info("Running {}: hostPorts={}.", getName(), hostPorts);
-      client = ybService.getClient(hostPorts, certificate);
+    log.info("Running {}: hostPorts={}.", getName(), hostPorts);
+    YBClient client = ybService.getClient(hostPorts, certificate);
 
-      ret = client.waitForAreLeadersOnPreferredOnlyCondition(TIMEOUT_SERVER_WAIT_MS);
-    } catch (Exception e) {
-      log.error("{} hit error : {}", getName(), e.getMessage());
-      throw new RuntimeException(e);
-    } finally {
-      ybService.closeClient(client, hostPorts);
-    }
-    if (!ret) {
-      throw new RuntimeException(getName() + " did not complete.");
-    }
+    return conditionPoller
+        .waitFor(
+            getName(),
+            () -> client.getAsyncClient().getAreLeadersOnPreferredOnly(),
+            response -> !response.hasError(),
+            MIN_WAIT_EACH_ATTEMPT_MS,
+            MAX_WAIT_EACH_ATTEMPT_MS,
+            TIMEOUT_SERVER_WAIT_MS,
+            MAX_ERRORS_TO_IGNORE)
+        .handle(
+            (response, e) -> {
+              ybService.closeClient(client, hostPorts);
+              if (e != null) {
+                log.error("{} hit error : {}", getName(), e.getMessage());
+                throw new RuntimeException(getName() + " did not complete.", e);
+              }
+              return null;
+            });
   }
 }
@@ -17,10 +17,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.yb.client.YBClient;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class WaitForServer extends ServerSubTaskBase {
 
+  // Time to wait (in millisec) before the second ping.
+  private static final int MIN_WAIT_EACH_ATTEMPT_MS = 100;
+
+  // Time to wait (in millisec) at most between pings, the same as the yb-client wait.
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 500;
+
+  // Number of failed pings tolerated, the same as the yb-client wait.
+  private static final int MAX_ERRORS = 2500;
+
   @Inject
   protected WaitForServer(BaseTaskDependencies baseTaskDependencies) {
     super(baseTaskDependencies);
@@ -38,29 +48,39 @@ public class WaitForServer extends ServerSubTaskBase {
 
   @Override
   public void run() {
+    waitForCompletion(runAsync());
+  }
 
+  @Override
+  public CompletableFuture<Void> runAsync() {
     checkParams();
 
-    boolean ret;
-    YBClient client = null;
+    HostAndPort hp = getHostPort();
+    YBClient client = getClient();
     long startMs = System.currentTimeMillis();
-    try {
-      HostAndPort hp = getHostPort();
-      client = getClient();
-
-      ret = client.waitForServer(hp, taskParams().serverWaitTimeoutMs);
-    } catch (Exception e) {
-      log.error("{} hit error : {}", getName(), e.getMessage());
-      throw new RuntimeException(e);
-    } finally {
-      closeClient(client);
-    }
-    if (!ret) {
-      throw new RuntimeException(getName() + " did not respond to pings in the set time.");
-    }
-    log.info(
-        "Server {} responded to RPC calls in {} ms",
-        (taskParams().nodeName != null) ? taskParams().nodeName : "unknown",
-        (System.currentTimeMillis() - startMs));
+    // A failed ping means the server is not up yet, so it is retried.
+    return conditionPoller
+        .waitFor(
+            getName(),
+            () -> client.getAsyncClient().ping(hp),
+            response -> true,
+            MIN_WAIT_EACH_ATTEMPT_MS,
+            MAX_WAIT_EACH_ATTEMPT_MS,
+            taskParams().serverWaitTimeoutMs,
+            MAX_ERRORS)
+        .handle(
+            (response, e) -> {
+              closeClient(client);
+              if (e != null) {
+                log.error("{} hit error : {}", getName(), e.getMessage());
+                throw new RuntimeException(
+                    getName() + " did not respond to pings in the set time.", e);
+              }
+              log.info(
+                  "Server {} responded to RPC calls in {} ms",
+                  (taskParams().nodeName != null) ? taskParams().nodeName : "unknown",
+                  (System.currentTimeMillis() - startMs));
+              return null;
+            });
   }
 }
@@ -18,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.yb.client.YBClient;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 
 // Helper class to wait for a minimum number of tservers to heartbeat to the
 // master leader. Currently the minimum is the same as the replication factor,
@@ -28,8 +29,11 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
   // Timeout when minimum number of tservers have not heartbeatean to master leader.
   private static final long TIMEOUT_SERVER_WAIT_MS = 120000;
 
-  // Time to wait (in millisec) during each iteration of check.
-  private static final int WAIT_EACH_ATTEMPT_MS = 250;
+  // Time to wait (in millisec) before the second check.
+  private static final int MIN_WAIT_EACH_ATTEMPT_MS = 250;
+
+  // Time to wait (in millisec) at most between checks.
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 2000;
 
   @Inject
   protected WaitForTServerHeartBeats(BaseTaskDependencies baseTaskDependencies) {
@@ -51,6 +55,11 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
 
   @Override
   public void run() {
+    waitForCompletion(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     Universe universe = Universe.getOrBadRequest(taskParams().universeUUID);
     String hostPorts = universe.getMasterAddresses();
     String certificate = universe.getCertificateNodetoNode();
@@ -58,38 +67,26 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
     YBClient client = ybService.getClient(hostPorts, certificate);
 
     log.info("Running {}: hostPorts={}, numTservers={}.", getName(), hostPorts, numTservers);
-    int numTries = 1;
-    long start = System.currentTimeMillis();
-    boolean timedOut = false;
-    do {
-      try {
-        int currentNumTservers = client.listTabletServers().getTabletServersCount();
-
-        log.info("{} tservers heartbeating to master leader.", currentNumTservers);
-
-        if (currentNumTservers >= numTservers) {
-          break;
-        }
-
-        log.info(
-            "Waiting to make sure {} tservers are heartbeating to master leader; retrying "
-                + "after {}ms. Tried {} times.",
-            numTservers,
-            WAIT_EACH_ATTEMPT_MS,
-            numTries);
-
-        Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-        numTries++;
-      } catch (Exception e) {
-        log.warn("{}: ignoring error '{}'.", getName(), e.getMessage());
-      }
-      timedOut = System.currentTimeMillis() >= start + TIMEOUT_SERVER_WAIT_MS;
-    } while (!timedOut);
-
-    ybService.closeClient(client, hostPorts);
-
-    if (timedOut) {
-      throw new RuntimeException(getName() + " timed out.");
-    }
+    return conditionPoller
+        .waitFor(
+            getName(),
+            () -> client.getAsyncClient().listTabletServers(),
+            response -> {
+              int currentNumTservers = response.getTabletServersCount();
+              log.info("{} tservers heartbeating to master leader.", currentNumTservers);
+              return currentNumTservers >= numTservers;
+            },
+            MIN_WAIT_EACH_ATTEMPT_MS,
+            MAX_WAIT_EACH_ATTEMPT_MS,
+            TIMEOUT_SERVER_WAIT_MS,
+            Integer.MAX_VALUE)
+        .handle(
+            (response, e) -> {
+              ybService.closeClient(client, hostPorts);
+              if (e != null) {
+                throw new RuntimeException(getName() + " timed out.", e);
+              }
+              return null;
+            });
   }
 }
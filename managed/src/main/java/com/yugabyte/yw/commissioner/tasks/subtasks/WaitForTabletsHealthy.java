@@ -0,0 +1,220 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner.tasks.subtasks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.HostAndPort;
+import com.yugabyte.yw.commissioner.AbstractTaskBase;
+import com.yugabyte.yw.commissioner.BaseTaskDependencies;
+import com.yugabyte.yw.common.ApiHelper;
+import com.yugabyte.yw.forms.UniverseTaskParams;
+import com.yugabyte.yw.forms.UpgradeParams;
+import com.yugabyte.yw.models.Universe;
+import com.yugabyte.yw.models.helpers.NodeDetails;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.yb.client.IsServerReadyResponse;
+import org.yb.client.YBClient;
+
+/**
+ * Waits for a batch of restarted tservers to be running all their tablets, and for the master
+ * leader to report no dead tservers and no under-replicated or leaderless tablets, so that the
+ * next batch of a rolling upgrade can be restarted without losing availability. Servers which do
+ * not support these checks get a fixed wait instead.
+ */
+@Slf4j
+public class WaitForTabletsHealthy extends AbstractTaskBase {
+
+  // Time to wait (in millisec) during each iteration of the checks.
+  private static final int WAIT_EACH_ATTEMPT_MS = 1000;
+
+  // Log after these many iterations.
+  private static final int LOG_EVERY_NUM_ITERS = 60;
+
+  // Maximum total wait time for the batch to become healthy.
+  static final String MAX_TOTAL_WAIT_KEY = "yb.wait_for_tablets_healthy_timeout";
+
+  // Number of consecutive master health check errors after which it is considered unsupported.
+  private static final int MAX_HEALTH_CHECK_ERRORS = 10;
+
+  private static final String HEALTH_CHECK_URL_FORMAT = "http://%s:%d/api/v1/health-check";
+
+  // Fields of the master health check listing what is still unhealthy. Older masters do not
+  // report leaderless tablets.
+  static final List<String> UNHEALTHY_FIELDS =
+      ImmutableList.of("dead_nodes", "under_replicated_tablets", "leaderless_tablets");
+
+  private final ApiHelper apiHelper;
+
+  @Inject
+  protected WaitForTabletsHealthy(BaseTaskDependencies baseTaskDependencies, ApiHelper apiHelper) {
+    super(baseTaskDependencies);
+    this.apiHelper = apiHelper;
+  }
+
+  public static class Params extends UniverseTaskParams {
+    // Names of the nodes of the restarted tservers.
+    public List<String> nodeNames = new ArrayList<>();
+    // Time to wait (as a backup) in case the servers do not support the checks.
+    public int waitTimeMs;
+  }
+
+  @Override
+  protected Params taskParams() {
+    return (Params) taskParams;
+  }
+
+  @Override
+  public String getName() {
+    return super.getName() + "(" + taskParams().universeUUID + ", " + taskParams().nodeNames + ")";
+  }
+
+  @Override
+  public void run() {
+    Universe universe = Universe.getOrBadRequest(taskParams().universeUUID);
+    String masterAddresses = universe.getMasterAddresses();
+    YBClient client = ybService.getClient(masterAddresses, universe.getCertificateNodetoNode());
+    long startMs = System.currentTimeMillis();
+    long maxTotalWaitMs =
+        runtimeConfigFactory.globalRuntimeConf().getDuration(MAX_TOTAL_WAIT_KEY).toMillis();
+    boolean checked;
+    try {
+      long deadlineMs = startMs + maxTotalWaitMs;
+      checked =
+          waitForServersReady(client, universe, deadlineMs)
+              && waitForMasterHealthy(client, universe, deadlineMs);
+    } finally {
+      ybService.closeClient(client, masterAddresses);
+    }
+    if (checked) {
+      log.info(
+          "Tservers on {} healthy after {} ms.",
+          taskParams().nodeNames,
+          System.currentTimeMillis() - startMs);
+      return;
+    }
+    int waitTimeMs =
+        taskParams().waitTimeMs != 0
+            ? taskParams().waitTimeMs
+            : UpgradeParams.DEFAULT_SLEEP_AFTER_RESTART_MS;
+    long remainingMs = waitTimeMs - (System.currentTimeMillis() - startMs);
+    if (remainingMs > 0) {
+      log.info(
+          "Health of {} cannot be checked, waiting {} ms.", taskParams().nodeNames, remainingMs);
+      sleepFor(remainingMs);
+    }
+  }
+
+  // Returns false if the servers do not support the readiness check.
+  private boolean waitForServersReady(YBClient client, Universe universe, long deadlineMs) {
+    for (String nodeName : taskParams().nodeNames) {
+      NodeDetails node = universe.getNode(nodeName);
+      if (node == null) {
+        throw new IllegalArgumentException(
+            "Node " + nodeName + " not found in universe " + taskParams().universeUUID);
+      }
+      HostAndPort hp = HostAndPort.fromParts(node.cloudInfo.private_ip, node.tserverRpcPort);
+      int numIters = 0;
+      while (true) {
+        numIters++;
+        IsServerReadyResponse response;
+        try {
+          response = client.isServerReady(hp, true /* isTserver */);
+        } catch (Exception e) {
+          // There is no generic mechanism from proto/rpc to check if an older server does not
+          // have this rpc implemented.
+          log.info("{} hit exception '{}' checking {}.", getName(), e.getMessage(), nodeName);
+          return false;
+        }
+        if (response.hasError()) {
+          log.info("Response for {} has error {}.", nodeName, response.errorMessage());
+          return false;
+        }
+        if (response.getNumNotRunningTablets() == 0) {
+          break;
+        }
+        String state =
+            String.format(
+                "%d tablets not running on %s out of %d",
+                response.getNumNotRunningTablets(), nodeName, response.getTotalTablets());
+        checkDeadline(deadlineMs, state);
+        if (numIters % LOG_EVERY_NUM_ITERS == 0) {
+          log.info("{} after iters={}.", state, numIters);
+        }
+        sleepFor(WAIT_EACH_ATTEMPT_MS);
+      }
+    }
+    return true;
+  }
+
+  // Returns false if the master leader does not support the health check.
+  private boolean waitForMasterHealthy(YBClient client, Universe universe, long deadlineMs) {
+    int masterHttpPort = universe.getUniverseDetails().communicationPorts.masterHttpPort;
+    int numErrors = 0;
+    int numIters = 0;
+    while (true) {
+      numIters++;
+      // The leader may change while the tservers restart.
+      HostAndPort leader = client.getLeaderMasterHostAndPort();
+      String unhealthy = null;
+      if (leader == null) {
+        unhealthy = "No master leader";
+      } else {
+        JsonNode response =
+            apiHelper.getRequest(
+                String.format(HEALTH_CHECK_URL_FORMAT, leader.getHost(), masterHttpPort));
+        if (response == null || response.has("error")) {
+          log.info("Master health check failed: {}.", response);
+          if (++numErrors >= MAX_HEALTH_CHECK_ERRORS) {
+            return false;
+          }
+          unhealthy = "Master health check failed";
+        } else {
+          numErrors = 0;
+          unhealthy = getUnhealthyState(response);
+        }
+      }
+      if (unhealthy == null) {
+        return true;
+      }
+      checkDeadline(deadlineMs, unhealthy);
+      if (numIters % LOG_EVERY_NUM_ITERS == 0) {
+        log.info("{} after iters={}.", unhealthy, numIters);
+      }
+      sleepFor(WAIT_EACH_ATTEMPT_MS);
+    }
+  }
+
+  // Returns what is still unhealthy in the master health check, or null.
+  static String getUnhealthyState(JsonNode healthCheck) {
+    List<String> unhealthy = new ArrayList<>();
+    for (String field : UNHEALTHY_FIELDS) {
+      JsonNode value = healthCheck.get(field);
+      if (value != null && value.size() > 0) {
+        unhealthy.add(value.size() + " " + field);
+      }
+    }
+    return unhealthy.isEmpty() ? null : String.join(", ", unhealthy);
+  }
+
+  private void checkDeadline(long deadlineMs, String state) {
+    if (System.currentTimeMillis() > deadlineMs) {
+      throw new RuntimeException(
+          String.format(
+              "Tservers on %s not healthy within %s: %s.",
+              taskParams().nodeNames, MAX_TOTAL_WAIT_KEY, state));
+    }
+  }
+
+  private void sleepFor(long waitTimeMs) {
+    try {
+      Thread.sleep(waitTimeMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted waiting for " + taskParams().nodeNames, e);
+    }
+  }
+}
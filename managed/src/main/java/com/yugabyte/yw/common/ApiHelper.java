@@ -16,12 +16,15 @@ import play.mvc.Http;
 
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /** Helper class API specific stuff */
 @Singleton
@@ -116,6 +119,17 @@ public class ApiHelper {
     return handleJSONPromise(jsonPromise);
   }
 
+  // Gives up on the request once the timeout passes, instead of waiting for the server forever.
+  public JsonNode getRequest(String url, Duration timeout) {
+    WSRequest request = wsClient.url(url).setRequestTimeout(timeout);
+    CompletionStage<JsonNode> jsonPromise = request.get().thenApply(WSResponse::asJson);
+    try {
+      return jsonPromise.toCompletableFuture().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      return ApiResponse.errorJSON(e.getMessage());
+    }
+  }
+
   private JsonNode handleJSONPromise(CompletionStage<JsonNode> jsonPromise) {
     try {
       return jsonPromise.toCompletableFuture().get();
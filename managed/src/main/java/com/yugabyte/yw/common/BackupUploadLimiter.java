@@ -0,0 +1,65 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
+import com.yugabyte.yw.models.Universe;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shares the upload threads of a universe between all of its running backups. Each table backup
+ * takes as many slots as its parallelism, and waits while the universe has no room left under
+ * yb.backup.max_parallel_uploads.
+ */
+@Singleton
+public class BackupUploadLimiter {
+
+  public static final String MAX_PARALLEL_UPLOADS_PARAM = "yb.backup.max_parallel_uploads";
+
+  private final RuntimeConfigFactory runtimeConfigFactory;
+
+  // Guarded by this.
+  private final Map<UUID, Integer> slotsInUse = new HashMap<>();
+
+  @Inject
+  public BackupUploadLimiter(RuntimeConfigFactory runtimeConfigFactory) {
+    this.runtimeConfigFactory = runtimeConfigFactory;
+  }
+
+  /**
+   * Waits for upload slots of the universe. A backup with more parallelism than the whole budget
+   * takes the whole budget.
+   *
+   * @return the number of slots taken, to pass to release.
+   */
+  public synchronized int acquire(Universe universe, int parallelism) throws InterruptedException {
+    while (true) {
+      int maxSlots = Math.max(1, getMaxParallelUploads(universe));
+      int slots = Math.min(Math.max(1, parallelism), maxSlots);
+      int inUse = slotsInUse.getOrDefault(universe.universeUUID, 0);
+      if (inUse + slots <= maxSlots) {
+        slotsInUse.put(universe.universeUUID, inUse + slots);
+        return slots;
+      }
+      wait();
+    }
+  }
+
+  public synchronized void release(UUID universeUUID, int slots) {
+    int inUse = slotsInUse.getOrDefault(universeUUID, 0) - slots;
+    if (inUse > 0) {
+      slotsInUse.put(universeUUID, inUse);
+    } else {
+      slotsInUse.remove(universeUUID);
+    }
+    notifyAll();
+  }
+
+  public int getMaxParallelUploads(Universe universe) {
+    return runtimeConfigFactory.forUniverse(universe).getInt(MAX_PARALLEL_UPLOADS_PARAM);
+  }
+}
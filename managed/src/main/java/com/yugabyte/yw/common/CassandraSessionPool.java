@@ -0,0 +1,195 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Session;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.inject.Singleton;
+import com.yugabyte.yw.models.Universe;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one YCQL cluster connection and session per universe nodes and credentials. Building a
+ * {@link Cluster} is expensive, while a {@link Session} is thread safe and meant to be shared, so
+ * callers borrow the session and hand it back by closing the returned {@link PooledSession}. A
+ * changed set of nodes, credentials or certificate ends up in a new entry, while the stale one is
+ * closed once it is idle and no longer borrowed.
+ */
+@Singleton
+public class CassandraSessionPool {
+  private static final Logger LOG = LoggerFactory.getLogger(CassandraSessionPool.class);
+
+  // Maximum number of cluster connections kept open at the same time.
+  static final int MAX_SESSIONS = 100;
+  // Sessions not used for this long are closed.
+  static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
+  private final Cache<SessionKey, PoolEntry<Session>> sessions =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_SESSIONS)
+          .expireAfterAccess(IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+          .removalListener(
+              (RemovalListener<SessionKey, PoolEntry<Session>>)
+                  notification -> {
+                    LOG.debug(
+                        "Closing YCQL session for universe {}", notification.getKey().universeUUID);
+                    notification.getValue().retire();
+                  })
+          .build();
+
+  /** A session borrowed from the pool. Closing it hands the session back to the pool. */
+  public static class PooledSession implements AutoCloseable {
+    private final PoolEntry<Session> entry;
+    private boolean returned = false;
+
+    private PooledSession(PoolEntry<Session> entry) {
+      this.entry = entry;
+    }
+
+    /** The shared session, which must not be closed or have its keyspace changed. */
+    public Session getSession() {
+      return entry.get();
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!returned) {
+        returned = true;
+        entry.release();
+      }
+    }
+  }
+
+  /**
+   * Borrows a shared session for the universe, connecting without authentication.
+   *
+   * @return the session, or null if the universe has no YCQL nodes
+   */
+  public PooledSession getSession(UUID universeUUID) {
+    return getSession(universeUUID, null, null);
+  }
+
+  /**
+   * Borrows a shared session for the universe. A null username connects without authentication.
+   *
+   * @return the session, or null if the universe has no YCQL nodes
+   */
+  public PooledSession getSession(UUID universeUUID, String username, String password) {
+    List<InetSocketAddress> addresses = Util.getNodesAsInet(universeUUID);
+    if (addresses.isEmpty()) {
+      return null;
+    }
+    String certificate = Universe.getOrBadRequest(universeUUID).getCertificateClientToNode();
+    return getSession(new SessionKey(universeUUID, addresses, certificate, username, password));
+  }
+
+  @VisibleForTesting
+  PooledSession getSession(SessionKey key) {
+    while (true) {
+      PoolEntry<Session> entry;
+      try {
+        entry =
+            sessions.get(
+                key, () -> new PoolEntry<>(connect(key), session -> session.getCluster().close()));
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+      } catch (RuntimeException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+      // The session was evicted after we looked it up, the next lookup connects a new one.
+      if (entry.borrow()) {
+        return new PooledSession(entry);
+      }
+    }
+  }
+
+  /**
+   * Drops all sessions of the universe, e.g. after its credentials were changed. Sessions that are
+   * still borrowed are closed once they are handed back.
+   */
+  public void invalidate(UUID universeUUID) {
+    sessions.asMap().keySet().removeIf(key -> key.universeUUID.equals(universeUUID));
+  }
+
+  @VisibleForTesting
+  long size() {
+    sessions.cleanUp();
+    return sessions.size();
+  }
+
+  @VisibleForTesting
+  Session connect(SessionKey key) {
+    LOG.debug("Creating YCQL session for universe {}", key.universeUUID);
+    Cluster.Builder builder = Cluster.builder().addContactPointsWithPorts(key.addresses);
+    if (key.username != null) {
+      builder.withCredentials(key.username.trim(), key.password.trim());
+    }
+    if (key.certificate != null) {
+      builder.withSSL(SslHelper.getSSLOptions(key.certificate));
+    }
+    Cluster cluster = builder.build();
+    try {
+      return cluster.connect();
+    } catch (RuntimeException e) {
+      cluster.close();
+      throw e;
+    }
+  }
+
+  @VisibleForTesting
+  static class SessionKey {
+    final UUID universeUUID;
+    final List<InetSocketAddress> addresses;
+    final String certificate;
+    final String username;
+    final String password;
+
+    SessionKey(
+        UUID universeUUID,
+        List<InetSocketAddress> addresses,
+        String certificate,
+        String username,
+        String password) {
+      this.universeUUID = universeUUID;
+      this.addresses = addresses;
+      this.certificate = certificate;
+      this.username = username;
+      this.password = password;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SessionKey)) {
+        return false;
+      }
+      SessionKey other = (SessionKey) o;
+      return universeUUID.equals(other.universeUUID)
+          && addresses.equals(other.addresses)
+          && Objects.equals(certificate, other.certificate)
+          && Objects.equals(username, other.username)
+          && Objects.equals(password, other.password);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(universeUUID, addresses, certificate, username, password);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import play.libs.Json;
+
+/**
+ * Json array of the items of an iterator, serialized one item at a time as the stream is read. The
+ * memory used does not depend on the number of items, so a large database query can be returned
+ * by an iterator reading it a page at a time without loading the whole result first.
+ */
+public class JsonArrayInputStream extends InputStream {
+
+  private static final byte[] OPEN = "[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] CLOSE = "]".getBytes(StandardCharsets.UTF_8);
+
+  private final Iterator<?> items;
+  private byte[] buffer = OPEN;
+  private int bufferPos = 0;
+  private boolean first = true;
+  private boolean finished = false;
+
+  public JsonArrayInputStream(Iterator<?> items) {
+    this.items = items;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (bufferPos == buffer.length) {
+      if (!nextBuffer()) {
+        return -1;
+      }
+    }
+    int numRead = Math.min(len, buffer.length - bufferPos);
+    System.arraycopy(buffer, bufferPos, b, off, numRead);
+    bufferPos += numRead;
+    return numRead;
+  }
+
+  private boolean nextBuffer() throws IOException {
+    if (finished) {
+      return false;
+    }
+    bufferPos = 0;
+    try {
+      if (!items.hasNext()) {
+        buffer = CLOSE;
+        finished = true;
+        return true;
+      }
+      byte[] item = Json.mapper().writeValueAsBytes(items.next());
+      if (first) {
+        buffer = item;
+        first = false;
+      } else {
+        buffer = new byte[SEPARATOR.length + item.length];
+        System.arraycopy(SEPARATOR, 0, buffer, 0, SEPARATOR.length);
+        System.arraycopy(item, 0, buffer, SEPARATOR.length, item.length);
+      }
+      return true;
+    } catch (RuntimeException e) {
+      throw new IOException("Failed to read the next item", e);
+    }
+  }
+}
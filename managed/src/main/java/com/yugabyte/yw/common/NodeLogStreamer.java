@@ -0,0 +1,403 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
+import com.yugabyte.yw.models.Universe;
+import com.yugabyte.yw.models.helpers.NodeDetails;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the logs of universe nodes to the caller as they are downloaded from the nodes, without
+ * keeping a copy on the platform disk.
+ *
+ * <p>The logs of several nodes are collected into a zip archive with one tar.gz entry per node.
+ * Up to max_parallel_nodes nodes are downloaded concurrently, across all the requests, each into a
+ * bounded memory buffer from which the archive is assembled while the caller reads it. A node with
+ * a full buffer waits for the caller, so a slow client slows down the downloads rather than
+ * growing the memory. A caller which stops reading for reader_idle_timeout_ms gets the bundle
+ * aborted, so that its downloads do not hold their threads. All the downloads share a bandwidth
+ * budget of max_bytes_per_sec.
+ */
+@Singleton
+@Slf4j
+public class NodeLogStreamer {
+
+  public static final String MAX_PARALLEL_NODES_PARAM = "yb.node_logs.max_parallel_nodes";
+  public static final String MAX_BYTES_PER_SEC_PARAM = "yb.node_logs.max_bytes_per_sec";
+  public static final String NODE_BUFFER_BYTES_PARAM = "yb.node_logs.node_buffer_bytes";
+  public static final String READER_IDLE_TIMEOUT_PARAM = "yb.node_logs.reader_idle_timeout_ms";
+
+  static final int CHUNK_SIZE = 64 * 1024;
+  // How often a download waiting on a full buffer checks whether the bundle was closed or its
+  // reader went idle.
+  private static final long OFFER_TIMEOUT_MS = 1000;
+  // Marks the end of the logs of a node in its buffer.
+  private static final byte[] END_OF_NODE = new byte[0];
+
+  private final NodeUniverseManager nodeUniverseManager;
+  private final RuntimeConfigFactory runtimeConfigFactory;
+  private final ExecutorService downloadPool;
+  private final RateLimiter rateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  private long maxBytesPerSec = 0;
+
+  @Inject
+  public NodeLogStreamer(
+      NodeUniverseManager nodeUniverseManager, RuntimeConfigFactory runtimeConfigFactory) {
+    this.nodeUniverseManager = nodeUniverseManager;
+    this.runtimeConfigFactory = runtimeConfigFactory;
+    this.downloadPool =
+        Executors.newFixedThreadPool(
+            runtimeConfigFactory.globalRuntimeConf().getInt(MAX_PARALLEL_NODES_PARAM),
+            new ThreadFactoryBuilder()
+                .setNameFormat("NodeLogStreamer-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /** Returns the tar.gz archive of the logs of the node, read as it is downloaded. */
+  public InputStream streamNodeLogs(Universe universe, NodeDetails node) throws IOException {
+    updateRateLimit();
+    return new NodeLogStream(node, nodeUniverseManager.streamNodeLogs(node, universe));
+  }
+
+  /**
+   * Returns a zip archive of the logs of the nodes, read as they are downloaded. The logs of a
+   * failed node are replaced by a text entry with the error.
+   */
+  public InputStream streamLogBundle(Universe universe, Collection<NodeDetails> nodes) {
+    updateRateLimit();
+    Config config = runtimeConfigFactory.globalRuntimeConf();
+    int bufferBytes = config.getInt(NODE_BUFFER_BYTES_PARAM);
+    LogBundleStream bundle = new LogBundleStream(config.getLong(READER_IDLE_TIMEOUT_PARAM));
+    for (NodeDetails node : nodes) {
+      NodeDownload download =
+          new NodeDownload(universe, node, Math.max(1, bufferBytes / CHUNK_SIZE), bundle);
+      bundle.downloads.add(download);
+    }
+    for (NodeDownload download : bundle.downloads) {
+      download.future = downloadPool.submit(download);
+    }
+    return bundle;
+  }
+
+  // The budget may be changed at runtime, in which case the limiter picks it up on the next
+  // request.
+  private synchronized void updateRateLimit() {
+    Config config = runtimeConfigFactory.globalRuntimeConf();
+    long bytesPerSec = config.getLong(MAX_BYTES_PER_SEC_PARAM);
+    if (bytesPerSec != maxBytesPerSec) {
+      rateLimiter.setRate(bytesPerSec > 0 ? bytesPerSec : Double.MAX_VALUE);
+      maxBytesPerSec = bytesPerSec;
+    }
+  }
+
+  @VisibleForTesting
+  static String getEntryName(NodeDetails node) {
+    return node.nodeName + "-logs.tar.gz";
+  }
+
+  /**
+   * Stdout of the download process of a node, throttled by the shared rate limiter. Fails at the
+   * end of the stream if the download failed, and kills the download when closed early.
+   */
+  private class NodeLogStream extends FilterInputStream {
+    private final NodeDetails node;
+    private final Process process;
+
+    NodeLogStream(NodeDetails node, Process process) {
+      super(process.getInputStream());
+      this.node = node;
+      this.process = process;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int numRead = super.read(b, off, Math.min(len, CHUNK_SIZE));
+      if (numRead > 0) {
+        rateLimiter.acquire(numRead);
+      } else if (numRead == -1) {
+        checkExitCode();
+      }
+      return numRead;
+    }
+
+    private void checkExitCode() throws IOException {
+      try {
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+          throw new IOException(
+              "Log download of " + node.nodeName + " failed with exit code " + exitCode);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for " + node.nodeName);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        process.destroy();
+      } finally {
+        super.close();
+      }
+    }
+  }
+
+  /** Downloads the logs of a node into a bounded buffer of chunks, read by the bundle. */
+  private class NodeDownload implements Runnable {
+    private final Universe universe;
+    private final NodeDetails node;
+    private final BlockingQueue<byte[]> chunks;
+    private final LogBundleStream bundle;
+    private final AtomicBoolean ready = new AtomicBoolean();
+    private volatile IOException error;
+    private volatile InputStream stream;
+    private volatile Future<?> future;
+
+    NodeDownload(Universe universe, NodeDetails node, int numChunks, LogBundleStream bundle) {
+      this.universe = universe;
+      this.node = node;
+      this.chunks = new ArrayBlockingQueue<>(numChunks);
+      this.bundle = bundle;
+    }
+
+    @Override
+    public void run() {
+      if (bundle.closed) {
+        return;
+      }
+      try (InputStream in = streamNodeLogs(universe, node)) {
+        stream = in;
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int numRead;
+        while (!bundle.closed && (numRead = in.read(buffer)) != -1) {
+          if (numRead > 0 && !offer(Arrays.copyOf(buffer, numRead))) {
+            return;
+          }
+        }
+      } catch (InterruptedIOException e) {
+        return;
+      } catch (IOException | RuntimeException e) {
+        if (bundle.closed) {
+          return;
+        }
+        log.error("Error downloading logs of {}", node.nodeName, e);
+        error = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+      }
+      offer(END_OF_NODE);
+    }
+
+    // Kills the download process, which unblocks a pending read.
+    private void abort() {
+      if (future != null) {
+        future.cancel(true);
+      }
+      InputStream in = stream;
+      if (in != null) {
+        try {
+          in.close();
+        } catch (IOException e) {
+          log.debug("Error closing logs of {}", node.nodeName, e);
+        }
+      }
+      chunks.clear();
+    }
+
+    // Waits for space in the buffer, unless the bundle is closed in the meantime. Aborts the
+    // bundle if its reader stopped reading.
+    private boolean offer(byte[] chunk) {
+      try {
+        while (!bundle.closed) {
+          if (chunks.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            // The bundle takes the nodes in the order they start producing.
+            if (ready.compareAndSet(false, true)) {
+              bundle.readyDownloads.add(this);
+            }
+            return true;
+          }
+          if (bundle.isReaderIdle()) {
+            log.warn(
+                "Log bundle was not read for {} ms while downloading {}, aborting the downloads",
+                bundle.readerIdleTimeoutMs,
+                node.nodeName);
+            bundle.close();
+            return false;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Zip archive of the logs of the nodes, assembled as it is read. Every read takes the next chunk
+   * of the node being written, or waits for the next node to start producing.
+   */
+  private static class LogBundleStream extends InputStream {
+    private final List<NodeDownload> downloads = new ArrayList<>();
+    private final BlockingQueue<NodeDownload> readyDownloads = new LinkedBlockingQueue<>();
+    private final PendingBytes pending = new PendingBytes();
+    private final ZipOutputStream zip = new ZipOutputStream(pending);
+    private final long readerIdleTimeoutMs;
+    private volatile boolean closed = false;
+    // Time the last read returned, 0 while a read is waiting for the nodes.
+    private volatile long lastReadMs = System.currentTimeMillis();
+    private NodeDownload current = null;
+    private int numWritten = 0;
+    private boolean finished = false;
+
+    LogBundleStream(long readerIdleTimeoutMs) {
+      this.readerIdleTimeoutMs = readerIdleTimeoutMs;
+      // The entries are compressed already.
+      zip.setLevel(Deflater.NO_COMPRESSION);
+    }
+
+    private boolean isReaderIdle() {
+      long readMs = lastReadMs;
+      return readMs != 0 && System.currentTimeMillis() - readMs > readerIdleTimeoutMs;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Log bundle is closed");
+      }
+      if (len == 0) {
+        return 0;
+      }
+      lastReadMs = 0;
+      try {
+        while (pending.available() == 0) {
+          if (finished) {
+            return -1;
+          }
+          pending.reset();
+          try {
+            writeNext();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for node logs");
+          }
+        }
+        return pending.read(b, off, len);
+      } finally {
+        lastReadMs = System.currentTimeMillis();
+      }
+    }
+
+    private void writeNext() throws IOException, InterruptedException {
+      if (current == null) {
+        if (numWritten == downloads.size()) {
+          zip.close();
+          finished = true;
+          return;
+        }
+        current = readyDownloads.take();
+        byte[] chunk = current.chunks.take();
+        // A node which failed before sending anything only gets the error entry.
+        if (chunk != END_OF_NODE || current.error == null) {
+          zip.putNextEntry(new ZipEntry(getEntryName(current.node)));
+          writeChunk(chunk);
+        } else {
+          finishNode();
+        }
+        return;
+      }
+      writeChunk(current.chunks.take());
+    }
+
+    private void writeChunk(byte[] chunk) throws IOException {
+      if (chunk == END_OF_NODE) {
+        zip.closeEntry();
+        finishNode();
+      } else {
+        zip.write(chunk);
+      }
+    }
+
+    private void finishNode() throws IOException {
+      if (current.error != null) {
+        zip.putNextEntry(new ZipEntry(current.node.nodeName + "-error.txt"));
+        zip.write(String.valueOf(current.error.getMessage()).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+      }
+      current = null;
+      numWritten++;
+    }
+
+    /** Stops the downloads which are still running, if the caller did not read to the end. */
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      downloads.forEach(NodeDownload::abort);
+    }
+  }
+
+  /** Bytes written by the zip stream and not yet returned to the reader. */
+  private static class PendingBytes extends ByteArrayOutputStream {
+    private int readPos = 0;
+
+    int available() {
+      return count - readPos;
+    }
+
+    int read(byte[] b, int off, int len) {
+      int numRead = Math.min(len, available());
+      System.arraycopy(buf, readPos, b, off, numRead);
+      readPos += numRead;
+      return numRead;
+    }
+
+    @Override
+    public synchronized void reset() {
+      super.reset();
+      readPos = 0;
+    }
+  }
+}
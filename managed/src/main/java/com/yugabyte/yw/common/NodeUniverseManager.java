@@ -10,18 +10,39 @@ import com.yugabyte.yw.models.Universe;
 import com.yugabyte.yw.models.helpers.NodeDetails;
 
 import javax.xml.soap.Node;
+import java.io.IOException;
 import java.util.*;
 
 @Singleton
 public class NodeUniverseManager extends DevopsBase {
   public static final String DOWNLOAD_LOGS_SSH_SCRIPT = "bin/support_package.py";
+  // Target local file of the script, to write the archive to stdout.
+  private static final String STDOUT_TARGET = "-";
 
   @Override
   protected String getCommandType() {
     return null;
   }
 
-  public synchronized ShellResponse downloadNodeLogs(
+  public ShellResponse downloadNodeLogs(
+      NodeDetails node, Universe universe, String targetLocalFile) {
+    List<String> commandArgs = getDownloadLogsCommand(node, universe, targetLocalFile);
+    LOG.debug("Executing command: " + commandArgs);
+    return shellProcessHandler.run(commandArgs, new HashMap<>(), true);
+  }
+
+  /**
+   * Starts the download of the logs of a node, the tar.gz archive of which is written to the stdout
+   * of the returned process as the node produces it.
+   */
+  public Process streamNodeLogs(NodeDetails node, Universe universe) throws IOException {
+    List<String> commandArgs = getDownloadLogsCommand(node, universe, STDOUT_TARGET);
+    LOG.debug("Executing command: " + commandArgs);
+    return shellProcessHandler.startProcess(
+        commandArgs, new HashMap<>(), "Stream logs of " + node.nodeName);
+  }
+
+  private List<String> getDownloadLogsCommand(
       NodeDetails node, Universe universe, String targetLocalFile) {
     List<String> commandArgs = new ArrayList<>();
 
@@ -65,8 +86,7 @@ public class NodeUniverseManager extends DevopsBase {
     commandArgs.add(getYbHomeDir(node, universe));
     commandArgs.add("--target_local_file");
     commandArgs.add(targetLocalFile);
-    LOG.debug("Executing command: " + commandArgs);
-    return shellProcessHandler.run(commandArgs, new HashMap<>(), true);
+    return commandArgs;
   }
 
   /** returns (location of) access key for a particular node in a universe */
@@ -0,0 +1,57 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import java.util.function.Consumer;
+
+/**
+ * A pooled resource that is shared by several borrowers. Once retired, e.g. because it was evicted
+ * from its pool, it is closed as soon as the last borrower has handed it back, and can no longer be
+ * borrowed.
+ */
+class PoolEntry<T> {
+  private final T resource;
+  private final Consumer<T> closer;
+  private int numBorrowed = 0;
+  private boolean retired = false;
+  private boolean closed = false;
+
+  PoolEntry(T resource, Consumer<T> closer) {
+    this.resource = resource;
+    this.closer = closer;
+  }
+
+  T get() {
+    return resource;
+  }
+
+  /** @return false if the entry was already retired, in which case it must not be used */
+  synchronized boolean borrow() {
+    if (retired) {
+      return false;
+    }
+    numBorrowed++;
+    return true;
+  }
+
+  synchronized void release() {
+    numBorrowed--;
+    closeIfUnused();
+  }
+
+  synchronized void retire() {
+    retired = true;
+    closeIfUnused();
+  }
+
+  synchronized boolean isClosed() {
+    return closed;
+  }
+
+  private void closeIfUnused() {
+    if (retired && numBorrowed == 0 && !closed) {
+      closed = true;
+      closer.accept(resource);
+    }
+  }
+}
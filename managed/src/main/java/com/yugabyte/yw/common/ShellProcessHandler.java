@@ -11,14 +11,21 @@
 package com.yugabyte.yw.common;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -40,6 +47,18 @@ public class ShellProcessHandler {
       Pattern.compile("TASK.*?fatal.*?FAILED.*", Pattern.DOTALL);
   static final String ANSIBLE_IGNORING = "ignoring";
 
+  // Number of trailing stderr lines kept for the error message of a failed command.
+  static final int MAX_STDERR_LINES = 1000;
+  // How often the output pipes are read while the process is running.
+  static final long POLL_INTERVAL_MS = 20;
+
+  private static final ExecutorService streamReaderPool =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat("Shell-Process-Reader-%d")
+              .setDaemon(true)
+              .build());
+
   public ShellResponse run(
       List<String> command, Map<String, String> extraEnvVars, boolean logCmdOutput) {
     return run(command, extraEnvVars, logCmdOutput, null /*description*/);
@@ -68,68 +87,47 @@ public class ShellProcessHandler {
       response.description = description;
     }
 
-    File tempOutputFile = null;
-    File tempErrorFile = null;
     long startMs = 0;
     try {
-      tempOutputFile = File.createTempFile("shell_process_out", "tmp");
-      tempErrorFile = File.createTempFile("shell_process_err", "tmp");
-      pb.redirectOutput(tempOutputFile);
-      pb.redirectError(tempErrorFile);
       startMs = System.currentTimeMillis();
       LOG.info("Starting proc (abbrev cmd) - {}", response.description);
       String fullCommand = "'" + String.join("' '", command) + "'";
       if (appConfig.getBoolean("yb.log.logEnvVars", false) && extraEnvVars != null) {
         fullCommand = Joiner.on(" ").withKeyValueSeparator("=").join(extraEnvVars) + fullCommand;
       }
-      LOG.debug(
-          "Starting proc (full cmd) - {} - logging stdout={}, stderr={}",
-          fullCommand,
-          tempOutputFile.getAbsolutePath(),
-          tempErrorFile.getAbsolutePath());
+      LOG.debug("Starting proc (full cmd) - {}", fullCommand);
 
       Process process = pb.start();
-      waitForProcessExit(process, tempOutputFile, tempErrorFile);
-      try (FileInputStream outputInputStream = new FileInputStream(tempOutputFile);
-          InputStreamReader outputReader = new InputStreamReader(outputInputStream);
-          BufferedReader outputStream = new BufferedReader(outputReader);
-          FileInputStream errorInputStream = new FileInputStream(tempErrorFile);
-          InputStreamReader errorReader = new InputStreamReader(errorInputStream);
-          BufferedReader errorStream = new BufferedReader(errorReader)) {
-        if (logCmdOutput) {
-          LOG.debug("Proc stdout for '{}' :", response.description);
-        }
-        StringBuilder processOutput = new StringBuilder();
-        outputStream
-            .lines()
-            .forEach(
-                line -> {
-                  processOutput.append(line).append("\n");
-                  if (logCmdOutput) {
-                    LOG.debug(line);
-                  }
-                });
-        if (logCmdOutput) {
-          LOG.debug("Proc stderr for '{}' :", response.description);
+      // Only the tail of stderr is needed to report errors, while stdout is the result.
+      OutputBuffer processOutput = new OutputBuffer(0 /* unbounded */);
+      OutputBuffer processError = new OutputBuffer(MAX_STDERR_LINES);
+      PipeReader outputReader =
+          new PipeReader(process.getInputStream(), processOutput, logCmdOutput);
+      PipeReader errorReader = new PipeReader(process.getErrorStream(), processError, logCmdOutput);
+      try {
+        // Both pipes are read without blocking by the thread that waits for the process anyway.
+        while (!process.waitFor(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          outputReader.readAvailable();
+          errorReader.readAvailable();
         }
-        StringBuilder processError = new StringBuilder();
-        errorStream
-            .lines()
-            .forEach(
-                line -> {
-                  processError.append(line).append("\n");
-                  if (logCmdOutput) {
-                    LOG.debug(line);
-                  }
-                });
         response.code = process.exitValue();
-        response.message =
-            (response.code == 0) ? processOutput.toString().trim() : processError.toString().trim();
-        String ansibleErrMsg =
-            getAnsibleErrMsg(response.code, processOutput.toString(), processError.toString());
-        if (ansibleErrMsg != null) {
-          response.message = ansibleErrMsg;
-        }
+        // Everything the process wrote is in the pipes by now. Only read what is there, since a
+        // leftover child process (e.g. a persistent ssh control master) may keep them open.
+        outputReader.readAvailable();
+        errorReader.readAvailable();
+        outputReader.finish();
+        errorReader.finish();
+      } finally {
+        closeQuietly(process.getInputStream(), "stdout", response.description);
+        closeQuietly(process.getErrorStream(), "stderr", response.description);
+      }
+
+      String output = processOutput.toString();
+      String error = processError.toString();
+      response.message = (response.code == 0) ? output.trim() : error.trim();
+      String ansibleErrMsg = getAnsibleErrMsg(response.code, output, error);
+      if (ansibleErrMsg != null) {
+        response.message = ansibleErrMsg;
       }
     } catch (IOException | InterruptedException e) {
       response.code = -1;
@@ -146,12 +144,6 @@ public class ShellProcessHandler {
           response.description,
           status,
           response.durationMs);
-      if (tempOutputFile != null && tempOutputFile.exists()) {
-        tempOutputFile.delete();
-      }
-      if (tempErrorFile != null && tempErrorFile.exists()) {
-        tempErrorFile.delete();
-      }
     }
 
     return response;
@@ -166,37 +158,144 @@ public class ShellProcessHandler {
     return run(command, extraEnvVars, true /*logCommandOutput*/, description);
   }
 
-  private static void waitForProcessExit(Process process, File outFile, File errFile)
-      throws IOException, InterruptedException {
-    try (FileInputStream outputInputStream = new FileInputStream(outFile);
-        InputStreamReader outputReader = new InputStreamReader(outputInputStream);
-        FileInputStream errInputStream = new FileInputStream(errFile);
-        InputStreamReader errReader = new InputStreamReader(errInputStream);
-        BufferedReader outputStream = new BufferedReader(outputReader);
-        BufferedReader errorStream = new BufferedReader(errReader)) {
-      while (!process.waitFor(1, TimeUnit.SECONDS)) {
-        tailStream(outputStream);
-        tailStream(errorStream);
+  /**
+   * Starts the command without waiting for it, for commands producing binary output to be read by
+   * the caller from the stdout of the returned process. Stderr is drained and logged. The caller
+   * must read stdout until EOF, or destroy the process.
+   */
+  public Process startProcess(
+      List<String> command, Map<String, String> extraEnvVars, String description)
+      throws IOException {
+    ProcessBuilder pb = new ProcessBuilder(command);
+    if (extraEnvVars != null && !extraEnvVars.isEmpty()) {
+      pb.environment().putAll(extraEnvVars);
+    }
+    String devopsHome = appConfig.getString("yb.devops.home");
+    if (devopsHome != null) {
+      pb.directory(new File(devopsHome));
+    }
+    LOG.info("Starting streaming proc (abbrev cmd) - {}", description);
+    Process process = pb.start();
+    streamReaderPool.submit(
+        () ->
+            readLines(
+                process.getErrorStream(),
+                new OutputBuffer(MAX_STDERR_LINES),
+                true /* logCmdOutput */,
+                "stderr",
+                description));
+    return process;
+  }
+
+  // Streams the lines of a process pipe into the buffer as they are written.
+  private static void readLines(
+      InputStream stream,
+      OutputBuffer buffer,
+      boolean logCmdOutput,
+      String streamName,
+      String description) {
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        buffer.add(line);
+        if (line.contains("[app]")) {
+          LOG.info(line);
+        } else if (logCmdOutput) {
+          LOG.debug(line);
+        }
       }
-      // check for any remaining lines
-      tailStream(outputStream);
-      tailStream(errorStream);
+    } catch (IOException e) {
+      LOG.warn("Error reading {} of '{}'", streamName, description, e);
+    }
+  }
+
+  private static void closeQuietly(InputStream stream, String streamName, String description) {
+    try {
+      stream.close();
+    } catch (IOException e) {
+      LOG.warn("Error closing {} of '{}'", streamName, description, e);
     }
   }
 
-  private static void tailStream(BufferedReader br) throws IOException {
+  /** Splits the bytes read from a process pipe into lines, without ever blocking on the pipe. */
+  static class PipeReader {
+    private final InputStream stream;
+    private final OutputBuffer buffer;
+    private final boolean logCmdOutput;
+    private final byte[] chunk = new byte[8192];
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    PipeReader(InputStream stream, OutputBuffer buffer, boolean logCmdOutput) {
+      this.stream = stream;
+      this.buffer = buffer;
+      this.logCmdOutput = logCmdOutput;
+    }
+
+    // Reads whatever is available in the pipe right now.
+    void readAvailable() throws IOException {
+      int available;
+      while ((available = stream.available()) > 0) {
+        int read = stream.read(chunk, 0, Math.min(available, chunk.length));
+        if (read < 0) {
+          return;
+        }
+        for (int i = 0; i < read; i++) {
+          if (chunk[i] == '\n') {
+            addLine();
+          } else {
+            partialLine.write(chunk[i]);
+          }
+        }
+      }
+    }
+
+    // Keeps the last line even if the process did not terminate it.
+    void finish() {
+      if (partialLine.size() > 0) {
+        addLine();
+      }
+    }
 
-    String line = null;
-    // Note: technically, this readLine can pick up incomplete lines as we race
-    // with the process output being appended to this file but for the purposes
-    // of logging, it is ok to log partial lines.
-    while ((line = br.readLine()) != null) {
+    private void addLine() {
+      String line = new String(partialLine.toByteArray(), StandardCharsets.UTF_8);
+      partialLine.reset();
+      if (line.endsWith("\r")) {
+        line = line.substring(0, line.length() - 1);
+      }
+      buffer.add(line);
       if (line.contains("[app]")) {
         LOG.info(line);
+      } else if (logCmdOutput) {
+        LOG.debug(line);
       }
     }
   }
 
+  /** Keeps the lines of a process output, or only the last maxLines of them if bounded. */
+  static class OutputBuffer {
+    private final int maxLines;
+    private final Deque<String> lines = new ArrayDeque<>();
+
+    OutputBuffer(int maxLines) {
+      this.maxLines = maxLines;
+    }
+
+    synchronized void add(String line) {
+      if (maxLines > 0 && lines.size() >= maxLines) {
+        lines.removeFirst();
+      }
+      lines.addLast(line);
+    }
+
+    @Override
+    public synchronized String toString() {
+      StringBuilder sb = new StringBuilder();
+      lines.forEach(line -> sb.append(line).append("\n"));
+      return sb.toString();
+    }
+  }
+
   private static String getAnsibleErrMsg(int code, String stdout, String stderr) {
 
     if (stderr == null || code == 0) return null;
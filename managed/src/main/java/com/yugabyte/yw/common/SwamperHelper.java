@@ -13,6 +13,7 @@ package com.yugabyte.yw.common;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 import com.google.common.io.PatternFilenameFilter;
 import com.yugabyte.yw.common.alerts.AlertRuleTemplateSubstitutor;
 import com.yugabyte.yw.models.AlertDefinition;
@@ -34,18 +35,25 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static com.yugabyte.yw.common.Util.writeFile;
-import static com.yugabyte.yw.common.Util.writeJsonFile;
-
 @Singleton
 public class SwamperHelper {
   public static final Logger LOG = LoggerFactory.getLogger(SwamperHelper.class);
 
   @VisibleForTesting static final String ALERT_CONFIG_FILE_PREFIX = "yugaware.ad.";
+  // Permissions of newly created files, so that prometheus can read them.
+  private static final Set<PosixFilePermission> DEFAULT_FILE_PERMISSIONS =
+      PosixFilePermissions.fromString("rw-r--r--");
   private static final Pattern ALERT_CONFIG_FILE_PATTERN =
       Pattern.compile(
           "^yugaware\\.ad\\.[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}"
@@ -72,6 +80,13 @@ public class SwamperHelper {
   private final play.Configuration appConfig;
   private final Environment environment;
 
+  // Content hash of each file written by this helper. Lets us skip writing the files (and the
+  // Prometheus reload caused by them), when the rendered content did not change.
+  private final Map<String, String> fileHashes = new ConcurrentHashMap<>();
+
+  private volatile String alertDefinitionHeaderTemplate;
+  private volatile String alertDefinitionRuleTemplate;
+
   @Inject
   public SwamperHelper(Configuration appConfig, Environment environment) {
     this.appConfig = appConfig;
@@ -173,7 +188,7 @@ public class SwamperHelper {
                       Collections.singletonList(node),
                       node.nodeName));
             });
-    writeJsonFile(swamperFile, nodeTargets);
+    writeFileIfChanged(swamperFile, Json.prettyPrint(nodeTargets));
 
     // Write out the yugabyte specific file.
     ArrayNode ybTargets = Json.newArray();
@@ -194,18 +209,64 @@ public class SwamperHelper {
                 });
       }
     }
-    writeJsonFile(swamperFile, ybTargets);
+    writeFileIfChanged(swamperFile, Json.prettyPrint(ybTargets));
+  }
+
+  /**
+   * Writes the file, unless it already has the same content. The content is written to a temporary
+   * file in the same directory and renamed, so Prometheus never reads a partially written file.
+   *
+   * @return true if the file was written.
+   */
+  @VisibleForTesting
+  boolean writeFileIfChanged(String filePath, String content) {
+    String hash = Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    Path path = Paths.get(filePath);
+    try {
+      if (Files.exists(path)) {
+        String existingHash = fileHashes.get(filePath);
+        if (existingHash == null) {
+          // Not written since startup - compare with the file itself.
+          existingHash = Hashing.sha256().hashBytes(Files.readAllBytes(path)).toString();
+        }
+        if (hash.equals(existingHash)) {
+          fileHashes.put(filePath, hash);
+          return false;
+        }
+      }
+      Set<PosixFilePermission> permissions =
+          Files.exists(path) ? Files.getPosixFilePermissions(path) : DEFAULT_FILE_PERMISSIONS;
+      Path tempPath =
+          Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try {
+        // The temp file is only readable by its owner, and the move keeps its permissions.
+        Files.setPosixFilePermissions(tempPath, permissions);
+        Files.write(tempPath, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(
+            tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tempPath);
+      }
+    } catch (IOException e) {
+      fileHashes.remove(filePath);
+      LOG.error("Unable to write: {}", filePath);
+      throw new RuntimeException(e.getMessage(), e);
+    }
+    fileHashes.put(filePath, hash);
+    LOG.info("Written: {}", filePath);
+    return true;
+  }
+
+  private boolean deleteFile(String filePath) {
+    fileHashes.remove(filePath);
+    File file = new File(filePath);
+    return file.exists() && file.delete();
   }
 
   private void removeUniverseTargetJson(UUID universeUUID, String prefix) {
     String swamperFile = getSwamperFile(universeUUID, prefix);
-    if (swamperFile != null) {
-      File file = new File(swamperFile);
-
-      if (file.exists()) {
-        LOG.info("Deleting Swamper Target file: {}", swamperFile);
-        file.delete();
-      }
+    if (swamperFile != null && deleteFile(swamperFile)) {
+      LOG.info("Deleted Swamper Target file: {}", swamperFile);
     }
   }
 
@@ -237,54 +298,61 @@ public class SwamperHelper {
     return null;
   }
 
-  public void writeAlertDefinition(AlertDefinitionGroup group, AlertDefinition definition) {
+  private String readTemplate(String resourceName) {
+    try (InputStream templateStream = environment.resourceAsStream(resourceName)) {
+      return IOUtils.toString(templateStream, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read alert definition template " + resourceName, e);
+    }
+  }
+
+  /**
+   * Writes the alert rules file of the definition.
+   *
+   * @return true if the file content has changed.
+   */
+  public boolean writeAlertDefinition(AlertDefinitionGroup group, AlertDefinition definition) {
     String swamperFile = getSwamperRuleFile(definition.getUuid());
     if (swamperFile == null) {
-      return;
+      return false;
     }
 
-    String fileContent;
-    try (InputStream templateStream =
-        environment.resourceAsStream("alert/alert_definition_header.yml")) {
-      fileContent = IOUtils.toString(templateStream, StandardCharsets.UTF_8);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to read alert definition header template", e);
+    if (alertDefinitionHeaderTemplate == null) {
+      alertDefinitionHeaderTemplate = readTemplate("alert/alert_definition_header.yml");
     }
-
-    String template;
-    try (InputStream templateStream =
-        environment.resourceAsStream("alert/alert_definition_rule.yml")) {
-      template = IOUtils.toString(templateStream, StandardCharsets.UTF_8);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to read alert definition rule template", e);
+    if (alertDefinitionRuleTemplate == null) {
+      alertDefinitionRuleTemplate = readTemplate("alert/alert_definition_rule.yml");
     }
 
-    fileContent +=
-        group
-            .getThresholds()
-            .keySet()
-            .stream()
-            .map(
-                severity -> {
-                  AlertRuleTemplateSubstitutor substitutor =
-                      new AlertRuleTemplateSubstitutor(group, definition, severity);
-                  return substitutor.replace(template);
-                })
-            .collect(Collectors.joining());
-
-    writeFile(swamperFile, fileContent);
+    String fileContent =
+        alertDefinitionHeaderTemplate
+            + group
+                .getThresholds()
+                .keySet()
+                .stream()
+                .map(
+                    severity -> {
+                      AlertRuleTemplateSubstitutor substitutor =
+                          new AlertRuleTemplateSubstitutor(group, definition, severity);
+                      return substitutor.replace(alertDefinitionRuleTemplate);
+                    })
+                .collect(Collectors.joining());
+
+    return writeFileIfChanged(swamperFile, fileContent);
   }
 
-  public void removeAlertDefinition(UUID definitionUUID) {
+  /**
+   * Removes the alert rules file of the definition.
+   *
+   * @return true if the file existed.
+   */
+  public boolean removeAlertDefinition(UUID definitionUUID) {
     String swamperFile = getSwamperRuleFile(definitionUUID);
-    if (swamperFile != null) {
-      File file = new File(swamperFile);
-
-      if (file.exists()) {
-        file.delete();
-        LOG.info("Swamper Rules file deleted: {}", swamperFile);
-      }
+    if (swamperFile != null && deleteFile(swamperFile)) {
+      LOG.info("Swamper Rules file deleted: {}", swamperFile);
+      return true;
     }
+    return false;
   }
 
   public List<UUID> getAlertDefinitionConfigUuids() {
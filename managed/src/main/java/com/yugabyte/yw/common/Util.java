@@ -20,9 +20,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.UnknownHostException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -41,6 +43,9 @@ import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 public class Util {
   public static final Logger LOG = LoggerFactory.getLogger(Util.class);
 
+  // Name of this host, resolved on first use.
+  private static volatile String hostname;
+
   /**
    * Returns a list of Inet address objects in the proxy tier. This is needed by Cassandra clients.
    */
@@ -250,6 +255,24 @@ public class Util {
     }
   }
 
+  /**
+   * Returns the name of this host, e.g. to record the owner of tasks. The name is resolved once, as
+   * the lookup can be slow. Returns an empty string if the name can't be determined.
+   */
+  public static String getHostname() {
+    String result = hostname;
+    if (result == null) {
+      try {
+        result = InetAddress.getLocalHost().getHostName();
+      } catch (UnknownHostException e) {
+        LOG.error("Could not determine the hostname", e);
+        return "";
+      }
+      hostname = result;
+    }
+    return result;
+  }
+
   public static String buildURL(String host, String endpoint) {
     try {
       return new URL("https", host, endpoint).toString();
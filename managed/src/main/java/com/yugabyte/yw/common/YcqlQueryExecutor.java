@@ -1,24 +1,22 @@
 package com.yugabyte.yw.common;
 
-import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.yugabyte.yw.forms.DatabaseSecurityFormData;
 import com.yugabyte.yw.forms.DatabaseUserFormData;
 import com.yugabyte.yw.forms.RunQueryFormData;
 import com.yugabyte.yw.models.Universe;
-import java.io.Closeable;
-import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.mvc.Http;
@@ -30,6 +28,13 @@ public class YcqlQueryExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(YcqlQueryExecutor.class);
   private static final String DEFAULT_DB_USER = "cassandra";
   private static final String DEFAULT_DB_PASSWORD = "cassandra";
+  // A USE statement, possibly preceded by comments.
+  private static final Pattern USE_STATEMENT_PAT =
+      Pattern.compile(
+          "(\\s|--[^\\n]*|//[^\\n]*|/\\*.*?\\*/)*USE\\b",
+          Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  @Inject CassandraSessionPool sessionPool;
 
   public void createUser(Universe universe, DatabaseUserFormData data) {
     // Create user for customer CQL.
@@ -68,38 +73,8 @@ public class YcqlQueryExecutor {
     if (ycqlResponse.has("error")) {
       throw new YWServiceException(Http.Status.BAD_REQUEST, ycqlResponse.get("error").asText());
     }
-  }
-
-  private static class CassandraConnection implements Closeable {
-    Cluster cluster = null;
-    Session session = null;
-
-    @Override
-    public void close() {
-      session.close();
-      cluster.close();
-    }
-  }
-
-  private CassandraConnection createCassandraConnection(
-      UUID universeUUID, Boolean authEnabled, String username, String password) {
-    CassandraConnection cc = new CassandraConnection();
-    List<InetSocketAddress> addresses = Util.getNodesAsInet(universeUUID);
-    if (addresses.isEmpty()) {
-      return cc;
-    }
-    Cluster.Builder builder = Cluster.builder().addContactPointsWithPorts(addresses);
-    if (authEnabled) {
-      builder.withCredentials(username.trim(), password.trim());
-    }
-    String certificate = Universe.getOrBadRequest(universeUUID).getCertificateClientToNode();
-    if (certificate != null) {
-      builder.withSSL(SslHelper.getSSLOptions(certificate));
-    }
-    cc.cluster = builder.build();
-
-    cc.session = cc.cluster.connect();
-    return cc;
+    // Sessions opened with the old password are no longer valid.
+    sessionPool.invalidate(universe.universeUUID);
   }
 
   private List<Map<String, Object>> resultSetToMap(ResultSet result) {
@@ -128,6 +103,10 @@ public class YcqlQueryExecutor {
     return command;
   }
 
+  static boolean isUseStatement(String query) {
+    return USE_STATEMENT_PAT.matcher(query).lookingAt();
+  }
+
   public JsonNode executeQuery(
       Universe universe, RunQueryFormData queryParams, Boolean authEnabled) {
     return executeQuery(universe, queryParams, authEnabled, DEFAULT_DB_USER, DEFAULT_DB_PASSWORD);
@@ -140,10 +119,28 @@ public class YcqlQueryExecutor {
       String username,
       String password) {
     ObjectNode response = newObject();
-    CassandraConnection cc =
-        createCassandraConnection(universe.universeUUID, authEnabled, username, password);
-    try {
-      ResultSet rs = cc.session.execute(queryParams.query);
+    try (CassandraSessionPool.PooledSession pooledSession =
+        authEnabled
+            ? sessionPool.getSession(universe.universeUUID, username, password)
+            : sessionPool.getSession(universe.universeUUID)) {
+      if (pooledSession == null) {
+        response.put("error", "Unable to connect to DB");
+        return response;
+      }
+      ResultSet rs;
+      if (isUseStatement(queryParams.query)) {
+        // USE changes the keyspace of the session it runs on, so it gets a session of its own.
+        try (Session session = pooledSession.getSession().getCluster().connect()) {
+          rs = session.execute(queryParams.query);
+        }
+      } else {
+        Session session = pooledSession.getSession();
+        rs = session.execute(queryParams.query);
+        if (session.getLoggedKeyspace() != null) {
+          // The keyspace of the shared session changed anyway, don't keep it around.
+          sessionPool.invalidate(universe.universeUUID);
+        }
+      }
       if (rs.iterator().hasNext()) {
         List<Map<String, Object>> rows = resultSetToMap(rs);
         response.set("result", toJson(rows));
@@ -155,8 +152,6 @@ public class YcqlQueryExecutor {
       }
     } catch (Exception e) {
       response.put("error", e.getMessage());
-    } finally {
-      cc.close();
     }
     return response;
   }
@@ -0,0 +1,201 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.inject.Singleton;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a small pool of YSQL connections per universe endpoint and credentials, so that repeated
+ * queries against the same universe do not pay for a new TCP, TLS and auth handshake every time.
+ * A pool is keyed by everything that is used to connect, so a changed endpoint, password or
+ * certificate simply ends up in a new pool, while the stale one is closed once it is idle.
+ *
+ * <p>Connections run arbitrary SQL, so their session is reset when they are handed back, and a
+ * pool that is evicted or invalidated is only closed once its borrowed connections are returned.
+ */
+@Singleton
+public class YsqlConnectionPool {
+  private static final Logger LOG = LoggerFactory.getLogger(YsqlConnectionPool.class);
+
+  // Maximum number of connections in a single pool.
+  static final int MAX_POOL_SIZE = 5;
+  // Maximum number of pools kept open at the same time.
+  static final int MAX_POOLS = 100;
+  // Pools and connections not used for this long are closed.
+  static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+  // How long to wait for a connection from the pool or the DB.
+  static final long CONNECTION_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+  private final Cache<PoolKey, PoolEntry<HikariDataSource>> pools =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_POOLS)
+          .expireAfterAccess(IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+          .removalListener(
+              (RemovalListener<PoolKey, PoolEntry<HikariDataSource>>)
+                  notification -> {
+                    LOG.debug(
+                        "Closing YSQL connection pool for universe {}",
+                        notification.getKey().universeUUID);
+                    notification.getValue().retire();
+                  })
+          .build();
+
+  /**
+   * Borrows a connection for the given universe. Closing the returned connection resets its
+   * session and hands it back to the pool.
+   */
+  public Connection getConnection(UUID universeUUID, String connectString, Properties props)
+      throws SQLException {
+    PoolKey key = new PoolKey(universeUUID, connectString, props);
+    while (true) {
+      PoolEntry<HikariDataSource> entry;
+      try {
+        entry =
+            pools.get(
+                key, () -> new PoolEntry<>(createDataSource(key), HikariDataSource::close));
+      } catch (ExecutionException | RuntimeException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause.getCause() instanceof SQLException) {
+          throw (SQLException) cause.getCause();
+        }
+        throw new SQLException(cause.getMessage(), cause);
+      }
+      // The pool was evicted after we looked it up, the next lookup creates a new one.
+      if (!entry.borrow()) {
+        continue;
+      }
+      try {
+        return resettingConnection(entry, entry.get().getConnection());
+      } catch (SQLException | RuntimeException e) {
+        entry.release();
+        throw e;
+      }
+    }
+  }
+
+  /** Closes all pools of the universe, e.g. after its credentials were changed. */
+  public void invalidate(UUID universeUUID) {
+    pools.asMap().keySet().removeIf(key -> key.universeUUID.equals(universeUUID));
+  }
+
+  @VisibleForTesting
+  long size() {
+    pools.cleanUp();
+    return pools.size();
+  }
+
+  private HikariDataSource createDataSource(PoolKey key) {
+    LOG.debug("Creating YSQL connection pool for universe {}", key.universeUUID);
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("ysql-" + key.universeUUID);
+    config.setJdbcUrl(key.connectString);
+    config.setDataSourceProperties(key.props);
+    config.setMaximumPoolSize(MAX_POOL_SIZE);
+    config.setMinimumIdle(0);
+    config.setIdleTimeout(IDLE_TIMEOUT_MS);
+    config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+    return new HikariDataSource(config);
+  }
+
+  // Wraps a pooled connection, so that closing it resets the session and releases the pool.
+  private static Connection resettingConnection(
+      PoolEntry<HikariDataSource> entry, Connection conn) {
+    AtomicBoolean returned = new AtomicBoolean(false);
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                if (returned.compareAndSet(false, true)) {
+                  try {
+                    resetAndClose(entry.get(), conn);
+                  } finally {
+                    entry.release();
+                  }
+                }
+                return null;
+              }
+              try {
+                return method.invoke(conn, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  // Ad-hoc SQL may leave a transaction open, or change the role, search_path, temp tables etc. of
+  // the session. None of it may carry over to the next borrower, so a connection that cannot be
+  // reset is dropped from the pool.
+  private static void resetAndClose(HikariDataSource dataSource, Connection conn)
+      throws SQLException {
+    if (conn.isClosed()) {
+      return;
+    }
+    try {
+      if (!conn.getAutoCommit()) {
+        conn.rollback();
+        conn.setAutoCommit(true);
+      }
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute("ROLLBACK");
+        stmt.execute("DISCARD ALL");
+      }
+    } catch (SQLException e) {
+      LOG.warn("Could not reset YSQL session, dropping the connection: {}", e.getMessage());
+      dataSource.evictConnection(conn);
+      return;
+    }
+    conn.close();
+  }
+
+  private static class PoolKey {
+    final UUID universeUUID;
+    final String connectString;
+    final Properties props;
+
+    PoolKey(UUID universeUUID, String connectString, Properties props) {
+      this.universeUUID = universeUUID;
+      this.connectString = connectString;
+      this.props = (Properties) props.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PoolKey)) {
+        return false;
+      }
+      PoolKey other = (PoolKey) o;
+      return universeUUID.equals(other.universeUUID)
+          && connectString.equals(other.connectString)
+          && props.equals(other.props);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(universeUUID, connectString, props);
+    }
+  }
+}
@@ -2,13 +2,13 @@ package com.yugabyte.yw.common;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.yugabyte.yw.forms.DatabaseSecurityFormData;
 import com.yugabyte.yw.forms.DatabaseUserFormData;
 import com.yugabyte.yw.forms.RunQueryFormData;
 import com.yugabyte.yw.models.Universe;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -30,6 +30,8 @@ public class YsqlQueryExecutor {
   private static final String DEFAULT_DB_USER = "yugabyte";
   private static final String DEFAULT_DB_PASSWORD = "yugabyte";
 
+  @Inject YsqlConnectionPool connectionPool;
+
   private String getQueryType(String queryString) {
     String[] queryParts = queryString.split(" ");
     String command = queryParts[0].toUpperCase();
@@ -80,7 +82,8 @@ public class YsqlQueryExecutor {
       props.put("sslmode", "verify-ca");
       props.put("sslrootcert", caCert);
     }
-    try (Connection conn = DriverManager.getConnection(connectString, props)) {
+    try (Connection conn =
+        connectionPool.getConnection(universe.universeUUID, connectString, props)) {
       if (conn == null) {
         response.put("error", "Unable to connect to DB");
       } else {
@@ -133,5 +136,7 @@ public class YsqlQueryExecutor {
     if (ysqlResponse.has("error")) {
       throw new YWServiceException(Http.Status.BAD_REQUEST, ysqlResponse.get("error").asText());
     }
+    // Connections opened with the old password are no longer valid.
+    connectionPool.invalidate(universe.universeUUID);
   }
 }
@@ -111,22 +111,30 @@ public class AlertConfigurationWriter {
       AlertDefinitionGroup group =
           definition != null ? alertDefinitionGroupService.get(definition.getGroupUUID()) : null;
       if (definition == null || group == null || !group.isActive()) {
-        swamperHelper.removeAlertDefinition(definitionUuid);
+        removeDefinition(definitionUuid);
         return;
       }
       if (definition.isConfigWritten()) {
         LOG.info("Alert definition {} has config in sync", definitionUuid);
         return;
       }
-      swamperHelper.writeAlertDefinition(group, definition);
+      // Prometheus only needs to reload the rules if the rendered file actually changed.
+      if (swamperHelper.writeAlertDefinition(group, definition)) {
+        requiresReload.set(true);
+      }
       definition.setConfigWritten(true);
       alertDefinitionService.save(definition);
-      requiresReload.set(true);
     } catch (Exception e) {
       LOG.error("Error syncing alert definition " + definitionUuid + " config", e);
     }
   }
 
+  private void removeDefinition(UUID definitionUuid) {
+    if (swamperHelper.removeAlertDefinition(definitionUuid)) {
+      requiresReload.set(true);
+    }
+  }
+
   @VisibleForTesting
   void syncDefinitions() {
     if (running.compareAndSet(false, true)) {
@@ -142,14 +150,21 @@ public class AlertConfigurationWriter {
         Set<UUID> definitionUuids =
             new HashSet<>(alertDefinitionService.listIds(AlertDefinitionFilter.builder().build()));
 
+        // Definitions of these files are gone, so there is nothing to look up.
         configUuids
             .stream()
             .filter(uuid -> !definitionUuids.contains(uuid))
-            .forEach(this::syncDefinition);
-
-        if (requiresReload.get()) {
-          metricQueryHelper.postManagementCommand(MetricQueryHelper.MANAGEMENT_COMMAND_RELOAD);
-          requiresReload.compareAndSet(true, false);
+            .forEach(this::removeDefinition);
+
+        // All the changes since the previous run are applied with a single reload.
+        // Changes written while the reload is in flight are picked up by the next run.
+        if (requiresReload.compareAndSet(true, false)) {
+          try {
+            metricQueryHelper.postManagementCommand(MetricQueryHelper.MANAGEMENT_COMMAND_RELOAD);
+          } catch (Exception e) {
+            requiresReload.set(true);
+            throw e;
+          }
         }
       } catch (Exception e) {
         LOG.error("Error syncing alert definition configs", e);
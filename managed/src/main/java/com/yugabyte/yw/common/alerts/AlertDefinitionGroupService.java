@@ -133,7 +133,13 @@ public class AlertDefinitionGroupService {
 
   public AlertDefinitionGroupPagedResponse pagedList(AlertDefinitionGroupPagedQuery pagedQuery) {
     Query<AlertDefinitionGroup> query = createQueryByFilter(pagedQuery.getFilter()).query();
-    return performPagedQuery(query, pagedQuery, AlertDefinitionGroupPagedResponse.class);
+    return performPagedQuery(
+        query,
+        pagedQuery,
+        AlertDefinitionGroupPagedResponse.class,
+        AlertDefinitionGroup.class,
+        AlertDefinitionGroup::getUuid,
+        pagedQuery.getFilter().getCustomerUuid());
   }
 
   public List<UUID> listIds(AlertDefinitionGroupFilter filter) {
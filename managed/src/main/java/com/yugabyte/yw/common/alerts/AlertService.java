@@ -137,7 +137,13 @@ public class AlertService {
 
   public AlertPagedResponse pagedList(AlertPagedQuery pagedQuery) {
     Query<Alert> query = Alert.createQueryByFilter(pagedQuery.getFilter()).query();
-    return performPagedQuery(query, pagedQuery, AlertPagedResponse.class);
+    return performPagedQuery(
+        query,
+        pagedQuery,
+        AlertPagedResponse.class,
+        Alert.class,
+        Alert::getUuid,
+        pagedQuery.getFilter().getCustomerUuid());
   }
 
   public List<Alert> listNotResolved(AlertFilter filter) {
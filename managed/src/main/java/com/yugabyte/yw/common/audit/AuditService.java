@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import play.mvc.Http;
 
 import javax.inject.Singleton;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -116,8 +117,8 @@ public class AuditService {
     Audit.create(user.uuid, user.customerUUID, path, method, redactedParams, taskUUID);
   }
 
-  public List<Audit> getAll(UUID customerUUID) {
-    return Audit.getAll(customerUUID);
+  public List<Audit> getCustomerEntries(UUID customerUUID, Long beforeId, int limit) {
+    return Audit.getCustomerEntries(customerUUID, beforeId, limit);
   }
 
   public Audit getFromTaskUUID(UUID taskUUID) {
@@ -128,6 +129,14 @@ public class AuditService {
     return Audit.getAllUserEntries(userUUID);
   }
 
+  public List<Audit> getUserEntries(UUID userUUID, Long beforeId, int limit) {
+    return Audit.getUserEntries(userUUID, beforeId, limit);
+  }
+
+  public Iterator<Audit> iterateUserEntries(UUID userUUID) {
+    return Audit.iterateUserEntries(userUUID);
+  }
+
   public Audit getOrBadRequest(UUID customerUUID, UUID taskUUID) {
     return Audit.getOrBadRequest(customerUUID, taskUUID);
   }
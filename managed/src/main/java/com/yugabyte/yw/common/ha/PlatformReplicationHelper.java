@@ -21,7 +21,9 @@ import com.yugabyte.yw.common.config.impl.SettableRuntimeConfigFactory;
 import com.yugabyte.yw.common.ha.PlatformReplicationManager.PlatformBackupParams;
 import com.yugabyte.yw.models.HighAvailabilityConfig;
 import com.yugabyte.yw.models.PlatformInstance;
+import io.ebean.Ebean;
 import io.ebean.Model;
+import io.ebean.SqlRow;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
@@ -59,6 +61,7 @@ public class PlatformReplicationHelper {
       "yb.ha.replication_schedule_enabled";
   private static final String PROMETHEUS_FEDERATED_CONFIG_DIR_KEY = "yb.ha.prometheus_config_dir";
   private static final String NUM_BACKUP_RETENTION_KEY = "yb.ha.num_backup_retention";
+  private static final String INCREMENTAL_SYNC_ENABLED_KEY = "yb.ha.incremental_sync_enabled";
   static final String PROMETHEUS_HOST_CONFIG_KEY = "yb.metrics.host";
   static final String REPLICATION_FREQUENCY_KEY = "yb.ha.replication_frequency";
   static final String DB_USERNAME_CONFIG_KEY = "db.default.username";
@@ -123,6 +126,33 @@ public class PlatformReplicationHelper {
     return this.getRuntimeConfig().getBoolean(REPLICATION_SCHEDULE_ENABLED_KEY);
   }
 
+  boolean isIncrementalSyncEnabled() {
+    return this.getRuntimeConfig().getBoolean(INCREMENTAL_SYNC_ENABLED_KEY);
+  }
+
+  /**
+   * Returns the number of rows inserted, updated or deleted in the platform DB since the stats
+   * were last reset. Writes to the platform_instance table are ignored since sync itself updates
+   * it. Two equal readings mean nothing that followers care about has changed in between.
+   *
+   * @return the change counter, or empty if it could not be read
+   */
+  Optional<Long> getDataChangeCounter() {
+    try {
+      String query =
+          "SELECT COALESCE(SUM(n_tup_ins + n_tup_upd + n_tup_del), 0) AS num_changes "
+              + "FROM pg_stat_user_tables "
+              + "WHERE relname <> 'platform_instance'";
+      SqlRow row = Ebean.createSqlQuery(query).findOne();
+
+      return row == null ? Optional.empty() : Optional.ofNullable(row.getLong("num_changes"));
+    } catch (Exception e) {
+      LOG.warn("Could not read platform DB change counter", e);
+    }
+
+    return Optional.empty();
+  }
+
   void setBackupScheduleEnabled(boolean enabled) {
     this.getRuntimeConfig().setValue(REPLICATION_SCHEDULE_ENABLED_KEY, Boolean.toString(enabled));
   }
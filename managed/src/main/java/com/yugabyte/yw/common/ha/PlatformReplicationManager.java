@@ -10,12 +10,14 @@
 
 package com.yugabyte.yw.common.ha;
 
+import akka.Done;
 import akka.actor.ActorSystem;
 import akka.actor.Cancellable;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.yugabyte.yw.common.ShellResponse;
@@ -24,6 +26,7 @@ import com.yugabyte.yw.models.HighAvailabilityConfig;
 import com.yugabyte.yw.models.PlatformInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
 import play.libs.Json;
 import scala.concurrent.ExecutionContext;
 
@@ -35,6 +38,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -54,17 +61,38 @@ public class PlatformReplicationManager {
 
   private final PlatformReplicationHelper replicationHelper;
 
+  private final ExecutorService syncExecutor;
+
+  // Platform DB change counter last acknowledged by each follower, keyed by follower address.
+  private final Map<String, Long> syncedChangeCounters = new ConcurrentHashMap<>();
+
   private static final Logger LOG = LoggerFactory.getLogger(PlatformReplicationManager.class);
 
   @Inject
   public PlatformReplicationManager(
       ActorSystem actorSystem,
       ExecutionContext executionContext,
-      PlatformReplicationHelper replicationHelper) {
+      PlatformReplicationHelper replicationHelper,
+      ApplicationLifecycle lifecycle) {
     this.actorSystem = actorSystem;
     this.executionContext = executionContext;
     this.replicationHelper = replicationHelper;
     this.schedule = new AtomicReference<>(null);
+    this.syncExecutor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("Platform-Sync-Pool-%d").build());
+
+    // Add shutdown hook to kill the sync pool
+    if (lifecycle != null) {
+      lifecycle.addStopHook(this::shutdownSyncExecutor);
+    }
+  }
+
+  private CompletableFuture<Done> shutdownSyncExecutor() {
+    LOG.info("Shutting down platform sync thread pool");
+    syncExecutor.shutdownNow();
+
+    return CompletableFuture.completedFuture(Done.done());
   }
 
   private Cancellable getSchedule() {
@@ -158,6 +186,9 @@ public class PlatformReplicationManager {
     // Demote the local instance to follower.
     localInstance.demote();
 
+    // Whatever the followers acknowledged before no longer applies once we stop being the leader.
+    syncedChangeCounters.clear();
+
     // Try switching local prometheus to read from the reported leader.
     replicationHelper.switchPrometheusToFederated(new URL(leaderAddr));
   }
@@ -191,6 +222,9 @@ public class PlatformReplicationManager {
     config.getRemoteInstances().forEach(replicationHelper::demoteRemoteInstance);
     // Promote the new local leader.
     newLeader.promote();
+
+    // The restored DB may differ from what the followers last acknowledged, so start over.
+    syncedChangeCounters.clear();
   }
 
   /**
@@ -262,50 +296,104 @@ public class PlatformReplicationManager {
   }
 
   private synchronized void sync() {
-    HighAvailabilityConfig.get()
-        .ifPresent(
-            config -> {
-              try {
-                List<PlatformInstance> remoteInstances = config.getRemoteInstances();
-                // No point in taking a backup if there is no one to send it to.
-                if (remoteInstances.isEmpty()) {
-                  LOG.debug("Skipping HA cluster sync...");
+    HighAvailabilityConfig.get().ifPresent(this::sync);
+  }
 
-                  return;
-                }
+  @VisibleForTesting
+  void sync(HighAvailabilityConfig config) {
+    boolean backupCreated = false;
+    try {
+      List<PlatformInstance> remoteInstances = config.getRemoteInstances();
+      // No point in taking a backup if there is no one to send it to.
+      if (remoteInstances.isEmpty()) {
+        LOG.debug("Skipping HA cluster sync...");
+
+        return;
+      }
 
-                // Create the platform backup.
-                if (!this.createBackup()) {
-                  LOG.error("Error creating platform backup");
+      // Only followers that have not acknowledged the current state of the platform DB need a new
+      // backup. The rest just get the HA cluster metadata.
+      Optional<Long> changeCounter =
+          replicationHelper.isIncrementalSyncEnabled()
+              ? replicationHelper.getDataChangeCounter()
+              : Optional.empty();
+      Set<PlatformInstance> instancesToBackup =
+          remoteInstances
+              .stream()
+              .filter(i -> needsBackup(i, changeCounter))
+              .collect(Collectors.toSet());
+
+      if (!instancesToBackup.isEmpty()) {
+        // Create the platform backup.
+        if (!this.createBackup()) {
+          LOG.error("Error creating platform backup");
+
+          return;
+        }
+        backupCreated = true;
+      } else {
+        LOG.debug("No platform changes since last sync, skipping platform backup");
+      }
 
-                  return;
+      boolean updateLastBackup = backupCreated;
+      config
+          .getLocal()
+          .ifPresent(
+              localInstance -> {
+                // Update local last backup time if a backup was created.
+                if (updateLastBackup) {
+                  localInstance.updateLastBackup();
                 }
 
-                // Update local last backup time if creating the backup succeeded.
-                config
-                    .getLocal()
-                    .ifPresent(
-                        localInstance -> {
-                          localInstance.updateLastBackup();
-
-                          // Send the platform backup to all followers.
-                          Set<PlatformInstance> instancesToSync =
-                              remoteInstances
-                                  .stream()
-                                  .filter(this::sendBackup)
-                                  .collect(Collectors.toSet());
-
-                          // Sync the HA cluster state to all followers that successfully received a
-                          // backup.
-                          instancesToSync.forEach(replicationHelper::syncToRemoteInstance);
-                        });
-              } catch (Exception e) {
-                LOG.error("Error running sync for HA config {}", config.getUUID(), e);
-              } finally {
-                // Remove locally created backups since they have already been sent to followers.
-                replicationHelper.cleanupCreatedBackups();
-              }
-            });
+                // Send the platform backup to all followers in parallel. Followers that are
+                // already up to date are synced without a backup.
+                List<CompletableFuture<Void>> futures =
+                    remoteInstances
+                        .stream()
+                        .map(
+                            remoteInstance ->
+                                CompletableFuture.runAsync(
+                                    () ->
+                                        syncRemoteInstance(
+                                            remoteInstance,
+                                            instancesToBackup.contains(remoteInstance),
+                                            changeCounter),
+                                    syncExecutor))
+                        .collect(Collectors.toList());
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+              });
+    } catch (Exception e) {
+      LOG.error("Error running sync for HA config {}", config.getUUID(), e);
+    } finally {
+      // Remove locally created backups since they have already been sent to followers.
+      if (backupCreated) {
+        replicationHelper.cleanupCreatedBackups();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  boolean needsBackup(PlatformInstance remoteInstance, Optional<Long> changeCounter) {
+    return !changeCounter.isPresent()
+        || !changeCounter.get().equals(syncedChangeCounters.get(remoteInstance.getAddress()));
+  }
+
+  private void syncRemoteInstance(
+      PlatformInstance remoteInstance, boolean sendBackup, Optional<Long> changeCounter) {
+    String remoteAddr = remoteInstance.getAddress();
+    if (sendBackup) {
+      // Forget the acknowledged state until the follower has the new backup.
+      syncedChangeCounters.remove(remoteAddr);
+      if (!this.sendBackup(remoteInstance)) {
+        return;
+      }
+    }
+    // A follower that is already up to date keeps its last backup time, since nothing was sent.
+
+    changeCounter.ifPresent(counter -> syncedChangeCounters.put(remoteAddr, counter));
+
+    // Sync the HA cluster state to the follower that has an up to date backup.
+    replicationHelper.syncToRemoteInstance(remoteInstance);
   }
 
   public void cleanupReceivedBackups(URL leader) {
@@ -2,48 +2,295 @@
 
 package com.yugabyte.yw.common.services;
 
+import akka.Done;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
 import javax.inject.Singleton;
-
-import org.yb.client.YBClient;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import org.yb.client.YBClient;
 
+/**
+ * Hands out long-lived YB clients shared by all callers that use the same masters and certificate.
+ * Each client owns its own netty pools, timer and tablet cache, so building one per call is costly
+ * and always starts with a cold cache. Callers still pair every getClient with a closeClient, which
+ * only releases the reference; a client is closed once nobody uses it for IDLE_TIMEOUT_MS, or as
+ * soon as it is unused and a client for a changed master set of the same cluster is requested.
+ */
 @Singleton
 public class LocalYBClientService implements YBClientService {
   public static final Logger LOG = LoggerFactory.getLogger(LocalYBClientService.class);
 
+  static final String CLIENTS_METRIC_NAME = "yb_client_pool_clients";
+  static final String REFERENCES_METRIC_NAME = "yb_client_pool_references";
+  static final String CREATED_METRIC_NAME = "yb_client_pool_created_count";
+  static final String CLOSED_METRIC_NAME = "yb_client_pool_closed_count";
+
+  // Unused clients are closed after this long.
+  static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+  // How often unused clients are looked for.
+  private static final long EVICTION_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final Map<ClientKey, PooledClient> clients = new ConcurrentHashMap<>();
+  private final Map<YBClient, PooledClient> clientsByInstance = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService evictionExecutor;
+
+  private Gauge clientsMetric = null;
+  private Gauge referencesMetric = null;
+  private Counter createdMetric = null;
+  private Counter closedMetric = null;
+
+  @Inject
+  public LocalYBClientService(ApplicationLifecycle lifecycle) {
+    this(CollectorRegistry.defaultRegistry, lifecycle);
+  }
+
+  @VisibleForTesting
+  LocalYBClientService(CollectorRegistry promRegistry, ApplicationLifecycle lifecycle) {
+    evictionExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("YBClient-Pool-Evictor-%d")
+                .setDaemon(true)
+                .build());
+    evictionExecutor.scheduleWithFixedDelay(
+        () -> evictIdleClients(System.currentTimeMillis()),
+        EVICTION_INTERVAL_MS,
+        EVICTION_INTERVAL_MS,
+        TimeUnit.MILLISECONDS);
+
+    try {
+      clientsMetric =
+          Gauge.build(CLIENTS_METRIC_NAME, "Number of open pooled YB clients")
+              .register(promRegistry);
+      referencesMetric =
+          Gauge.build(REFERENCES_METRIC_NAME, "Number of pooled YB clients references in use")
+              .register(promRegistry);
+      createdMetric =
+          Counter.build(CREATED_METRIC_NAME, "Number of YB clients created by the pool")
+              .register(promRegistry);
+      closedMetric =
+          Counter.build(CLOSED_METRIC_NAME, "Number of YB clients closed by the pool")
+              .register(promRegistry);
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Failed to build prometheus metrics for YB client pool: " + e.getMessage());
+    }
+
+    // Add shutdown hook to stop the evictor
+    if (lifecycle != null) {
+      lifecycle.addStopHook(this::shutdownEvictor);
+    }
+  }
+
+  private CompletableFuture<Done> shutdownEvictor() {
+    LOG.info("Shutting down YB client pool evictor");
+    evictionExecutor.shutdownNow();
+
+    return CompletableFuture.completedFuture(Done.done());
+  }
+
+  @VisibleForTesting
+  boolean isEvictorShutdown() {
+    return evictionExecutor.isShutdown();
+  }
+
   @Override
-  public synchronized YBClient getClient(String masterHostPorts) {
+  public YBClient getClient(String masterHostPorts) {
     return getClient(masterHostPorts, null);
   }
 
   @Override
-  public synchronized YBClient getClient(String masterHostPorts, String certFile) {
-    if (masterHostPorts != null) {
-      return getNewClient(masterHostPorts, certFile);
+  public YBClient getClient(String masterHostPorts, String certFile) {
+    if (masterHostPorts == null) {
+      return null;
     }
-    return null;
+    ClientKey key = new ClientKey(masterHostPorts, certFile);
+    boolean[] created = new boolean[1];
+    PooledClient pooled =
+        clients.compute(
+            key,
+            (k, existing) -> {
+              PooledClient result = existing;
+              if (result == null) {
+                result = new PooledClient(k, getNewClient(k.masterHostPorts, k.certFile));
+                clientsByInstance.put(result.client, result);
+                incrementCounter(createdMetric);
+                created[0] = true;
+                LOG.debug("Created pooled client masters={}.", k.masterHostPorts);
+              }
+              result.refCount++;
+              return result;
+            });
+    if (created[0]) {
+      // New master set - the masters of an already pooled cluster could have been changed.
+      evictReplacedClients(key);
+    }
+    updateGauges();
+    return pooled.client;
   }
 
   @Override
-  public synchronized void closeClient(YBClient client, String masterHostPorts) {
-    if (client != null) {
-      LOG.debug("Closing client masters={}.", masterHostPorts);
-      try {
-        client.close();
-      } catch (Exception e) {
-        LOG.warn("Closing client with masters={} hit error {}", masterHostPorts, e.getMessage());
-      }
-    } else {
+  public void closeClient(YBClient client, String masterHostPorts) {
+    if (client == null) {
       LOG.warn("Client for masters {} was null, cannot close", masterHostPorts);
+      return;
     }
+    PooledClient pooled = clientsByInstance.get(client);
+    if (pooled == null) {
+      // Was not created by the pool.
+      close(client, masterHostPorts);
+      return;
+    }
+    clients.computeIfPresent(
+        pooled.key,
+        (k, existing) -> {
+          if (existing == pooled && existing.refCount > 0) {
+            existing.refCount--;
+            existing.lastReleasedMs = System.currentTimeMillis();
+          }
+          return existing;
+        });
+    updateGauges();
+  }
+
+  @VisibleForTesting
+  int size() {
+    return clients.size();
   }
 
-  private YBClient getNewClient(String masterHPs, String certFile) {
+  /** Closes clients, which are not used for longer than IDLE_TIMEOUT_MS. */
+  @VisibleForTesting
+  void evictIdleClients(long nowMs) {
+    for (ClientKey key : clients.keySet()) {
+      evictIfUnused(key, pooled -> nowMs - pooled.lastReleasedMs >= IDLE_TIMEOUT_MS);
+    }
+  }
+
+  private void evictReplacedClients(ClientKey key) {
+    for (ClientKey other : clients.keySet()) {
+      if (!other.equals(key)
+          && Objects.equals(other.certFile, key.certFile)
+          && !Collections.disjoint(other.masters, key.masters)) {
+        evictIfUnused(other, pooled -> true);
+      }
+    }
+  }
+
+  private void evictIfUnused(ClientKey key, Predicate<PooledClient> condition) {
+    PooledClient[] evicted = new PooledClient[1];
+    clients.computeIfPresent(
+        key,
+        (k, pooled) -> {
+          if (pooled.refCount == 0 && condition.test(pooled)) {
+            evicted[0] = pooled;
+            return null;
+          }
+          return pooled;
+        });
+    if (evicted[0] != null) {
+      clientsByInstance.remove(evicted[0].client);
+      incrementCounter(closedMetric);
+      updateGauges();
+      close(evicted[0].client, key.masterHostPorts);
+    }
+  }
+
+  private void close(YBClient client, String masterHostPorts) {
+    LOG.debug("Closing client masters={}.", masterHostPorts);
+    try {
+      client.close();
+    } catch (Exception e) {
+      LOG.warn("Closing client with masters={} hit error {}", masterHostPorts, e.getMessage());
+    }
+  }
+
+  private void updateGauges() {
+    if (clientsMetric != null) {
+      clientsMetric.set(clients.size());
+    }
+    if (referencesMetric != null) {
+      referencesMetric.set(clients.values().stream().mapToInt(pooled -> pooled.refCount).sum());
+    }
+  }
+
+  private static void incrementCounter(Counter counter) {
+    if (counter != null) {
+      counter.inc();
+    }
+  }
+
+  @VisibleForTesting
+  YBClient getNewClient(String masterHPs, String certFile) {
     return new YBClient.YBClientBuilder(masterHPs)
         .defaultAdminOperationTimeoutMs(120000)
         .sslCertFile(certFile)
         .build();
   }
+
+  private static class ClientKey {
+    final String masterHostPorts;
+    final String certFile;
+    // Same masters, listed in a different order, share the client.
+    final Set<String> masters;
+
+    ClientKey(String masterHostPorts, String certFile) {
+      this.masterHostPorts = masterHostPorts;
+      this.certFile = certFile;
+      this.masters =
+          Arrays.stream(masterHostPorts.split(","))
+              .map(String::trim)
+              .filter(hostPort -> !hostPort.isEmpty())
+              .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ClientKey)) {
+        return false;
+      }
+      ClientKey other = (ClientKey) o;
+      return masters.equals(other.masters) && Objects.equals(certFile, other.certFile);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(masters, certFile);
+    }
+  }
+
+  // Reference count and release time are only changed under the map lock of the key.
+  private static class PooledClient {
+    final ClientKey key;
+    final YBClient client;
+    int refCount;
+    long lastReleasedMs;
+
+    PooledClient(ClientKey key, YBClient client) {
+      this.key = key;
+      this.client = client;
+      this.lastReleasedMs = System.currentTimeMillis();
+    }
+  }
 }
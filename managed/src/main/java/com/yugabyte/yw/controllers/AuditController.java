@@ -2,6 +2,7 @@
 
 package com.yugabyte.yw.controllers;
 
+import com.yugabyte.yw.common.YWServiceException;
 import com.yugabyte.yw.forms.YWResults;
 import com.yugabyte.yw.models.Audit;
 import com.yugabyte.yw.models.Customer;
@@ -17,13 +18,17 @@ import play.mvc.Result;
 import java.util.List;
 import java.util.UUID;
 
+import static play.mvc.Http.Status.BAD_REQUEST;
+
 @Api(value = "Audit", authorizations = @Authorization(AbstractPlatformController.API_KEY_AUTH))
 public class AuditController extends AuthenticatedController {
 
   public static final Logger LOG = LoggerFactory.getLogger(AuditController.class);
 
   /**
-   * GET endpoint for listing all audit entries for a user.
+   * GET endpoint for listing audit entries for a user, newest first. Without a limit all the
+   * entries are returned, streamed as they are read. With a limit, a page of the entries older than
+   * the before entry is returned, the auditID of the last entry being the before of the next page.
    *
    * @return JSON response with audit entries belonging to the user.
    */
@@ -32,10 +37,16 @@ public class AuditController extends AuthenticatedController {
       response = Audit.class,
       responseContainer = "List",
       nickname = "ListOfAudit")
-  public Result list(UUID customerUUID, UUID userUUID) {
+  public Result list(UUID customerUUID, UUID userUUID, Long before, Integer limit) {
     Customer.getOrBadRequest(customerUUID);
     Users user = Users.getOrBadRequest(userUUID);
-    List<Audit> auditList = auditService().getAllUserEntries(user.uuid);
+    if (limit == null) {
+      return YWResults.withStreamedData(auditService().iterateUserEntries(user.uuid));
+    }
+    if (limit <= 0) {
+      throw new YWServiceException(BAD_REQUEST, "Invalid limit " + limit);
+    }
+    List<Audit> auditList = auditService().getUserEntries(user.uuid, before, limit);
     return YWResults.withData(auditList);
   }
 
@@ -87,12 +87,15 @@ public class CustomerTaskController extends AuthenticatedController {
   private Map<UUID, List<CustomerTaskFormData>> fetchTasks(UUID customerUUID, UUID targetUUID) {
     List<CustomerTask> customerTaskList;
 
+    // The id breaks the ties of the creation time, so that the order is stable across requests,
+    // and both match the (customer_uuid, create_time, id) and (target_uuid, create_time, id)
+    // indexes, which stop the scan at the limit.
     Query<CustomerTask> customerTaskQuery =
         CustomerTask.find
             .query()
             .where()
             .eq("customer_uuid", customerUUID)
-            .orderBy("create_time desc");
+            .orderBy("create_time desc, id desc");
 
     if (targetUUID != null) {
       customerTaskQuery.where().eq("target_uuid", targetUUID);
@@ -102,9 +105,7 @@ public class CustomerTaskController extends AuthenticatedController {
         customerTaskQuery
             .setMaxRows(
                 runtimeConfigFactory.globalRuntimeConf().getInt(CUSTOMER_TASK_DB_QUERY_LIMIT))
-            .orderBy("create_time desc")
-            .findPagedList()
-            .getList();
+            .findList();
 
     Map<UUID, List<CustomerTaskFormData>> taskListMap = new HashMap<>();
 
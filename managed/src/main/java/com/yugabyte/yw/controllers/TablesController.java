@@ -17,7 +17,6 @@ import com.yugabyte.yw.forms.BulkImportParams;
 import com.yugabyte.yw.forms.TableDefinitionTaskParams;
 import com.yugabyte.yw.forms.YWResults;
 import com.yugabyte.yw.metrics.MetricQueryHelper;
-import com.yugabyte.yw.metrics.MetricQueryResponse;
 import com.yugabyte.yw.models.*;
 import com.yugabyte.yw.models.helpers.ColumnDetails;
 import com.yugabyte.yw.models.helpers.TableDetails;
@@ -288,7 +287,7 @@ public class TablesController extends AuthenticatedController {
   // Query prometheus for table sizes.
   private Map<String, Double> getTableSizesOrEmpty(Universe universe) {
     try {
-      return queryTableSizes(universe.getUniverseDetails().nodePrefix);
+      return metricQueryHelper.queryTableSizes(universe.getUniverseDetails().nodePrefix);
     } catch (RuntimeException e) {
       LOG.error(
           "Error querying for table sizes for universe {} from prometheus",
@@ -616,26 +615,4 @@ public class TablesController extends AuthenticatedController {
       ybService.closeClient(client, masterAddresses);
     }
   }
-
-  private Map<String, Double> queryTableSizes(String nodePrefix) {
-    // Execute query and check for errors.
-    ArrayList<MetricQueryResponse.Entry> values =
-        metricQueryHelper.queryDirect(
-            "sum by (table_id) (rocksdb_current_version_sst_files_size{node_prefix=\""
-                + nodePrefix
-                + "\"})");
-
-    HashMap<String, Double> result = new HashMap<>();
-    for (final MetricQueryResponse.Entry entry : values) {
-      String tableID = entry.labels.get("table_id");
-      if (tableID == null
-          || tableID.isEmpty()
-          || entry.values == null
-          || entry.values.size() == 0) {
-        continue;
-      }
-      result.put(tableID, entry.values.get(0).getRight());
-    }
-    return result;
-  }
 }
@@ -15,7 +15,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.net.HostAndPort;
 import com.google.inject.Inject;
 import com.yugabyte.yw.cloud.UniverseResourceDetails;
-import com.yugabyte.yw.common.YWServiceException;
 import com.yugabyte.yw.common.config.RuntimeConfigFactory;
 import com.yugabyte.yw.controllers.handlers.UniverseInfoHandler;
 import com.yugabyte.yw.forms.YWResults;
@@ -31,9 +30,6 @@ import play.libs.concurrent.HttpExecutionContext;
 import play.mvc.Result;
 import play.mvc.Results;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
@@ -164,8 +160,8 @@ public class UniverseInfoController extends AuthenticatedController {
   }
 
   /**
-   * API that downloads the log files for a particular node in a universe. Synchronized due to
-   * potential race conditions.
+   * API that downloads the log files for a particular node in a universe. The archive is streamed
+   * to the client while it is downloaded from the node.
    *
    * @param customerUUID ID of custoemr
    * @param universeUUID ID of universe
@@ -177,16 +173,32 @@ public class UniverseInfoController extends AuthenticatedController {
       UUID customerUUID, UUID universeUUID, String nodeName) {
     return CompletableFuture.supplyAsync(
         () -> {
-          File file =
-              universeInfoHandler.downloadNodeLogs(customerUUID, universeUUID, nodeName).toFile();
-          try (InputStream is = new FileInputStream(file)) {
-            file.delete(); // TODO: should this be done in finally?
-            // return the file to client
-            response().setHeader("Content-Disposition", "attachment; filename=" + file.getName());
-            return ok(is).as("application/x-compressed");
-          } catch (IOException e) {
-            throw new YWServiceException(INTERNAL_SERVER_ERROR, e.getMessage());
-          }
+          InputStream is =
+              universeInfoHandler.downloadNodeLogs(customerUUID, universeUUID, nodeName);
+          response()
+              .setHeader("Content-Disposition", "attachment; filename=" + nodeName + "-logs.tar.gz");
+          return ok(is).as("application/x-compressed");
+        },
+        ec.current());
+  }
+
+  /**
+   * API that downloads the log files of all the nodes in a universe. The nodes are downloaded
+   * concurrently, and the zip archive is streamed to the client while it is collected.
+   *
+   * @param customerUUID ID of customer
+   * @param universeUUID ID of universe
+   * @return zip file with the tar file of the log files of every node.
+   */
+  // TODO: API
+  public CompletionStage<Result> downloadUniverseLogs(UUID customerUUID, UUID universeUUID) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          InputStream is = universeInfoHandler.downloadUniverseLogs(customerUUID, universeUUID);
+          response()
+              .setHeader(
+                  "Content-Disposition", "attachment; filename=" + universeUUID + "-logs.zip");
+          return ok(is).as("application/zip");
         },
         ec.current());
   }
@@ -14,9 +14,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.net.HostAndPort;
 import com.google.inject.Inject;
 import com.yugabyte.yw.cloud.UniverseResourceDetails;
-import com.yugabyte.yw.common.NodeUniverseManager;
+import com.yugabyte.yw.common.NodeLogStreamer;
 import com.yugabyte.yw.common.PlacementInfoUtil;
-import com.yugabyte.yw.common.ShellResponse;
 import com.yugabyte.yw.common.YWServiceException;
 import com.yugabyte.yw.common.config.RuntimeConfigFactory;
 import com.yugabyte.yw.common.services.YBClientService;
@@ -31,10 +30,9 @@ import com.yugabyte.yw.queries.QueryHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.yb.client.YBClient;
 import play.libs.Json;
-import play.mvc.Http;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -50,7 +48,7 @@ public class UniverseInfoHandler {
   @Inject private QueryHelper queryHelper;
   @Inject private RuntimeConfigFactory runtimeConfigFactory;
   @Inject private YBClientService ybService;
-  @Inject private NodeUniverseManager nodeUniverseManager;
+  @Inject private NodeLogStreamer nodeLogStreamer;
 
   public UniverseResourceDetails getUniverseResources(UniverseDefinitionTaskParams taskParams) {
     Set<NodeDetails> nodesInCluster;
@@ -183,20 +181,25 @@ public class UniverseInfoHandler {
     }
   }
 
-  public Path downloadNodeLogs(UUID customerUUID, UUID universeUUID, String nodeName) {
+  public InputStream downloadNodeLogs(UUID customerUUID, UUID universeUUID, String nodeName) {
     Customer customer = Customer.getOrBadRequest(customerUUID);
     Universe universe = Universe.getValidUniverseOrBadRequest(universeUUID, customer);
     log.debug("Retrieving logs for " + nodeName);
     NodeDetails node = universe.getNode(nodeName);
-    String storagePath = runtimeConfigFactory.staticApplicationConf().getString("yb.storage.path");
-    String tarFileName = node.cloudInfo.private_ip + "-logs.tar.gz";
-    Path targetFile = Paths.get(storagePath + "/" + tarFileName);
-    ShellResponse response =
-        nodeUniverseManager.downloadNodeLogs(node, universe, targetFile.toString());
-
-    if (response.code != 0) {
-      throw new YWServiceException(Http.Status.INTERNAL_SERVER_ERROR, response.message);
+    if (node == null) {
+      throw new YWServiceException(BAD_REQUEST, "Invalid node name " + nodeName);
+    }
+    try {
+      return nodeLogStreamer.streamNodeLogs(universe, node);
+    } catch (IOException e) {
+      throw new YWServiceException(INTERNAL_SERVER_ERROR, e.getMessage());
     }
-    return targetFile;
+  }
+
+  public InputStream downloadUniverseLogs(UUID customerUUID, UUID universeUUID) {
+    Customer customer = Customer.getOrBadRequest(customerUUID);
+    Universe universe = Universe.getValidUniverseOrBadRequest(universeUUID, customer);
+    log.debug("Retrieving logs for universe " + universe.name);
+    return nodeLogStreamer.streamLogBundle(universe, universe.getNodes());
   }
 }
@@ -84,6 +84,10 @@ public class BackupTableParams extends TableManagerParams {
 
   @JsonIgnore public Backup backup = null;
 
+  // Set on the entries of backupList when they are backed up by subtasks of their own. These only
+  // mark the backup failed, it is completed by the parent task once all the entries succeeded.
+  @JsonIgnore public boolean backupListEntry = false;
+
   @JsonIgnore
   public Set<String> getTableNames() {
     Set<String> tableNames = new HashSet<>();
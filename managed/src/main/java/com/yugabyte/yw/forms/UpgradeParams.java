@@ -58,5 +58,9 @@ public class UpgradeParams extends UniverseDefinitionTaskParams {
 
   public UpgradeOption upgradeOption = UpgradeOption.ROLLING_UPGRADE;
 
+  // Number of tservers of the same zone restarted together in a rolling upgrade.
+  // Masters are always restarted one at a time.
+  public int rollingBatchSize = 1;
+
   public static class Converter extends BaseConverter<UpgradeParams> {}
 }
@@ -15,12 +15,15 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.yugabyte.yw.common.JsonArrayInputStream;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import play.libs.Json;
+import play.mvc.Http;
 import play.mvc.Result;
 import play.mvc.Results;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -47,6 +50,17 @@ public class YWResults {
     return Results.ok(Json.toJson(data));
   }
 
+  /**
+   * Same as above for a list too large to be loaded in memory. The items are serialized to a json
+   * array as the response is sent, so the iterator should read them a page at a time rather than
+   * hold a database cursor while the client downloads.
+   *
+   * @param data - items to be serialized to json and returned
+   */
+  public static Result withStreamedData(Iterator<?> data) {
+    return Results.ok(new JsonArrayInputStream(data)).as(Http.MimeTypes.JSON);
+  }
+
   @ApiModel("Generic error response from Yugawware Platform API")
   public static class YWError {
     public boolean success = false;
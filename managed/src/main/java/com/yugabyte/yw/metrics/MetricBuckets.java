@@ -0,0 +1,151 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates the samples of one native metric, reported by several tservers, into time buckets of
+ * a fixed step. Bucket i covers [startSec + i * stepSec, startSec + (i + 1) * stepSec).
+ *
+ * <p>Samples are expected to arrive grouped by series (the metric of a single tserver), the way a
+ * scan of the metrics table returns them. Each series contributes the mean of its values in a
+ * bucket, so a tserver reporting twice within one step is not counted twice. For counters the
+ * value of a sample is the rate since the previous sample of the series, which is accounted to the
+ * bucket of the older sample. All the state is kept in primitive arrays.
+ */
+class MetricBuckets {
+
+  private final long startSec;
+  private final long stepSec;
+  private final int numBuckets;
+  private final boolean isCounter;
+  private final double divisor;
+
+  // Sum of the per series means and the number of series with values, per bucket.
+  private final double[] totals;
+  private final int[] numSeries;
+
+  // Values of the series being read.
+  private final double[] seriesSums;
+  private final int[] seriesCounts;
+  private String series = null;
+  private boolean seriesHasValues = false;
+  private boolean hasPrevSample = false;
+  private long prevTimestampSec;
+  private double prevValue;
+
+  private MetricBuckets(
+      long startSec, long endSec, long stepSec, boolean isCounter, double divisor) {
+    this.startSec = startSec;
+    this.stepSec = stepSec;
+    this.numBuckets = (int) Math.max(0, (endSec - startSec + stepSec - 1) / stepSec);
+    this.isCounter = isCounter;
+    this.divisor = divisor;
+    this.totals = new double[numBuckets];
+    this.numSeries = new int[numBuckets];
+    this.seriesSums = new double[numBuckets];
+    this.seriesCounts = new int[numBuckets];
+  }
+
+  /** Buckets for a monotonic counter, the per second rate of which is aggregated. */
+  static MetricBuckets counter(long startSec, long endSec, long stepSec) {
+    return new MetricBuckets(startSec, endSec, stepSec, true, 1);
+  }
+
+  /** Buckets for a gauge, the value of which is divided by the divisor and aggregated. */
+  static MetricBuckets gauge(long startSec, long endSec, long stepSec, double divisor) {
+    return new MetricBuckets(startSec, endSec, stepSec, false, divisor);
+  }
+
+  int getNumBuckets() {
+    return numBuckets;
+  }
+
+  long getTimestampSec(int bucket) {
+    return startSec + bucket * stepSec;
+  }
+
+  /**
+   * Adds a sample.
+   *
+   * @param series : Series of the sample, the UUID of the reporting tserver.
+   * @param timestampSec : Time of the sample.
+   * @param value : Value of the sample.
+   */
+  void add(String series, long timestampSec, double value) {
+    if (!series.equals(this.series)) {
+      finishSeries();
+      this.series = series;
+    }
+    if (!isCounter) {
+      addToSeries(timestampSec, value / divisor);
+      return;
+    }
+    if (hasPrevSample && timestampSec != prevTimestampSec) {
+      double rate = (value - prevValue) / (timestampSec - prevTimestampSec);
+      addToSeries(Math.min(timestampSec, prevTimestampSec), rate);
+    }
+    hasPrevSample = true;
+    prevTimestampSec = timestampSec;
+    prevValue = value;
+  }
+
+  private void addToSeries(long timestampSec, double value) {
+    long bucket = Math.floorDiv(timestampSec - startSec, stepSec);
+    if (bucket < 0 || bucket >= numBuckets) {
+      return;
+    }
+    seriesSums[(int) bucket] += value;
+    seriesCounts[(int) bucket]++;
+    seriesHasValues = true;
+  }
+
+  private void finishSeries() {
+    if (seriesHasValues) {
+      for (int i = 0; i < numBuckets; i++) {
+        if (seriesCounts[i] > 0) {
+          totals[i] += seriesSums[i] / seriesCounts[i];
+          numSeries[i]++;
+        }
+      }
+      Arrays.fill(seriesSums, 0);
+      Arrays.fill(seriesCounts, 0);
+      seriesHasValues = false;
+    }
+    hasPrevSample = false;
+  }
+
+  /** Sum of the series values per bucket, NaN for the buckets without values. */
+  double[] sum() {
+    return aggregate(false);
+  }
+
+  /** Mean of the series values per bucket, NaN for the buckets without values. */
+  double[] average() {
+    return aggregate(true);
+  }
+
+  private double[] aggregate(boolean average) {
+    finishSeries();
+    double[] result = new double[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      if (numSeries[i] == 0) {
+        result[i] = Double.NaN;
+      } else {
+        result[i] = average ? totals[i] / numSeries[i] : totals[i];
+      }
+    }
+    return result;
+  }
+
+  /** Divides the values bucket by bucket, NaN where either is missing or the divisor is 0. */
+  static double[] divide(double[] numerators, double[] denominators) {
+    double[] result = new double[numerators.length];
+    for (int i = 0; i < numerators.length; i++) {
+      // NaN propagates through the division by itself.
+      result[i] = denominators[i] == 0 ? Double.NaN : numerators[i] / denominators[i];
+    }
+    return result;
+  }
+}
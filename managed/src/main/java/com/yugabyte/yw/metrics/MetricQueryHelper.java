@@ -167,6 +167,34 @@ public class MetricQueryHelper {
     return metricResponse.getValues();
   }
 
+  /**
+   * Returns the size of the SST files of each table of the universe, keyed by the table id without
+   * dashes.
+   *
+   * @param nodePrefix node prefix of the universe.
+   */
+  public Map<String, Double> queryTableSizes(String nodePrefix) {
+    // Execute query and check for errors.
+    ArrayList<MetricQueryResponse.Entry> values =
+        queryDirect(
+            "sum by (table_id) (rocksdb_current_version_sst_files_size{node_prefix=\""
+                + nodePrefix
+                + "\"})");
+
+    HashMap<String, Double> result = new HashMap<>();
+    for (final MetricQueryResponse.Entry entry : values) {
+      String tableID = entry.labels.get("table_id");
+      if (tableID == null
+          || tableID.isEmpty()
+          || entry.values == null
+          || entry.values.size() == 0) {
+        continue;
+      }
+      result.put(tableID, entry.values.get(0).getRight());
+    }
+    return result;
+  }
+
   public List<AlertData> queryAlerts() {
     final String queryUrl = getPrometheusQueryUrl(ALERTS_PATH);
 
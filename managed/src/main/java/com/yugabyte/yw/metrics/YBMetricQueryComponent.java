@@ -1,14 +1,14 @@
 // Copyright (c) YugaByte, Inc.
 package com.yugabyte.yw.metrics;
 
-import com.datastax.driver.core.Cluster;
-import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import com.yugabyte.yw.common.SslHelper;
+import com.yugabyte.yw.common.CassandraSessionPool;
 import com.yugabyte.yw.common.Util;
 import com.yugabyte.yw.common.services.YBClientService;
 import com.yugabyte.yw.models.Universe;
@@ -19,9 +19,10 @@ import org.yb.client.ListTabletServersResponse;
 import org.yb.client.YBClient;
 import org.yb.util.ServerInfo;
 
-import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Singleton
 public class YBMetricQueryComponent {
@@ -29,8 +30,11 @@ public class YBMetricQueryComponent {
 
   // The range in which to group metrics. Metrics in this range are considered
   // at the same timestamp. This needs to match the rate at which the cassandra
-  // table records the metrics.
-  private static final Integer TIMESTAMP_RANGE_SECS = 30;
+  // table records the metrics, so it is the smallest step of the returned values.
+  private static final int TIMESTAMP_RANGE_SECS = 30;
+
+  // Upper bound of the number of values returned per metric, the step is increased to fit.
+  private static final int MAX_BUCKETS = 11000;
 
   // Each data entry needs to be of the format:
   // [Timestamp, value]
@@ -64,12 +68,14 @@ public class YBMetricQueryComponent {
       "{\"status\":\"success\"," + "\"data\":{\"resultType\":\"matrix\"," + "\"result\":%s}}";
 
   private static final String METRICS_TABLE = "system.metrics";
-  private static final String QUERY_FORMAT =
-      "select * from %s where metric = '%s' " + "and node = '%s' and ts >= %d and ts < %d";
+  // Reads the given metrics of all the given tservers at once.
+  private static final String SCAN_FORMAT =
+      "select metric, node, ts, value, details from %s where metric in (%s) "
+          + "and node in (%s) and ts >= %d and ts < %d";
 
   // Array of metrics whose values should be retrieved from details column instead of value column.
-  private static final List<String> METRICS_WITH_DETAILS_VALUE =
-      Arrays.asList("cpu_usage_user", "cpu_usage_system");
+  private static final Set<String> METRICS_WITH_DETAILS_VALUE =
+      ImmutableSet.of("cpu_usage_user", "cpu_usage_system");
 
   private static final long BYTES_IN_GB = 1024 * 1024 * 1024;
 
@@ -86,34 +92,9 @@ public class YBMetricQueryComponent {
 
   @Inject YBClientService ybService;
 
-  public enum Function {
-    Sum,
-    Average
-  }
-
-  private static class CassandraConnection {
-    Cluster cluster = null;
-    Session session = null;
-  }
-
-  private CassandraConnection createCassandraConnection(UUID universeUUID) {
-    CassandraConnection cc = new CassandraConnection();
-    List<InetSocketAddress> addresses = Util.getNodesAsInet(universeUUID);
-    if (addresses.isEmpty()) {
-      return cc;
-    }
-    Cluster.Builder builder = Cluster.builder().addContactPointsWithPorts(addresses);
-    String certificate = Universe.getOrBadRequest(universeUUID).getCertificateClientToNode();
-    if (certificate != null) {
-      builder.withSSL(SslHelper.getSSLOptions(certificate));
-    }
-    cc.cluster = builder.build();
-
-    cc.session = cc.cluster.connect();
-    return cc;
-  }
+  @Inject CassandraSessionPool sessionPool;
 
-  private Double getValue(Row r) {
+  private double getValue(Row r) {
     if (METRICS_WITH_DETAILS_VALUE.contains(r.getString("metric"))) {
       return Util.convertStringToJson(r.getString("details")).get("value").asDouble();
     } else {
@@ -162,156 +143,92 @@ public class YBMetricQueryComponent {
     return new TServerMappings(nameToUUID, uuidToIP);
   }
 
-  private ResultSet cassandraTserverSelectQuery(
-      String metric, String tserverUUID, Session session, long startMs, long endMs) {
-    String queryString =
-        String.format(
-            QUERY_FORMAT, METRICS_TABLE, metric, tserverUUID, (startMs * 1000), (endMs * 1000));
-    return session.execute(queryString);
-  }
-
-  // Convert the map to the required output format.
-  private List<String> mapToStringList(Map<Long, Double> metrics) {
-    List<String> vals = new ArrayList<>();
-    for (Entry<Long, Double> entry : metrics.entrySet()) {
-      vals.add(String.format(DATA_ENTRY_FORMAT, entry.getKey(), entry.getValue()));
-    }
-    return vals;
-  }
-
-  private double compute(Function function, double initialVal, double valToUpdate, int count) {
-    switch (function) {
-      case Sum:
-        return initialVal + valToUpdate;
-      case Average:
-        return initialVal + (valToUpdate / count);
-      default:
-        throw new RuntimeException("Function not supported.");
+  // Tservers to report the metrics of, only the one in the filter if it has a node.
+  private Collection<String> getTserverUUIDs(Map<String, String> tserverMap, JsonNode params) {
+    if (params.has("exported_instance")) {
+      String tserverUUID = tserverMap.get(params.path("exported_instance").asText());
+      return tserverUUID == null
+          ? Collections.emptyList()
+          : Collections.singletonList(tserverUUID);
     }
+    return tserverMap.values();
   }
 
-  public NavigableMap<Long, Double> calculateRate(
-      List<ResultSet> results, Function function, int numTservers) {
-    NavigableMap<Long, Double> timeRangeMap = new TreeMap<>();
-    for (ResultSet rs : results) {
-      long currTimestampSec;
-      long prevTimestampSec = 0;
-      double currRate;
-      double currVal;
-      double prevVal = 0;
-      boolean start = true;
-      Iterator<Row> rowIter = rs.iterator();
-      while (rowIter.hasNext()) {
-        Row row = rowIter.next();
-        currTimestampSec = row.getTimestamp("ts").getTime() / 1000;
-        currVal = getValue(row);
-        if (start) {
-          if (!rowIter.hasNext()) {
-            return timeRangeMap;
-          }
-          row = rowIter.next();
-          prevVal = currVal;
-          prevTimestampSec = currTimestampSec;
-          currTimestampSec = row.getTimestamp("ts").getTime() / 1000;
-          currVal = getValue(row);
-          start = false;
-        }
-        if (!rowIter.hasNext()) {
-          break;
-        } else {
-          currRate = (prevVal - currVal) / (prevTimestampSec - currTimestampSec);
-        }
-        Entry<Long, Double> entry = timeRangeMap.floorEntry(currTimestampSec);
-        // In case there is no entry lower than that, or the entry lower than the key
-        // is older than the range for the same timestamped metric.
-        if (entry == null || currTimestampSec - entry.getKey() > TIMESTAMP_RANGE_SECS) {
-          double calcVal = compute(function, 0.0, currRate, numTservers);
-          timeRangeMap.put(currTimestampSec, calcVal);
-        } else {
-          double calcVal = compute(function, entry.getValue(), currRate, numTservers);
-          timeRangeMap.put(entry.getKey(), calcVal);
-        }
-        prevVal = currVal;
-        prevTimestampSec = currTimestampSec;
+  // Requested step, but at least the metrics recording interval and big enough to fit the range
+  // into MAX_BUCKETS.
+  private long getStepSec(Map<String, String> queryParam, long startSec, long endSec) {
+    long stepSec = TIMESTAMP_RANGE_SECS;
+    String step = queryParam.get("step");
+    if (step != null) {
+      try {
+        stepSec = Math.max(stepSec, Long.parseLong(step));
+      } catch (NumberFormatException e) {
+        LOG.warn("Ignoring step {}, which is not a number of seconds.", step);
       }
     }
-    return timeRangeMap;
+    long minStepSec = (endSec - startSec + MAX_BUCKETS - 1) / MAX_BUCKETS;
+    return Math.max(stepSec, minStepSec);
   }
 
-  private TreeMap<Long, Double> metricDivide(
-      NavigableMap<Long, Double> metricsNum, NavigableMap<Long, Double> metricsDenom) {
-    TreeMap<Long, Double> timeToVal = new TreeMap<>();
-    for (Entry<Long, Double> entry : metricsNum.entrySet()) {
-      Entry<Long, Double> entry2 = metricsDenom.floorEntry(entry.getKey());
-      if (entry2 != null && Math.abs(entry.getKey() - entry2.getKey()) < TIMESTAMP_RANGE_SECS) {
-        Double val = entry.getValue() / entry2.getValue();
-        // Due to the metrics being written and read into/from a user table, we get
-        // some rpcs when no workload is running. This causes the latency
-        // graph to be jittery. The following code can be uncommented if we want
-        // to get rid of the jitters/mark the values only when the RPC count is
-        // significant.
-        /*
-        Double val = 0.0;
-        if (entry2.getValue() > 10) {
-          val = entry.getValue() / entry2.getValue();
-        }
-        */
-        timeToVal.put(entry2.getKey(), val);
-      }
+  /**
+   * Reads the metrics of the tservers in the time range with a single scan and adds the samples to
+   * the buckets of their metric.
+   *
+   * @param buckets : Buckets to fill, keyed by the metric name.
+   * @param tserverUUIDs : Tservers to read the metrics of.
+   */
+  private void scanMetrics(
+      Session session,
+      Map<String, MetricBuckets> buckets,
+      Collection<String> tserverUUIDs,
+      long startSec,
+      long endSec) {
+    if (tserverUUIDs.isEmpty()) {
+      return;
     }
-    return timeToVal;
+    String queryString =
+        String.format(
+            SCAN_FORMAT,
+            METRICS_TABLE,
+            toInList(buckets.keySet()),
+            toInList(tserverUUIDs),
+            TimeUnit.SECONDS.toMillis(startSec),
+            TimeUnit.SECONDS.toMillis(endSec));
+    aggregate(session.execute(queryString), buckets);
   }
 
-  private NavigableMap<Long, Double> convertToGb(List<ResultSet> results) {
-    return divideByConstant(results, BYTES_IN_GB);
+  private static String toInList(Collection<String> values) {
+    return values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
   }
 
-  private NavigableMap<Long, Double> divideByConstant(List<ResultSet> results, double denom) {
-    NavigableMap<Long, Double> timeRangeMap = new TreeMap<>();
-    for (ResultSet rs : results) {
-      for (Row row : rs) {
+  @VisibleForTesting
+  void aggregate(Iterable<Row> rows, Map<String, MetricBuckets> buckets) {
+    for (Row row : rows) {
+      MetricBuckets metricBuckets = buckets.get(row.getString("metric"));
+      if (metricBuckets != null) {
         long timestampSec = row.getTimestamp("ts").getTime() / 1000;
-        double val = getValue(row) / denom;
-        timeRangeMap.put(timestampSec, val);
+        metricBuckets.add(row.getString("node"), timestampSec, getValue(row));
       }
     }
-    return timeRangeMap;
   }
 
-  private List<ResultSet> queryRunner(
-      String metricName,
-      Session session,
-      Map<String, String> tserverMap,
-      JsonNode params,
-      long start,
-      long end) {
-    List<ResultSet> results = new ArrayList<>();
-    // Check if metric needs to be reported for only a single tserver.
-    if (params.has("exported_instance")) {
-      String tserverName = params.path("exported_instance").asText();
-      ResultSet rs =
-          cassandraTserverSelectQuery(metricName, tserverMap.get(tserverName), session, start, end);
-      if (rs != null && rs.iterator().hasNext()) {
-        results.add(rs);
-      }
-    } else {
-      // TODO: Maybe query for all tservers and split here rather than make more
-      // database calls.
-      for (Entry<String, String> entry : tserverMap.entrySet()) {
-        ResultSet rs =
-            cassandraTserverSelectQuery(metricName, entry.getValue(), session, start, end);
-        if (rs != null && rs.iterator().hasNext()) {
-          results.add(rs);
-        }
+  // Convert the bucket values to the required output format, skipping the empty buckets.
+  private List<String> toStringList(MetricBuckets buckets, double[] values) {
+    List<String> vals = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      if (!Double.isNaN(values[i])) {
+        vals.add(String.format(DATA_ENTRY_FORMAT, buckets.getTimestampSec(i), values[i]));
       }
     }
-    return results;
+    return vals;
   }
 
   /** Utility function for inserting calculated metrics with the proper formatting. */
-  private void insertMetrics(List<String> totalMetrics, Map<Long, Double> newVals, String method) {
-    if (!newVals.isEmpty()) {
-      totalMetrics.add(String.format(SERVICE_METRIC_FORMAT, method, mapToStringList(newVals)));
+  private void insertMetrics(
+      List<String> totalMetrics, MetricBuckets buckets, double[] values, String method) {
+    List<String> vals = toStringList(buckets, values);
+    if (!vals.isEmpty()) {
+      totalMetrics.add(String.format(SERVICE_METRIC_FORMAT, method, vals));
       // Note that we are passing a List<String> to the %s parameter and expecting
       // it to be serialized as [ s1, s2 ], which also matches the json array format
     }
@@ -332,10 +249,12 @@ public class YBMetricQueryComponent {
     String queryKey = queryParam.get("queryKey");
     Date date = new Date();
     long startTime = Long.parseLong(queryParam.getOrDefault("start", "0"));
-    long endTime = Long.parseLong(queryParam.getOrDefault("end", String.valueOf(date.getTime())));
+    long endTime =
+        Long.parseLong(queryParam.getOrDefault("end", String.valueOf(date.getTime() / 1000)));
     if (startTime == 0) {
       throw new RuntimeException("Start time needs to be provided.");
     }
+    long stepSec = getStepSec(queryParam, startTime, endTime);
     if (queryParam.containsKey("filters")) {
       JsonNode params = Util.convertStringToJson(queryParam.get("filters"));
       // Since node prefix format is yb-customer_code-universe_name.
@@ -350,140 +269,109 @@ public class YBMetricQueryComponent {
       }
       Universe universe = optUniverse.get();
       TServerMappings tserverMaps = getTservers(universe);
-      CassandraConnection cc = null;
-
-      switch (queryKey) {
-        case "total_rpcs_per_sec":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return null;
-          }
-          for (String method : serviceMethods) {
-            String metricName = String.format(COUNT_METRIC_STRING, method);
-            List<ResultSet> results =
-                queryRunner(
-                    metricName, cc.session, tserverMaps.nameToUUID, params, startTime, endTime);
-            NavigableMap<Long, Double> metricsVals =
-                calculateRate(results, Function.Sum, results.size());
-            insertMetrics(metricResults, metricsVals, method);
-          }
-          break;
-        case "tserver_ops_latency":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return null;
-          }
-          for (String method : serviceMethods) {
-            String metricCount = String.format(COUNT_METRIC_STRING, method);
-            String metricSum = String.format(SUM_METRIC_STRING, method);
-            List<ResultSet> resultCount =
-                queryRunner(
-                    metricCount, cc.session, tserverMaps.nameToUUID, params, startTime, endTime);
-            List<ResultSet> resultSum =
-                queryRunner(
-                    metricSum, cc.session, tserverMaps.nameToUUID, params, startTime, endTime);
-            NavigableMap<Long, Double> metricsCount =
-                calculateRate(resultCount, Function.Average, resultCount.size());
-            NavigableMap<Long, Double> metricsSum =
-                calculateRate(resultSum, Function.Average, resultSum.size());
-            TreeMap<Long, Double> metricsVals = metricDivide(metricsSum, metricsCount);
-            insertMetrics(metricResults, metricsVals, method);
-          }
-          break;
-        case "disk_usage":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return null;
-          }
-          List<ResultSet> totalDiskRaw =
-              queryRunner(
-                  TOTAL_DISK_STRING,
-                  cc.session,
-                  tserverMaps.nameToUUID,
-                  params,
-                  startTime,
-                  endTime);
-          List<ResultSet> freeDiskRaw =
-              queryRunner(
-                  FREE_DISK_STRING, cc.session, tserverMaps.nameToUUID, params, startTime, endTime);
-          NavigableMap<Long, Double> totalDiskMetrics = convertToGb(totalDiskRaw);
-          NavigableMap<Long, Double> freeDiskMetrics = convertToGb(freeDiskRaw);
-          insertMetrics(metricResults, totalDiskMetrics, "size");
-          insertMetrics(metricResults, freeDiskMetrics, "free");
-          break;
-        case "cpu_usage":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return null;
-          }
-          List<ResultSet> userCpuRaw =
-              queryRunner(
-                  CPU_USAGE_USER_STRING,
-                  cc.session,
-                  tserverMaps.nameToUUID,
-                  params,
-                  startTime,
-                  endTime);
-          List<ResultSet> systemCpuRaw =
-              queryRunner(
-                  CPU_USAGE_SYSTEM_STRING,
-                  cc.session,
-                  tserverMaps.nameToUUID,
-                  params,
-                  startTime,
-                  endTime);
-          NavigableMap<Long, Double> userCpuMetrics = divideByConstant(userCpuRaw, 0.01);
-          NavigableMap<Long, Double> systemCpuMetrics = divideByConstant(systemCpuRaw, 0.01);
-          insertMetrics(metricResults, userCpuMetrics, "user");
-          insertMetrics(metricResults, systemCpuMetrics, "system");
-          break;
-        case "node_up":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return null;
-          }
-          List<ResultSet> results =
-              queryRunner(
-                  "node_up", cc.session, tserverMaps.nameToUUID, params, startTime, endTime);
-          Map<String, List<String>> nodeUpMetrics = new HashMap<>();
-          for (ResultSet rs : results) {
-            for (Row row : rs) {
-              String nodeIP = tserverMaps.uuidToIP.get(row.getString("node"));
-
-              if (null != nodeIP) {
-                long timestampSec = row.getTimestamp("ts").getTime() / 1000;
-                double val = getValue(row);
-                String valStr = String.format(DATA_ENTRY_FORMAT, timestampSec, val);
-
-                nodeUpMetrics.putIfAbsent(nodeIP, new ArrayList<>());
-                nodeUpMetrics.get(nodeIP).add(valStr);
+      Collection<String> tserverUUIDs = getTserverUUIDs(tserverMaps.nameToUUID, params);
+      Map<String, MetricBuckets> buckets = new HashMap<>();
+
+      try (CassandraSessionPool.PooledSession pooledSession =
+          sessionPool.getSession(universe.universeUUID)) {
+        if (pooledSession == null) {
+          return null;
+        }
+        Session session = pooledSession.getSession();
+        switch (queryKey) {
+          case "total_rpcs_per_sec":
+            for (String method : serviceMethods) {
+              buckets.put(
+                  String.format(COUNT_METRIC_STRING, method),
+                  MetricBuckets.counter(startTime, endTime, stepSec));
+            }
+            scanMetrics(session, buckets, tserverUUIDs, startTime, endTime);
+            for (String method : serviceMethods) {
+              MetricBuckets countBuckets = buckets.get(String.format(COUNT_METRIC_STRING, method));
+              insertMetrics(metricResults, countBuckets, countBuckets.sum(), method);
+            }
+            break;
+          case "tserver_ops_latency":
+            for (String method : serviceMethods) {
+              buckets.put(
+                  String.format(COUNT_METRIC_STRING, method),
+                  MetricBuckets.counter(startTime, endTime, stepSec));
+              buckets.put(
+                  String.format(SUM_METRIC_STRING, method),
+                  MetricBuckets.counter(startTime, endTime, stepSec));
+            }
+            scanMetrics(session, buckets, tserverUUIDs, startTime, endTime);
+            for (String method : serviceMethods) {
+              MetricBuckets countBuckets = buckets.get(String.format(COUNT_METRIC_STRING, method));
+              MetricBuckets sumBuckets = buckets.get(String.format(SUM_METRIC_STRING, method));
+              // Total time spent in the RPCs divided by the number of RPCs, across the tservers.
+              double[] latencies = MetricBuckets.divide(sumBuckets.sum(), countBuckets.sum());
+              insertMetrics(metricResults, countBuckets, latencies, method);
+            }
+            break;
+          case "disk_usage":
+            MetricBuckets totalDisk = MetricBuckets.gauge(startTime, endTime, stepSec, BYTES_IN_GB);
+            MetricBuckets freeDisk = MetricBuckets.gauge(startTime, endTime, stepSec, BYTES_IN_GB);
+            buckets.put(TOTAL_DISK_STRING, totalDisk);
+            buckets.put(FREE_DISK_STRING, freeDisk);
+            scanMetrics(session, buckets, tserverUUIDs, startTime, endTime);
+            insertMetrics(metricResults, totalDisk, totalDisk.sum(), "size");
+            insertMetrics(metricResults, freeDisk, freeDisk.sum(), "free");
+            break;
+          case "cpu_usage":
+            MetricBuckets userCpu = MetricBuckets.gauge(startTime, endTime, stepSec, 0.01);
+            MetricBuckets systemCpu = MetricBuckets.gauge(startTime, endTime, stepSec, 0.01);
+            buckets.put(CPU_USAGE_USER_STRING, userCpu);
+            buckets.put(CPU_USAGE_SYSTEM_STRING, systemCpu);
+            scanMetrics(session, buckets, tserverUUIDs, startTime, endTime);
+            insertMetrics(metricResults, userCpu, userCpu.average(), "user");
+            insertMetrics(metricResults, systemCpu, systemCpu.average(), "system");
+            break;
+          case "node_up":
+            Map<String, List<String>> nodeUpMetrics = new HashMap<>();
+            if (!tserverUUIDs.isEmpty()) {
+              String queryString =
+                  String.format(
+                      SCAN_FORMAT,
+                      METRICS_TABLE,
+                      toInList(Collections.singletonList("node_up")),
+                      toInList(tserverUUIDs),
+                      TimeUnit.SECONDS.toMillis(startTime),
+                      TimeUnit.SECONDS.toMillis(endTime));
+              for (Row row : session.execute(queryString)) {
+                String nodeIP = tserverMaps.uuidToIP.get(row.getString("node"));
+
+                if (null != nodeIP) {
+                  long timestampSec = row.getTimestamp("ts").getTime() / 1000;
+                  double val = getValue(row);
+                  String valStr = String.format(DATA_ENTRY_FORMAT, timestampSec, val);
+
+                  nodeUpMetrics.putIfAbsent(nodeIP, new ArrayList<>());
+                  nodeUpMetrics.get(nodeIP).add(valStr);
+                }
               }
             }
-          }
-
-          for (Entry<String, List<String>> nodeUpMetric : nodeUpMetrics.entrySet()) {
-            metricResults.add(
-                String.format(
-                    NODE_METRIC_FORMAT,
-                    nodeUpMetric.getKey(),
-                    universe.getUniverseDetails().communicationPorts.masterHttpPort,
-                    nodeUpMetric.getValue()));
-            metricResults.add(
-                String.format(
-                    NODE_METRIC_FORMAT,
-                    nodeUpMetric.getKey(),
-                    universe.getUniverseDetails().communicationPorts.tserverHttpPort,
-                    nodeUpMetric.getValue()));
-            // Note that we are passing a List<String> to the %s parameter and expecting
-            // it to be serialized as [ s1, s2 ], which also matches the json array format
-          }
-          break;
-        default:
-          LOG.warn("Query: " + queryKey + " not supported.");
-      }
-      if (cc != null) {
-        if (cc.session != null) cc.session.close();
-        if (cc.cluster != null) cc.cluster.close();
+
+            for (Entry<String, List<String>> nodeUpMetric : nodeUpMetrics.entrySet()) {
+              metricResults.add(
+                  String.format(
+                      NODE_METRIC_FORMAT,
+                      nodeUpMetric.getKey(),
+                      universe.getUniverseDetails().communicationPorts.masterHttpPort,
+                      nodeUpMetric.getValue()));
+              metricResults.add(
+                  String.format(
+                      NODE_METRIC_FORMAT,
+                      nodeUpMetric.getKey(),
+                      universe.getUniverseDetails().communicationPorts.tserverHttpPort,
+                      nodeUpMetric.getValue()));
+              // Note that we are passing a List<String> to the %s parameter and expecting
+              // it to be serialized as [ s1, s2 ], which also matches the json array format
+            }
+            break;
+          default:
+            LOG.warn("Query: " + queryKey + " not supported.");
+        }
       }
       if (!metricResults.isEmpty()) {
         String returnJson = String.format(RESPONSE_FORMAT, metricResults);
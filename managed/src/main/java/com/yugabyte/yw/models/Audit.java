@@ -3,7 +3,9 @@
 package com.yugabyte.yw.models;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.AbstractIterator;
 import com.yugabyte.yw.common.YWServiceException;
+import io.ebean.ExpressionList;
 import io.ebean.Finder;
 import io.ebean.Model;
 import io.ebean.annotation.CreatedTimestamp;
@@ -17,10 +19,13 @@ import play.data.validation.Constraints;
 import play.mvc.Http;
 
 import javax.persistence.*;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static io.swagger.annotations.ApiModelProperty.AccessMode.*;
 import static play.mvc.Http.Status.BAD_REQUEST;
@@ -31,6 +36,9 @@ public class Audit extends Model {
 
   public static final Logger LOG = LoggerFactory.getLogger(Audit.class);
 
+  // Entries read at a time when iterating over all of them.
+  private static final int ITERATION_PAGE_SIZE = 1000;
+
   // An auto incrementing, user-friendly id for the audit entry.
   @ApiModelProperty(value = "Audit uuid", accessMode = READ_ONLY)
   @Id
@@ -144,8 +152,16 @@ public class Audit extends Model {
     return entry;
   }
 
-  public static List<Audit> getAll(UUID customerUUID) {
-    return find.query().where().eq("customer_uuid", customerUUID).findList();
+  /**
+   * Returns up to limit entries of the customer, newest first, starting after the beforeId entry
+   * if set. Paging by id walks the (customer_uuid, id) index.
+   */
+  public static List<Audit> getCustomerEntries(UUID customerUUID, Long beforeId, int limit) {
+    ExpressionList<Audit> query = find.query().where().eq("customer_uuid", customerUUID);
+    if (beforeId != null) {
+      query.lt("id", beforeId);
+    }
+    return query.orderBy().desc("id").setMaxRows(limit).findList();
   }
 
   public static Audit getFromTaskUUID(UUID taskUUID) {
@@ -167,7 +183,63 @@ public class Audit extends Model {
     return find.query().where().eq("user_uuid", userUUID).findList();
   }
 
+  /**
+   * Returns up to limit entries of the user, newest first, starting after the beforeId entry if
+   * set. The ids are sequential, so paging by id walks the (user_uuid, id) index.
+   */
+  public static List<Audit> getUserEntries(UUID userUUID, Long beforeId, int limit) {
+    ExpressionList<Audit> query = find.query().where().eq("user_uuid", userUUID);
+    if (beforeId != null) {
+      query.lt("id", beforeId);
+    }
+    return query.orderBy().desc("id").setMaxRows(limit).findList();
+  }
+
+  /**
+   * Iterates over all the entries of the user, newest first. The entries are read a page at a
+   * time, so no database connection is held between the pages.
+   */
+  public static Iterator<Audit> iterateUserEntries(UUID userUUID) {
+    return iterateEntries(beforeId -> getUserEntries(userUUID, beforeId, ITERATION_PAGE_SIZE));
+  }
+
+  /** Passes all the entries to the consumer, newest first, reading them a page at a time. */
   public static void forEachEntry(Consumer<Audit> consumer) {
-    find.query().findEach(consumer);
+    iterateEntries(
+            beforeId -> {
+              ExpressionList<Audit> query = find.query().where();
+              if (beforeId != null) {
+                query.lt("id", beforeId);
+              }
+              return query.orderBy().desc("id").setMaxRows(ITERATION_PAGE_SIZE).findList();
+            })
+        .forEachRemaining(consumer);
+  }
+
+  // Iterates over the pages returned for the id of the last entry of the previous page.
+  private static Iterator<Audit> iterateEntries(Function<Long, List<Audit>> nextPage) {
+    return new AbstractIterator<Audit>() {
+      private Iterator<Audit> page = Collections.emptyIterator();
+      private Long lastId = null;
+      private boolean lastPage = false;
+
+      @Override
+      protected Audit computeNext() {
+        if (!page.hasNext()) {
+          if (lastPage) {
+            return endOfData();
+          }
+          List<Audit> entries = nextPage.apply(lastId);
+          lastPage = entries.size() < ITERATION_PAGE_SIZE;
+          if (entries.isEmpty()) {
+            return endOfData();
+          }
+          page = entries.iterator();
+        }
+        Audit entry = page.next();
+        lastId = entry.getAuditID();
+        return entry;
+      }
+    };
   }
 }
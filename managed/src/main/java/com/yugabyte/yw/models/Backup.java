@@ -259,7 +259,7 @@ public class Backup extends Model {
     return ret;
   }
 
-  public void transitionState(BackupState newState) {
+  public synchronized void transitionState(BackupState newState) {
     // We only allow state transition from InProgress to a valid state
     // Or completed to deleted state.
     if ((this.state == BackupState.InProgress && this.state != newState)
@@ -9,10 +9,12 @@ import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskDetails;
 import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType;
 import com.yugabyte.yw.common.YWServiceException;
 import com.yugabyte.yw.models.helpers.TaskType;
+import io.ebean.Ebean;
 import io.ebean.FetchGroup;
 import io.ebean.Finder;
 import io.ebean.Model;
 import io.ebean.Query;
+import io.ebean.Transaction;
 import io.ebean.annotation.CreatedTimestamp;
 import io.ebean.annotation.DbJson;
 import io.ebean.annotation.EnumValue;
@@ -35,6 +37,9 @@ public class TaskInfo extends Model {
   private static final FetchGroup<TaskInfo> GET_SUBTASKS_FG =
       FetchGroup.of(TaskInfo.class, "uuid, subTaskGroupType, taskState");
 
+  // Number of statements sent to the DB in one JDBC batch by saveAll.
+  private static final int SAVE_BATCH_SIZE = 100;
+
   /** These are the various states of the task and taskgroup. */
   public enum State {
     @EnumValue("Created")
@@ -213,6 +218,40 @@ public class TaskInfo extends Model {
     return taskInfo;
   }
 
+  /**
+   * Marks the tasks as alive by setting their update time to now, in a single statement.
+   *
+   * @param taskUUIDs UUIDs of the running tasks.
+   */
+  public static void updateHeartbeats(Collection<UUID> taskUUIDs) {
+    if (taskUUIDs.isEmpty()) {
+      return;
+    }
+    Ebean.createSqlUpdate("update task_info set update_time = :updateTime where uuid in (:uuids)")
+        .setParameter("updateTime", new Date())
+        .setParameter("uuids", taskUUIDs)
+        .execute();
+  }
+
+  /**
+   * Inserts the new and updates the changed task infos in a single transaction, sending the
+   * statements to the DB in JDBC batches rather than one round trip per row.
+   */
+  public static void saveAll(Collection<TaskInfo> taskInfos) {
+    if (taskInfos.isEmpty()) {
+      return;
+    }
+    Transaction transaction = Ebean.beginTransaction();
+    try {
+      transaction.setBatchMode(true);
+      transaction.setBatchSize(SAVE_BATCH_SIZE);
+      Ebean.saveAll(taskInfos);
+      transaction.commit();
+    } finally {
+      transaction.end();
+    }
+  }
+
   // Returns  partial object
   public List<TaskInfo> getSubTasks() {
     Query<TaskInfo> subTaskQuery =
@@ -267,7 +306,13 @@ public class TaskInfo extends Model {
       if (subTask == null) {
         subTask = createSubTask(subTaskGroupType);
         taskDetails.add(subTask);
-      } else if (subTask.getState().equals(State.Failure.name())
+      }
+      // The progress of a backup counts its tables, not the backups of their encryption keys.
+      if (subTaskGroupType != SubTaskGroupType.CreatingTableBackup
+          || taskInfo.getTaskType() == TaskType.BackupTable) {
+        subTask.addTask(taskInfo.getTaskState());
+      }
+      if (subTask.getState().equals(State.Failure.name())
           || subTask.getState().equals(State.Running.name())) {
         continue;
       }
@@ -8,6 +8,7 @@ import com.google.common.collect.Iterables;
 import com.yugabyte.yw.common.YWServiceException;
 import com.yugabyte.yw.models.paging.PagedQuery;
 import com.yugabyte.yw.models.paging.PagedResponse;
+import io.ebean.Ebean;
 import io.ebean.ExpressionList;
 import io.ebean.Junction;
 import io.ebean.PagedList;
@@ -24,6 +25,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static play.mvc.Http.Status.BAD_REQUEST;
@@ -38,6 +40,8 @@ public class CommonUtils {
 
   public static final int DB_MAX_IN_CLAUSE_ITEMS = 1000;
   public static final int DB_IN_CLAUSE_TO_WARN = 50000;
+  private static final String UUID_FIELD = "uuid";
+  private static final String CUSTOMER_UUID_FIELD = "customerUUID";
 
   /**
    * Checks whether the field name represents a field with a sensitive data or not.
@@ -305,13 +309,7 @@ public class CommonUtils {
     query.setFirstRow(pagedQuery.getOffset());
     query.setMaxRows(pagedQuery.getLimit() + 1);
     PagedList<E> pagedList = query.findPagedList();
-    R response;
-    try {
-      response = responseClass.newInstance();
-    } catch (Exception e) {
-      throw new IllegalStateException(
-          "Failed to create " + responseClass.getSimpleName() + " instance", e);
-    }
+    R response = createPagedResponse(responseClass);
     response.setEntities(pagedList.getList().subList(0, pagedQuery.getLimit()));
     response.setHasPrev(pagedList.hasPrev());
     response.setHasNext(pagedList.getList().size() > pagedQuery.getLimit());
@@ -321,6 +319,119 @@ public class CommonUtils {
     return response;
   }
 
+  /**
+   * Same as above for entities with a uuid id, sorted by (sort field, uuid) so that the order is
+   * stable. If the query has a cursor, the page starts right after the entity the cursor points
+   * to, instead of scanning and skipping offset rows. The rows after the cursor are selected by a
+   * row value comparison, which an index on (sort field, uuid) can serve as a range scan. The
+   * response has the cursor of the next page. Null sort values go after all the others, as in the
+   * default order of postgres indexes.
+   *
+   * @param customerUUID : Customer the entities belong to, the cursor must point to one of them.
+   */
+  public static <E, R extends PagedResponse<E>> R performPagedQuery(
+      Query<E> query,
+      PagedQuery<?, ?> pagedQuery,
+      Class<R> responseClass,
+      Class<E> beanType,
+      Function<E, UUID> uuidGetter,
+      UUID customerUUID) {
+    String sortField = pagedQuery.getSortBy().getSortField();
+    boolean descending = pagedQuery.getDirection() == PagedQuery.SortDirection.DESC;
+    R response = createPagedResponse(responseClass);
+    if (pagedQuery.isNeedTotalCount()) {
+      response.setTotalCount(query.findCount());
+    }
+    if (pagedQuery.getCursor() != null) {
+      UUID cursorUUID = parseCursor(pagedQuery.getCursor());
+      // The value may be null, which is different from no cursor entity.
+      List<Object> cursorValues =
+          Ebean.find(beanType)
+              .select(sortField)
+              .where()
+              .idEq(cursorUUID)
+              .eq(CUSTOMER_UUID_FIELD, customerUUID)
+              .findSingleAttributeList();
+      if (cursorValues.isEmpty()) {
+        throw new YWServiceException(BAD_REQUEST, "Invalid cursor " + pagedQuery.getCursor());
+      }
+      appendSeekClause(
+          query.where(), sortField, cursorValues.get(0), UUID_FIELD, cursorUUID, descending);
+    } else {
+      query.setFirstRow(pagedQuery.getOffset());
+    }
+    if (descending) {
+      query.orderBy(sortField + " desc nulls first, " + UUID_FIELD + " desc");
+    } else {
+      query.orderBy(sortField + " asc nulls last, " + UUID_FIELD + " asc");
+    }
+    query.setMaxRows(pagedQuery.getLimit() + 1);
+    List<E> entities = query.findList();
+    boolean hasNext = entities.size() > pagedQuery.getLimit();
+    if (hasNext) {
+      entities = entities.subList(0, pagedQuery.getLimit());
+      response.setNextCursor(uuidGetter.apply(entities.get(entities.size() - 1)).toString());
+    }
+    response.setEntities(entities);
+    response.setHasPrev(pagedQuery.getCursor() != null || pagedQuery.getOffset() > 0);
+    response.setHasNext(hasNext);
+    return response;
+  }
+
+  /**
+   * Restricts the query to the rows after (sortValue, idValue) in the (sortField, idField) order.
+   * A non null sort value is compared as a row value, so that a composite index on these columns
+   * is range scanned from the cursor. Null sort values are after all the others.
+   */
+  public static <T> ExpressionList<T> appendSeekClause(
+      ExpressionList<T> query,
+      String sortField,
+      Object sortValue,
+      String idField,
+      Object idValue,
+      boolean descending) {
+    if (sortValue == null) {
+      if (descending) {
+        query
+            .or()
+            .isNotNull(sortField)
+            .and()
+            .isNull(sortField)
+            .lt(idField, idValue)
+            .endAnd()
+            .endOr();
+      } else {
+        query.isNull(sortField).gt(idField, idValue);
+      }
+      return query;
+    }
+    String rowValue = "(" + sortField + ", " + idField + ")";
+    if (descending) {
+      // Null sort values come first, so none of them are after the cursor.
+      query.raw(rowValue + " < (?, ?)", sortValue, idValue);
+    } else {
+      query.or().raw(rowValue + " > (?, ?)", sortValue, idValue).isNull(sortField).endOr();
+    }
+    return query;
+  }
+
+  private static UUID parseCursor(String cursor) {
+    try {
+      return UUID.fromString(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new YWServiceException(BAD_REQUEST, "Invalid cursor " + cursor);
+    }
+  }
+
+  private static <R extends PagedResponse<?>> R createPagedResponse(Class<R> responseClass) {
+    try {
+      return responseClass.newInstance();
+    } catch (Exception e) {
+      throw new IllegalStateException(
+          "Failed to create " + responseClass.getSimpleName() + " instance", e);
+    }
+  }
+
   public static Date nowWithoutMillis() {
     return Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
   }
@@ -204,7 +204,9 @@ public enum TaskType {
 
   AsyncReplicationPlatformSync("subtasks.AsyncReplicationPlatformSync"),
 
-  ResetUniverseVersion("subtasks.ResetUniverseVersion");
+  ResetUniverseVersion("subtasks.ResetUniverseVersion"),
+
+  WaitForTabletsHealthy("subtasks.WaitForTabletsHealthy");
 
   private String relativeClassPath;
 
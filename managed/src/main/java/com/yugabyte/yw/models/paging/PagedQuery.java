@@ -29,6 +29,9 @@ public abstract class PagedQuery<F, S extends PagedQuery.SortByIF> {
 
   @Constraints.Required() boolean needTotalCount;
 
+  // Next page cursor of the previous response, used instead of the offset if set.
+  String cursor;
+
   public <NF, T extends PagedQuery<NF, S>> T copyWithFilter(NF newFilter, Class<T> queryClass) {
     T newQuery = null;
     try {
@@ -42,6 +45,7 @@ public abstract class PagedQuery<F, S extends PagedQuery.SortByIF> {
     newQuery.setOffset(offset);
     newQuery.setLimit(limit);
     newQuery.setNeedTotalCount(needTotalCount);
+    newQuery.setCursor(cursor);
     return newQuery;
   }
 }
@@ -12,4 +12,5 @@ public class PagedResponse<E> {
   boolean hasNext;
   boolean hasPrev;
   Integer totalCount;
+  String nextCursor;
 }
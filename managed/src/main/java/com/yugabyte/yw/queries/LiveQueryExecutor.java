@@ -16,6 +16,7 @@ import play.Configuration;
 import play.api.Play;
 import play.libs.Json;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 
@@ -28,12 +29,15 @@ public class LiveQueryExecutor implements Callable<JsonNode> {
   private String nodeName;
   private int port;
   private QueryHelper.QueryApi apiType;
+  private Duration timeout;
 
-  public LiveQueryExecutor(String nodeName, String hostName, int port, QueryHelper.QueryApi api) {
+  public LiveQueryExecutor(
+      String nodeName, String hostName, int port, QueryHelper.QueryApi api, Duration timeout) {
     this.nodeName = nodeName;
     this.hostName = hostName;
     this.port = port;
     this.apiType = api;
+    this.timeout = timeout;
     this.apiHelper = Play.current().injector().instanceOf(ApiHelper.class);
   }
 
@@ -41,7 +45,7 @@ public class LiveQueryExecutor implements Callable<JsonNode> {
   public JsonNode call() throws Exception {
     String url = String.format("http://%s:%d/rpcz", hostName, port);
     try {
-      JsonNode response = apiHelper.getRequest(url);
+      JsonNode response = apiHelper.getRequest(url, timeout);
       if (apiType == QueryHelper.QueryApi.YSQL) {
         return processYSQLRowData(response);
       } else {
@@ -1,39 +1,47 @@
 // Copyright (c) YugaByte, Inc.
 package com.yugabyte.yw.queries;
 
+import akka.Done;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.yugabyte.yw.common.YsqlQueryExecutor;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
 import com.yugabyte.yw.forms.RunQueryFormData;
 import com.yugabyte.yw.models.Universe;
 import com.yugabyte.yw.models.helpers.NodeDetails;
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import play.Configuration;
+import play.inject.ApplicationLifecycle;
 import play.libs.Json;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Arrays;
-import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class QueryHelper {
   public static final Logger LOG = LoggerFactory.getLogger(QueryHelper.class);
-  public static final Integer QUERY_EXECUTOR_THREAD_POOL = 5;
+  // Threads shared by all the live and slow query requests.
+  public static final Integer QUERY_EXECUTOR_THREAD_POOL = 32;
+  static final String NODE_TIMEOUT_PARAM = "yb.query_stats.node_timeout_ms";
 
   private static final String SLOW_QUERY_STATS_SQL =
       "SELECT a.rolname, t.datname, t.queryid, "
@@ -48,7 +56,35 @@ public class QueryHelper {
     YCQL
   }
 
-  @Inject YsqlQueryExecutor ysqlQueryExecutor;
+  private final YsqlQueryExecutor ysqlQueryExecutor;
+
+  private final RuntimeConfigFactory runtimeConfigFactory;
+
+  private final ExecutorService threadPool =
+      Executors.newFixedThreadPool(
+          QUERY_EXECUTOR_THREAD_POOL,
+          new ThreadFactoryBuilder().setNameFormat("QueryHelper-%d").setDaemon(true).build());
+
+  @Inject
+  public QueryHelper(
+      YsqlQueryExecutor ysqlQueryExecutor,
+      RuntimeConfigFactory runtimeConfigFactory,
+      ApplicationLifecycle lifecycle) {
+    this.ysqlQueryExecutor = ysqlQueryExecutor;
+    this.runtimeConfigFactory = runtimeConfigFactory;
+
+    // Add shutdown hook to stop the queries still running.
+    if (lifecycle != null) {
+      lifecycle.addStopHook(this::shutdownThreadPool);
+    }
+  }
+
+  private CompletableFuture<Done> shutdownThreadPool() {
+    LOG.info("Shutting down query thread pool");
+    threadPool.shutdownNow();
+
+    return CompletableFuture.completedFuture(Done.done());
+  }
 
   public JsonNode liveQueries(Universe universe) {
     return query(universe, false);
@@ -66,8 +102,10 @@ public class QueryHelper {
   }
 
   public JsonNode query(Universe universe, boolean fetchSlowQueries) {
-    ExecutorService threadPool = Executors.newFixedThreadPool(QUERY_EXECUTOR_THREAD_POOL);
-    Set<Future<JsonNode>> futures = new HashSet<Future<JsonNode>>();
+    long nodeTimeoutMs = runtimeConfigFactory.globalRuntimeConf().getLong(NODE_TIMEOUT_PARAM);
+    CompletionService<JsonNode> completionService = new ExecutorCompletionService<>(threadPool);
+    // Queries, which are still running, keyed by their futures.
+    Map<Future<JsonNode>, NodeQuery> pending = new HashMap<>();
     ObjectNode responseJson = Json.newObject();
     ObjectNode ysqlJson = Json.newObject();
     ysqlJson.put("errorCount", 0);
@@ -75,6 +113,10 @@ public class QueryHelper {
     ObjectNode ycqlJson = Json.newObject();
     ycqlJson.put("errorCount", 0);
     ycqlJson.putArray("queries");
+    // JDBC timeouts are in whole seconds, round up so that short timeouts do not become 0, which
+    // means no timeout.
+    int nodeTimeoutSecs = (int) Math.max(1, (nodeTimeoutMs + 999) / 1000);
+    Duration nodeTimeout = Duration.ofMillis(nodeTimeoutMs);
     for (NodeDetails node : universe.getNodes()) {
       if (node.isActive() && node.isTserver) {
         String ip =
@@ -85,128 +127,209 @@ public class QueryHelper {
 
         if (fetchSlowQueries) {
           callable =
-              new SlowQueryExecutor(ip, node.ysqlServerRpcPort, universe, SLOW_QUERY_STATS_SQL);
-          Future<JsonNode> future = threadPool.submit(callable);
-          futures.add(future);
+              new SlowQueryExecutor(
+                  ip,
+                  node.ysqlServerRpcPort,
+                  universe,
+                  SLOW_QUERY_STATS_SQL,
+                  nodeTimeoutSecs);
+          submit(completionService, pending, callable, new NodeQuery(node.nodeName, ysqlJson));
         } else {
           callable =
-              new LiveQueryExecutor(node.nodeName, ip, node.ysqlServerHttpPort, QueryApi.YSQL);
-
-          Future<JsonNode> future = threadPool.submit(callable);
-          futures.add(future);
+              new LiveQueryExecutor(
+                  node.nodeName, ip, node.ysqlServerHttpPort, QueryApi.YSQL, nodeTimeout);
+          submit(completionService, pending, callable, new NodeQuery(node.nodeName, ysqlJson));
 
           callable =
-              new LiveQueryExecutor(node.nodeName, ip, node.yqlServerHttpPort, QueryApi.YCQL);
-          future = threadPool.submit(callable);
-          futures.add(future);
+              new LiveQueryExecutor(
+                  node.nodeName, ip, node.yqlServerHttpPort, QueryApi.YCQL, nodeTimeout);
+          submit(completionService, pending, callable, new NodeQuery(node.nodeName, ycqlJson));
         }
       }
     }
 
+    // The queries share the thread pool with other requests, so each node gets its timeout from
+    // the time its query starts running. Responses are merged in the order they arrive, a slow
+    // node only delays the response up to its own deadline.
+    Map<String, JsonNode> queryMap = new HashMap<>();
     try {
-      Map<String, JsonNode> queryMap = new HashMap<>();
-      for (Future<JsonNode> future : futures) {
-        JsonNode response = future.get();
+      while (!pending.isEmpty()) {
+        long waitMs = leaveOutExpired(pending, nodeTimeoutMs);
+        if (pending.isEmpty()) {
+          break;
+        }
+        Future<JsonNode> future = completionService.poll(waitMs, TimeUnit.MILLISECONDS);
+        if (future == null) {
+          continue;
+        }
+        NodeQuery nodeQuery = pending.remove(future);
+        if (nodeQuery == null) {
+          // Cancelled after its deadline, already counted as an error.
+          continue;
+        }
+        JsonNode response;
+        try {
+          response = future.get();
+        } catch (ExecutionException e) {
+          LOG.error("Error fetching queries of node {}", nodeQuery.nodeName, e.getCause());
+          incrementErrorCount(nodeQuery.resultJson);
+          continue;
+        }
         if (response.has("error")) {
-          String type = response.get("type").asText();
-          if (type == "ysql") {
-            ysqlJson.put("errorCount", ysqlJson.get("errorCount").asInt() + 1);
-          } else if (type == "ycql") {
-            ycqlJson.put("errorCount", ycqlJson.get("errorCount").asInt() + 1);
-          }
-        } else {
-          if (fetchSlowQueries) {
-            JsonNode ysqlResponse = response.get("result");
-            for (JsonNode queryObject : ysqlResponse) {
-              String queryStatement = queryObject.get("query").asText();
-              if (!EXCLUDED_QUERY_STATEMENTS.contains(queryStatement)) {
-                if (queryMap.containsKey(queryStatement)) {
-                  // Calculate new query stats
-                  ObjectNode previousQueryObj = (ObjectNode) queryMap.get(queryStatement);
-                  // Defining values to reuse
-                  double X_a = previousQueryObj.get("mean_time").asDouble();
-                  double X_b = queryObject.get("mean_time").asDouble();
-                  int n_a = previousQueryObj.get("calls").asInt();
-                  int n_b = queryObject.get("calls").asInt();
-                  double S_a = previousQueryObj.get("stddev_time").asDouble();
-                  double S_b = queryObject.get("stddev_time").asDouble();
-
-                  double totalTime =
-                      previousQueryObj.get("total_time").asDouble()
-                          + queryObject.get("total_time").asDouble();
-                  int totalCalls = n_a + n_b;
-                  int rows = previousQueryObj.get("rows").asInt() + queryObject.get("rows").asInt();
-                  double minTime =
-                      Math.min(
-                          previousQueryObj.get("min_time").asDouble(),
-                          queryObject.get("min_time").asDouble());
-                  double maxTime =
-                      Math.max(
-                          previousQueryObj.get("max_time").asDouble(),
-                          queryObject.get("max_time").asDouble());
-                  int tmpTables =
-                      previousQueryObj.get("local_blks_written").asInt()
-                          + queryObject.get("local_blks_written").asInt();
-                  /**
-                   * Formula to calculate std dev of two samples: Let mean, std dev, and size of
-                   * sample A be X_a, S_a, n_a respectively; and mean, std dev, and size of sample B
-                   * be X_b, S_b, n_b respectively. Then mean of combined sample X is given by n_a
-                   * X_a + n_b X_b X = ----------------- n_a + n_b
-                   *
-                   * <p>The std dev of combined sample S is n_a ( S_a^2 + (X_a - X)^2) + n_b(S_b^2 +
-                   * (X_b - X)^2) S = ----------------------------------------------------- n_a +
-                   * n_b
-                   */
-                  double averageTime = (n_a * X_a + n_b * X_b) / totalCalls;
-                  double stdDevTime =
-                      (n_a * (Math.pow(S_a, 2) + Math.pow(X_a - averageTime, 2))
-                              + n_b * (Math.pow(S_b, 2) + Math.pow(X_b - averageTime, 2)))
-                          / totalCalls;
-                  previousQueryObj.put("total_time", totalTime);
-                  previousQueryObj.put("calls", totalCalls);
-                  previousQueryObj.put("rows", rows);
-                  previousQueryObj.put("min_time", minTime);
-                  previousQueryObj.put("max_time", maxTime);
-                  previousQueryObj.put("mean_time", averageTime);
-                  previousQueryObj.put("local_blks_written", tmpTables);
-                  previousQueryObj.put("stddev_time", stdDevTime);
-                } else {
-                  queryMap.put(queryStatement, queryObject);
-                }
-              }
-            }
-            ArrayNode queryArr = Json.newArray();
-            ysqlJson.set("queries", queryArr.addAll(queryMap.values()));
-          } else {
-            if (response.has("ysql")) {
-              ArrayNode arr = (ArrayNode) ysqlJson.get("queries");
-              concatArrayNodes(arr, response.get("ysql"));
-            } else if (response.has("ycql")) {
-              ArrayNode arr = (ArrayNode) ycqlJson.get("queries");
-              concatArrayNodes(arr, response.get("ycql"));
-            }
-          }
+          incrementErrorCount(nodeQuery.resultJson);
+        } else if (fetchSlowQueries) {
+          mergeSlowQueries(queryMap, response.get("result"));
+        } else if (response.has("ysql")) {
+          concatArrayNodes((ArrayNode) ysqlJson.get("queries"), response.get("ysql"));
+        } else if (response.has("ycql")) {
+          concatArrayNodes((ArrayNode) ycqlJson.get("queries"), response.get("ycql"));
         }
       }
     } catch (InterruptedException e) {
-      LOG.error("Error fetching live query data", e);
-    } catch (ExecutionException e) {
-      LOG.error("Error fetching live query data", e);
-      e.printStackTrace();
-    } finally {
-      threadPool.shutdown();
+      LOG.error("Interrupted while fetching query data", e);
+      Thread.currentThread().interrupt();
     }
 
+    // Nodes, which were not fetched, are left out and the result is marked as incomplete.
+    for (Map.Entry<Future<JsonNode>, NodeQuery> entry : pending.entrySet()) {
+      leaveOut(entry.getKey(), entry.getValue(), nodeTimeoutMs);
+    }
+
+    if (fetchSlowQueries) {
+      ((ArrayNode) ysqlJson.get("queries")).addAll(queryMap.values());
+    }
     responseJson.set("ysql", ysqlJson);
     responseJson.set("ycql", ycqlJson);
-
-    threadPool.shutdown();
     return responseJson;
   }
 
+  private static void submit(
+      CompletionService<JsonNode> completionService,
+      Map<Future<JsonNode>, NodeQuery> pending,
+      Callable<JsonNode> callable,
+      NodeQuery nodeQuery) {
+    Future<JsonNode> future =
+        completionService.submit(
+            () -> {
+              nodeQuery.startMs = System.currentTimeMillis();
+              return callable.call();
+            });
+    pending.put(future, nodeQuery);
+  }
+
+  /**
+   * Leaves out the queries, which have been running for longer than the node timeout.
+   *
+   * @return time to wait for the next response, up to the nearest deadline.
+   */
+  private long leaveOutExpired(Map<Future<JsonNode>, NodeQuery> pending, long nodeTimeoutMs) {
+    long nowMs = System.currentTimeMillis();
+    long waitMs = nodeTimeoutMs;
+    Iterator<Map.Entry<Future<JsonNode>, NodeQuery>> iter = pending.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Future<JsonNode>, NodeQuery> entry = iter.next();
+      long startMs = entry.getValue().startMs;
+      if (startMs == 0) {
+        // Still waiting for a thread, its deadline has not started.
+        continue;
+      }
+      long remainingMs = startMs + nodeTimeoutMs - nowMs;
+      if (remainingMs <= 0 && !entry.getKey().isDone()) {
+        leaveOut(entry.getKey(), entry.getValue(), nodeTimeoutMs);
+        iter.remove();
+      } else {
+        waitMs = Math.min(waitMs, Math.max(1, remainingMs));
+      }
+    }
+    return waitMs;
+  }
+
+  private void leaveOut(Future<JsonNode> future, NodeQuery nodeQuery, long nodeTimeoutMs) {
+    LOG.warn("Queries of node {} were not fetched in {} ms.", nodeQuery.nodeName, nodeTimeoutMs);
+    future.cancel(true);
+    incrementErrorCount(nodeQuery.resultJson);
+    nodeQuery.resultJson.put("incomplete", true);
+  }
+
+  private void incrementErrorCount(ObjectNode resultJson) {
+    resultJson.put("errorCount", resultJson.get("errorCount").asInt() + 1);
+  }
+
+  // Merges the pg_stat_statements rows of a node into the stats collected so far.
+  private void mergeSlowQueries(Map<String, JsonNode> queryMap, JsonNode ysqlResponse) {
+    for (JsonNode queryObject : ysqlResponse) {
+      String queryStatement = queryObject.get("query").asText();
+      if (EXCLUDED_QUERY_STATEMENTS.contains(queryStatement)) {
+        continue;
+      }
+      if (!queryMap.containsKey(queryStatement)) {
+        queryMap.put(queryStatement, queryObject);
+        continue;
+      }
+      // Calculate new query stats
+      ObjectNode previousQueryObj = (ObjectNode) queryMap.get(queryStatement);
+      // Defining values to reuse
+      double X_a = previousQueryObj.get("mean_time").asDouble();
+      double X_b = queryObject.get("mean_time").asDouble();
+      int n_a = previousQueryObj.get("calls").asInt();
+      int n_b = queryObject.get("calls").asInt();
+      double S_a = previousQueryObj.get("stddev_time").asDouble();
+      double S_b = queryObject.get("stddev_time").asDouble();
+
+      double totalTime =
+          previousQueryObj.get("total_time").asDouble() + queryObject.get("total_time").asDouble();
+      int totalCalls = n_a + n_b;
+      int rows = previousQueryObj.get("rows").asInt() + queryObject.get("rows").asInt();
+      double minTime =
+          Math.min(
+              previousQueryObj.get("min_time").asDouble(), queryObject.get("min_time").asDouble());
+      double maxTime =
+          Math.max(
+              previousQueryObj.get("max_time").asDouble(), queryObject.get("max_time").asDouble());
+      int tmpTables =
+          previousQueryObj.get("local_blks_written").asInt()
+              + queryObject.get("local_blks_written").asInt();
+      /**
+       * Formula to calculate std dev of two samples: Let mean, std dev, and size of sample A be
+       * X_a, S_a, n_a respectively; and mean, std dev, and size of sample B be X_b, S_b, n_b
+       * respectively. Then mean of combined sample X is given by n_a X_a + n_b X_b X =
+       * ----------------- n_a + n_b
+       *
+       * <p>The std dev of combined sample S is n_a ( S_a^2 + (X_a - X)^2) + n_b(S_b^2 + (X_b -
+       * X)^2) S = ----------------------------------------------------- n_a + n_b
+       */
+      double averageTime = (n_a * X_a + n_b * X_b) / totalCalls;
+      double stdDevTime =
+          (n_a * (Math.pow(S_a, 2) + Math.pow(X_a - averageTime, 2))
+                  + n_b * (Math.pow(S_b, 2) + Math.pow(X_b - averageTime, 2)))
+              / totalCalls;
+      previousQueryObj.put("total_time", totalTime);
+      previousQueryObj.put("calls", totalCalls);
+      previousQueryObj.put("rows", rows);
+      previousQueryObj.put("min_time", minTime);
+      previousQueryObj.put("max_time", maxTime);
+      previousQueryObj.put("mean_time", averageTime);
+      previousQueryObj.put("local_blks_written", tmpTables);
+      previousQueryObj.put("stddev_time", stdDevTime);
+    }
+  }
+
   private void concatArrayNodes(ArrayNode destination, JsonNode source) {
     for (JsonNode node : source) {
       destination.add(node);
     }
   }
+
+  private static class NodeQuery {
+    final String nodeName;
+    // Result of the API the node is queried for.
+    final ObjectNode resultJson;
+    // Time the query started running, 0 while it waits for a thread of the pool.
+    volatile long startMs = 0;
+
+    NodeQuery(String nodeName, ObjectNode resultJson) {
+      this.nodeName = nodeName;
+      this.resultJson = resultJson;
+    }
+  }
 }
@@ -39,15 +39,18 @@ public class SlowQueryExecutor implements Callable<JsonNode> {
   private int port;
   private String query;
   private Universe universe;
+  private int queryTimeoutSecs;
 
   private final String DEFAULT_DB_USER = "yugabyte";
   private final String DEFAULT_DB_PASSWORD = "yugabyte";
 
-  public SlowQueryExecutor(String hostName, int port, Universe universe, String query) {
+  public SlowQueryExecutor(
+      String hostName, int port, Universe universe, String query, int queryTimeoutSecs) {
     this.hostName = hostName;
     this.port = port;
     this.universe = universe;
     this.query = query;
+    this.queryTimeoutSecs = queryTimeoutSecs;
     this.apiHelper = Play.current().injector().instanceOf(ApiHelper.class);
   }
 
@@ -83,16 +86,25 @@ public class SlowQueryExecutor implements Callable<JsonNode> {
       connInfo.put("ssl", "true");
       connInfo.put("sslmode", "require");
     }
+    // Bound every step, so that an unresponsive node does not hold the thread after the request
+    // has given up on it. The connection is not pooled, pools of all the nodes of large universes
+    // would not fit in the shared YSQL connection pool.
+    String timeoutSecs = Integer.toString(queryTimeoutSecs);
+    connInfo.put("connectTimeout", timeoutSecs);
+    connInfo.put("loginTimeout", timeoutSecs);
+    connInfo.put("socketTimeout", timeoutSecs);
     try (Connection conn = DriverManager.getConnection(connectString, connInfo)) {
       if (conn == null) {
         response.put("error", "Unable to connect to DB");
       } else {
-        PreparedStatement p = conn.prepareStatement(query);
-        boolean hasResult = p.execute();
-        if (hasResult) {
-          ResultSet result = p.getResultSet();
-          List<Map<String, Object>> rows = resultSetToMap(result);
-          response.put("result", toJson(rows));
+        try (PreparedStatement p = conn.prepareStatement(query)) {
+          p.setQueryTimeout(queryTimeoutSecs);
+          boolean hasResult = p.execute();
+          if (hasResult) {
+            ResultSet result = p.getResultSet();
+            List<Map<String, Object>> rows = resultSetToMap(result);
+            response.put("result", toJson(rows));
+          }
         }
       }
     } catch (SQLException e) {
@@ -0,0 +1,8 @@
+--  Copyright (c) YugaByte, Inc.
+
+-- Keyset pagination of audit entries, alerts and customer tasks, newest first.
+CREATE INDEX IF NOT EXISTS audit_customer_uuid_id_idx ON audit (customer_uuid, id);
+CREATE INDEX IF NOT EXISTS audit_user_uuid_id_idx ON audit (user_uuid, id);
+CREATE INDEX IF NOT EXISTS alert_customer_uuid_create_time_idx ON alert (customer_uuid, create_time, uuid);
+CREATE INDEX IF NOT EXISTS customer_task_customer_uuid_create_time_idx ON customer_task (customer_uuid, create_time, id);
+CREATE INDEX IF NOT EXISTS customer_task_target_uuid_create_time_idx ON customer_task (target_uuid, create_time, id);
@@ -0,0 +1,212 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static play.mvc.Http.Status.SERVICE_UNAVAILABLE;
+
+import com.typesafe.config.Config;
+import com.yugabyte.yw.common.FakeDBApplication;
+import com.yugabyte.yw.common.YWServiceException;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
+import com.yugabyte.yw.forms.UniverseTaskParams;
+import com.yugabyte.yw.models.TaskInfo;
+import com.yugabyte.yw.models.helpers.TaskType;
+import io.ebean.Ebean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.Json;
+
+public class CommissionerTest extends FakeDBApplication {
+
+  private static final long WAIT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+  private Config mockConfig;
+
+  private Commissioner commissioner;
+
+  // Names of the tasks in the order they were started.
+  private final List<String> startedTasks = Collections.synchronizedList(new ArrayList<>());
+
+  private final Map<String, CountDownLatch> taskLatches = new ConcurrentHashMap<>();
+
+  @Before
+  public void setUp() {
+    mockConfig = mock(Config.class);
+    when(mockConfig.getInt(Commissioner.MAX_TASKS_PER_CUSTOMER_KEY)).thenReturn(2);
+    when(mockConfig.getInt(Commissioner.MAX_TASKS_PER_UNIVERSE_KEY)).thenReturn(1);
+    when(mockConfig.getInt(Commissioner.MAX_QUEUED_TASKS_KEY)).thenReturn(100);
+    RuntimeConfigFactory mockRuntimeConfigFactory = mock(RuntimeConfigFactory.class);
+    when(mockRuntimeConfigFactory.globalRuntimeConf()).thenReturn(mockConfig);
+    commissioner = new Commissioner(mockRuntimeConfigFactory);
+  }
+
+  @After
+  public void tearDown() {
+    taskLatches.values().forEach(CountDownLatch::countDown);
+    Commissioner.runningTasks.clear();
+  }
+
+  // A task that runs until it is finished by the test.
+  private TaskRunner blockingTask(String name) {
+    CountDownLatch latch = new CountDownLatch(1);
+    taskLatches.put(name, latch);
+    TaskRunner taskRunner = mock(TaskRunner.class);
+    doAnswer(
+            invocation -> {
+              startedTasks.add(name);
+              latch.await();
+              return null;
+            })
+        .when(taskRunner)
+        .run();
+    return taskRunner;
+  }
+
+  private void enqueue(String name, Long customerId, UUID universeUUID, boolean background) {
+    commissioner.enqueue(blockingTask(name), customerId, universeUUID, background, false);
+  }
+
+  private void finish(String name) {
+    taskLatches.get(name).countDown();
+  }
+
+  // Waits for the expected tasks to start, and checks that no other task started.
+  private void assertStarted(String... names) throws InterruptedException {
+    long deadlineMs = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+    while (startedTasks.size() < names.length && System.currentTimeMillis() < deadlineMs) {
+      Thread.sleep(10);
+    }
+    // Give tasks that must not start a chance to do so.
+    Thread.sleep(200);
+    assertEquals(Arrays.asList(names), new ArrayList<>(startedTasks));
+  }
+
+  @Test
+  public void testMaxTasksPerCustomer() throws InterruptedException {
+    long customerId = 1L;
+    enqueue("task1", customerId, UUID.randomUUID(), false);
+    enqueue("task2", customerId, UUID.randomUUID(), false);
+    enqueue("task3", customerId, UUID.randomUUID(), false);
+    // Other customers are not affected.
+    enqueue("task4", 2L, UUID.randomUUID(), false);
+    assertStarted("task1", "task2", "task4");
+    assertEquals(1, commissioner.getNumQueuedTasks());
+
+    finish("task1");
+    assertStarted("task1", "task2", "task4", "task3");
+    assertEquals(0, commissioner.getNumQueuedTasks());
+  }
+
+  @Test
+  public void testMaxTasksPerUniverse() throws InterruptedException {
+    UUID universeUUID = UUID.randomUUID();
+    enqueue("task1", 1L, universeUUID, false);
+    enqueue("task2", 1L, universeUUID, false);
+    // Other universes of the customer are not affected.
+    enqueue("task3", 1L, UUID.randomUUID(), false);
+    assertStarted("task1", "task3");
+
+    finish("task1");
+    assertStarted("task1", "task3", "task2");
+  }
+
+  @Test
+  public void testBackgroundTasksYield() throws InterruptedException {
+    UUID universeUUID = UUID.randomUUID();
+    enqueue("running", 1L, universeUUID, false);
+    enqueue("background", 1L, universeUUID, true);
+    enqueue("userFacing1", 1L, universeUUID, false);
+    enqueue("userFacing2", 1L, universeUUID, false);
+    assertStarted("running");
+
+    // User facing tasks go first, in the order they were submitted.
+    finish("running");
+    assertStarted("running", "userFacing1");
+    finish("userFacing1");
+    assertStarted("running", "userFacing1", "userFacing2");
+    finish("userFacing2");
+    assertStarted("running", "userFacing1", "userFacing2", "background");
+  }
+
+  @Test
+  public void testSubmitRejectedWhenQueueFull() throws InterruptedException {
+    when(mockConfig.getInt(Commissioner.MAX_QUEUED_TASKS_KEY)).thenReturn(1);
+    UUID universeUUID = UUID.randomUUID();
+    enqueue("running", 1L, universeUUID, false);
+    enqueue("queued", 1L, universeUUID, false);
+    assertStarted("running");
+
+    UniverseTaskParams taskParams = new UniverseTaskParams();
+    taskParams.universeUUID = universeUUID;
+    try {
+      commissioner.submit(TaskType.DestroyUniverse, taskParams);
+      fail("Task should have been rejected");
+    } catch (YWServiceException e) {
+      assertEquals(SERVICE_UNAVAILABLE, e.getResult().status());
+    }
+    // The rejected task was never created.
+    assertEquals(0, TaskInfo.find.query().findCount());
+    assertEquals(1, commissioner.getNumQueuedTasks());
+  }
+
+  private TaskInfo createTaskInfo(Date updateTime) {
+    TaskInfo taskInfo = new TaskInfo(TaskType.CreateUniverse);
+    taskInfo.setTaskDetails(Json.newObject());
+    taskInfo.setOwner("test");
+    taskInfo.save();
+    Ebean.createSqlUpdate("update task_info set update_time = :updateTime where uuid = :uuid")
+        .setParameter("updateTime", updateTime)
+        .setParameter("uuid", taskInfo.getTaskUUID())
+        .execute();
+    return taskInfo;
+  }
+
+  private TaskRunner taskRunner(boolean running, boolean succeeded) {
+    TaskRunner taskRunner = mock(TaskRunner.class);
+    when(taskRunner.isTaskRunning()).thenReturn(running);
+    when(taskRunner.hasTaskSucceeded()).thenReturn(succeeded);
+    when(taskRunner.hasTaskFailed()).thenReturn(!running && !succeeded);
+    return taskRunner;
+  }
+
+  @Test
+  public void testBatchedHeartbeat() {
+    Date oldUpdateTime = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+    TaskInfo running1 = createTaskInfo(oldUpdateTime);
+    TaskInfo running2 = createTaskInfo(oldUpdateTime);
+    TaskInfo succeeded = createTaskInfo(oldUpdateTime);
+    TaskInfo failed = createTaskInfo(oldUpdateTime);
+    Commissioner.runningTasks.put(running1.getTaskUUID(), taskRunner(true, false));
+    Commissioner.runningTasks.put(running2.getTaskUUID(), taskRunner(true, false));
+    Commissioner.runningTasks.put(succeeded.getTaskUUID(), taskRunner(false, true));
+    Commissioner.runningTasks.put(failed.getTaskUUID(), taskRunner(false, false));
+
+    commissioner.monitorProgress();
+
+    // All the running tasks got a heartbeat, the completed ones are forgotten.
+    assertTrue(TaskInfo.get(running1.getTaskUUID()).getLastUpdateTime().after(oldUpdateTime));
+    assertTrue(TaskInfo.get(running2.getTaskUUID()).getLastUpdateTime().after(oldUpdateTime));
+    assertEquals(oldUpdateTime, TaskInfo.get(succeeded.getTaskUUID()).getLastUpdateTime());
+    assertEquals(oldUpdateTime, TaskInfo.get(failed.getTaskUUID()).getLastUpdateTime());
+    assertEquals(2, Commissioner.runningTasks.size());
+    assertTrue(Commissioner.runningTasks.containsKey(running1.getTaskUUID()));
+    assertTrue(Commissioner.runningTasks.containsKey(running2.getTaskUUID()));
+  }
+}
@@ -0,0 +1,105 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.stumbleupon.async.Deferred;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ConditionPollerTest {
+
+  private final ConditionPoller conditionPoller = new ConditionPoller();
+
+  @Test
+  public void testConditionMet() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    int result =
+        conditionPoller
+            .waitFor(
+                "test",
+                () -> Deferred.fromResult(attempts.incrementAndGet()),
+                value -> value >= 3,
+                1,
+                10,
+                Long.MAX_VALUE,
+                10)
+            .get(10, TimeUnit.SECONDS);
+    assertEquals(3, result);
+  }
+
+  @Test
+  public void testErrorsTolerated() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    int result =
+        conditionPoller
+            .<Integer>waitFor(
+                "test",
+                () ->
+                    attempts.incrementAndGet() < 3
+                        ? Deferred.fromError(new RuntimeException("error"))
+                        : Deferred.fromResult(attempts.get()),
+                value -> true,
+                1,
+                10,
+                Long.MAX_VALUE,
+                3)
+            .get(10, TimeUnit.SECONDS);
+    assertEquals(3, result);
+  }
+
+  @Test
+  public void testTooManyErrors() throws Exception {
+    try {
+      conditionPoller
+          .<Integer>waitFor(
+              "test",
+              () -> Deferred.fromResult(1),
+              value -> {
+                throw new RuntimeException("bad response");
+              },
+              1,
+              10,
+              Long.MAX_VALUE,
+              3)
+          .get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().getMessage().contains("too many errors"));
+    }
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    try {
+      conditionPoller
+          .waitFor("test", () -> Deferred.fromResult(1), value -> false, 1, 10, 50, 3)
+          .get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test(expected = ExecutionException.class)
+  public void testCheckFailure() throws Exception {
+    conditionPoller
+        .<Integer>waitFor(
+            "test",
+            () -> {
+              throw new IllegalStateException("closed");
+            },
+            value -> true,
+            1,
+            10,
+            Long.MAX_VALUE,
+            10)
+        .get(10, TimeUnit.SECONDS);
+  }
+}
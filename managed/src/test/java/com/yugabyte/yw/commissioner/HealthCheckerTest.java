@@ -32,7 +32,10 @@ import play.libs.Json;
 import scala.concurrent.ExecutionContext;
 
 import javax.mail.MessagingException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -276,6 +279,23 @@ public class HealthCheckerTest extends FakeDBApplication {
     verify(mockHealthManager, times(2)).runCommand(eq(defaultProvider), any(), eq(0L));
   }
 
+  @Test
+  public void testFreshResultsReused() {
+    Universe u = setupUniverse("univ1");
+    setupAlertingData(null, false, false);
+    when(mockRuntimeConfig.getLong("yb.health.result_freshness_ms")).thenReturn(60000L);
+
+    // Status updates always run a new check.
+    healthChecker.checkSingleUniverse(
+        new HealthChecker.CheckSingleUniverseParams(u, defaultCustomer, true, false, null));
+    verify(mockHealthManager, times(1)).runCommand(eq(defaultProvider), any(), eq(0L));
+
+    // Results of the first check are still fresh, so no new check is run.
+    healthChecker.checkSingleUniverse(
+        new HealthChecker.CheckSingleUniverseParams(u, defaultCustomer, false, false, null));
+    verify(mockHealthManager, times(1)).runCommand(eq(defaultProvider), any(), eq(0L));
+  }
+
   @Test
   public void testSingleUniverseCustomEmail() {
     Universe u = setupUniverse("univ1");
@@ -657,4 +677,53 @@ public class HealthCheckerTest extends FakeDBApplication {
             "Can't run health check for the universe due to missing IP address for node %s.",
             nd.nodeName));
   }
+
+  @Test
+  public void testStaleMetricsRemoved() {
+    Universe u = setupUniverse("univ1");
+    setupAlertingData(null, false, false);
+    testSingleUniverse(u, null, false, 1);
+
+    String[] durationLabels = {HealthChecker.kUnivUUIDLabel, HealthChecker.kUnivNameLabel};
+    String[] durationLabelValues = {u.universeUUID.toString(), u.name};
+    assertNotNull(
+        testRegistry.getSampleValue(
+            HealthChecker.kUnivDurationMetricName, durationLabels, durationLabelValues));
+
+    // Series of existing universes are kept.
+    healthChecker.removeStaleMetrics(Collections.singleton(u.universeUUID));
+    assertNotNull(
+        testRegistry.getSampleValue(
+            HealthChecker.kUnivDurationMetricName, durationLabels, durationLabelValues));
+
+    // Series of deleted universes are dropped.
+    healthChecker.removeStaleMetrics(Collections.emptySet());
+    assertNull(
+        testRegistry.getSampleValue(
+            HealthChecker.kUnivDurationMetricName, durationLabels, durationLabelValues));
+    String[] labels = {
+      HealthChecker.kUnivUUIDLabel,
+      HealthChecker.kUnivNameLabel,
+      HealthChecker.kNodeLabel,
+      HealthChecker.kCheckLabel
+    };
+    String[] labelValues = {u.universeUUID.toString(), u.name, dummyNode, dummyCheck};
+    assertNull(testRegistry.getSampleValue(HealthChecker.kUnivMetricName, labels, labelValues));
+  }
+
+  @Test
+  public void testCheckOffsets() {
+    // The universes of all customers are spread together, so that no two get the same offset.
+    List<UUID> universeUUIDs =
+        Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    Map<UUID, Double> offsets = HealthChecker.computeCheckOffsets(universeUUIDs);
+    assertEquals(3, offsets.size());
+    assertEquals(3, new HashSet<>(offsets.values()).size());
+    for (double offset : offsets.values()) {
+      assertTrue(offset >= 0 && offset < 1);
+    }
+    // The offsets do not depend on the order the universes are listed in.
+    Collections.reverse(universeUUIDs);
+    assertEquals(offsets, HealthChecker.computeCheckOffsets(universeUUIDs));
+  }
 }
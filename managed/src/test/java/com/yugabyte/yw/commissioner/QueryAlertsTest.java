@@ -38,7 +38,12 @@ import java.util.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(JUnitParamsRunner.class)
@@ -196,6 +201,44 @@ public class QueryAlertsTest extends FakeDBApplication {
     assertThat(alerts, contains(expectedAlert));
   }
 
+  @Test
+  public void testQueryAlertsUnchangedAlert() {
+    ZonedDateTime raisedTime = ZonedDateTime.parse("2018-07-04T20:27:12.60602144+02:00");
+    when(queryHelper.queryAlerts())
+        .thenReturn(ImmutableList.of(createAlertData(raisedTime, false)));
+
+    AlertService alertServiceSpy = spy(alertService);
+    queryAlerts =
+        new QueryAlerts(
+            executionContext,
+            actorSystem,
+            alertServiceSpy,
+            queryHelper,
+            alertDefinitionService,
+            alertDefinitionGroupService,
+            alertManager);
+
+    queryAlerts.scheduleRunner();
+    clearInvocations(alertServiceSpy);
+    // Second run finds the same alert, which should stay active without any changes.
+    queryAlerts.scheduleRunner();
+
+    // Nothing is written for the unchanged alert.
+    verify(alertServiceSpy).save(Collections.emptyList());
+    verify(alertServiceSpy, never()).save(any(Alert.class));
+
+    AlertFilter alertFilter =
+        AlertFilter.builder()
+            .customerUuid(customer.getUuid())
+            .definitionUuid(definition.getUuid())
+            .build();
+    List<Alert> alerts = alertService.list(alertFilter);
+
+    assertThat(alerts, hasSize(1));
+    Alert expectedAlert = createAlert(raisedTime, false).setUuid(alerts.get(0).getUuid());
+    assertThat(alerts, contains(expectedAlert));
+  }
+
   @Test
   public void testQueryAlertsExistingResolvedAlert() {
     ZonedDateTime raisedTime = ZonedDateTime.parse("2018-07-04T20:27:12.60602144+02:00");
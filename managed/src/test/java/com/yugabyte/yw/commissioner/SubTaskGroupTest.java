@@ -0,0 +1,96 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType;
+import com.yugabyte.yw.commissioner.tasks.subtasks.WaitForServer;
+import com.yugabyte.yw.common.FakeDBApplication;
+import com.yugabyte.yw.models.TaskInfo;
+import com.yugabyte.yw.models.helpers.TaskType;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SubTaskGroupTest extends FakeDBApplication {
+
+  public static final Logger LOG = LoggerFactory.getLogger(SubTaskGroupTest.class);
+
+  private static final int NUM_SUBTASKS = 1000;
+
+  private SubTaskGroup createSubTaskGroup(int numTasks) {
+    SubTaskGroup subTaskGroup = new SubTaskGroup("WaitForServer", null);
+    for (int i = 0; i < numTasks; i++) {
+      WaitForServer.Params params = new WaitForServer.Params();
+      params.nodeName = "host-n" + i;
+      WaitForServer task = app.injector().instanceOf(WaitForServer.class);
+      task.initialize(params);
+      subTaskGroup.addTask(task);
+    }
+    return subTaskGroup;
+  }
+
+  private List<TaskInfo> getSubTasks(UUID parentUUID) {
+    return TaskInfo.find.query().where().eq("parentUuid", parentUUID).findList();
+  }
+
+  @Test
+  public void testAddTaskDefersPersistence() {
+    SubTaskGroup subTaskGroup = createSubTaskGroup(3);
+    assertEquals(0, TaskInfo.find.query().findCount());
+
+    UUID parentUUID = UUID.randomUUID();
+    new SubTaskGroupQueue(parentUUID).add(subTaskGroup);
+    List<TaskInfo> subTasks = getSubTasks(parentUUID);
+    assertEquals(3, subTasks.size());
+    for (TaskInfo taskInfo : subTasks) {
+      assertEquals(TaskType.WaitForServer, taskInfo.getTaskType());
+      assertEquals(0, taskInfo.getPosition());
+    }
+  }
+
+  @Test
+  public void testBatchedUpdates() {
+    UUID parentUUID = UUID.randomUUID();
+    SubTaskGroup subTaskGroup = createSubTaskGroup(2);
+    new SubTaskGroupQueue(parentUUID).add(subTaskGroup);
+    for (TaskInfo taskInfo : getSubTasks(parentUUID)) {
+      assertEquals(SubTaskGroupType.Invalid, taskInfo.getSubTaskGroupType());
+      assertNull(taskInfo.getTaskDetails().get("errorString"));
+    }
+
+    subTaskGroup.setSubTaskGroupType(SubTaskGroupType.ConfigureUniverse);
+    subTaskGroup.setUserSubTaskState(TaskInfo.State.Running);
+    for (TaskInfo taskInfo : getSubTasks(parentUUID)) {
+      assertEquals(SubTaskGroupType.ConfigureUniverse, taskInfo.getSubTaskGroupType());
+      assertEquals(TaskInfo.State.Running, taskInfo.getTaskState());
+    }
+  }
+
+  @Test
+  public void testPersistManySubTasks() {
+    UUID parentUUID = UUID.randomUUID();
+    long startNanos = System.nanoTime();
+    SubTaskGroup subTaskGroup = createSubTaskGroup(NUM_SUBTASKS);
+    SubTaskGroupQueue subTaskGroupQueue = new SubTaskGroupQueue(parentUUID);
+    subTaskGroupQueue.add(subTaskGroup);
+    subTaskGroup.setSubTaskGroupType(SubTaskGroupType.ConfigureUniverse);
+    subTaskGroup.setUserSubTaskState(TaskInfo.State.Running);
+    long elapsedMs = (System.nanoTime() - startNanos) / 1000000;
+    LOG.info("Created and updated {} subtasks in {} ms.", NUM_SUBTASKS, elapsedMs);
+
+    assertEquals(NUM_SUBTASKS, getSubTasks(parentUUID).size());
+    assertEquals(
+        NUM_SUBTASKS,
+        TaskInfo.find
+            .query()
+            .where()
+            .eq("parentUuid", parentUUID)
+            .eq("taskState", TaskInfo.State.Running)
+            .findCount());
+  }
+}
@@ -5,6 +5,7 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
 import com.yugabyte.yw.common.ApiUtils;
@@ -25,6 +26,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.YBClient;
 
 import org.slf4j.Logger;
@@ -95,7 +97,9 @@ public class AddNodeToUniverseTest extends CommissionerBaseTest {
     setDefaultNodeState(defaultUniverse, NodeState.Removed, DEFAULT_NODE_NAME);
 
     mockClient = mock(YBClient.class);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     when(mockClient.waitForLoadBalance(anyLong(), anyInt())).thenReturn(true);
     try {
       when(mockClient.getMasterClusterConfig()).thenReturn(mockConfigResponse);
@@ -6,6 +6,7 @@ import com.yugabyte.yw.cloud.AWSInitializer;
 import com.yugabyte.yw.cloud.GCPInitializer;
 import com.yugabyte.yw.commissioner.BaseTaskDependencies;
 import com.yugabyte.yw.commissioner.CallHome;
+import com.yugabyte.yw.commissioner.ConditionPoller;
 import com.yugabyte.yw.commissioner.HealthChecker;
 import com.yugabyte.yw.commissioner.QueryAlerts;
 import com.yugabyte.yw.common.*;
@@ -88,6 +89,7 @@ public abstract class CommissionerBaseTest extends WithApplication {
     when(mockBaseTaskDependencies.getEnvironment())
         .thenReturn(app.injector().instanceOf(Environment.class));
     when(mockBaseTaskDependencies.getYbService()).thenReturn(mockYBClient);
+    when(mockBaseTaskDependencies.getConditionPoller()).thenReturn(new ConditionPoller());
     when(mockBaseTaskDependencies.getTableManager()).thenReturn(mockTableManager);
     when(mockBaseTaskDependencies.getAlertService()).thenReturn(alertService);
     when(mockBaseTaskDependencies.getAlertDefinitionService()).thenReturn(alertDefinitionService);
@@ -5,6 +5,7 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.common.ApiUtils;
 import com.yugabyte.yw.common.RegexMatcher;
@@ -18,6 +19,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.yb.Common;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.ChangeMasterClusterConfigResponse;
 import org.yb.client.ListTabletServersResponse;
 import org.yb.client.YBClient;
@@ -36,7 +38,6 @@ import static com.yugabyte.yw.models.TaskInfo.State.Failure;
 import static com.yugabyte.yw.models.TaskInfo.State.Success;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -212,7 +213,6 @@ public class CreateKubernetesUniverseTest extends CommissionerBaseTest {
     // WaitForTServerHeartBeats mock.
     ListTabletServersResponse mockResponse = mock(ListTabletServersResponse.class);
     when(mockResponse.getTabletServersCount()).thenReturn(3);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
     YBTable mockTable = mock(YBTable.class);
     when(mockTable.getName()).thenReturn("redis");
@@ -220,7 +220,10 @@ public class CreateKubernetesUniverseTest extends CommissionerBaseTest {
     ChangeMasterClusterConfigResponse ccr = new ChangeMasterClusterConfigResponse(1111, "", null);
     try {
       when(mockClient.changeMasterClusterConfig(any())).thenReturn(ccr);
-      when(mockClient.listTabletServers()).thenReturn(mockResponse);
+      AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+      when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+      when(mockAsyncClient.listTabletServers()).thenReturn(Deferred.fromResult(mockResponse));
+      when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
       when(mockClient.createRedisTable(any())).thenReturn(mockTable);
     } catch (Exception e) {
     }
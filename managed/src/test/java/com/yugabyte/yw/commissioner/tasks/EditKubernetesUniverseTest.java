@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.common.ApiUtils;
 import com.yugabyte.yw.common.RegexMatcher;
@@ -19,6 +20,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.ChangeMasterClusterConfigResponse;
 import org.yb.client.GetLoadMovePercentResponse;
 import org.yb.client.IsServerReadyResponse;
@@ -81,10 +83,12 @@ public class EditKubernetesUniverseTest extends CommissionerBaseTest {
     mockWaits(mockClient, 3);
     GetLoadMovePercentResponse gpr = new GetLoadMovePercentResponse(0, "", 100.0, 0, 0, null);
     try {
-      when(mockClient.getLoadMoveCompletion()).thenReturn(gpr);
+      AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+      when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+      when(mockAsyncClient.getLoadMoveCompletion()).thenReturn(Deferred.fromResult(gpr));
+      when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     } catch (Exception e) {
     }
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
     when(mockClient.waitForLoadBalance(anyLong(), anyInt())).thenReturn(true);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
   }
@@ -4,8 +4,11 @@ package com.yugabyte.yw.commissioner.tasks;
 
 import com.google.protobuf.ByteString;
 import com.yugabyte.yw.commissioner.Commissioner;
+import com.yugabyte.yw.commissioner.UserTaskDetails;
 import com.yugabyte.yw.common.ModelFactory;
 import com.yugabyte.yw.common.ShellResponse;
+import com.yugabyte.yw.forms.BackupTableParams;
+import com.yugabyte.yw.models.Backup;
 import com.yugabyte.yw.models.CustomerTask;
 import com.yugabyte.yw.models.TaskInfo;
 import com.yugabyte.yw.models.Universe;
@@ -21,6 +24,8 @@ import org.yb.master.Master;
 import org.yb.master.Master.ListTablesResponsePB.TableInfo;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -269,4 +274,89 @@ public class MultiTableBackupTest extends CommissionerBaseTest {
     verify(mockTableManager, times(0)).createBackup(any());
     assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
   }
+
+  private List<TableInfo> mockYCQLTables(int numTables) {
+    List<TableInfo> tableInfoList = new ArrayList<>();
+    for (int i = 0; i < numTables; i++) {
+      tableInfoList.add(
+          TableInfo.newBuilder()
+              .setName("Table" + i)
+              .setNamespace(Master.NamespaceIdentifierPB.newBuilder().setName("$$$Default1"))
+              .setId(ByteString.copyFromUtf8(UUID.randomUUID().toString()))
+              .setTableType(TableType.YQL_TABLE_TYPE)
+              .build());
+    }
+    when(mockListTablesResponse.getTableInfoList()).thenReturn(tableInfoList);
+    return tableInfoList;
+  }
+
+  @Test
+  public void testUniverseBackupTablesInParallel() {
+    int numTables = 3;
+    mockYCQLTables(numTables);
+    // Every table backup waits for all of them to start, so a sequential backup would fail.
+    CountDownLatch allStarted = new CountDownLatch(numTables);
+    when(mockTableManager.createBackup(any()))
+        .thenAnswer(
+            invocation -> {
+              allStarted.countDown();
+              ShellResponse shellResponse = new ShellResponse();
+              if (allStarted.await(10, TimeUnit.SECONDS)) {
+                shellResponse.message = "{\"success\": true}";
+                shellResponse.code = 0;
+              } else {
+                shellResponse.message = "{\"error\": \"timed out\"}";
+                shellResponse.code = 1;
+              }
+              return shellResponse;
+            });
+
+    TaskInfo taskInfo = submitTask(null, new ArrayList<UUID>());
+    assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
+    verify(mockTableManager, times(numTables)).createBackup(any());
+    List<Backup> backups = Backup.fetchAllBackupsByTaskUUID(taskInfo.getTaskUUID());
+    assertEquals(1, backups.size());
+    assertEquals(Backup.BackupState.Completed, backups.get(0).state);
+
+    // Each table is backed up by a subtask of its own. The backups of the encryption keys in the
+    // same group do not count.
+    UserTaskDetails.SubTaskDetails backupDetails =
+        taskInfo
+            .getUserTaskDetails()
+            .taskDetails
+            .stream()
+            .filter(details -> details.getTitle().equals("Creating Table Backup"))
+            .findFirst()
+            .get();
+    assertEquals(numTables, backupDetails.getNumTasks());
+    assertEquals(numTables, backupDetails.getNumTasksDone());
+  }
+
+  @Test
+  public void testUniverseBackupTableFailure() {
+    List<TableInfo> tables = mockYCQLTables(3);
+    String failedTable = tables.get(1).getName();
+    when(mockTableManager.createBackup(any()))
+        .thenAnswer(
+            invocation -> {
+              BackupTableParams params = invocation.getArgument(0);
+              ShellResponse shellResponse = new ShellResponse();
+              if (params.getTableName().equals(failedTable)) {
+                shellResponse.message = "{\"error\": \"failed\"}";
+                shellResponse.code = 1;
+              } else {
+                shellResponse.message = "{\"success\": true}";
+                shellResponse.code = 0;
+              }
+              return shellResponse;
+            });
+
+    TaskInfo taskInfo = submitTask(null, new ArrayList<UUID>());
+    // The other tables are still backed up, but the backup as a whole failed.
+    verify(mockTableManager, times(3)).createBackup(any());
+    List<Backup> backups = Backup.fetchAllBackupsByTaskUUID(taskInfo.getTaskUUID());
+    assertEquals(1, backups.size());
+    assertEquals(Backup.BackupState.Failed, backups.get(0).state);
+    assertEquals(TaskInfo.State.Failure, taskInfo.getTaskState());
+  }
 }
@@ -5,6 +5,7 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.commissioner.tasks.subtasks.UpdatePlacementInfo.ModifyUniverseConfig;
 import com.yugabyte.yw.common.ApiUtils;
@@ -28,6 +29,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.yb.client.AbstractModifyMasterClusterConfig;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.ChangeMasterClusterConfigResponse;
 import org.yb.client.GetMasterClusterConfigResponse;
 import org.yb.client.YBClient;
@@ -74,7 +76,9 @@ public class ReadOnlyClusterCreateTest extends CommissionerBaseTest {
         ApiUtils.mockUniverseUpdater(userIntent, true /* setMasters */));
     mockClient = mock(YBClient.class);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     dummyShellResponse = new ShellResponse();
     dummyShellResponse.message = "true";
     when(mockNodeManager.nodeCommand(any(), any())).thenReturn(dummyShellResponse);
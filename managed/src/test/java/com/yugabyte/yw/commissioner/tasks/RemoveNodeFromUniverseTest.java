@@ -5,6 +5,7 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
 import com.yugabyte.yw.common.ApiUtils;
@@ -22,6 +23,7 @@ import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.YBClient;
 
 import play.libs.Json;
@@ -93,7 +95,9 @@ public class RemoveNodeFromUniverseTest extends CommissionerBaseTest {
     ShellResponse dummyShellResponse = new ShellResponse();
     dummyShellResponse.message = "true";
     when(mockNodeManager.nodeCommand(any(), any())).thenReturn(dummyShellResponse);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
 
     try {
       // WaitForTServerHeartBeats mock.
@@ -5,6 +5,7 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.common.ApiUtils;
 import com.yugabyte.yw.common.ShellProcessHandler;
@@ -21,6 +22,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.YBClient;
 import play.libs.Json;
 
@@ -59,7 +61,9 @@ public class ResumeUniverseTest extends CommissionerBaseTest {
     super.setUp();
     mockClient = mock(YBClient.class);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     dummyShellResponse = new ShellResponse();
     dummyShellResponse.message = "true";
     when(mockNodeManager.nodeCommand(any(), any())).thenReturn(dummyShellResponse);
@@ -5,9 +5,12 @@ package com.yugabyte.yw.commissioner.tasks;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HostAndPort;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.commissioner.Common;
 import com.yugabyte.yw.commissioner.UserTaskDetails;
@@ -20,6 +23,7 @@ import com.yugabyte.yw.common.utils.Pair;
 import com.yugabyte.yw.forms.CertificateParams;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.Cluster;
+import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.ClusterType;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.UserIntent;
 import com.yugabyte.yw.forms.UpgradeParams;
 import com.yugabyte.yw.models.*;
@@ -37,6 +41,7 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.GetMasterClusterConfigResponse;
 import org.yb.client.IsServerReadyResponse;
 import org.yb.client.YBClient;
@@ -198,7 +203,9 @@ public class UpgradeUniverseTest extends CommissionerBaseTest {
     } catch (Exception ignored) {
     }
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(HostAndPort.class), anyLong())).thenReturn(true);
+    AsyncYBClient mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     when(mockClient.getLeaderMasterHostAndPort())
         .thenReturn(HostAndPort.fromString("host-n2").withDefaultPort(11));
     IsServerReadyResponse okReadyResp = new IsServerReadyResponse(0, "", null, 0, 0);
@@ -1723,6 +1730,163 @@ public class UpgradeUniverseTest extends CommissionerBaseTest {
     assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
   }
 
+  private static List<String> getNodeNames(List<TaskInfo> tasks) {
+    List<String> nodeNames = new ArrayList<>();
+    for (TaskInfo task : tasks) {
+      JsonNode details = task.getTaskDetails();
+      if (details.has("nodeNames")) {
+        details.get("nodeNames").forEach(nodeName -> nodeNames.add(nodeName.textValue()));
+      } else {
+        nodeNames.add(details.get("nodeName").textValue());
+      }
+    }
+    return nodeNames;
+  }
+
+  @Test
+  public void testRollingRestartBatched() throws Exception {
+    ObjectNode healthCheck = Json.newObject();
+    healthCheck.putArray("dead_nodes");
+    healthCheck.putArray("under_replicated_tablets");
+    when(mockApiHelper.getRequest(endsWith("/api/v1/health-check"))).thenReturn(healthCheck);
+    // Move host-n3 to the zone of host-n1, so that they are restarted together.
+    defaultUniverse =
+        Universe.saveDetails(
+            defaultUniverse.universeUUID,
+            universe -> {
+              UniverseDefinitionTaskParams universeDetails = universe.getUniverseDetails();
+              NodeDetails node1 = universe.getNode("host-n1");
+              NodeDetails node3 = universe.getNode("host-n3");
+              node3.azUuid = node1.azUuid;
+              node3.cloudInfo.az = node1.cloudInfo.az;
+              universe.setUniverseDetails(universeDetails);
+            });
+    UpgradeUniverse.Params taskParams = new UpgradeUniverse.Params();
+    taskParams.rollingBatchSize = 2;
+    TaskInfo taskInfo = submitTask(taskParams, UpgradeUniverse.UpgradeTaskType.Restart);
+    verify(mockNodeManager, times(12)).nodeCommand(any(), any());
+
+    List<TaskInfo> subTasks = taskInfo.getSubTasks();
+    Map<Integer, List<TaskInfo>> subTasksByPosition =
+        subTasks.stream().collect(Collectors.groupingBy(w -> w.getPosition()));
+
+    // Masters are still restarted one at a time.
+    int position = 0;
+    position = assertRollingRestartSequence(subTasksByPosition, MASTER, position);
+    assertTaskType(subTasksByPosition.get(position++), TaskType.LoadBalancerStateChange);
+    // The tserver of the affinitized zone goes first, then both tservers of the other zone.
+    List<List<String>> batches =
+        ImmutableList.of(ImmutableList.of("host-n2"), ImmutableList.of("host-n1", "host-n3"));
+    List<TaskType> batchTasks =
+        ImmutableList.of(
+            TaskType.SetNodeState,
+            TaskType.AnsibleClusterServerCtl,
+            TaskType.AnsibleClusterServerCtl,
+            TaskType.WaitForServer,
+            TaskType.WaitForTabletsHealthy);
+    for (List<String> batch : batches) {
+      for (TaskType taskType : batchTasks) {
+        List<TaskInfo> tasks = subTasksByPosition.get(position++);
+        assertEquals(taskType, tasks.get(0).getTaskType());
+        assertEquals(new HashSet<>(batch), new HashSet<>(getNodeNames(tasks)));
+      }
+      for (String nodeName : batch) {
+        List<TaskInfo> tasks = subTasksByPosition.get(position++);
+        assertEquals(TaskType.WaitForEncryptionKeyInMemory, tasks.get(0).getTaskType());
+        assertEquals(ImmutableList.of(nodeName), getNodeNames(tasks));
+      }
+      List<TaskInfo> tasks = subTasksByPosition.get(position++);
+      assertEquals(TaskType.SetNodeState, tasks.get(0).getTaskType());
+      assertEquals(new HashSet<>(batch), new HashSet<>(getNodeNames(tasks)));
+    }
+    assertRollingRestartCommonTasks(subTasksByPosition, position);
+    assertEquals(37, position);
+    assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
+  }
+
+  // Cluster with the given number of replicas in each zone.
+  private static Cluster clusterWithZones(List<UUID> zones, int replicasPerZone) {
+    UserIntent userIntent = new UserIntent();
+    userIntent.replicationFactor = 3;
+    Cluster cluster = new Cluster(ClusterType.PRIMARY, userIntent);
+    PlacementInfo.PlacementRegion region = new PlacementInfo.PlacementRegion();
+    for (UUID zone : zones) {
+      PlacementInfo.PlacementAZ az = new PlacementInfo.PlacementAZ();
+      az.uuid = zone;
+      az.replicationFactor = replicasPerZone;
+      region.azList.add(az);
+    }
+    PlacementInfo.PlacementCloud cloud = new PlacementInfo.PlacementCloud();
+    cloud.regionList.add(region);
+    cluster.placementInfo = new PlacementInfo();
+    cluster.placementInfo.cloudList.add(cloud);
+    return cluster;
+  }
+
+  private static List<NodeDetails> nodesInZones(UUID clusterUuid, List<UUID> zones) {
+    List<NodeDetails> nodes = new ArrayList<>();
+    for (int i = 0; i < zones.size(); i++) {
+      NodeDetails node = new NodeDetails();
+      node.nodeName = "host-n" + (i + 1);
+      node.placementUuid = clusterUuid;
+      node.azUuid = zones.get(i);
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  private static List<List<String>> batchNames(List<List<NodeDetails>> batches) {
+    return batches
+        .stream()
+        .map(batch -> batch.stream().map(n -> n.nodeName).collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testSplitIntoBatches() {
+    UUID zoneA = UUID.randomUUID();
+    UUID zoneB = UUID.randomUUID();
+    UUID zoneC = UUID.randomUUID();
+    Cluster cluster = clusterWithZones(ImmutableList.of(zoneA, zoneB, zoneC), 1);
+    assertTrue(UpgradeUniverse.hasOneReplicaPerZone(cluster));
+    List<NodeDetails> nodes =
+        nodesInZones(cluster.uuid, ImmutableList.of(zoneA, zoneA, zoneB, zoneC, zoneB, zoneA));
+    Set<UUID> zoneBatchClusters = ImmutableSet.of(cluster.uuid);
+
+    // Each batch is from a single zone, the zones going one after another.
+    assertEquals(
+        ImmutableList.of(
+            ImmutableList.of("host-n1", "host-n2"),
+            ImmutableList.of("host-n6"),
+            ImmutableList.of("host-n3", "host-n5"),
+            ImmutableList.of("host-n4")),
+        batchNames(UpgradeUniverse.splitIntoBatches(nodes, 2, zoneBatchClusters)));
+    assertEquals(6, UpgradeUniverse.splitIntoBatches(nodes, 1, zoneBatchClusters).size());
+  }
+
+  @Test
+  public void testSplitIntoBatchesSingleZone() {
+    // All the three replicas of a tablet may be in the only zone, so the tservers of the zone
+    // must not be restarted together.
+    UUID zone = UUID.randomUUID();
+    Cluster cluster = clusterWithZones(ImmutableList.of(zone), 3);
+    assertFalse(UpgradeUniverse.hasOneReplicaPerZone(cluster));
+    List<NodeDetails> nodes = nodesInZones(cluster.uuid, ImmutableList.of(zone, zone, zone));
+
+    assertEquals(
+        ImmutableList.of(
+            ImmutableList.of("host-n1"), ImmutableList.of("host-n2"), ImmutableList.of("host-n3")),
+        batchNames(UpgradeUniverse.splitIntoBatches(nodes, 2, Collections.emptySet())));
+  }
+
+  @Test
+  public void testHasOneReplicaPerZone() {
+    List<UUID> zones = ImmutableList.of(UUID.randomUUID(), UUID.randomUUID());
+    // Fewer zones than the replication factor.
+    assertFalse(UpgradeUniverse.hasOneReplicaPerZone(clusterWithZones(zones, 1)));
+    assertFalse(UpgradeUniverse.hasOneReplicaPerZone(clusterWithZones(zones, 2)));
+  }
+
   @Test
   public void testCertUpdateRolling() {
     defaultUniverse.save();
@@ -23,6 +23,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -76,6 +77,17 @@ public class ApiHelperTest {
         CoreMatchers.equalTo("java.lang.RuntimeException: Incorrect JSON"));
   }
 
+  @Test
+  public void testGetRequestWithTimeout() {
+    when(mockClient.url(anyString())).thenReturn(mockRequest);
+    when(mockRequest.setRequestTimeout(Duration.ofMillis(100))).thenReturn(mockRequest);
+    // The server never responds.
+    when(mockRequest.get()).thenReturn(new CompletableFuture<>());
+    JsonNode result = apiHelper.getRequest("http://foo.com/test", Duration.ofMillis(100));
+    Mockito.verify(mockRequest, times(1)).setRequestTimeout(Duration.ofMillis(100));
+    assertNotNull(result.get("error"));
+  }
+
   @Test
   public void testGetRequestWithHeaders() {
     CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
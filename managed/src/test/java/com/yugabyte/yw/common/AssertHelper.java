@@ -112,7 +112,7 @@ public class AssertHelper {
   }
 
   public static void assertAuditEntry(int expectedNumEntries, UUID uuid) {
-    int actual = Audit.getAll(uuid).size();
+    int actual = Audit.find.query().where().eq("customer_uuid", uuid).findCount();
     assertEquals(expectedNumEntries, actual);
   }
 
@@ -0,0 +1,92 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.yugabyte.yw.common.config.impl.SettableRuntimeConfigFactory;
+import com.yugabyte.yw.models.Customer;
+import com.yugabyte.yw.models.Universe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BackupUploadLimiterTest extends FakeDBApplication {
+
+  private Universe universe1;
+  private Universe universe2;
+  private BackupUploadLimiter limiter;
+
+  @Before
+  public void setUp() {
+    Customer customer = ModelFactory.testCustomer();
+    universe1 = ModelFactory.createUniverse("universe-1", customer.getCustomerId());
+    universe2 = ModelFactory.createUniverse("universe-2", customer.getCustomerId());
+    SettableRuntimeConfigFactory runtimeConfigFactory =
+        new SettableRuntimeConfigFactory(app.config());
+    runtimeConfigFactory
+        .forUniverse(universe1)
+        .setValue(BackupUploadLimiter.MAX_PARALLEL_UPLOADS_PARAM, "8");
+    runtimeConfigFactory
+        .forUniverse(universe2)
+        .setValue(BackupUploadLimiter.MAX_PARALLEL_UPLOADS_PARAM, "8");
+    limiter = new BackupUploadLimiter(runtimeConfigFactory);
+  }
+
+  @Test
+  public void testSlotsSharedPerUniverse() throws Exception {
+    // Two backups of the same universe use up its budget.
+    assertEquals(4, limiter.acquire(universe1, 4));
+    assertEquals(4, limiter.acquire(universe1, 4));
+
+    // Another universe has a budget of its own.
+    assertEquals(8, limiter.acquire(universe2, 8));
+
+    CompletableFuture<Integer> waiting =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return limiter.acquire(universe1, 2);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    assertWaiting(waiting);
+
+    limiter.release(universe1.universeUUID, 4);
+    assertEquals(2, (int) waiting.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testParallelismAboveBudget() throws Exception {
+    // A backup with more parallelism than the budget takes the whole budget.
+    assertEquals(8, limiter.acquire(universe1, 16));
+
+    CompletableFuture<Integer> waiting =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return limiter.acquire(universe1, 1);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    assertWaiting(waiting);
+
+    limiter.release(universe1.universeUUID, 8);
+    assertEquals(1, (int) waiting.get(10, TimeUnit.SECONDS));
+  }
+
+  private static void assertWaiting(CompletableFuture<Integer> future) throws Exception {
+    try {
+      future.get(200, TimeUnit.MILLISECONDS);
+      fail("Acquired upload slots over the budget");
+    } catch (TimeoutException e) {
+      assertFalse(future.isDone());
+    }
+  }
+}
@@ -0,0 +1,117 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Session;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+
+public class CassandraSessionPoolTest {
+
+  private final List<Session> connected = new ArrayList<>();
+
+  private final CassandraSessionPool sessionPool =
+      new CassandraSessionPool() {
+        @Override
+        Session connect(SessionKey key) {
+          Session session = mock(Session.class);
+          when(session.getCluster()).thenReturn(mock(Cluster.class));
+          connected.add(session);
+          return session;
+        }
+      };
+
+  private CassandraSessionPool.SessionKey key(UUID universeUUID, String password) {
+    List<InetSocketAddress> addresses =
+        Collections.singletonList(InetSocketAddress.createUnresolved("10.0.0.1", 9042));
+    return new CassandraSessionPool.SessionKey(
+        universeUUID, addresses, null /* certificate */, "cassandra", password);
+  }
+
+  @Test
+  public void testSessionReusedForSameKey() {
+    UUID universeUUID = UUID.randomUUID();
+    Session first;
+    try (CassandraSessionPool.PooledSession pooled =
+        sessionPool.getSession(key(universeUUID, "pass"))) {
+      first = pooled.getSession();
+    }
+    try (CassandraSessionPool.PooledSession pooled =
+        sessionPool.getSession(key(universeUUID, "pass"))) {
+      assertSame(first, pooled.getSession());
+    }
+    assertEquals(1, connected.size());
+    assertEquals(1, sessionPool.size());
+  }
+
+  @Test
+  public void testNewSessionForChangedKey() {
+    UUID universeUUID = UUID.randomUUID();
+    try (CassandraSessionPool.PooledSession first =
+            sessionPool.getSession(key(universeUUID, "old"));
+        CassandraSessionPool.PooledSession second =
+            sessionPool.getSession(key(universeUUID, "new"))) {
+      assertNotSame(first.getSession(), second.getSession());
+    }
+    assertEquals(2, sessionPool.size());
+  }
+
+  @Test
+  public void testInvalidateClosesIdleSession() {
+    UUID universeUUID = UUID.randomUUID();
+    sessionPool.getSession(key(universeUUID, "pass")).close();
+
+    sessionPool.invalidate(universeUUID);
+
+    assertEquals(0, sessionPool.size());
+    verify(connected.get(0).getCluster(), times(1)).close();
+  }
+
+  @Test
+  public void testInvalidateWaitsForBorrowedSession() {
+    UUID universeUUID = UUID.randomUUID();
+    CassandraSessionPool.PooledSession pooled = sessionPool.getSession(key(universeUUID, "pass"));
+    Cluster cluster = pooled.getSession().getCluster();
+
+    sessionPool.invalidate(universeUUID);
+    verify(cluster, never()).close();
+
+    // A new borrower gets a new session, the invalidated one is closed once it is handed back.
+    try (CassandraSessionPool.PooledSession other =
+        sessionPool.getSession(key(universeUUID, "pass"))) {
+      assertNotSame(pooled.getSession(), other.getSession());
+    }
+    pooled.close();
+    verify(cluster, times(1)).close();
+
+    // Handing a session back twice has no effect.
+    pooled.close();
+    verify(cluster, times(1)).close();
+  }
+
+  @Test
+  public void testUseStatement() {
+    assertTrue(YcqlQueryExecutor.isUseStatement("USE ks;"));
+    assertTrue(YcqlQueryExecutor.isUseStatement("  use \"ks\""));
+    assertTrue(YcqlQueryExecutor.isUseStatement("-- comment\nUSE ks"));
+    assertTrue(YcqlQueryExecutor.isUseStatement("/* comment */ USE ks"));
+    assertFalse(YcqlQueryExecutor.isUseStatement("SELECT * FROM used"));
+    assertFalse(YcqlQueryExecutor.isUseStatement("SELECT 'use' FROM t"));
+  }
+}
@@ -0,0 +1,276 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
+import com.yugabyte.yw.models.Universe;
+import com.yugabyte.yw.models.helpers.NodeDetails;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class NodeLogStreamerTest {
+
+  private static final int NUM_NODES = 3;
+
+  @Mock NodeUniverseManager nodeUniverseManager;
+  @Mock RuntimeConfigFactory runtimeConfigFactory;
+
+  private final Universe universe = new Universe();
+  private final List<NodeDetails> nodes = new ArrayList<>();
+
+  /** Process with the given stdout and exit code. */
+  private static class FakeProcess extends Process {
+    private final InputStream stdout;
+    private final int exitCode;
+    private volatile boolean destroyed = false;
+
+    FakeProcess(InputStream stdout, int exitCode) {
+      this.stdout = stdout;
+      this.exitCode = exitCode;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Override
+    public int waitFor() {
+      return exitCode;
+    }
+
+    @Override
+    public int exitValue() {
+      return exitCode;
+    }
+
+    @Override
+    public void destroy() {
+      destroyed = true;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    for (int i = 1; i <= NUM_NODES; i++) {
+      NodeDetails node = new NodeDetails();
+      node.nodeName = "host-n" + i;
+      nodes.add(node);
+    }
+    setConfig(0, 60000);
+  }
+
+  private void setConfig(long maxBytesPerSec, long readerIdleTimeoutMs) {
+    Config config =
+        ConfigFactory.parseMap(
+            ImmutableMap.of(
+                NodeLogStreamer.MAX_PARALLEL_NODES_PARAM, NUM_NODES,
+                NodeLogStreamer.MAX_BYTES_PER_SEC_PARAM, maxBytesPerSec,
+                NodeLogStreamer.NODE_BUFFER_BYTES_PARAM, NodeLogStreamer.CHUNK_SIZE * 2,
+                NodeLogStreamer.READER_IDLE_TIMEOUT_PARAM, readerIdleTimeoutMs));
+    when(runtimeConfigFactory.globalRuntimeConf()).thenReturn(config);
+  }
+
+  private static byte[] logsOf(NodeDetails node, int size) {
+    byte[] logs = new byte[size];
+    byte[] name = node.nodeName.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < size; i++) {
+      logs[i] = name[i % name.length];
+    }
+    return logs;
+  }
+
+  private static Map<String, byte[]> readZip(InputStream bundle) throws IOException {
+    Map<String, byte[]> entries = new HashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(bundle)) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int numRead;
+        while ((numRead = zip.read(buffer)) != -1) {
+          content.write(buffer, 0, numRead);
+        }
+        entries.put(entry.getName(), content.toByteArray());
+      }
+    }
+    return entries;
+  }
+
+  @Test
+  public void testBundleDownloadsNodesConcurrently() throws Exception {
+    // Every download waits for all of them to start, so a sequential download would time out.
+    CountDownLatch allStarted = new CountDownLatch(NUM_NODES);
+    int logSize = NodeLogStreamer.CHUNK_SIZE * 5 + 17;
+    when(nodeUniverseManager.streamNodeLogs(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              NodeDetails node = invocation.getArgument(0);
+              allStarted.countDown();
+              if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                return new FakeProcess(new ByteArrayInputStream(new byte[0]), 1);
+              }
+              return new FakeProcess(new ByteArrayInputStream(logsOf(node, logSize)), 0);
+            });
+
+    NodeLogStreamer streamer = new NodeLogStreamer(nodeUniverseManager, runtimeConfigFactory);
+    Map<String, byte[]> entries = readZip(streamer.streamLogBundle(universe, nodes));
+    assertEquals(NUM_NODES, entries.size());
+    for (NodeDetails node : nodes) {
+      assertArrayEquals(logsOf(node, logSize), entries.get(NodeLogStreamer.getEntryName(node)));
+    }
+  }
+
+  @Test
+  public void testFailedNodeReplacedByError() throws Exception {
+    when(nodeUniverseManager.streamNodeLogs(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              NodeDetails node = invocation.getArgument(0);
+              if (node.nodeName.equals("host-n2")) {
+                throw new RuntimeException("Cloud type unknown");
+              }
+              int exitCode = node.nodeName.equals("host-n3") ? 2 : 0;
+              return new FakeProcess(new ByteArrayInputStream(logsOf(node, 100)), exitCode);
+            });
+
+    NodeLogStreamer streamer = new NodeLogStreamer(nodeUniverseManager, runtimeConfigFactory);
+    Map<String, byte[]> entries = readZip(streamer.streamLogBundle(universe, nodes));
+    assertEquals(4, entries.keySet().size());
+    assertArrayEquals(logsOf(nodes.get(0), 100), entries.get("host-n1-logs.tar.gz"));
+    assertEquals(
+        "Cloud type unknown", new String(entries.get("host-n2-error.txt"), StandardCharsets.UTF_8));
+    // The partial logs of a node failing midway are kept.
+    assertArrayEquals(logsOf(nodes.get(2), 100), entries.get("host-n3-logs.tar.gz"));
+    assertTrue(
+        new String(entries.get("host-n3-error.txt"), StandardCharsets.UTF_8)
+            .contains("exit code 2"));
+  }
+
+  @Test
+  public void testBandwidthLimit() throws Exception {
+    int bytesPerSec = NodeLogStreamer.CHUNK_SIZE * 8;
+    setConfig(bytesPerSec, 60000);
+    when(nodeUniverseManager.streamNodeLogs(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              NodeDetails node = invocation.getArgument(0);
+              return new FakeProcess(new ByteArrayInputStream(logsOf(node, bytesPerSec)), 0);
+            });
+
+    // The first read of the rate limiter is free, the other (NUM_NODES - 1) seconds are waited.
+    NodeLogStreamer streamer = new NodeLogStreamer(nodeUniverseManager, runtimeConfigFactory);
+    long startMs = System.currentTimeMillis();
+    Map<String, byte[]> entries = readZip(streamer.streamLogBundle(universe, nodes));
+    long elapsedMs = System.currentTimeMillis() - startMs;
+    assertEquals(NUM_NODES, entries.size());
+    assertTrue("Elapsed " + elapsedMs + " ms", elapsedMs >= (NUM_NODES - 1) * 1000 - 200);
+  }
+
+  @Test
+  public void testCloseAbortsDownloads() throws Exception {
+    List<FakeProcess> processes = new ArrayList<>();
+    when(nodeUniverseManager.streamNodeLogs(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              // More logs than the bundle buffers, so the downloads wait for the reader.
+              NodeDetails node = invocation.getArgument(0);
+              byte[] logs = logsOf(node, NodeLogStreamer.CHUNK_SIZE * 10);
+              FakeProcess process = new FakeProcess(new ByteArrayInputStream(logs), 0);
+              synchronized (processes) {
+                processes.add(process);
+              }
+              return process;
+            });
+
+    NodeLogStreamer streamer = new NodeLogStreamer(nodeUniverseManager, runtimeConfigFactory);
+    InputStream bundle = streamer.streamLogBundle(universe, nodes);
+    assertTrue(bundle.read(new byte[1024]) > 0);
+    bundle.close();
+    waitForDestroyed(processes);
+  }
+
+  @Test
+  public void testIdleReaderAbortsBundle() throws Exception {
+    setConfig(0, 200);
+    List<FakeProcess> processes = new ArrayList<>();
+    when(nodeUniverseManager.streamNodeLogs(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              NodeDetails node = invocation.getArgument(0);
+              byte[] logs = logsOf(node, NodeLogStreamer.CHUNK_SIZE * 10);
+              FakeProcess process = new FakeProcess(new ByteArrayInputStream(logs), 0);
+              synchronized (processes) {
+                processes.add(process);
+              }
+              return process;
+            });
+
+    // The reader stops after the first read, so the downloads wait on full buffers until the
+    // idle timeout aborts them.
+    NodeLogStreamer streamer = new NodeLogStreamer(nodeUniverseManager, runtimeConfigFactory);
+    InputStream bundle = streamer.streamLogBundle(universe, nodes);
+    assertTrue(bundle.read(new byte[1024]) > 0);
+    waitForDestroyed(processes);
+    try {
+      bundle.read(new byte[1024]);
+      fail("Read an aborted bundle");
+    } catch (IOException e) {
+      assertEquals("Log bundle is closed", e.getMessage());
+    }
+  }
+
+  private static void waitForDestroyed(List<FakeProcess> processes) throws Exception {
+    long deadlineMs = System.currentTimeMillis() + 10000;
+    while (true) {
+      synchronized (processes) {
+        // Downloads not started yet when the bundle got closed are skipped.
+        if (!processes.isEmpty() && processes.stream().allMatch(p -> p.destroyed)) {
+          break;
+        }
+      }
+      if (System.currentTimeMillis() > deadlineMs) {
+        fail("Downloads were not aborted");
+      }
+      Thread.sleep(10);
+    }
+  }
+}
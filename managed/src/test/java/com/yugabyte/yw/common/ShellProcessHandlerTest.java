@@ -23,6 +23,7 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -91,6 +92,32 @@ public class ShellProcessHandlerTest {
     assertThat(response.message.trim(), allOf(notNullValue(), equalTo("error")));
   }
 
+  @Test
+  public void testLongErrorOutputKeepsTail() throws IOException {
+    String testCmd = "for i in $(seq 1 5000); do >&2 echo error$i; done; exit 1";
+    String fileName = createTestShellScript(testCmd);
+    List<String> command = new ArrayList<String>();
+    command.add(fileName);
+    ShellResponse response = shellProcessHandler.run(command, new HashMap<>());
+    assertEquals(1, response.code);
+    String[] lines = response.message.split("\n");
+    assertEquals(ShellProcessHandler.MAX_STDERR_LINES, lines.length);
+    assertEquals("error5000", lines[lines.length - 1]);
+  }
+
+  @Test
+  public void testLeftoverChildDoesNotBlock() throws IOException {
+    // The background sleep inherits stdout and keeps the pipe open after the script exits.
+    String testCmd = "sleep 30 &\necho done";
+    String fileName = createTestShellScript(testCmd);
+    List<String> command = new ArrayList<String>();
+    command.add(fileName);
+    ShellResponse response = shellProcessHandler.run(command, new HashMap<>());
+    assertEquals(0, response.code);
+    assertEquals("done", response.message);
+    assertTrue(response.durationMs < 5000);
+  }
+
   private String createTestShellScript(String cmd) throws IOException {
     Path fileName = Files.createTempFile(Paths.get(TMP_STORAGE_PATH), "yw_test", ".sh");
     Files.write(fileName, ("#/bin/bash\n" + cmd).getBytes());
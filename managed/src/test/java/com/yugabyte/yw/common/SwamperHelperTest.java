@@ -25,6 +25,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -164,6 +167,53 @@ public class SwamperHelperTest extends FakeDBApplication {
     assertThat(fileContent, equalTo(expectedContent));
   }
 
+  @Test
+  public void testWriteAlertDefinitionUnchanged() {
+    when(appConfig.getString("yb.swamper.rulesPath")).thenReturn(SWAMPER_TMP_PATH);
+    Universe universe = createUniverse(defaultCustomer.getCustomerId());
+    AlertDefinitionGroup group = createAlertDefinitionGroup(defaultCustomer, universe);
+    AlertDefinition definition = createAlertDefinition(defaultCustomer, universe, group);
+
+    assertTrue(swamperHelper.writeAlertDefinition(group, definition));
+    assertFalse(swamperHelper.writeAlertDefinition(group, definition));
+
+    // Restarted helper compares with the existing file.
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    Environment env = new Environment(new File("."), classLoader, Mode.TEST);
+    SwamperHelper restartedHelper = new SwamperHelper(appConfig, env);
+    assertFalse(restartedHelper.writeAlertDefinition(group, definition));
+  }
+
+  @Test
+  public void testWriteFileIfChanged() throws IOException {
+    String filePath = SWAMPER_TMP_PATH + "test.json";
+    assertTrue(swamperHelper.writeFileIfChanged(filePath, "content"));
+    assertFalse(swamperHelper.writeFileIfChanged(filePath, "content"));
+    assertTrue(swamperHelper.writeFileIfChanged(filePath, "new content"));
+    assertThat(
+        FileUtils.readFileToString(new File(filePath), StandardCharsets.UTF_8),
+        equalTo("new content"));
+    // No temporary files are left behind.
+    assertThat(new File(SWAMPER_TMP_PATH).list().length, equalTo(1));
+  }
+
+  @Test
+  public void testWriteFileIfChangedPermissions() throws IOException {
+    String filePath = SWAMPER_TMP_PATH + "test.json";
+    Path path = new File(filePath).toPath();
+    // New files are readable by everyone.
+    assertTrue(swamperHelper.writeFileIfChanged(filePath, "content"));
+    assertThat(
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(path)),
+        equalTo("rw-r--r--"));
+    // Rewritten files keep their permissions.
+    Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-rw-r--"));
+    assertTrue(swamperHelper.writeFileIfChanged(filePath, "new content"));
+    assertThat(
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(path)),
+        equalTo("rw-rw-r--"));
+  }
+
   @Test
   public void testRemoveAlertDefinition() throws IOException {
     when(appConfig.getString("yb.swamper.rulesPath")).thenReturn(SWAMPER_TMP_PATH);
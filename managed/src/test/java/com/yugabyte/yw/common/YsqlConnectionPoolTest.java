@@ -0,0 +1,93 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+import org.junit.Test;
+
+public class YsqlConnectionPoolTest {
+
+  private final YsqlConnectionPool connectionPool = new YsqlConnectionPool();
+
+  private Properties credentials() {
+    Properties props = new Properties();
+    props.put("user", "sa");
+    props.put("password", "");
+    return props;
+  }
+
+  @Test
+  public void testPoolReusedForSameEndpoint() throws SQLException {
+    UUID universeUUID = UUID.randomUUID();
+    String url = "jdbc:h2:mem:" + universeUUID;
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials())) {
+      assertTrue(conn.isValid(1));
+    }
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials())) {
+      assertTrue(conn.isValid(1));
+    }
+    assertEquals(1, connectionPool.size());
+  }
+
+  @Test
+  public void testNewPoolForChangedEndpoint() throws SQLException {
+    UUID universeUUID = UUID.randomUUID();
+    String url = "jdbc:h2:mem:" + universeUUID;
+    connectionPool.getConnection(universeUUID, url + "a", credentials()).close();
+    connectionPool.getConnection(universeUUID, url + "b", credentials()).close();
+    assertEquals(2, connectionPool.size());
+
+    connectionPool.invalidate(universeUUID);
+    assertEquals(0, connectionPool.size());
+  }
+
+  @Test(expected = SQLException.class)
+  public void testConnectionFailure() throws SQLException {
+    UUID universeUUID = UUID.randomUUID();
+    Properties props = credentials();
+    props.put("password", "wrong");
+    String url = "jdbc:h2:mem:" + universeUUID + ";IFEXISTS=TRUE";
+    connectionPool.getConnection(universeUUID, url, props);
+  }
+
+  @Test
+  public void testSessionStateNotLeaked() throws SQLException {
+    UUID universeUUID = UUID.randomUUID();
+    String url = "jdbc:h2:mem:" + universeUUID;
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials());
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("SET @leaked = 1");
+    }
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials());
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT @leaked")) {
+      assertTrue(rs.next());
+      assertNull(rs.getObject(1));
+    }
+  }
+
+  @Test
+  public void testInvalidateWaitsForBorrowedConnections() throws SQLException {
+    UUID universeUUID = UUID.randomUUID();
+    String url = "jdbc:h2:mem:" + universeUUID;
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials())) {
+      connectionPool.invalidate(universeUUID);
+      assertEquals(0, connectionPool.size());
+      // The pool is only closed once the connection is handed back.
+      assertTrue(conn.isValid(1));
+    }
+    try (Connection conn = connectionPool.getConnection(universeUUID, url, credentials())) {
+      assertTrue(conn.isValid(1));
+    }
+    assertEquals(1, connectionPool.size());
+  }
+}
@@ -144,4 +144,27 @@ public class AlertConfigurationWriterTest extends FakeDBApplication {
     // Not called on subsequent run
     verify(queryHelper, times(1)).postManagementCommand("reload");
   }
+
+  @Test
+  public void testReloadOnlyOnChangedFiles() {
+    when(swamperHelper.writeAlertDefinition(any(), any())).thenReturn(false);
+    configurationWriter.syncDefinitions();
+    // Called once after startup
+    verify(queryHelper, times(1)).postManagementCommand("reload");
+
+    definition = alertDefinitionService.get(definition.getUuid());
+    definition.setConfigWritten(false);
+    alertDefinitionService.save(definition);
+    configurationWriter.syncDefinitions();
+    // Rendered file is the same - no reload.
+    verify(swamperHelper, times(2)).writeAlertDefinition(any(), any());
+    verify(queryHelper, times(1)).postManagementCommand("reload");
+
+    when(swamperHelper.writeAlertDefinition(any(), any())).thenReturn(true);
+    definition = alertDefinitionService.get(definition.getUuid());
+    definition.setConfigWritten(false);
+    alertDefinitionService.save(definition);
+    configurationWriter.syncDefinitions();
+    verify(queryHelper, times(2)).postManagementCommand("reload");
+  }
 }
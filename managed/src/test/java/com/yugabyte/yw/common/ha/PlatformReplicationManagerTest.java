@@ -16,6 +16,8 @@ import com.yugabyte.yw.common.ShellProcessHandler;
 import com.yugabyte.yw.common.ShellResponse;
 import com.yugabyte.yw.common.config.impl.RuntimeConfig;
 import com.yugabyte.yw.common.config.impl.SettableRuntimeConfigFactory;
+import com.yugabyte.yw.models.HighAvailabilityConfig;
+import com.yugabyte.yw.models.PlatformInstance;
 import io.ebean.Model;
 import junit.framework.TestCase;
 import junitparams.JUnitParamsRunner;
@@ -25,15 +27,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import play.inject.ApplicationLifecycle;
 import scala.concurrent.ExecutionContext;
 
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
@@ -51,6 +57,16 @@ public class PlatformReplicationManagerTest extends TestCase {
 
   @Mock PlatformReplicationHelper mockReplicationUtil;
 
+  @Mock ApplicationLifecycle lifecycle;
+
+  @Mock HighAvailabilityConfig mockHaConfig;
+
+  @Mock PlatformInstance localInstance;
+
+  @Mock PlatformInstance remoteInstance1;
+
+  @Mock PlatformInstance remoteInstance2;
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
@@ -140,7 +156,9 @@ public class PlatformReplicationManagerTest extends TestCase {
     when(mockReplicationUtil.getRuntimeConfig()).thenReturn(config);
     setupConfig(prometheusHost, dbUsername, dbPassword, dbHost, dbPort);
     PlatformReplicationManager backupManager =
-        spy(new PlatformReplicationManager(actorSystem, executionContext, mockReplicationUtil));
+        spy(
+            new PlatformReplicationManager(
+                actorSystem, executionContext, mockReplicationUtil, lifecycle));
 
     List<String> expectedCommandArgs =
         getExpectedPlatformBackupCommandArgs(
@@ -187,7 +205,9 @@ public class PlatformReplicationManagerTest extends TestCase {
       doCallRealMethod().when(mockReplicationUtil).cleanupReceivedBackups(any(URL.class), anyInt());
       doCallRealMethod().when(mockReplicationUtil).listBackups(any(URL.class));
       PlatformReplicationManager backupManager =
-          spy(new PlatformReplicationManager(actorSystem, executionContext, mockReplicationUtil));
+          spy(
+              new PlatformReplicationManager(
+                  actorSystem, executionContext, mockReplicationUtil, lifecycle));
 
       List<File> backups = backupManager.listBackups(testUrl);
       assertEquals(3, backups.size());
@@ -219,4 +239,139 @@ public class PlatformReplicationManagerTest extends TestCase {
       testFile3.delete();
     }
   }
+
+  private PlatformReplicationManager setupSync(Optional<Long> changeCounter) {
+    when(mockHaConfig.getLocal()).thenReturn(Optional.of(localInstance));
+    when(mockHaConfig.getRemoteInstances())
+        .thenReturn(Arrays.asList(remoteInstance1, remoteInstance2));
+    when(remoteInstance1.getAddress()).thenReturn("http://remote1.com");
+    when(remoteInstance2.getAddress()).thenReturn("http://remote2.com");
+    when(mockReplicationUtil.isIncrementalSyncEnabled()).thenReturn(true);
+    when(mockReplicationUtil.getDataChangeCounter()).thenReturn(changeCounter);
+    when(mockReplicationUtil.getBackupFrequency()).thenReturn(Duration.ZERO);
+    PlatformReplicationManager backupManager =
+        spy(
+            new PlatformReplicationManager(
+                actorSystem, executionContext, mockReplicationUtil, lifecycle));
+    doReturn(true).when(backupManager).createBackup();
+    doReturn(true).when(backupManager).sendBackup(any(PlatformInstance.class));
+
+    return backupManager;
+  }
+
+  @Test
+  public void testNeedsBackup() {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+
+    assertTrue(backupManager.needsBackup(remoteInstance1, Optional.empty()));
+    assertTrue(backupManager.needsBackup(remoteInstance1, Optional.of(5L)));
+
+    backupManager.sync(mockHaConfig);
+
+    assertTrue(backupManager.needsBackup(remoteInstance1, Optional.empty()));
+    assertFalse(backupManager.needsBackup(remoteInstance1, Optional.of(5L)));
+    assertTrue(backupManager.needsBackup(remoteInstance1, Optional.of(6L)));
+  }
+
+  @Test
+  public void testSyncSendsBackupToAllFollowers() {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+
+    backupManager.sync(mockHaConfig);
+
+    verify(backupManager, times(1)).createBackup();
+    verify(backupManager, times(1)).sendBackup(remoteInstance1);
+    verify(backupManager, times(1)).sendBackup(remoteInstance2);
+    verify(mockReplicationUtil, times(1)).syncToRemoteInstance(remoteInstance1);
+    verify(mockReplicationUtil, times(1)).syncToRemoteInstance(remoteInstance2);
+    verify(localInstance, times(1)).updateLastBackup();
+    verify(mockReplicationUtil, times(1)).cleanupCreatedBackups();
+  }
+
+  @Test
+  public void testSyncSkipsBackupWhenUnchanged() {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+
+    backupManager.sync(mockHaConfig);
+    backupManager.sync(mockHaConfig);
+
+    // The second sync only sends the HA cluster metadata.
+    verify(backupManager, times(1)).createBackup();
+    verify(backupManager, times(1)).sendBackup(remoteInstance1);
+    verify(backupManager, times(1)).sendBackup(remoteInstance2);
+    verify(mockReplicationUtil, times(2)).syncToRemoteInstance(remoteInstance1);
+    verify(mockReplicationUtil, times(2)).syncToRemoteInstance(remoteInstance2);
+    // No backup time is recorded for a backup that was never taken or sent.
+    verify(localInstance, times(1)).updateLastBackup();
+    verify(remoteInstance1, never()).updateLastBackup();
+    verify(remoteInstance2, never()).updateLastBackup();
+    verify(mockReplicationUtil, times(1)).cleanupCreatedBackups();
+  }
+
+  @Test
+  public void testSyncSendsBackupWhenChanged() {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+
+    backupManager.sync(mockHaConfig);
+    when(mockReplicationUtil.getDataChangeCounter()).thenReturn(Optional.of(6L));
+    backupManager.sync(mockHaConfig);
+
+    verify(backupManager, times(2)).createBackup();
+    verify(backupManager, times(2)).sendBackup(remoteInstance1);
+    verify(backupManager, times(2)).sendBackup(remoteInstance2);
+    verify(localInstance, times(2)).updateLastBackup();
+  }
+
+  @Test
+  public void testSyncAlwaysSendsBackupWithoutCounter() {
+    PlatformReplicationManager backupManager = setupSync(Optional.empty());
+
+    backupManager.sync(mockHaConfig);
+    backupManager.sync(mockHaConfig);
+
+    verify(backupManager, times(2)).createBackup();
+    verify(backupManager, times(2)).sendBackup(remoteInstance1);
+    verify(backupManager, times(2)).sendBackup(remoteInstance2);
+  }
+
+  @Test
+  public void testSyncRetriesFailedFollower() {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+    doReturn(false).when(backupManager).sendBackup(remoteInstance2);
+
+    backupManager.sync(mockHaConfig);
+
+    verify(mockReplicationUtil, times(1)).syncToRemoteInstance(remoteInstance1);
+    verify(mockReplicationUtil, never()).syncToRemoteInstance(remoteInstance2);
+
+    doReturn(true).when(backupManager).sendBackup(remoteInstance2);
+    backupManager.sync(mockHaConfig);
+
+    // Only the follower that missed the backup gets it again.
+    verify(backupManager, times(2)).createBackup();
+    verify(backupManager, times(1)).sendBackup(remoteInstance1);
+    verify(backupManager, times(2)).sendBackup(remoteInstance2);
+    verify(mockReplicationUtil, times(1)).syncToRemoteInstance(remoteInstance2);
+  }
+
+  @Test
+  public void testDemoteForgetsSyncedState() throws Exception {
+    PlatformReplicationManager backupManager = setupSync(Optional.of(5L));
+    when(localInstance.getIsLocal()).thenReturn(true);
+
+    backupManager.sync(mockHaConfig);
+    assertFalse(backupManager.needsBackup(remoteInstance1, Optional.of(5L)));
+
+    backupManager.demoteLocalInstance(localInstance, "http://remote1.com");
+
+    assertTrue(backupManager.needsBackup(remoteInstance1, Optional.of(5L)));
+    assertTrue(backupManager.needsBackup(remoteInstance2, Optional.of(5L)));
+  }
+
+  @Test
+  public void testStopHookRegistered() {
+    new PlatformReplicationManager(actorSystem, executionContext, mockReplicationUtil, lifecycle);
+
+    verify(lifecycle, times(1)).addStopHook(any());
+  }
 }
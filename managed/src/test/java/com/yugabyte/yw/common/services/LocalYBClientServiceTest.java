@@ -0,0 +1,91 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.prometheus.client.CollectorRegistry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import play.inject.ApplicationLifecycle;
+import org.yb.client.YBClient;
+
+public class LocalYBClientServiceTest {
+
+  private final LocalYBClientService ybClientService =
+      new LocalYBClientService(new CollectorRegistry(), null /* lifecycle */) {
+        @Override
+        YBClient getNewClient(String masterHPs, String certFile) {
+          return mock(YBClient.class);
+        }
+      };
+
+  @Test
+  public void testClientShared() throws Exception {
+    YBClient client = ybClientService.getClient("h1:7100,h2:7100,h3:7100");
+    YBClient sameClient = ybClientService.getClient("h3:7100,h1:7100,h2:7100");
+    YBClient otherCertClient = ybClientService.getClient("h1:7100,h2:7100,h3:7100", "cert");
+    assertSame(client, sameClient);
+    assertNotSame(client, otherCertClient);
+    assertEquals(2, ybClientService.size());
+
+    ybClientService.closeClient(client, "h1:7100,h2:7100,h3:7100");
+    ybClientService.closeClient(sameClient, "h3:7100,h1:7100,h2:7100");
+    verify(client, never()).close();
+  }
+
+  @Test
+  public void testIdleClientClosed() throws Exception {
+    YBClient client = ybClientService.getClient("h1:7100");
+    YBClient usedClient = ybClientService.getClient("h2:7100");
+    ybClientService.closeClient(client, "h1:7100");
+
+    ybClientService.evictIdleClients(
+        System.currentTimeMillis() + LocalYBClientService.IDLE_TIMEOUT_MS);
+    verify(client).close();
+    verify(usedClient, never()).close();
+    assertEquals(1, ybClientService.size());
+
+    assertNotSame(client, ybClientService.getClient("h1:7100"));
+  }
+
+  @Test
+  public void testClientRebuiltOnMasterChange() throws Exception {
+    YBClient client = ybClientService.getClient("h1:7100,h2:7100,h3:7100");
+    ybClientService.closeClient(client, "h1:7100,h2:7100,h3:7100");
+
+    YBClient newClient = ybClientService.getClient("h1:7100,h2:7100,h4:7100");
+    assertNotSame(client, newClient);
+    verify(client).close();
+    assertEquals(1, ybClientService.size());
+  }
+
+  @Test
+  public void testNotPooledClientClosed() throws Exception {
+    YBClient client = mock(YBClient.class);
+    ybClientService.closeClient(client, "h1:7100");
+    verify(client).close();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testStopHookShutsDownEvictor() throws Exception {
+    ApplicationLifecycle lifecycle = mock(ApplicationLifecycle.class);
+    LocalYBClientService service = new LocalYBClientService(new CollectorRegistry(), lifecycle);
+    ArgumentCaptor<Callable<? extends CompletionStage<?>>> stopHook =
+        ArgumentCaptor.forClass(Callable.class);
+    verify(lifecycle).addStopHook(stopHook.capture());
+
+    stopHook.getValue().call().toCompletableFuture().get();
+
+    assertTrue(service.isEvictorShutdown());
+  }
+}
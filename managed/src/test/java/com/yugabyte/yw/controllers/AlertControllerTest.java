@@ -23,6 +23,7 @@ import com.yugabyte.yw.models.filters.AlertFilter;
 import com.yugabyte.yw.models.paging.AlertDefinitionGroupPagedResponse;
 import com.yugabyte.yw.models.paging.AlertPagedResponse;
 import com.yugabyte.yw.models.paging.PagedQuery;
+import io.ebean.Ebean;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -688,6 +689,120 @@ public class AlertControllerTest extends FakeDBApplication {
     assertThat(alerts.getEntities(), contains(initial2, initial3));
   }
 
+  @Test
+  public void testPageAlertsByCursor() {
+    Alert initial = ModelFactory.createAlert(customer, alertDefinition);
+    Alert initial2 = ModelFactory.createAlert(customer, alertDefinition);
+    Alert initial3 = ModelFactory.createAlert(customer, alertDefinition);
+
+    // Alerts created at the same time are ordered by uuid, each returned once.
+    initial2.setCreateTime(initial.getCreateTime());
+    initial3.setCreateTime(Date.from(initial3.getCreateTime().toInstant().minusSeconds(10)));
+    alertService.save(initial2);
+    alertService.save(initial3);
+
+    AlertPagedApiQuery query = new AlertPagedApiQuery();
+    query.setSortBy(Alert.SortBy.CREATE_TIME);
+    query.setDirection(PagedQuery.SortDirection.DESC);
+    query.setFilter(new AlertApiFilter());
+    query.setLimit(1);
+
+    List<Alert> pagedAlerts = new ArrayList<>();
+    AlertPagedResponse alerts;
+    do {
+      Result result =
+          doRequestWithAuthTokenAndBody(
+              "POST",
+              "/api/customers/" + customer.uuid + "/alerts/page",
+              authToken,
+              Json.toJson(query));
+      assertThat(result.status(), equalTo(OK));
+      alerts = Json.fromJson(Json.parse(contentAsString(result)), AlertPagedResponse.class);
+      assertThat(alerts.isHasPrev(), equalTo(query.getCursor() != null));
+      assertThat(alerts.getEntities(), hasSize(1));
+      pagedAlerts.addAll(alerts.getEntities());
+      query.setCursor(alerts.getNextCursor());
+    } while (alerts.isHasNext());
+
+    assertThat(pagedAlerts, hasSize(3));
+    assertThat(pagedAlerts.subList(0, 2), containsInAnyOrder(initial, initial2));
+    assertThat(pagedAlerts.get(2), equalTo(initial3));
+  }
+
+  // Pages through the alerts of the customer by cursor, one alert at a time.
+  private List<UUID> pageAlertsByCursor(AlertPagedApiQuery query) {
+    query.setLimit(1);
+    List<UUID> pagedAlerts = new ArrayList<>();
+    AlertPagedResponse alerts;
+    do {
+      Result result =
+          doRequestWithAuthTokenAndBody(
+              "POST",
+              "/api/customers/" + customer.uuid + "/alerts/page",
+              authToken,
+              Json.toJson(query));
+      assertThat(result.status(), equalTo(OK));
+      alerts = Json.fromJson(Json.parse(contentAsString(result)), AlertPagedResponse.class);
+      alerts.getEntities().forEach(alert -> pagedAlerts.add(alert.getUuid()));
+      query.setCursor(alerts.getNextCursor());
+    } while (alerts.isHasNext());
+    return pagedAlerts;
+  }
+
+  @Test
+  public void testPageAlertsByCursorNullSortValue() {
+    UUID severe = ModelFactory.createAlert(customer, alertDefinition).getUuid();
+    UUID noSeverity = ModelFactory.createAlert(customer, alertDefinition).getUuid();
+    UUID noSeverity2 = ModelFactory.createAlert(customer, alertDefinition).getUuid();
+    // Alerts created before the severity was mandatory.
+    for (UUID uuid : Arrays.asList(noSeverity, noSeverity2)) {
+      Ebean.createSqlUpdate("update alert set severity = null where uuid = :uuid")
+          .setParameter("uuid", uuid)
+          .execute();
+    }
+
+    AlertPagedApiQuery query = new AlertPagedApiQuery();
+    query.setSortBy(Alert.SortBy.SEVERITY);
+    query.setFilter(new AlertApiFilter());
+
+    // Alerts without a severity go last in ascending order, and first in descending order.
+    query.setDirection(PagedQuery.SortDirection.ASC);
+    List<UUID> pagedAlerts = pageAlertsByCursor(query);
+    assertThat(pagedAlerts, hasSize(3));
+    assertThat(pagedAlerts.get(0), equalTo(severe));
+    assertThat(pagedAlerts.subList(1, 3), containsInAnyOrder(noSeverity, noSeverity2));
+
+    query.setDirection(PagedQuery.SortDirection.DESC);
+    query.setCursor(null);
+    pagedAlerts = pageAlertsByCursor(query);
+    assertThat(pagedAlerts, hasSize(3));
+    assertThat(pagedAlerts.subList(0, 2), containsInAnyOrder(noSeverity, noSeverity2));
+    assertThat(pagedAlerts.get(2), equalTo(severe));
+  }
+
+  @Test
+  public void testPageAlertsByCursorOfOtherCustomer() {
+    ModelFactory.createAlert(customer, alertDefinition);
+    Customer otherCustomer = ModelFactory.testCustomer("tc2", "Test Customer 2");
+    Alert otherAlert = ModelFactory.createAlert(otherCustomer);
+
+    AlertPagedApiQuery query = new AlertPagedApiQuery();
+    query.setSortBy(Alert.SortBy.CREATE_TIME);
+    query.setDirection(PagedQuery.SortDirection.DESC);
+    query.setFilter(new AlertApiFilter());
+    query.setLimit(1);
+    query.setCursor(otherAlert.getUuid().toString());
+    Result result =
+        assertYWSE(
+            () ->
+                doRequestWithAuthTokenAndBody(
+                    "POST",
+                    "/api/customers/" + customer.uuid + "/alerts/page",
+                    authToken,
+                    Json.toJson(query)));
+    assertBadRequest(result, "Invalid cursor " + otherAlert.getUuid());
+  }
+
   @Test
   public void testAcknowledgeAlert() {
     Alert initial = ModelFactory.createAlert(customer, alertDefinition);
@@ -60,8 +60,43 @@ public class AuditControllerTest extends FakeDBApplication {
             fakeRequest("GET", String.format(route, customer1.uuid, user1.uuid))
                 .cookie(validCookie));
     assertEquals(OK, result.status());
-    JsonNode json = Json.parse(contentAsString(result));
+    JsonNode json = Json.parse(contentAsString(result, mat));
     assertEquals(json.size(), 2);
+    assertEquals(audit2.getAuditID().longValue(), json.get(0).get("auditID").asLong());
+    assertEquals(audit1.getAuditID().longValue(), json.get(1).get("auditID").asLong());
+  }
+
+  @Test
+  public void testGetAuditListByUserPaged() {
+    Http.Cookie validCookie = Http.Cookie.builder("authToken", authToken1).build();
+    String route = "/api/customers/%s/users/%s/audit_trail?limit=1";
+    String nextRoute = route + "&before=%d";
+    Result result =
+        route(
+            fakeRequest("GET", String.format(route, customer1.uuid, user1.uuid))
+                .cookie(validCookie));
+    assertEquals(OK, result.status());
+    JsonNode json = Json.parse(contentAsString(result));
+    assertEquals(1, json.size());
+    long lastID = json.get(0).get("auditID").asLong();
+    assertEquals(audit2.getAuditID().longValue(), lastID);
+
+    result =
+        route(
+            fakeRequest("GET", String.format(nextRoute, customer1.uuid, user1.uuid, lastID))
+                .cookie(validCookie));
+    assertEquals(OK, result.status());
+    json = Json.parse(contentAsString(result));
+    assertEquals(1, json.size());
+    lastID = json.get(0).get("auditID").asLong();
+    assertEquals(audit1.getAuditID().longValue(), lastID);
+
+    result =
+        route(
+            fakeRequest("GET", String.format(nextRoute, customer1.uuid, user1.uuid, lastID))
+                .cookie(validCookie));
+    assertEquals(OK, result.status());
+    assertEquals(0, Json.parse(contentAsString(result)).size());
   }
 
   @Test
@@ -4,6 +4,7 @@ package com.yugabyte.yw.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.stumbleupon.async.Deferred;
 import com.yugabyte.yw.commissioner.Common.CloudType;
 import com.yugabyte.yw.commissioner.tasks.CommissionerBaseTest;
 import com.yugabyte.yw.common.ModelFactory;
@@ -17,6 +18,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.yb.client.AsyncYBClient;
 import org.yb.client.ListTabletServersResponse;
 import org.yb.client.YBClient;
 import org.yb.util.ServerInfo;
@@ -47,6 +49,7 @@ public class ImportControllerTest extends CommissionerBaseTest {
   private Users user;
   private String authToken;
   private YBClient mockClient;
+  private AsyncYBClient mockAsyncClient;
   private ListTabletServersResponse mockResponse;
 
   @Before
@@ -59,7 +62,9 @@ public class ImportControllerTest extends CommissionerBaseTest {
     mockResponse = mock(ListTabletServersResponse.class);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
     when(mockYBClient.getClient(any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    mockAsyncClient = mock(AsyncYBClient.class);
+    when(mockClient.getAsyncClient()).thenReturn(mockAsyncClient);
+    when(mockAsyncClient.ping(any())).thenReturn(Deferred.fromResult(null));
     when(mockResponse.getTabletServersCount()).thenReturn(3);
     List<ServerInfo> mockTabletSIs = new ArrayList<>();
     ServerInfo si = new ServerInfo("UUID1", "127.0.0.1", 9100, false, "ALIVE");
@@ -289,7 +294,7 @@ public class ImportControllerTest extends CommissionerBaseTest {
 
   @Test
   public void testFailedMasterImport() {
-    when(mockClient.waitForServer(any(), anyLong())).thenThrow(IllegalStateException.class);
+    when(mockAsyncClient.ping(any())).thenThrow(IllegalStateException.class);
     String url = "/api/customers/" + customer.uuid + "/universes/import";
     ObjectNode bodyJson =
         Json.newObject().put("universeName", "importUniv").put("masterAddresses", MASTER_ADDRS);
@@ -0,0 +1,84 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.metrics;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Compares MetricBuckets with the TreeMap merge it replaced. Not part of the unit suite, run it
+ * with: sbt "test:runMain com.yugabyte.yw.metrics.MetricBucketsBenchmark"
+ */
+public class MetricBucketsBenchmark {
+
+  private static final long START_SEC = 1000000L;
+  private static final long STEP_SEC = 30L;
+
+  // A day of samples every 30 seconds from 100 tservers.
+  private static final int NUM_TSERVERS = 100;
+  private static final int NUM_SAMPLES = 2880;
+  private static final int NUM_ITERATIONS = 10;
+
+  // The previous implementation: rates of each tserver merged into a TreeMap keyed by the first
+  // timestamp seen in a TIMESTAMP_RANGE_SECS range.
+  private static NavigableMap<Long, Double> treeMapRate(long[] timestampsSec, double[][] values) {
+    NavigableMap<Long, Double> timeRangeMap = new TreeMap<>();
+    for (double[] series : values) {
+      for (int i = 1; i < series.length; i++) {
+        long currTimestampSec = timestampsSec[i];
+        double currRate = (series[i - 1] - series[i]) / (timestampsSec[i - 1] - currTimestampSec);
+        Map.Entry<Long, Double> entry = timeRangeMap.floorEntry(currTimestampSec);
+        if (entry == null || currTimestampSec - entry.getKey() > STEP_SEC) {
+          timeRangeMap.put(currTimestampSec, currRate);
+        } else {
+          timeRangeMap.put(entry.getKey(), entry.getValue() + currRate);
+        }
+      }
+    }
+    return timeRangeMap;
+  }
+
+  private static double[] bucketRate(long[] timestampsSec, double[][] values) {
+    MetricBuckets buckets =
+        MetricBuckets.counter(START_SEC, START_SEC + NUM_SAMPLES * STEP_SEC, STEP_SEC);
+    for (int series = 0; series < values.length; series++) {
+      String tserver = "ts" + series;
+      for (int i = 0; i < timestampsSec.length; i++) {
+        buckets.add(tserver, timestampsSec[i], values[series][i]);
+      }
+    }
+    return buckets.sum();
+  }
+
+  public static void main(String[] args) {
+    // Newest first, as the metrics table returns them. Every tserver serves 10 RPCs per second.
+    long[] timestampsSec = new long[NUM_SAMPLES];
+    double[][] values = new double[NUM_TSERVERS][NUM_SAMPLES];
+    for (int i = 0; i < NUM_SAMPLES; i++) {
+      timestampsSec[i] = START_SEC + (NUM_SAMPLES - 1 - i) * STEP_SEC;
+      for (int series = 0; series < NUM_TSERVERS; series++) {
+        values[series][i] = (timestampsSec[i] - START_SEC) * 10 + series;
+      }
+    }
+
+    // Warm up both, then measure.
+    treeMapRate(timestampsSec, values);
+    bucketRate(timestampsSec, values);
+    long treeMapNanos = 0;
+    long bucketNanos = 0;
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      long startNanos = System.nanoTime();
+      treeMapRate(timestampsSec, values);
+      treeMapNanos += System.nanoTime() - startNanos;
+      startNanos = System.nanoTime();
+      bucketRate(timestampsSec, values);
+      bucketNanos += System.nanoTime() - startNanos;
+    }
+    System.out.printf(
+        "Rate of %d samples: TreeMap %d ms, buckets %d ms per iteration.%n",
+        NUM_TSERVERS * NUM_SAMPLES,
+        treeMapNanos / NUM_ITERATIONS / 1000000,
+        bucketNanos / NUM_ITERATIONS / 1000000);
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class MetricBucketsTest {
+
+  private static final long START_SEC = 1000000L;
+  private static final long STEP_SEC = 30L;
+  private static final double DELTA = 0.0001;
+
+  @Test
+  public void testCounterRateAscendingAndDescending() {
+    MetricBuckets ascending = MetricBuckets.counter(START_SEC, START_SEC + 90, STEP_SEC);
+    ascending.add("ts1", START_SEC, 0);
+    ascending.add("ts1", START_SEC + 30, 300);
+    ascending.add("ts1", START_SEC + 60, 900);
+
+    MetricBuckets descending = MetricBuckets.counter(START_SEC, START_SEC + 90, STEP_SEC);
+    descending.add("ts1", START_SEC + 60, 900);
+    descending.add("ts1", START_SEC + 30, 300);
+    descending.add("ts1", START_SEC, 0);
+
+    double[] expected = {10, 20, Double.NaN};
+    assertArrayEquals(expected, ascending.sum(), DELTA);
+    assertArrayEquals(expected, descending.sum(), DELTA);
+  }
+
+  @Test
+  public void testSamplesOutsideOfRange() {
+    MetricBuckets buckets = MetricBuckets.gauge(START_SEC, START_SEC + 60, STEP_SEC, 1);
+    buckets.add("ts1", START_SEC - 1, 1);
+    buckets.add("ts1", START_SEC + 60, 1);
+    assertEquals(2, buckets.getNumBuckets());
+    assertArrayEquals(new double[] {Double.NaN, Double.NaN}, buckets.sum(), DELTA);
+  }
+
+  @Test
+  public void testDivide() {
+    double[] result =
+        MetricBuckets.divide(new double[] {10, Double.NaN, 5}, new double[] {2, 1, 0});
+    assertArrayEquals(new double[] {5, Double.NaN, Double.NaN}, result, DELTA);
+  }
+
+  @Test
+  public void testCounterRateOfManyTservers() {
+    // Grouped by tserver and newest first, as the metrics table returns them. Every tserver serves
+    // 10 RPCs per second.
+    int numTservers = 10;
+    int numSamples = 100;
+    MetricBuckets buckets =
+        MetricBuckets.counter(START_SEC, START_SEC + numSamples * STEP_SEC, STEP_SEC);
+    for (int series = 0; series < numTservers; series++) {
+      for (int i = numSamples - 1; i >= 0; i--) {
+        long timestampSec = START_SEC + i * STEP_SEC;
+        buckets.add("ts" + series, timestampSec, (timestampSec - START_SEC) * 10 + series);
+      }
+    }
+
+    double[] result = buckets.sum();
+    assertEquals(numSamples, result.length);
+    for (int i = 0; i < numSamples - 1; i++) {
+      assertEquals(numTservers * 10, result[i], DELTA);
+    }
+    assertEquals(Double.NaN, result[numSamples - 1], DELTA);
+  }
+}
@@ -2,223 +2,160 @@
 
 package com.yugabyte.yw.metrics;
 
-import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.collect.ImmutableMap;
-import com.yugabyte.yw.common.ApiHelper;
 import com.yugabyte.yw.common.FakeDBApplication;
-import com.yugabyte.yw.models.MetricConfig;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Mock;
-import org.mockito.Mockito;
-import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.InjectMocks;
-import org.mockito.stubbing.OngoingStubbing;
-import play.libs.Json;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
-
-import static org.hamcrest.CoreMatchers.instanceOf;
-import static org.hamcrest.CoreMatchers.notNullValue;
-import static org.junit.Assert.assertEquals;
-import static org.mockito.Matchers.anyMap;
-import static org.mockito.Matchers.anyString;
-import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.when;
-
-import static org.hamcrest.CoreMatchers.equalTo;
-import static org.hamcrest.core.AllOf.allOf;
-import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.verify;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import static com.yugabyte.yw.metrics.YBMetricQueryComponent.Function.Sum;
-import static com.yugabyte.yw.metrics.YBMetricQueryComponent.Function.Average;
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.when;
 
-@RunWith(MockitoJUnitRunner.class)
+@RunWith(MockitoJUnitRunner.Silent.class)
 public class YBMetricQueryComponentTest extends FakeDBApplication {
 
+  private static final String METRIC = "handler_latency_yb_tserver_TabletServerService_Read_count";
+  private static final long START_SEC = 2323080L;
+  private static final long END_SEC = 2323320L;
+  private static final long STEP_SEC = 30L;
+  private static final double DELTA = 0.0001;
+
   @InjectMocks YBMetricQueryComponent ybMetricQueryComponent;
 
-  private class MockResultSet {
-    List<Date> times;
-    List<Long> values;
-    List<Boolean> hasNexts;
+  private Row mockRow(String metric, String node, long timestampSec, long value) {
+    Row row = Mockito.mock(Row.class);
+    when(row.getString("metric")).thenReturn(metric);
+    when(row.getString("node")).thenReturn(node);
+    when(row.getTimestamp("ts")).thenReturn(new Date(timestampSec * 1000 + 232));
+    when(row.getLong("value")).thenReturn(value);
+    return row;
   }
 
-  // Takes a MockResultSet that contains the information to mock the iterator's
-  // next values. MockResultSet.hasNexts is expected to have 2x + 1 the values of the
-  // other members since it is queried twice in each call (three times in the first iteration).
-  public List<ResultSet> setupCalculate(List<MockResultSet> mockResultSet) {
-    List<ResultSet> allRS = new ArrayList<>();
-    ResultSet rs1 = Mockito.mock(ResultSet.class);
-    ResultSet rs2 = Mockito.mock(ResultSet.class);
-    ResultSet rs3 = Mockito.mock(ResultSet.class);
-    allRS.add(rs1);
-    allRS.add(rs2);
-    allRS.add(rs3);
-
-    Row row1 = Mockito.mock(Row.class);
-    Row row2 = Mockito.mock(Row.class);
-    Row row3 = Mockito.mock(Row.class);
-
-    OngoingStubbing timestamps1 = when(row1.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(0).times) {
-      timestamps1 = timestamps1.thenReturn(time);
-    }
-    OngoingStubbing timestamps2 = when(row2.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(1).times) {
-      timestamps2 = timestamps2.thenReturn(time);
-    }
-    OngoingStubbing timestamps3 = when(row3.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(2).times) {
-      timestamps3 = timestamps3.thenReturn(time);
-    }
-
-    OngoingStubbing values1 = when(row1.getLong("value"));
-    for (Long value : mockResultSet.get(0).values) {
-      values1 = values1.thenReturn(value);
-    }
-    OngoingStubbing values2 = when(row2.getLong("value"));
-    for (Long value : mockResultSet.get(1).values) {
-      values2 = values2.thenReturn(value);
+  // Rows of a tserver, newest first as the metrics table returns them.
+  private List<Row> mockSeries(String metric, String node, long[] timestampsSec, long[] values) {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < timestampsSec.length; i++) {
+      rows.add(mockRow(metric, node, timestampsSec[i], values[i]));
     }
-    OngoingStubbing values3 = when(row3.getLong("value"));
-    for (Long value : mockResultSet.get(2).values) {
-      values3 = values3.thenReturn(value);
-    }
-
-    Iterator iterator1 = Mockito.mock(Iterator.class);
-    Iterator iterator2 = Mockito.mock(Iterator.class);
-    Iterator iterator3 = Mockito.mock(Iterator.class);
+    return rows;
+  }
 
-    when(rs1.iterator()).thenReturn(iterator1);
-    when(rs2.iterator()).thenReturn(iterator2);
-    when(rs3.iterator()).thenReturn(iterator3);
+  private List<Row> mockSeries(String node) {
+    return mockSeries(
+        METRIC,
+        node,
+        new long[] {2323283L, 2323253L, 2323223L, 2323193L, 2323163L},
+        new long[] {16000L, 12000L, 10000L, 7000L, 5000L});
+  }
 
-    OngoingStubbing iteratorNext1 = when(iterator1.hasNext());
-    for (Boolean hasNext : mockResultSet.get(0).hasNexts) {
-      iteratorNext1 = iteratorNext1.thenReturn(hasNext);
-    }
-    OngoingStubbing iteratorNext2 = when(iterator2.hasNext());
-    for (Boolean hasNext : mockResultSet.get(1).hasNexts) {
-      iteratorNext2 = iteratorNext2.thenReturn(hasNext);
-    }
-    OngoingStubbing iteratorNext3 = when(iterator3.hasNext());
-    for (Boolean hasNext : mockResultSet.get(2).hasNexts) {
-      iteratorNext3 = iteratorNext3.thenReturn(hasNext);
-    }
+  private MetricBuckets aggregate(List<Row> rows) {
+    Map<String, MetricBuckets> buckets = new HashMap<>();
+    buckets.put(METRIC, MetricBuckets.counter(START_SEC, END_SEC, STEP_SEC));
+    ybMetricQueryComponent.aggregate(rows, buckets);
+    return buckets.get(METRIC);
+  }
 
-    when(iterator1.next()).thenReturn(row1);
-    when(iterator2.next()).thenReturn(row2);
-    when(iterator3.next()).thenReturn(row3);
+  @Test
+  public void testRateCalculateSum() {
+    List<Row> rows = new ArrayList<>();
+    rows.addAll(mockSeries("ts1"));
+    rows.addAll(mockSeries("ts2"));
+    rows.addAll(mockSeries("ts3"));
+
+    double nan = Double.NaN;
+    double[] expectedValues = {
+      nan, nan, (200.0 / 3) * 3, (300.0 / 3) * 3, (200.0 / 3) * 3, (400.0 / 3) * 3, nan, nan
+    };
+    assertArrayEquals(expectedValues, aggregate(rows).sum(), DELTA);
+  }
 
-    return allRS;
+  @Test
+  public void testRateCalculateAverage() {
+    List<Row> rows = new ArrayList<>();
+    rows.addAll(mockSeries("ts1"));
+    rows.addAll(mockSeries("ts2"));
+    rows.addAll(mockSeries("ts3"));
+
+    double nan = Double.NaN;
+    double[] expectedValues = {nan, nan, 200.0 / 3, 300.0 / 3, 200.0 / 3, 400.0 / 3, nan, nan};
+    assertArrayEquals(expectedValues, aggregate(rows).average(), DELTA);
   }
 
   @Test
-  public void testRateCalculateSum() throws Exception {
-    Long timeVal = 2323283232L;
-    Long interval = 30000L;
-    MockResultSet mockResultSet = new MockResultSet();
-    mockResultSet.times =
-        Arrays.asList(
-            new Date(timeVal),
-            new Date(timeVal - interval),
-            new Date(timeVal - interval * 2),
-            new Date(timeVal - interval * 3),
-            new Date(timeVal - interval * 4));
-    mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
-    mockResultSet.hasNexts =
-        Arrays.asList(true, true, true, true, true, true, true, true, true, false);
-
-    List<ResultSet> allRS =
-        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSet));
-
-    Map<Long, Double> expectedValues =
-        ImmutableMap.of(
-            2323163L, (200.0 / 3) * 3,
-            2323193L, (300.0 / 3) * 3,
-            2323223L, (200.0 / 3) * 3,
-            2323253L, (400.0 / 3) * 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Sum, 3));
+  public void testRateCalculateSumValsMissing() {
+    List<Row> rows = new ArrayList<>();
+    rows.addAll(mockSeries("ts1"));
+    rows.addAll(mockSeries("ts2"));
+    rows.addAll(
+        mockSeries(
+            METRIC,
+            "ts3",
+            new long[] {2323283L, 2323253L, 2323193L, 2323163L},
+            new long[] {16000L, 12000L, 7000L, 5000L}));
+
+    double nan = Double.NaN;
+    double[] expectedValues = {
+      nan, nan, (200.0 / 3) * 3, (300.0 / 3) * 2 + (500.0 / 6), (200.0 / 3) * 2, (400.0 / 3) * 3,
+      nan, nan
+    };
+    assertArrayEquals(expectedValues, aggregate(rows).sum(), DELTA);
   }
 
   @Test
-  public void testRateCalculateAverage() throws Exception {
-    Long timeVal = 2323283232L;
-    Long interval = 30000L;
-    MockResultSet mockResultSet = new MockResultSet();
-    mockResultSet.times =
-        Arrays.asList(
-            new Date(timeVal),
-            new Date(timeVal - interval),
-            new Date(timeVal - interval * 2),
-            new Date(timeVal - interval * 3),
-            new Date(timeVal - interval * 4));
-    mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
-    mockResultSet.hasNexts =
-        Arrays.asList(true, true, true, true, true, true, true, true, true, false);
-
-    List<ResultSet> allRS =
-        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSet));
-
-    Map<Long, Double> expectedValues =
-        ImmutableMap.of(
-            2323163L, 200.0 / 3,
-            2323193L, 300.0 / 3,
-            2323223L, 200.0 / 3,
-            2323253L, 400.0 / 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Average, 3));
+  public void testSingleScanMultipleMetrics() {
+    String sumMetric = "handler_latency_yb_tserver_TabletServerService_Read_sum";
+    List<Row> rows = new ArrayList<>();
+    rows.addAll(mockSeries("ts1"));
+    rows.addAll(
+        mockSeries(
+            sumMetric,
+            "ts1",
+            new long[] {2323283L, 2323253L, 2323223L, 2323193L, 2323163L},
+            new long[] {160000L, 120000L, 100000L, 70000L, 50000L}));
+    rows.add(mockRow("unknown_metric", "ts1", 2323283L, 1L));
+
+    Map<String, MetricBuckets> buckets = new HashMap<>();
+    buckets.put(METRIC, MetricBuckets.counter(START_SEC, END_SEC, STEP_SEC));
+    buckets.put(sumMetric, MetricBuckets.counter(START_SEC, END_SEC, STEP_SEC));
+    ybMetricQueryComponent.aggregate(rows, buckets);
+
+    double[] latencies =
+        MetricBuckets.divide(buckets.get(sumMetric).sum(), buckets.get(METRIC).sum());
+    double nan = Double.NaN;
+    assertArrayEquals(new double[] {nan, nan, 10, 10, 10, 10, nan, nan}, latencies, DELTA);
   }
 
   @Test
-  public void testRateCalculateSumValsMissing() {
-    Long timeVal = 2323283232L;
-    Long interval = 30000L;
-    MockResultSet mockResultSet = new MockResultSet();
-    MockResultSet mockResultSetMissing = new MockResultSet();
-    mockResultSet.times =
-        Arrays.asList(
-            new Date(timeVal),
-            new Date(timeVal - interval),
-            new Date(timeVal - interval * 2),
-            new Date(timeVal - interval * 3),
-            new Date(timeVal - interval * 4));
-    mockResultSetMissing.times =
-        Arrays.asList(
-            new Date(timeVal),
-            new Date(timeVal - interval),
-            new Date(timeVal - interval * 3),
-            new Date(timeVal - interval * 4));
-
-    mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
-    mockResultSetMissing.values = Arrays.asList(16000L, 12000L, 7000L, 5000L);
-
-    mockResultSet.hasNexts =
-        Arrays.asList(true, true, true, true, true, true, true, true, true, false);
-    mockResultSetMissing.hasNexts = Arrays.asList(true, true, true, true, true, true, true, false);
-
-    List<ResultSet> allRS =
-        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSetMissing));
-
-    Map<Long, Double> expectedValues =
-        ImmutableMap.of(
-            2323163L, (200.0 / 3) * 3,
-            2323193L, (300.0 / 3) * 2 + (500.0 / 6),
-            2323223L, (200.0 / 3) * 2,
-            2323253L, (400.0 / 3) * 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Sum, 3));
+  public void testGaugeAverage() {
+    String metric = "total_disk";
+    List<Row> rows = new ArrayList<>();
+    rows.addAll(
+        mockSeries(
+            metric,
+            "ts1",
+            new long[] {2323110L, 2323100L, 2323090L},
+            new long[] {6000L, 4000L, 2000L}));
+    rows.addAll(mockSeries(metric, "ts2", new long[] {2323090L}, new long[] {8000L}));
+
+    Map<String, MetricBuckets> buckets =
+        Collections.singletonMap(metric, MetricBuckets.gauge(START_SEC, END_SEC, STEP_SEC, 1000));
+    ybMetricQueryComponent.aggregate(rows, buckets);
+
+    // Samples of a tserver within a step are averaged, then aggregated across the tservers.
+    double[] expectedSum = new double[8];
+    Arrays.fill(expectedSum, Double.NaN);
+    expectedSum[0] = (4 + 2) / 2.0 + 8;
+    expectedSum[1] = 6;
+    assertArrayEquals(expectedSum, buckets.get(metric).sum(), DELTA);
   }
 }
@@ -15,6 +15,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 import play.libs.Json;
 import play.mvc.Http;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -75,7 +77,7 @@ public class AuditTest extends FakeDBApplication {
   @Test
   public void testCreateAuditEntry() {
     auditService.createAuditEntry(context, request);
-    List<Audit> entries = Audit.getAll(customer.uuid);
+    List<Audit> entries = Audit.getCustomerEntries(customer.uuid, null, 10);
     assertEquals(entries.size(), 1);
     assertEquals(entries.get(0).getUserUUID(), user.uuid);
     assertEquals(entries.get(0).getApiCall(), "/api/customer/test/universe/test");
@@ -89,7 +91,7 @@ public class AuditTest extends FakeDBApplication {
   public void testCreateAuditEntryWithTaskUUID() {
     UUID randUUID = UUID.randomUUID();
     auditService.createAuditEntry(context, request, randUUID);
-    List<Audit> entries = Audit.getAll(customer.uuid);
+    List<Audit> entries = Audit.getCustomerEntries(customer.uuid, null, 10);
     assertEquals(entries.size(), 1);
     assertEquals(entries.get(0).getUserUUID(), user.uuid);
     assertEquals(entries.get(0).getApiCall(), "/api/customer/test/universe/test");
@@ -112,7 +114,7 @@ public class AuditTest extends FakeDBApplication {
         basePayload.deepCopy().put("password", SECRET_REPLACEMENT).set("child", expectedChildNode);
 
     auditService.createAuditEntry(context, request, testPayload);
-    List<Audit> entries = Audit.getAll(customer.uuid);
+    List<Audit> entries = Audit.getCustomerEntries(customer.uuid, null, 10);
     assertEquals(entries.size(), 1);
     assertEquals(entries.get(0).getUserUUID(), user.uuid);
     assertEquals(entries.get(0).getApiCall(), "/api/customer/test/universe/test");
@@ -127,7 +129,7 @@ public class AuditTest extends FakeDBApplication {
     UUID randUUID = UUID.randomUUID();
     ObjectNode testPayload = Json.newObject().put("foo", "bar").put("abc", "xyz");
     auditService.createAuditEntry(context, request, testPayload, randUUID);
-    List<Audit> entries = Audit.getAll(customer.uuid);
+    List<Audit> entries = Audit.getCustomerEntries(customer.uuid, null, 10);
     assertEquals(entries.size(), 1);
     assertEquals(entries.get(0).getUserUUID(), user.uuid);
     assertEquals(entries.get(0).getApiCall(), "/api/customer/test/universe/test");
@@ -138,13 +140,22 @@ public class AuditTest extends FakeDBApplication {
   }
 
   @Test
-  public void testGetAll() {
-    UUID randUUID = UUID.randomUUID();
-    UUID randUUID1 = UUID.randomUUID();
-    createEntry(randUUID, user);
-    createEntry(randUUID1, user);
-    List<Audit> entries = Audit.getAll(customer.uuid);
-    assertEquals(entries.size(), 2);
+  public void testGetCustomerEntries() {
+    Audit oldest = createEntry(UUID.randomUUID(), user);
+    Audit middle = createEntry(UUID.randomUUID(), user);
+    Audit newest = createEntry(UUID.randomUUID(), user);
+    Customer otherCustomer = ModelFactory.testCustomer("tc2", "Test Customer 2");
+    Users otherUser = ModelFactory.testUser(otherCustomer, "foo@foo.com");
+    createEntry(UUID.randomUUID(), otherUser);
+
+    List<Audit> entries = Audit.getCustomerEntries(customer.uuid, null, 2);
+    assertEquals(2, entries.size());
+    assertEquals(newest.getAuditID(), entries.get(0).getAuditID());
+    assertEquals(middle.getAuditID(), entries.get(1).getAuditID());
+
+    entries = Audit.getCustomerEntries(customer.uuid, middle.getAuditID(), 2);
+    assertEquals(1, entries.size());
+    assertEquals(oldest.getAuditID(), entries.get(0).getAuditID());
   }
 
   @Test
@@ -171,4 +182,27 @@ public class AuditTest extends FakeDBApplication {
     assertEquals(entries.size(), 2);
     assertEquals(entries1.size(), 1);
   }
+
+  @Test
+  public void testGetUserEntriesPaged() {
+    Users u1 = Users.create("foo@foo.com", "password", Role.Admin, customer.uuid);
+    Audit oldest = createEntry(UUID.randomUUID(), u1);
+    createEntry(UUID.randomUUID(), user);
+    Audit middle = createEntry(UUID.randomUUID(), u1);
+    Audit newest = createEntry(UUID.randomUUID(), u1);
+
+    List<Audit> page = Audit.getUserEntries(u1.uuid, null, 2);
+    assertEquals(2, page.size());
+    assertEquals(newest.getAuditID(), page.get(0).getAuditID());
+    assertEquals(middle.getAuditID(), page.get(1).getAuditID());
+
+    page = Audit.getUserEntries(u1.uuid, middle.getAuditID(), 2);
+    assertEquals(1, page.size());
+    assertEquals(oldest.getAuditID(), page.get(0).getAuditID());
+
+    List<Long> iterated = new ArrayList<>();
+    Audit.iterateUserEntries(u1.uuid).forEachRemaining(entry -> iterated.add(entry.getAuditID()));
+    assertEquals(
+        Arrays.asList(newest.getAuditID(), middle.getAuditID(), oldest.getAuditID()), iterated);
+  }
 }
@@ -0,0 +1,100 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.queries;
+
+import static com.yugabyte.yw.common.ModelFactory.createUniverse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.yugabyte.yw.common.ApiUtils;
+import com.yugabyte.yw.common.FakeDBApplication;
+import com.yugabyte.yw.common.ModelFactory;
+import com.yugabyte.yw.models.Customer;
+import com.yugabyte.yw.models.Universe;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import play.Application;
+import play.libs.Json;
+
+public class QueryHelperTest extends FakeDBApplication {
+
+  private static final long NODE_TIMEOUT_MS = 1000;
+
+  private QueryHelper queryHelper;
+  private Universe universe;
+
+  @Override
+  protected Application provideApplication() {
+    return provideApplication(ImmutableMap.of(QueryHelper.NODE_TIMEOUT_PARAM, NODE_TIMEOUT_MS));
+  }
+
+  @Before
+  public void setUp() {
+    Customer customer = ModelFactory.testCustomer();
+    universe = createUniverse(customer.getCustomerId());
+    universe = Universe.saveDetails(universe.universeUUID, ApiUtils.mockUniverseUpdater());
+    queryHelper = app.injector().instanceOf(QueryHelper.class);
+  }
+
+  // Response of the YSQL /rpcz endpoint of a node with one running query.
+  private JsonNode ysqlRpcz() {
+    ObjectNode connection = Json.newObject();
+    connection.put("db_name", "yugabyte");
+    connection.put("query", "select 1");
+    connection.put("backend_type", "client backend");
+    connection.put("backend_status", "active");
+    ObjectNode response = Json.newObject();
+    response.putArray("connections").add(connection);
+    return response;
+  }
+
+  @Test
+  public void testLiveQueriesMerged() {
+    when(mockApiHelper.getRequest(anyString(), any(Duration.class)))
+        .thenAnswer(
+            invocation -> {
+              String url = invocation.getArgument(0);
+              return url.endsWith(":13000/rpcz") ? ysqlRpcz() : Json.newObject();
+            });
+
+    JsonNode result = queryHelper.liveQueries(universe);
+    int numNodes = universe.getNodes().size();
+    assertEquals(numNodes, result.get("ysql").get("queries").size());
+    assertEquals(0, result.get("ysql").get("errorCount").asInt());
+    assertFalse(result.get("ysql").has("incomplete"));
+    assertEquals(0, result.get("ycql").get("queries").size());
+    assertEquals(0, result.get("ycql").get("errorCount").asInt());
+  }
+
+  @Test
+  public void testSlowNodeLeftOut() {
+    when(mockApiHelper.getRequest(anyString(), any(Duration.class)))
+        .thenAnswer(
+            invocation -> {
+              String url = invocation.getArgument(0);
+              if (url.startsWith("http://host-n1:")) {
+                Thread.sleep(NODE_TIMEOUT_MS * 10);
+              }
+              return url.endsWith(":13000/rpcz") ? ysqlRpcz() : Json.newObject();
+            });
+
+    long startMs = System.currentTimeMillis();
+    JsonNode result = queryHelper.liveQueries(universe);
+    assertTrue(System.currentTimeMillis() - startMs < NODE_TIMEOUT_MS * 5);
+
+    int numNodes = universe.getNodes().size();
+    assertEquals(numNodes - 1, result.get("ysql").get("queries").size());
+    assertEquals(1, result.get("ysql").get("errorCount").asInt());
+    assertTrue(result.get("ysql").get("incomplete").asBoolean());
+    assertEquals(1, result.get("ycql").get("errorCount").asInt());
+    assertTrue(result.get("ycql").get("incomplete").asBoolean());
+  }
+}